@@ -11,10 +11,10 @@ import it.univr.di.cstnu.algorithms.STN.STNCheckStatus;
 import it.univr.di.cstnu.graph.*;
 import it.univr.di.cstnu.graph.Edge.ConstraintType;
 import it.univr.di.cstnu.util.ObjectArrayFIFOSetQueue;
-import it.univr.di.cstnu.visualization.CSTNUStaticLayout;
 import it.univr.di.labeledvalue.AbstractLabeledIntMap;
 import it.univr.di.labeledvalue.Constants;
 import it.univr.di.labeledvalue.Label;
+import it.univr.di.labeledvalue.LabeledValueSpillStore;
 import org.kohsuke.args4j.*;
 
 import javax.annotation.Nonnull;
@@ -90,6 +90,10 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 	 */
 	public static class CSTNCheckStatus extends STNCheckStatus {
 
+		/**
+		 * Counters #negative loops found by the concurrent verification of {@link CSTNPotential}.
+		 */
+		public int concurrentNegativeLoops;
 		/**
 		 * Counters #applications of label propagation rule
 		 */
@@ -117,6 +121,7 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 			r3calls = 0;
 			labeledValuePropagationCalls = 0;
 			potentialUpdate = 0;
+			concurrentNegativeLoops = 0;
 		}
 
 		@Override
@@ -142,6 +147,9 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 			sb.append("Rule Labeled Propagation has been applied ").append(labeledValuePropagationCalls)
 				.append(" times.\n");
 			sb.append("Potentials updated ").append(potentialUpdate).append(" times.\n");
+			if (concurrentNegativeLoops > 0) {
+				sb.append("Negative loops found by the concurrent verification: ").append(concurrentNegativeLoops).append(".\n");
+			}
 			if (timeout) {
 				sb.append("Checking has been interrupted because execution time exceeds the given time limit.\n");
 			}
@@ -445,6 +453,119 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 		 */
 	}
 
+	/**
+	 * Labeled values of edges that have not been combined yet by a node-centric propagation (see
+	 * {@link CSTN#oneStepDynamicConsistencyByNodes(NodesToCheck, NewLabeledValues, EdgesToCheck, java.time.Instant)}).
+	 * <p>
+	 * A triangle A⟶B⟶C is considered only when its middle node B is processed. Therefore, a new value of an edge X⟶Y
+	 * has to be combined two times: as first edge when Y is processed and as second edge when X is processed. For each
+	 * edge, two maps of new values are maintained, and each one is emptied by the corresponding node. In this way,
+	 * when a node is processed, only the new (label, value) pairs of its in/out edges are combined with the other edge
+	 * (semi-naive evaluation), instead of all pairs of the modified edges.
+	 *
+	 * @param <E> Type of edge
+	 *
+	 * @author posenato
+	 */
+	public static class NewLabeledValues<E extends CSTNEdge> {
+		/**
+		 * New values of an edge that its destination node has not combined yet.
+		 */
+		private final Reference2ObjectOpenHashMap<E, Object2IntOpenHashMap<Label>> asFirstEdge =
+			new Reference2ObjectOpenHashMap<>();
+		/**
+		 * New values of an edge that its source node has not combined yet.
+		 */
+		private final Reference2ObjectOpenHashMap<E, Object2IntOpenHashMap<Label>> asSecondEdge =
+			new Reference2ObjectOpenHashMap<>();
+
+		/**
+		 * Adds all the labeled values of e as new values.
+		 *
+		 * @param e the edge
+		 */
+		public void addAll(@Nonnull E e) {
+			for (final Object2IntMap.Entry<Label> entry : e.getLabeledValueSet()) {
+				put(e, entry.getKey(), entry.getIntValue());
+			}
+		}
+
+		/**
+		 * Adds the labeled values of e that are not present with the same value in old.
+		 *
+		 * @param e   the edge after a modification
+		 * @param old a copy of the edge before the modification. If null, all values of e are new.
+		 *
+		 * @return true if at least a new value has been added.
+		 */
+		public boolean addNew(@Nonnull E e, @Nullable E old) {
+			boolean added = false;
+			for (final Object2IntMap.Entry<Label> entry : e.getLabeledValueSet()) {
+				final int v = entry.getIntValue();
+				if (old != null && old.getValue(entry.getKey()) == v) {
+					continue;
+				}
+				put(e, entry.getKey(), v);
+				added = true;
+			}
+			return added;
+		}
+
+		/**
+		 * Removes all new values.
+		 */
+		public void clear() {
+			asFirstEdge.clear();
+			asSecondEdge.clear();
+		}
+
+		/**
+		 * @return true if there is no new value to combine.
+		 */
+		public boolean isEmpty() {
+			return asFirstEdge.isEmpty() && asSecondEdge.isEmpty();
+		}
+
+		/**
+		 * Removes and returns the new values of e to combine as first edge, i.e., when its destination node is
+		 * processed.
+		 *
+		 * @param e the edge
+		 *
+		 * @return the new values, null if there is no new value.
+		 */
+		@Nullable
+		public ObjectSet<Object2IntMap.Entry<Label>> takeAsFirstEdge(@Nonnull E e) {
+			final Object2IntOpenHashMap<Label> values = asFirstEdge.remove(e);
+			return (values == null) ? null : values.object2IntEntrySet();
+		}
+
+		/**
+		 * Removes and returns the new values of e to combine as second edge, i.e., when its source node is processed.
+		 *
+		 * @param e the edge
+		 *
+		 * @return the new values, null if there is no new value.
+		 */
+		@Nullable
+		public ObjectSet<Object2IntMap.Entry<Label>> takeAsSecondEdge(@Nonnull E e) {
+			final Object2IntOpenHashMap<Label> values = asSecondEdge.remove(e);
+			return (values == null) ? null : values.object2IntEntrySet();
+		}
+
+		/**
+		 * Adds (l, v) as new value of e in both maps. If l is already present, the minimum value is kept.
+		 *
+		 * @param e the edge
+		 * @param l the label
+		 * @param v the value
+		 */
+		private void put(E e, Label l, int v) {
+			asFirstEdge.computeIfAbsent(e, k -> new Object2IntOpenHashMap<>()).mergeInt(l, v, Math::min);
+			asSecondEdge.computeIfAbsent(e, k -> new Object2IntOpenHashMap<>()).mergeInt(l, v, Math::min);
+		}
+	}
+
 	/**
 	 * Horizon value. A node that has to be executed after such time means that it has not to be executed!
 	 */
@@ -468,12 +589,50 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 	 */
 	@Option(name = "-r", aliases = "--reactionTime", usage = "Reaction time. It must be >= 0.")
 	int reactionTime = 1;
+	/**
+	 * DC semantics assumed by the rules. It is resolved into the following rule thresholds by {@link #resolveSemantics()} at the beginning of
+	 * {@link #coreCSTNInitAndCheck()}, so that the rule conditions are final methods that only compare primitive fields and the JIT can inline
+	 * them whatever the subclass is.
+	 */
+	DCSemantics dcSemantics = DCSemantics.Std;
+	/**
+	 * R0/qR0 is not applied to a value w &ge; r0SkipThreshold (Table 1 and 2 ICAPS 2016 paper).
+	 */
+	int r0SkipThreshold = 1;
+	/**
+	 * R3/qR3 is not applied to a value w &gt; r3SkipThreshold, and neither to w == r3SkipThreshold towards Z when {@link #r3SkipEqualToZ} is true.
+	 */
+	int r3SkipThreshold;
+	/**
+	 * See {@link #r3SkipThreshold}.
+	 */
+	boolean r3SkipEqualToZ = true;
+	/**
+	 * Amount subtracted to the finite value of the edge from the observation node in R3/qR3 before the max.
+	 */
+	int r3ObsShift;
+	/**
+	 * LP is restricted to consistent labels when u &ge; lpConsistentThreshold and, if {@link #lpConsistentOnlyIfVNegative} is true, v &lt; 0.
+	 */
+	int lpConsistentThreshold = 1;
+	/**
+	 * See {@link #lpConsistentThreshold}.
+	 */
+	boolean lpConsistentOnlyIfVNegative;
 	/**
 	 * Timeout in seconds for the check.
 	 */
 	@Option(name = "-t", aliases = "--timeOut", usage = "Timeout in seconds for the check", metaVar = "seconds")
 	int timeOut = 2700;
 
+	/**
+	 * Maximum number of upper/lower-case labeled values kept in the heap (see {@link LabeledValueSpillStore}).
+	 */
+	@Option(name = "--heapBudget", usage =
+		"Maximum number of upper/lower-case labeled values kept in the heap. The least recently used ones are spilled into a temporary file. " +
+		"0 means no limit.", metaVar = "nValues")
+	long heapBudget;
+
 	/**
 	 * Determines the minimal distance between all pair of vertexes modifying the given consistent graph. If the graph
 	 * contains a negative cycle, it returns false and the graph contains the edge that has determined the found
@@ -742,9 +901,7 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 	 * @see #getGChecked()
 	 */
 	public String getGCheckedAsGraphML() {
-		final TNGraph<E> g1 = getGChecked();
-		final TNGraphMLWriter graphWriter = new TNGraphMLWriter(new CSTNUStaticLayout<>(g1));
-		return graphWriter.save(g1);
+		return new TNGraphMLStreamWriter().save(getGChecked());
 	}
 
 	/**
@@ -814,6 +971,15 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 		return reactionTime;
 	}
 
+	/**
+	 * Getter for the field {@code dcSemantics}.
+	 *
+	 * @return the DC semantics assumed by the check.
+	 */
+	public DCSemantics getDCSemantics() {
+		return dcSemantics;
+	}
+
 	/**
 	 * Setter for the field {@code propagationOnlyToZ}.
 	 *
@@ -887,10 +1053,8 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 		g1.setName(fOutput.getName());
 		g1.removeEmptyEdges();
 
-		final CSTNUStaticLayout<E> layout = new CSTNUStaticLayout<>(g1);
-		final TNGraphMLWriter graphWriter = new TNGraphMLWriter(layout);
 		try {
-			graphWriter.save(g1, fOutput);
+			new TNGraphMLStreamWriter().save(g1, fOutput);
 		} catch (IOException e) {
 			System.err.println("It is not possible to save the result. File " + fOutput + " cannot be created: "
 			                   + e.getMessage() + ". Computation continues.");
@@ -1271,34 +1435,78 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 	}
 
 	/**
-	 * Returns true if {@link CSTN#labelModificationR0qR0} method has to not apply.<br> Overriding this method it is
-	 * possible implement the different semantics in the {@link CSTN#labelModificationR0qR0} method.
+	 * Returns true if {@link CSTN#labelModificationR0qR0} method has to not apply.<br> The condition depends on the DC
+	 * semantics resolved by {@link #resolveSemantics()}.
 	 *
 	 * @param w value
 	 *
 	 * @return true if the rule has to not apply.
 	 */
-	@SuppressWarnings("static-method")
-	boolean mainConditionForSkippingInR0qR0(final int w) {
-		// Table 1 ICAPS paper for standard DC
-		// w must be <= 0 for applying the rule.
-		return w > 0;
+	final boolean mainConditionForSkippingInR0qR0(final int w) {
+		// Table 1 ICAPS2016 paper for standard (w must be <= 0) and IR (w must be < 0) DC, Table 2 for epsilon DC (w must be < epsilon).
+		return w >= r0SkipThreshold;
 	}
 
 	/**
-	 * Returns true if {@link CSTN#labelModificationR3qR3} method has to not apply.<br> Overriding this method it is
-	 * possible implement the different semantics in the {@link CSTN#labelModificationR3qR3} method.
+	 * Returns true if {@link CSTN#labelModificationR3qR3} method has to not apply.<br> The condition depends on the DC
+	 * semantics resolved by {@link #resolveSemantics()}.
 	 *
 	 * @param w  value
 	 * @param nD destination node
 	 *
 	 * @return true if the rule has to not apply
 	 */
-	boolean mainConditionForSkippingInR3qR3(final int w, final LabeledNode nD) {
-		// Table 1 ICAPS paper for standard DC
+	final boolean mainConditionForSkippingInR3qR3(final int w, final LabeledNode nD) {
+		// Table 1 ICAPS paper for standard and IR DC
 		// When nD==Z, it is possible to skip the rule even when w==0 because the value on the other edge, v, can be negative or 0 at most (it cannot be v>0
 		// because nD==Z). Then, the max == 0, and the resulting constraint is already represented by the fact that any nodes is after or at Z in any scenario.
-		return w > 0 || (w == 0 && nD == g.getZ());
+		// Table 2 ICAPS for epsilon semantics: w > epsilon ((w > 0 && nD==Z) is not added because w is always <=0 when nD==Z).
+		return w > r3SkipThreshold || (r3SkipEqualToZ && w == r3SkipThreshold && nD == g.getZ());
+	}
+
+	/**
+	 * Resolves {@link #dcSemantics} into the thresholds used by {@link #mainConditionForSkippingInR0qR0(int)},
+	 * {@link #mainConditionForSkippingInR3qR3(int, LabeledNode)}, {@link #newValueInR3qR3(int, int)}, and
+	 * {@link CSTN#lpMustRestricted2ConsistentLabel(int, int)}.<br> The ε of ε-semantics is {@link #reactionTime}.
+	 */
+	void resolveSemantics() {
+		resolveSemantics(dcSemantics, reactionTime);
+	}
+
+	/**
+	 * Sets {@link #dcSemantics} and the corresponding rule thresholds.
+	 *
+	 * @param semantics the DC semantics
+	 * @param epsilon   the reaction time of ε-semantics. It is ignored for the other semantics.
+	 */
+	final void resolveSemantics(@Nonnull DCSemantics semantics, int epsilon) {
+		dcSemantics = semantics;
+		switch (semantics) {
+			case Std -> {
+				r0SkipThreshold = 1;
+				r3SkipThreshold = 0;
+				r3SkipEqualToZ = true;
+				r3ObsShift = 0;
+				lpConsistentThreshold = 1;
+				lpConsistentOnlyIfVNegative = false;
+			}
+			case IR -> {
+				r0SkipThreshold = 0;
+				r3SkipThreshold = 0;
+				r3SkipEqualToZ = true;
+				r3ObsShift = 0;
+				lpConsistentThreshold = 0;
+				lpConsistentOnlyIfVNegative = false;
+			}
+			case ε -> {
+				r0SkipThreshold = epsilon;
+				r3SkipThreshold = epsilon;
+				r3SkipEqualToZ = false;
+				r3ObsShift = epsilon;
+				lpConsistentThreshold = epsilon;
+				lpConsistentOnlyIfVNegative = true;
+			}
+		}
 	}
 
 	/**
@@ -1476,6 +1684,7 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 				LOG.log(Level.FINE, "Starting initial well definition check.");
 			}
 		}
+		resolveSemantics();
 		g.clearCache();
 		gCheckedCleaned = null;
 
@@ -1852,19 +2061,19 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 	/**
 	 * Determines the new value that rules R3 and qR3 (see Table 1 in ICAPS 2016 paper) must add. In general, it is
 	 * {@code max(edgeValue, obsEdgeValue)}, but it depends on the DC semantics.<br> For example, in case of ɛ-DC, the
-	 * obsEdgeValue should be adjusted subtracting ɛ before comparison. Overriding this method allows the customization
-	 * of {@link CSTN#labelModificationR3qR3(LabeledNode, LabeledNode, CSTNEdge)} according to the semantics that must
-	 * be applied.
+	 * obsEdgeValue is adjusted subtracting ɛ before comparison (see {@link #r3ObsShift}).
 	 *
 	 * @param obsEdgeValue value
 	 * @param edgeValue    value
 	 *
 	 * @return the max between the two values.
 	 */
-	@SuppressWarnings("static-method")
-	int newValueInR3qR3(final int edgeValue, final int obsEdgeValue) {
-		// Table 1 ICAPS2016 paper for standard and IR DC
-		return Math.max(edgeValue, obsEdgeValue);
+	final int newValueInR3qR3(final int edgeValue, final int obsEdgeValue) {
+		// Table 1 ICAPS2016 paper for standard and IR DC, Table 2 for epsilon DC.
+		if (r3ObsShift == 0 || obsEdgeValue == Constants.INT_NEG_INFINITE || obsEdgeValue == Constants.INT_POS_INFINITE) {
+			return Math.max(edgeValue, obsEdgeValue);
+		}
+		return Math.max(edgeValue, obsEdgeValue - r3ObsShift);
 	}
 
 	/**
@@ -1996,6 +2205,11 @@ public abstract class AbstractCSTN<E extends CSTNEdge> {
 				throw new CmdLineException(parser, "Input file does not exist.");
 			}
 
+			if (heapBudget < 0) {
+				throw new CmdLineException(parser, "The heap budget cannot be negative.");
+			}
+			LabeledValueSpillStore.setHeapBudget(heapBudget);
+
 			if (fOutput != null) {
 				setfOutput(fOutput);
 				// try {
@@ -4,6 +4,7 @@
 package it.univr.di.cstnu.algorithms;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
@@ -13,8 +14,10 @@ import it.univr.di.cstnu.graph.Edge.ConstraintType;
 import it.univr.di.labeledvalue.Constants;
 import it.univr.di.labeledvalue.Label;
 import it.univr.di.labeledvalue.Literal;
+import org.kohsuke.args4j.Option;
 import org.xml.sax.SAXException;
 
+import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.time.Duration;
@@ -77,6 +80,14 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 
 	static private final Logger LOG = Logger.getLogger(CSTN.class.getName());
 
+	/**
+	 * If true, {@link #dynamicConsistencyCheck()} propagates node by node combining only the labeled values added
+	 * since the last visit of each node (see
+	 * {@link #oneStepDynamicConsistencyByNodes(NodesToCheck, NewLabeledValues, EdgesToCheck, Instant)}).
+	 */
+	@Option(name = "-byNodes", usage = "Propagate node by node combining only the labeled values added since the last visit of the node.")
+	boolean propagationByNodes;
+
 	/**
 	 * Initialize the CSTN using graph.<br> For saving the resulting graph in a file during/after a check, field
 	 * {@link #fOutput} must be set. Setting {@link #fInput} instead of {@link #fOutput}, the name of output file is
@@ -185,6 +196,15 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 		}
 	}
 
+	/**
+	 * Setter for the field {@code propagationByNodes}.
+	 *
+	 * @param propagationByNodes1 true if the check has to propagate node by node combining only new labeled values.
+	 */
+	public void setPropagationByNodes(boolean propagationByNodes1) {
+		propagationByNodes = propagationByNodes1;
+	}
+
 	/**
 	 *
 	 */
@@ -511,6 +531,18 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 				"TNGraph<E> has not been initialized! Please, consider dynamicConsistencyCheck() method!");
 		}
 		final EdgesToCheck<CSTNEdge> edgesToCheck = new EdgesToCheck<>(g.getEdges());
+		final NodesToCheck nodesToCheck;
+		final NewLabeledValues<CSTNEdge> newValues;
+		if (propagationByNodes) {
+			nodesToCheck = new NodesToCheck(g.getVertices());
+			newValues = new NewLabeledValues<>();
+			for (final CSTNEdge e : g.getEdges()) {
+				newValues.addAll(e);
+			}
+		} else {
+			nodesToCheck = null;
+			newValues = null;
+		}
 		final int propositionN = g.getObserverCount();
 		final int nodeN = g.getVertexCount();
 		final int m = (getMaxWeight() != 0) ? getMaxWeight() : 1;
@@ -534,7 +566,9 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 				}
 			}
 
-			if (propagationOnlyToZ) {
+			if (propagationByNodes) {
+				oneStepDynamicConsistencyByNodes(nodesToCheck, newValues, edgesToCheck, timeoutInstant);
+			} else if (propagationOnlyToZ) {
 				oneStepDynamicConsistencyByEdgesLimitedToZ(edgesToCheck, timeoutInstant);
 			} else {
 				oneStepDynamicConsistencyByEdges(edgesToCheck, timeoutInstant);// Don't use 'this.' because such
@@ -654,11 +688,33 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 	 *
 	 * @return true if a reduction has been applied.
 	 */
+	boolean labelPropagation(final LabeledNode nA,
+	                         final LabeledNode nB, final LabeledNode nC, final CSTNEdge eAB, final CSTNEdge eBC,
+	                         CSTNEdge eAC) {
+		return labelPropagation(nA, nB, nC, eAB, eBC, eAC, null, null);
+	}
+
+	/**
+	 * Applies the labeled propagation rule (see {@link #labelPropagation(LabeledNode, LabeledNode, LabeledNode, CSTNEdge, CSTNEdge, CSTNEdge)})
+	 * combining only the given labeled values of eAB and/or eBC.
+	 *
+	 * @param nA          first node.
+	 * @param nB          second node.
+	 * @param nC          third node.
+	 * @param eAB         edge nA⟶nB
+	 * @param eBC         edge nB⟶nC
+	 * @param eAC         edge nA⟶nC
+	 * @param newABValues the labeled values of eAB to combine. If null, all values of eAB are combined.
+	 * @param newBCValues the labeled values of eBC to combine. If null, all values of eBC are combined.
+	 *
+	 * @return true if a reduction has been applied.
+	 */
 	@edu.umd.cs.findbugs.annotations.SuppressFBWarnings(value = "DLS_DEAD_LOCAL_STORE",
 		justification = "I know what I'm doing")
 	boolean labelPropagation(final LabeledNode nA,
 	                         final LabeledNode nB, final LabeledNode nC, final CSTNEdge eAB, final CSTNEdge eBC,
-	                         CSTNEdge eAC) {
+	                         CSTNEdge eAC, @Nullable ObjectSet<Object2IntMap.Entry<Label>> newABValues,
+	                         @Nullable ObjectSet<Object2IntMap.Entry<Label>> newBCValues) {
 		// * Be careful, in order to propagate correctly possibly -∞ self-loop, it is necessary call this method also for triple like with nodes A == B or B==C!
 		// Visibility is package because there is Junit Class test that checks this method.
 
@@ -679,10 +735,11 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 		final ObjectSet<Object2IntMap.Entry<Label>> setToReuse = new ObjectArraySet<>();
 		String firstLog = "Labeled Propagation Rule considers edges " + eAB.getName() + ", " + eBC.getName() + " for "
 		                  + eAC.getName();
-		for (final Object2IntMap.Entry<Label> ABEntry : eAB.getLabeledValueSet()) {
+		for (final Object2IntMap.Entry<Label> ABEntry : (newABValues != null) ? newABValues : eAB.getLabeledValueSet()) {
 			final Label labelAB = ABEntry.getKey();
 			final int u = ABEntry.getIntValue();
-			for (final Object2IntMap.Entry<Label> BCEntry : eBC.getLabeledValueSet(setToReuse)) {
+			for (final Object2IntMap.Entry<Label> BCEntry : (newBCValues != null) ? newBCValues
+			                                                                      : eBC.getLabeledValueSet(setToReuse)) {
 				final int v = BCEntry.getIntValue();
 				int sum = Constants.sumWithOverflowCheck(u, v);
 				if (sum > 0) {
@@ -805,19 +862,19 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 	}
 
 	/**
-	 * Returns true if label propagation rule (for example, {@link CSTN#labelPropagation} method) has to apply only for consistent labels.<br> Overriding this
-	 * method it is possible implement the different semantics in the {@link CSTN#labelPropagation} method.
+	 * Returns true if label propagation rule (for example, {@link CSTN#labelPropagation} method) has to apply only for consistent labels.<br> The
+	 * condition depends on the DC semantics resolved by {@link #resolveSemantics()}.
 	 *
 	 * @param u value
 	 * @param v value
 	 *
 	 * @return true if the rule has to be applied only when the resulting label does not contain unknown literals.
 	 */
-	@SuppressWarnings("static-method")
-	boolean lpMustRestricted2ConsistentLabel(final int u, final int v) {
+	final boolean lpMustRestricted2ConsistentLabel(final int u, final int v) {
 		// Table 1 2016 ICAPS paper for standard DC extended with rules on page 6 of file noteAboutLP.tex
 		// Moreover, Luke and I verified on 2018-11-22 that with u≤0, qLP+ can be applied.
-		return u > 0;
+		// IR DC: u >= 0; epsilon DC: u >= epsilon && v < 0.
+		return u >= lpConsistentThreshold && (!lpConsistentOnlyIfVNegative || v < 0);
 	}
 
 	/**
@@ -1167,4 +1224,171 @@ public class CSTN extends AbstractCSTN<CSTNEdge> {
 		}
 		return checkStatus;
 	}
+
+	/**
+	 * Executes one step of the dynamic consistency check propagating node by node.<br> First, rules R0 and R3 are
+	 * applied to the edges in edgesToCheck till a stable state, as in
+	 * {@link #oneStepDynamicConsistencyByEdges(EdgesToCheck, Instant)}. Then, each node B in nodesToCheck is considered
+	 * as middle node of the triangles A⟶B⟶C and the labeled propagation rule combines the new values of each A⟶B
+	 * with all values of B⟶C and all values of A⟶B with the new values of B⟶C (semi-naive evaluation). If
+	 * {@link #propagationOnlyToZ} is true, C is only Z.<br> The values that are added to the edges are recorded in
+	 * newValues, the end points of the modified edges are added to nodesToCheck, and the modified edges are added to
+	 * edgesToCheck for the R0 and R3 application of the next step.
+	 *
+	 * @param nodesToCheck   nodes to consider as middle node of triangles.
+	 * @param newValues      values not yet combined.
+	 * @param edgesToCheck   edges to which apply R0 and R3.
+	 * @param timeoutInstant time instant limit allowed to the computation.
+	 *
+	 * @return the update status (it is for convenience. It is not necessary because return the same parameter status).
+	 */
+	@SuppressWarnings("UnusedReturnValue")
+	CSTNCheckStatus oneStepDynamicConsistencyByNodes(final NodesToCheck nodesToCheck,
+	                                                 final NewLabeledValues<CSTNEdge> newValues,
+	                                                 final EdgesToCheck<CSTNEdge> edgesToCheck, Instant timeoutInstant) {
+		LabeledNode A, B, C;
+		CSTNEdge AC, edgeCopy;
+
+		checkStatus.cycles++;
+
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINE)) {
+				LOG.log(Level.FINE, "*** Starting of application labeled propagation rule+R0+R3 by nodes.");
+			}
+		}
+		final LabeledNode Z = g.getZ();
+		// Find a stable state using R0 e R3.
+		final EdgesToCheck<CSTNEdge> newEdgesToCheckR0R3 = new EdgesToCheck<>();
+		while (edgesToCheck.size() != 0) {
+			for (final CSTNEdge AB : edgesToCheck) {
+				A = g.getSource(AB);
+				B = g.getDest(AB);
+				assert A != null;
+				if (propagationOnlyToZ && B != Z) {
+					continue;
+				}
+				edgeCopy = g.getEdgeFactory().get(AB);
+				if (A.isObserver()) {
+					labelModificationR0qR0(A, B, AB);
+				}
+				labelModificationR3qR3(A, B, AB);
+				if (newValues.addNew(AB, edgeCopy)) {
+					newEdgesToCheckR0R3.add(AB, A, B, Z, g, propagationOnlyToZ);
+					nodesToCheck.enqueue(A);
+					nodesToCheck.enqueue(B);
+				}
+				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+					return checkStatus;
+				}
+			}
+			edgesToCheck.clear();
+			edgesToCheck.addAll(newEdgesToCheckR0R3.edgesToCheck);
+			newEdgesToCheckR0R3.clear();
+		}
+
+		// Nodes added during this step are considered in the next one.
+		final ObjectArrayList<ObjectSet<Object2IntMap.Entry<Label>>> newInValues = new ObjectArrayList<>();
+		final ObjectArrayList<ObjectSet<Object2IntMap.Entry<Label>>> newOutValues = new ObjectArrayList<>();
+		final ObjectArrayList<CSTNEdge> outEdges = new ObjectArrayList<>();
+		for (int n = nodesToCheck.size(); n > 0; n--) {
+			B = nodesToCheck.dequeue();
+			final ObjectList<CSTNEdge> inEdges = g.getInEdges(B);
+			newInValues.clear();
+			boolean anyNew = false;
+			for (final CSTNEdge AB : inEdges) {
+				final ObjectSet<Object2IntMap.Entry<Label>> newAB = newValues.takeAsFirstEdge(AB);
+				newInValues.add(newAB);
+				anyNew |= newAB != null;
+			}
+			newOutValues.clear();
+			outEdges.clear();
+			for (final CSTNEdge BC : g.getOutEdges(B)) {
+				// the new values of B⟶C, C != Z, are never combined as second edge when propagationOnlyToZ is true.
+				final ObjectSet<Object2IntMap.Entry<Label>> newBC = newValues.takeAsSecondEdge(BC);
+				if (propagationOnlyToZ && g.getDest(BC) != Z) {
+					continue;
+				}
+				outEdges.add(BC);
+				newOutValues.add(newBC);
+				anyNew |= newBC != null;
+			}
+			if (!anyNew) {
+				continue;
+			}
+			if (Debug.ON) {
+				if (LOG.isLoggable(Level.FINER)) {
+					LOG.log(Level.FINER, "*** LP: considering node " + B.getName());
+				}
+			}
+			for (int i = 0; i < inEdges.size(); i++) {
+				final CSTNEdge AB = inEdges.get(i);
+				final ObjectSet<Object2IntMap.Entry<Label>> newAB = newInValues.get(i);
+				A = g.getSource(AB);
+				assert A != null;
+				for (int j = 0; j < outEdges.size(); j++) {
+					final ObjectSet<Object2IntMap.Entry<Label>> newBC = newOutValues.get(j);
+					if (newAB == null && newBC == null) {
+						continue;
+					}
+					final CSTNEdge BC = outEdges.get(j);
+					C = g.getDest(BC);
+					assert C != null;
+					// It is necessary to consider also self loop to store first negative loop.
+
+					AC = g.findEdge(A, C);
+					// I need to preserve the old edge to compare below
+					if (AC != null) {
+						edgeCopy = g.getEdgeFactory().get(AC);
+					} else {
+						AC = makeNewEdge(A.getName() + "_" + C.getName(), CSTNEdge.ConstraintType.derived);
+						edgeCopy = null;
+					}
+
+					if (newAB != null) {
+						labelPropagation(A, B, C, AB, BC, AC, newAB, null);
+					}
+					if (newBC != null && checkStatus.consistency) {
+						labelPropagation(A, B, C, AB, BC, AC, null, newBC);
+					}
+
+					final boolean edgeModified;
+					if (edgeCopy == null && !AC.isEmpty()) {
+						// the new AC has to be added to the graph!
+						g.addEdge(AC, A, C);
+						edgeModified = true;
+					} else {
+						// AC was already present and it has been changed!
+						edgeModified = (edgeCopy != null && !edgeCopy.hasSameValues(AC));
+					}
+
+					if (edgeModified) {
+						if (!propagationOnlyToZ) {
+							applyR0R3(AC, A, C);
+						}
+						newValues.addNew(AC, edgeCopy);
+						edgesToCheck.add(AC, A, C, Z, g, propagationOnlyToZ);
+						nodesToCheck.enqueue(A);
+						nodesToCheck.enqueue(C);
+					}
+
+					if (!checkStatus.consistency) {
+						checkStatus.finished = true;
+						return checkStatus;
+					}
+					if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+						return checkStatus;
+					}
+				}
+			}
+		}
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINE)) {
+				LOG.log(Level.FINE, "End application labeled propagation rule+R0+R3 by nodes.");
+			}
+		}
+
+		// check the halt conditions
+		checkStatus.finished = nodesToCheck.isEmpty() && edgesToCheck.size() == 0;
+		return checkStatus;
+	}
 }
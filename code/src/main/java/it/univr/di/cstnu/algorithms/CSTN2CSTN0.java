@@ -93,8 +93,6 @@ public class CSTN2CSTN0 extends CSTNEpsilonwoNodeLabels {
 
 		initAndCheck();
 
-		final TNGraph<CSTNEdge> nextGraph = new TNGraph<>(g, g.getEdgeImplClass());
-		nextGraph.setName("Next tNGraph");
 		final CSTNCheckStatus status = new CSTNCheckStatus();
 
 		final Instant startInstant = Instant.now();
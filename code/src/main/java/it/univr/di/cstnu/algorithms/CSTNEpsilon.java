@@ -5,9 +5,7 @@
 package it.univr.di.cstnu.algorithms;
 
 import it.univr.di.cstnu.graph.CSTNEdge;
-import it.univr.di.cstnu.graph.LabeledNode;
 import it.univr.di.cstnu.graph.TNGraph;
-import it.univr.di.labeledvalue.Constants;
 import org.kohsuke.args4j.Option;
 import org.xml.sax.SAXException;
 
@@ -66,12 +64,14 @@ public class CSTNEpsilon extends CSTN {
 		}
 		epsilon = reactionTime1;
 		reactionTime = reactionTime1;
+		dcSemantics = DCSemantics.ε;
 	}
 
 	/**
 	 * Default constructor. Label optimization.
 	 */
 	CSTNEpsilon() {
+		dcSemantics = DCSemantics.ε;
 	}
 
 	/**
@@ -96,43 +96,10 @@ public class CSTNEpsilon extends CSTN {
 	}
 
 	/**
-	 *
-	 */
-	@Override
-	boolean lpMustRestricted2ConsistentLabel(final int u, final int v) {
-		// Table 1 ICAPS paper for standard DC
-		return u >= epsilon && v < 0;
-	}
-
-	/**
-	 *
-	 */
-	@Override
-	final boolean mainConditionForSkippingInR0qR0(final int w) {
-		// Table 2 ICAPS2016 paper for epsilon semantics
-		return w >= epsilon;
-	}
-
-	/**
-	 *
-	 */
-	@Override
-	final boolean mainConditionForSkippingInR3qR3(final int w, final LabeledNode nD) {
-		// Table 2 ICAPS for epsilon semantics
-		// (w > 0 && nD==Z) is not added because w is always <=0 when nD==Z.
-		return w > epsilon;
-	}
-
-
-	/**
-	 * According to Table 2 paper ICAPS16, it returns {@code max(edgeValue, obsEdgeValue-ɛ)}.
+	 * ε-semantics with {@link #epsilon} as reaction time.
 	 */
 	@Override
-	final int newValueInR3qR3(final int edgeValue, final int obsEdgeValue) {
-		// Table 2 ICAPS2016.
-		final int w1 = (obsEdgeValue == Constants.INT_NEG_INFINITE || obsEdgeValue == Constants.INT_POS_INFINITE)
-		               ? obsEdgeValue : obsEdgeValue - epsilon;
-		return Math.max(edgeValue, w1);
+	void resolveSemantics() {
+		resolveSemantics(DCSemantics.ε, epsilon);
 	}
-
 }
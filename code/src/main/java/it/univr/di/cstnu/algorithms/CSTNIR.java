@@ -36,6 +36,7 @@ public class CSTNIR extends CSTN {
 	public CSTNIR(TNGraph<CSTNEdge> g1) {
 		super(g1);
 		reactionTime = 0;
+		dcSemantics = DCSemantics.IR;
 	}
 
 	/**
@@ -45,6 +46,7 @@ public class CSTNIR extends CSTN {
 	public CSTNIR(TNGraph<CSTNEdge> g1, int timeOut1) {
 		super(g1, timeOut1);
 		reactionTime = 0;
+		dcSemantics = DCSemantics.IR;
 	}
 
 	/**
@@ -52,6 +54,7 @@ public class CSTNIR extends CSTN {
 	 */
 	CSTNIR() {
 		reactionTime = 0;
+		dcSemantics = DCSemantics.IR;
 	}
 
 	/**
@@ -66,26 +69,4 @@ public class CSTNIR extends CSTN {
 	public static void main(final String[] args) throws IOException, ParserConfigurationException, SAXException {
 		defaultMain(args, new CSTNIR3R(), "Instantaneous Reaction DC");
 	}
-
-	/**
-	 *
-	 */
-	@Override
-	boolean lpMustRestricted2ConsistentLabel(final int u, final int v) {
-		// Table 1 ICAPS paper for standard DC
-		// u must be < 0
-		return u >= 0;
-	}
-
-	/**
-	 *
-	 */
-	@SuppressWarnings("FinalMethod")
-	@Override
-	final boolean mainConditionForSkippingInR0qR0(final int w) {
-		// Table 1 ICAPS2016 paper for IR semantics
-		// w must be < 0.
-		return w >= 0;
-	}
-
 }
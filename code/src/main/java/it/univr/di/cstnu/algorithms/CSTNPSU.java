@@ -4,6 +4,8 @@
 package it.univr.di.cstnu.algorithms;
 
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap.Entry;
 import it.unimi.dsi.fastutil.objects.*;
 import it.univr.di.Debug;
@@ -13,6 +15,7 @@ import it.univr.di.cstnu.graph.Edge.ConstraintType;
 import it.univr.di.cstnu.visualization.CSTNUStaticLayout;
 import it.univr.di.labeledvalue.*;
 import it.univr.di.labeledvalue.ALabelAlphabet.ALetter;
+import org.kohsuke.args4j.Option;
 import org.xml.sax.SAXException;
 
 import javax.annotation.Nonnull;
@@ -22,6 +25,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -46,6 +50,13 @@ import java.util.logging.Logger;
  * computational time. {@link #getPrototypalLink()} starts executing a DC checking that minimizes the constraint bounds
  * and, then, builds the contingency graph for determining the PrototypalLink. So, it requires more time.
  * </p>
+ * <p>
+ * If {@link #incrementalPrototypalLink} is true, {@link #getPrototypalLink()} called after a check that found the
+ * network controllable does not check the network again: it propagates only the constraints making Ω the last node,
+ * minimizes only the bounds of the edges incident to nodes whose edges with Z have been modified after the last
+ * minimization, and determines the contingency span from the contingency edges without building the contingency
+ * graph.
+ * </p>
  *
  * @author Roberto Posenato
  * @version $Rev: 850 $
@@ -199,6 +210,118 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		}
 	}
 
+	/**
+	 * Edges of the contingency graph of a network (see {@link #getContingencyGraph()}) between the nodes of the
+	 * network.
+	 * <p>
+	 * A node is represented by its int id, i.e., its position in {@link #node}, and an edge by the ids of its
+	 * end-points and a {@link CSTNEdge} containing its labeled values. In this way, the contingency span can be
+	 * determined without copying the nodes into a new graph.
+	 *
+	 * @author posenato
+	 */
+	static final class ContingencyEdges {
+		/**
+		 * Node of each id.
+		 */
+		final LabeledNode[] node;
+		/**
+		 * Id of each node.
+		 */
+		final Object2IntOpenHashMap<LabeledNode> nodeId;
+		/**
+		 * Source id of each edge.
+		 */
+		final IntArrayList source;
+		/**
+		 * Destination id of each edge.
+		 */
+		final IntArrayList dest;
+		/**
+		 * Labeled values of each edge.
+		 */
+		final ObjectArrayList<CSTNEdge> edge;
+		/**
+		 * Map (source id, destination id) --&gt; edge position.
+		 */
+		private final Long2IntOpenHashMap edgePosition;
+		/**
+		 * Factory of new edges.
+		 */
+		private final EdgeSupplier<CSTNEdge> edgeFactory;
+
+		/**
+		 * @param nodes the nodes of the contingency graph. The id of a node is its position in the collection.
+		 */
+		ContingencyEdges(@Nonnull Collection<LabeledNode> nodes) {
+			node = nodes.toArray(new LabeledNode[0]);
+			nodeId = new Object2IntOpenHashMap<>(node.length);
+			nodeId.defaultReturnValue(-1);
+			for (int i = 0; i < node.length; i++) {
+				nodeId.put(node[i], i);
+			}
+			source = new IntArrayList();
+			dest = new IntArrayList();
+			edge = new ObjectArrayList<>();
+			edgePosition = new Long2IntOpenHashMap();
+			edgePosition.defaultReturnValue(-1);
+			edgeFactory = new EdgeSupplier<>(EdgeSupplier.DEFAULT_CSTN_EDGE_CLASS);
+		}
+
+		/**
+		 * @param first  first id
+		 * @param second second id
+		 *
+		 * @return the long key representing the pair of ids.
+		 */
+		private static long key(int first, int second) {
+			return ((long) first << 32) | (second & 0xFFFFFFFFL);
+		}
+
+		/**
+		 * Adds the edge {@code e} from {@code s} to {@code d}.
+		 *
+		 * @param s source node
+		 * @param d destination node
+		 * @param e the edge
+		 *
+		 * @throws IllegalArgumentException if there is already an edge from s to d.
+		 */
+		void add(@Nonnull LabeledNode s, @Nonnull LabeledNode d, @Nonnull CSTNEdge e) {
+			final int sId = nodeId.getInt(s);
+			final int dId = nodeId.getInt(d);
+			if (edgePosition.putIfAbsent(key(sId, dId), edge.size()) != -1) {
+				throw new IllegalArgumentException("There is already an edge between " + s + " and " + d + ".");
+			}
+			source.add(sId);
+			dest.add(dId);
+			edge.add(e);
+		}
+
+		/**
+		 * @param s source node
+		 * @param d destination node
+		 *
+		 * @return the edge from s to d, a new empty edge if it was not present.
+		 */
+		CSTNEdge get(@Nonnull LabeledNode s, @Nonnull LabeledNode d) {
+			final int position = edgePosition.get(key(nodeId.getInt(s), nodeId.getInt(d)));
+			if (position >= 0) {
+				return edge.get(position);
+			}
+			final CSTNEdge e = edgeFactory.get(s.getName() + "_" + d.getName());
+			add(s, d, e);
+			return e;
+		}
+
+		/**
+		 * @return the number of edges.
+		 */
+		int size() {
+			return edge.size();
+		}
+	}
+
 	/**
 	 * Version of the class
 	 */
@@ -300,35 +423,52 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 			return Constants.INT_NULL;
 		}
 		final LabeledNode Z = contingencyGraph.getNode(ZERO_NODE_NAME);
+		final ContingencyEdges contingencyEdges = new ContingencyEdges(contingencyGraph.getVertices());
+		for (final CSTNEdge edge : contingencyGraph.getEdges()) {
+			contingencyEdges.add(Objects.requireNonNull(contingencyGraph.getSource(edge)),
+			                     Objects.requireNonNull(contingencyGraph.getDest(edge)), edge);
+		}
+		return getMaxPathContingencySpan(contingencyEdges, omega, Objects.requireNonNull(Z));
+	}
 
+	/**
+	 * Returns the labeled path contingency span of node {@code omega} in the contingency graph represented by
+	 * {@code contingencyEdges}.
+	 *
+	 * @param contingencyEdges the edges of the contingency graph
+	 * @param omega            the wanted node
+	 * @param Z                the zero node
+	 *
+	 * @return the labeled path contingency span of node {@code omega}.
+	 */
+	static int getMaxPathContingencySpan(ContingencyEdges contingencyEdges, LabeledNode omega, LabeledNode Z) {
 		// This method implements an extension of the BellamFord algorithm to find the labeled distances of all nodes from node Z.
 		// The extension consists in the fact that for each node there are different distances according to the different scenarios.
-		final Object2ObjectMap<LabeledNode, LabeledIntMap> distancesFromZ = new Object2ObjectOpenHashMap<>();
+		final int n = contingencyEdges.node.length;
+		final LabeledIntMap[] distancesFromZ = new LabeledIntMap[n];
 
 		// initialization
 		// All distances from Z are infinite.
-		for (final LabeledNode node : contingencyGraph.getVertices()) {
-			final LabeledIntMap map =
-				(new LabeledIntMapSupplier<>(LabeledIntMapSupplier.DEFAULT_LABELEDINTMAP_CLASS).get());
+		final LabeledIntMapSupplier<? extends LabeledIntMap> mapFactory =
+			new LabeledIntMapSupplier<>(LabeledIntMapSupplier.DEFAULT_LABELEDINTMAP_CLASS);
+		for (int node = 0; node < n; node++) {
+			final LabeledIntMap map = mapFactory.get();
 			map.put(Label.emptyLabel, Constants.INT_POS_INFINITE);
-			distancesFromZ.put(node, map);
-		}
-		distancesFromZ.get(Z).put(Label.emptyLabel, 0);
-		if (Debug.ON) {
-			if (LOG.isLoggable(Level.FINER)) {
-				LOG.finer("distancesFromZ: " + distancesFromZ);
-			}
-		}
-
-		final int n = contingencyGraph.getVertexCount();
-		// n-1 cycles for determining the distances from Z
-		for (int i = 1; i < n; i++) {
-			for (final CSTNEdge edge : contingencyGraph.getEdges()) {
-				final LabeledNode source = contingencyGraph.getSource(edge);
-				final LabeledNode dest = contingencyGraph.getDest(edge);
-				for (final Entry<Label> edgeEntry : edge.getLabeledValueSet()) {
+			distancesFromZ[node] = map;
+		}
+		distancesFromZ[contingencyEdges.nodeId.getInt(Z)].put(Label.emptyLabel, 0);
+
+		final int m = contingencyEdges.size();
+		// n-1 cycles for determining the distances from Z. A cycle that does not modify any distance makes the following ones useless.
+		boolean modified = true;
+		for (int i = 1; i < n && modified; i++) {
+			modified = false;
+			for (int e = 0; e < m; e++) {
+				final LabeledIntMap sourceDistances = distancesFromZ[contingencyEdges.source.getInt(e)];
+				final LabeledIntMap destDistances = distancesFromZ[contingencyEdges.dest.getInt(e)];
+				for (final Entry<Label> edgeEntry : contingencyEdges.edge.get(e).getLabeledValueSet()) {
 					final Label alpha = edgeEntry.getKey();
-					for (final Entry<Label> nodeEntry : distancesFromZ.get(source).entrySet()) {
+					for (final Entry<Label> nodeEntry : sourceDistances.entrySet()) {
 						final Label beta = edgeEntry.getKey();
 						final Label gamma = alpha.conjunction(beta);
 						if (gamma == null) {
@@ -344,20 +484,21 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 						}
 
 						final int newD = Constants.sumWithOverflowCheck(a, b);
-						final boolean added = distancesFromZ.get(dest).put(gamma, newD);
+						final boolean added = destDistances.put(gamma, newD);
 						if (added) {
+							modified = true;
 							if (Debug.ON) {
 								if (LOG.isLoggable(Level.FINER)) {
-									LOG.finer("Added to " + dest + " distances the value " + pairAsString(gamma, newD));
+									LOG.finer("Added to " + contingencyEdges.node[contingencyEdges.dest.getInt(e)] +
+									          " distances the value " + pairAsString(gamma, newD));
 								}
 							}
 						}
 					}
 				}
-
 			}
 		}
-		final int contingency = -distancesFromZ.get(omega).getMinValue();
+		final int contingency = -distancesFromZ[contingencyEdges.nodeId.getInt(omega)].getMinValue();
 		if (Debug.ON) {
 			if (LOG.isLoggable(Level.FINER)) {
 				LOG.finer("The contingency is " + contingency);
@@ -704,6 +845,25 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 	 * Cache of the prototypal link
 	 */
 	PrototypalLink prototypalLink;
+	/**
+	 * If true, a controllable network remains stable after the check (see {@link #stableToZ}), and
+	 * {@link #getPrototypalLink()} propagates only the constraints it adds instead of checking the network again.
+	 * Moreover, bounds are minimized only for the edges having an end-point whose edges with Z have been modified
+	 * after the last minimization, and the contingency span is determined without building the contingency graph.
+	 */
+	@Option(name = "-incrementalPrototypalLink", usage =
+		"Determine the prototypal link propagating only the constraints added to the checked network.")
+	boolean incrementalPrototypalLink;
+	/**
+	 * Nodes whose edges to/from Z have been modified after the last bound minimization. Used only when
+	 * {@link #incrementalPrototypalLink} is true.
+	 */
+	ObjectSet<LabeledNode> nodesToMinimize;
+	/**
+	 * True if the last check found the network controllable, and it has not been modified afterward. Used only when
+	 * {@link #incrementalPrototypalLink} is true.
+	 */
+	boolean stableToZ;
 
 	/**
 	 * Helper constructor for CSTNPSU.
@@ -755,6 +915,7 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		reactionTime = 0;// IR semantics
 		propagationOnlyToZ = false;
 		prototypalLink = null;
+		nodesToMinimize = new ObjectOpenHashSet<>();
 	}
 
 	/**
@@ -1148,7 +1309,33 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		final EdgesToCheck<CSTNPSUEdge> edgesToCheck = new EdgesToCheck<>();
 		edgesToCheck.addAll(g.getInEdges(Z));
 		edgesToCheck.addAll(g.getOutEdges(Z));
+		if (incrementalPrototypalLink) {
+			nodesToMinimize.addAll(g.getVertices());
+		}
 
+		return propagateAndMinimize(edgesToCheck, startInstant, timeoutInstant);
+	}
+
+	/**
+	 * Applies the rules to the edges in {@code edgesToCheck} and to the ones they modify until the network is stable and, then, if
+	 * {@link #propagationOnlyToZ} is false, minimizes the bounds of the edges not incident to Z.
+	 * <p>
+	 * If {@link #incrementalPrototypalLink} is true, the end-points of the edges modified by the rules are collected in {@link #nodesToMinimize},
+	 * only the edges having an end-point in such a set are minimized, and the network is marked as stable (see {@link #stableToZ}) when it is
+	 * controllable.
+	 *
+	 * @param edgesToCheck   edges to check. The network must be initialized, and the end-points of the edges modified before this call must be
+	 *                       already in {@link #nodesToMinimize}.
+	 * @param startInstant   start of the check
+	 * @param timeoutInstant time instant limit allowed to the computation.
+	 *
+	 * @return the status of the check.
+	 */
+	private CSTNUCheckStatus propagateAndMinimize(final EdgesToCheck<CSTNPSUEdge> edgesToCheck, Instant startInstant,
+	                                              final Instant timeoutInstant) {
+		final LabeledNode Z = g.getZ();
+		assert Z != null;
+		stableToZ = false;
 		final int n = g.getVertexCount();
 		int k = g.getContingentNodeCount();
 		if (k == 0) {
@@ -1179,6 +1366,13 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 			}
 
 			checkStatus = oneStepDynamicControllabilityLimitedToZ(edgesToCheck, timeoutInstant);
+			if (incrementalPrototypalLink) {
+				// edgesToCheck contains the edges modified by the step
+				for (final CSTNPSUEdge e : edgesToCheck) {
+					nodesToMinimize.add(g.getSource(e));
+					nodesToMinimize.add(g.getDest(e));
+				}
+			}
 
 			if (!checkStatus.finished) {
 				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
@@ -1251,8 +1445,41 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 				        " over the maximum allowed " + maxCycles + ".\nStatus: " + checkStatus);
 			}
 		}
+		stableToZ = incrementalPrototypalLink;
 		// minimize the requirement link if requested
-		if (!propagationOnlyToZ) {
+		if (!propagationOnlyToZ && incrementalPrototypalLink) {
+			startInstant = Instant.now();
+			if (Debug.ON) {
+				if (LOG.isLoggable(Level.FINER)) {
+					LOG.finer("Minimizing bounds of the edges incident to the " + nodesToMinimize.size() +
+					          " nodes whose edges with Z have been modified.");
+				}
+			}
+			for (final LabeledNode node : nodesToMinimize) {
+				if (node == Z) {
+					continue;
+				}
+				final CSTNPSUEdge nodeZ = g.findEdge(node, Z);// always present by initAndCheck()
+				final CSTNPSUEdge Znode = g.findEdge(Z, node); // always present by addUpperBounds()
+				for (final ObjectObjectImmutablePair<CSTNPSUEdge, LabeledNode> edgeNode : g.getOutEdgesAndNodes(node)) {
+					final LabeledNode dest = edgeNode.right();
+					if (dest == Z) {
+						continue;
+					}
+					rUpdateBoundsUsingZ(node, Z, dest, nodeZ, g.findEdge(Z, dest), edgeNode.left());
+				}
+				for (final ObjectObjectImmutablePair<CSTNPSUEdge, LabeledNode> edgeNode : g.getInEdgesAndNodes(node)) {
+					final LabeledNode source = edgeNode.right();
+					if (source == Z || nodesToMinimize.contains(source)) {
+						continue;// an edge between two collected nodes has been already minimized as out edge.
+					}
+					rUpdateBoundsUsingZ(source, Z, node, g.findEdge(source, Z), Znode, edgeNode.left());
+				}
+			}
+			nodesToMinimize.clear();
+			endInstant = Instant.now();
+			checkStatus.partialExecutionTimeNS = Duration.between(startInstant, endInstant).toNanos();
+		} else if (!propagationOnlyToZ) {
 			startInstant = Instant.now();
 			if (Debug.ON) {
 				LOG.finer("Minimizing bounds of original edges of the network.");
@@ -1288,6 +1515,29 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		return ((CSTNUCheckStatus) checkStatus);
 	}
 
+	/**
+	 * @return true if {@link #getPrototypalLink()} propagates only the constraints it adds to a network found
+	 * 	controllable by the last check.
+	 */
+	public boolean isIncrementalPrototypalLink() {
+		return incrementalPrototypalLink;
+	}
+
+	/**
+	 * Sets the mode of {@link #getPrototypalLink()}. If true, a network found controllable by a check is kept stable,
+	 * and {@link #getPrototypalLink()} propagates only the constraints it adds, minimizes only the bounds that can be
+	 * modified, and determines the contingency span without building the contingency graph.
+	 * <p>
+	 * The mode has to be set before the check.
+	 *
+	 * @param incrementalPrototypalLink1 true for the incremental mode
+	 */
+	public void setIncrementalPrototypalLink(boolean incrementalPrototypalLink1) {
+		incrementalPrototypalLink = incrementalPrototypalLink1;
+		stableToZ = false;
+		nodesToMinimize.clear();
+	}
+
 	/**
 	 * The contingency graph is a labeled graph for determining the contingency value of each node. Once the contingency
 	 * graph is built, the contingency value of a node is determined using a modified BellmanFord algorithm, implemented
@@ -1300,8 +1550,8 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 	 */
 	@Nullable
 	public TNGraph<CSTNEdge> getContingencyGraph() {
-		final CSTNUCheckStatus dcStatus = getCheckStatus();
-		if (dcStatus.finished && !dcStatus.isControllable()) {
+		final ContingencyEdges contingencyEdges = getContingencyEdges();
+		if (contingencyEdges == null) {
 			return null;
 		}
 		final TNGraph<CSTNEdge> contingencyGraph = new TNGraph<>("", CSTNEdgePluggable.class);
@@ -1309,21 +1559,44 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		if (Debug.ON) {
 			LOG.finer("Starting to build contingency graph.");
 		}
-		for (final LabeledNode node : g.getVertices()) {
-			contingencyGraph.addVertex(new LabeledNode(node));
+		final LabeledNode[] nodeInContingencyGraph = new LabeledNode[contingencyEdges.node.length];
+		for (int i = 0; i < nodeInContingencyGraph.length; i++) {
+			nodeInContingencyGraph[i] = new LabeledNode(contingencyEdges.node[i]);
+			contingencyGraph.addVertex(nodeInContingencyGraph[i]);
+		}
+		contingencyGraph.setZ(contingencyGraph.getNode(ZERO_NODE_NAME));
+		for (int e = 0; e < contingencyEdges.size(); e++) {
+			contingencyGraph.addEdge(contingencyEdges.edge.get(e), nodeInContingencyGraph[contingencyEdges.source.getInt(e)],
+			                         nodeInContingencyGraph[contingencyEdges.dest.getInt(e)]);
 		}
-		final LabeledNode ZinContingencyGraph = contingencyGraph.getNode(ZERO_NODE_NAME);
-		contingencyGraph.setZ(ZinContingencyGraph);
-		final EdgeSupplier<CSTNEdge> edgeFactory = new EdgeSupplier<>(EdgeSupplier.DEFAULT_CSTN_EDGE_CLASS);
+		if (Debug.ON) {
+			LOG.finer("Contingency graph built.");
+		}
+		return contingencyGraph;
+	}
+
+	/**
+	 * Determines the edges of the contingency graph (see {@link #getContingencyGraph()}) between the nodes of the
+	 * current network.
+	 *
+	 * @return the edges of the contingency graph, null if this current network is not checked or not controllable.
+	 */
+	@Nullable
+	ContingencyEdges getContingencyEdges() {
+		final CSTNUCheckStatus dcStatus = getCheckStatus();
+		if (dcStatus.finished && !dcStatus.isControllable()) {
+			return null;
+		}
+		final ContingencyEdges contingencyEdges = new ContingencyEdges(g.getVertices());
+		final LabeledNode Z = g.getZ();
 		// edges
-		// For each guarded link A--[x, x′][y′, y]-->B ∈ G, in the contingency graph there is a single edge A--⟨x'-y', ⊡⟩-->B.
+		// For each guarded link A--[x, x′][y′, y]-->B ∈ G, in the contingency graph there is a single edge A--⟨x'-y', ⊡⟩-->B.
 		// For each requirement link A--[x,y],α-->B, in the contingency graph there are two edges A--⟨y-x,α⟩-->B, and B--⟨y-x,α⟩-->A.
 		// For each time-point T ∈ T , in the contingency graph there is a single edge Z--⟨0,⊡⟩-->T.
 		// Consider only original links, not the derived.
 		final ObjectSet<CSTNPSUEdge> alreadyChecked = new ObjectLinkedOpenHashSet<>();
 		int x, y;
 		for (final CSTNPSUEdge edge : g.getEdges()) {
-			boolean newEdge = false, newCompanion = false;
 			final ConstraintType type = edge.getConstraintType();
 			if (type == ConstraintType.derived || alreadyChecked.contains(edge)) {
 				continue;
@@ -1333,11 +1606,6 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 			final CSTNPSUEdge edgeCompanion = g.findEdge(d, s);
 			assert s != null;
 			assert d != null;
-			CSTNEdge edgeInConsistencyGraph = contingencyGraph.findEdge(s.getName(), d.getName());
-			if (edgeInConsistencyGraph == null) {
-				edgeInConsistencyGraph = edgeFactory.get(s.getName() + "_" + d.getName());
-				newEdge = true;
-			}
 			if (type == ConstraintType.contingent) {
 				if (edgeCompanion == null) {
 					throw new IllegalStateException(
@@ -1363,10 +1631,7 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 					                                d);
 				}
 				y = entry.getValue().getIntValue();
-				edgeInConsistencyGraph.mergeLabeledValue(Label.emptyLabel, Constants.sumWithOverflowCheck(x, y));
-				contingencyGraph.addEdge(edgeInConsistencyGraph,
-				                         Objects.requireNonNull(contingencyGraph.getNode(s.getName())),
-				                         Objects.requireNonNull(contingencyGraph.getNode(d.getName())));
+				contingencyEdges.get(s, d).mergeLabeledValue(Label.emptyLabel, Constants.sumWithOverflowCheck(x, y));
 				alreadyChecked.add(edgeCompanion);
 				alreadyChecked.add(edge);
 			}
@@ -1389,11 +1654,8 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 				}
 
 				int delta;
-				CSTNEdge companionEdgeInConsistencyGraph = contingencyGraph.findEdge(d.getName(), s.getName());
-				if (companionEdgeInConsistencyGraph == null) {
-					companionEdgeInConsistencyGraph = edgeFactory.get(d.getName() + "_" + s.getName());
-					newCompanion = true;
-				}
+				final CSTNEdge edgeInConsistencyGraph = contingencyEdges.get(s, d);
+				final CSTNEdge companionEdgeInConsistencyGraph = contingencyEdges.get(d, s);
 				for (final Entry<Label> entry : edge.getLabeledValueSet()) {
 					x = entry.getIntValue();
 					if (x <= 0) {
@@ -1427,35 +1689,16 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 					// continue;
 					// }
 				}
-				if (newEdge) {
-					contingencyGraph.addEdge(edgeInConsistencyGraph,
-					                         Objects.requireNonNull(contingencyGraph.getNode(s.getName())),
-					                         Objects.requireNonNull(contingencyGraph.getNode(d.getName())));
-				}
-				if (newCompanion) {
-					contingencyGraph.addEdge(companionEdgeInConsistencyGraph,
-					                         Objects.requireNonNull(contingencyGraph.getNode(d.getName())),
-					                         Objects.requireNonNull(contingencyGraph.getNode(s.getName())));
-				}
 			}
 		}
 		// add edges from Z
-		for (final LabeledNode node : contingencyGraph.getVertices()) {
-			if (node == ZinContingencyGraph) {
+		for (final LabeledNode node : contingencyEdges.node) {
+			if (node == Z) {
 				continue;
 			}
-			CSTNEdge edgeZNode = contingencyGraph.findEdge(ZinContingencyGraph, node);
-			if (edgeZNode == null) {
-				assert ZinContingencyGraph != null;
-				edgeZNode = edgeFactory.get(ZinContingencyGraph.getName() + "_" + node.getName());
-				contingencyGraph.addEdge(edgeZNode, ZinContingencyGraph, node);
-			}
-			edgeZNode.mergeLabeledValue(Label.emptyLabel, 0);
-		}
-		if (Debug.ON) {
-			LOG.finer("Contingency graph built.");
+			contingencyEdges.get(Objects.requireNonNull(Z), node).mergeLabeledValue(Label.emptyLabel, 0);
 		}
-		return contingencyGraph;
+		return contingencyEdges;
 	}
 
 	/**
@@ -1474,6 +1717,11 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 	 * <p>
 	 * It sets {@link #propagationOnlyToZ} to false because prototypal lik need all constraints minimized.
 	 * </p>
+	 * <p>
+	 * If {@link #incrementalPrototypalLink} is true and the last check found the network controllable, only the
+	 * constraints added for making Ω the last node are propagated. If Ω is added, its upper bound is the horizon of
+	 * the last check recomputed for the new number of nodes.
+	 * </p>
 	 *
 	 * @return the prototypal link if the network is DC, null otherwise.
 	 *
@@ -1492,11 +1740,32 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		if (Debug.ON) {
 			LOG.finer("Making Ω the last node");
 		}
+		final LabeledNode Z = g.getZ();
 		LabeledNode Omega = g.getNode("Ω");
+		// If the network is stable, only the constraints added here have to be propagated.
+		final boolean incremental = incrementalPrototypalLink && stableToZ &&
+		                            (Omega == null || (g.findEdge(Omega, Z) != null && g.findEdge(Z, Omega) != null));
+		final EdgesToCheck<CSTNPSUEdge> edgesToCheck = new EdgesToCheck<>();
 		if (Omega == null) {
 			// node Ω does not exist, add it
 			Omega = new LabeledNode("Ω");
 			g.addVertex(Omega);
+			if (incremental) {
+				// as initAndCheck() does, Ω has to be after Z and before the horizon.
+				assert Z != null;
+				final long product = ((long) maxWeight) * (g.getVertexCount() - 1);// Z doesn't count!
+				if (product >= Constants.INT_POS_INFINITE) {
+					throw new ArithmeticException("Horizon value is not representable by an integer.");
+				}
+				horizon = (int) product;
+				final CSTNPSUEdge eOmegaZ = makeNewEdge("Ω_" + Z.getName(), ConstraintType.internal);
+				eOmegaZ.mergeLabeledValue(Label.emptyLabel, 0);
+				g.addEdge(eOmegaZ, Omega, Z);
+				final CSTNPSUEdge eZOmega = makeNewEdge(Z.getName() + "_Ω", ConstraintType.internal);
+				eZOmega.mergeLabeledValue(Label.emptyLabel, horizon);
+				g.addEdge(eZOmega, Z, Omega);
+				edgesToCheck.add(eOmegaZ, Omega, Z, Z, g, true);
+			}
 		}
 		// Make sure that E is the last node
 		if (Debug.ON) {
@@ -1511,11 +1780,35 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 				eOmegaX = makeNewEdge("Ω_" + X.getName(), ConstraintType.derived);
 				g.addEdge(eOmegaX, Omega, X);
 			}
-			eOmegaX.mergeLabeledValue(Label.emptyLabel, 0);
+			if (eOmegaX.mergeLabeledValue(Label.emptyLabel, 0) && incremental) {
+				// Ω-->X-->Z and Z-->Ω-->X are the only new pairs of edges the rules can be applied to.
+				nodesToMinimize.add(Omega);
+				assert Z != null;
+				if (X == Z) {
+					edgesToCheck.add(eOmegaX, Omega, Z, Z, g, true);
+					continue;
+				}
+				final CSTNPSUEdge eXZ = g.findEdge(X, Z);
+				if (eXZ != null) {
+					edgesToCheck.add(eXZ, X, Z, Z, g, true);
+				}
+				edgesToCheck.add(Objects.requireNonNull(g.findEdge(Z, Omega)), Z, Omega, Z, g, true);
+			}
 		}
 
 		propagationOnlyToZ = false;//getPrototypalLink requires to have all constraints minimized.
-		final CSTNUCheckStatus status = dynamicControllabilityCheck();
+		final CSTNUCheckStatus status;
+		if (incremental) {
+			if (Debug.ON) {
+				if (LOG.isLoggable(Level.FINER)) {
+					LOG.finer("The network is stable. Propagating only the " + edgesToCheck.size() + " edges modified by Ω.");
+				}
+			}
+			final Instant startInstant = Instant.now();
+			status = propagateAndMinimize(edgesToCheck, startInstant, startInstant.plusSeconds(timeOut));
+		} else {
+			status = dynamicControllabilityCheck();
+		}
 		if (status.finished && !status.isControllable()) {
 			return null;
 		}
@@ -1583,8 +1876,16 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 			}
 		}
 
-		final TNGraph<CSTNEdge> contingencyGraph = getContingencyGraph();
-		final int c = getMaxPathContingencySpanInContingencyGraph("Ω", contingencyGraph);
+		final int c;
+		if (incrementalPrototypalLink) {
+			final ContingencyEdges contingencyEdges = getContingencyEdges();
+			c = (contingencyEdges == null) ? Constants.INT_NULL
+			                               : getMaxPathContingencySpan(contingencyEdges, Omega,
+			                                                           Objects.requireNonNull(g.getZ()));
+		} else {
+			final TNGraph<CSTNEdge> contingencyGraph = getContingencyGraph();
+			c = getMaxPathContingencySpanInContingencyGraph("Ω", contingencyGraph);
+		}
 
 		final PrototypalLink lpc =
 			new PrototypalLink(Objects.requireNonNull(g.getZ()).getName(), lBound, lGuard, uGuard, uBound, c,
@@ -2193,6 +2494,8 @@ public class CSTNPSU extends AbstractCSTN<CSTNPSUEdge> {
 		activationNode.clear();
 		lowerContingentLink.clear();
 		prototypalLink = null;
+		nodesToMinimize.clear();
+		stableToZ = false;
 	}
 
 	/**
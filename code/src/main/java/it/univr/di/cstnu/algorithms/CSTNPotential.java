@@ -16,6 +16,7 @@ import it.univr.di.cstnu.graph.Edge.ConstraintType;
 import it.univr.di.cstnu.graph.LabeledNode;
 import it.univr.di.cstnu.graph.TNGraph;
 import it.univr.di.labeledvalue.*;
+import org.kohsuke.args4j.Option;
 import org.xml.sax.SAXException;
 
 import javax.annotation.Nullable;
@@ -74,6 +75,33 @@ public class CSTNPotential extends CSTNIR {
 	 */
 	int numberOfNodes;
 
+	/**
+	 * True if labeled potentials are propagated by {@link #singleSinkShortestPathsByPriority(Instant)}, i.e., one modified (node, label) pair at a
+	 * time in order of label size and value. False if they are propagated by {@link #singleSinkShortestPaths(NodesToCheck, Instant)}, i.e., all labeled values of a
+	 * modified node at a time in FIFO order.
+	 */
+	boolean priorityPropagation = true;
+
+	/**
+	 * Queue of the labeled potential values to propagate when {@link #priorityPropagation} is true. It is fed by
+	 * {@link #updatePotential(LabeledNode, Label, int, boolean, String)}.
+	 */
+	@Nullable
+	LabeledPotentialQueue potentialQueue;
+
+	/**
+	 * True if, during {@link #singleSinkShortestPathsByPriority(Instant)}, negative loops are searched also in the parent graph of the propagated pairs by a
+	 * {@link NegativeLoopVerifier} running in a concurrent thread. It has effect only when {@link #priorityPropagation} is true.
+	 */
+	@Option(name = "-concurrentNegativeLoops", usage = "Search negative loops in a concurrent thread while labeled potentials are propagated by priority.")
+	boolean concurrentNegativeLoopDetection;
+
+	/**
+	 * Verifier of negative loops when {@link #concurrentNegativeLoopDetection} is true.
+	 */
+	@Nullable
+	NegativeLoopVerifier negativeLoopVerifier;
+
 	/**
 	 * Constructor for CSTNPotential.
 	 *
@@ -434,6 +462,9 @@ public class CSTNPotential extends CSTNIR {
 		final int currentValue = node.getLabeledPotential(newLabel);
 		if (node.putLabeledPotential(newLabel, newValue)) {
 			// The value was added
+			if (potentialQueue != null) {
+				potentialQueue.enqueueModified(node);
+			}
 			/*
 			 * Theoretically, if a new value with the same label is added for n+1 times, it means that there is a negative cycle.
 			 * In such a case, the value is updated to Constants.INT_NEG_INFINITE.
@@ -448,6 +479,9 @@ public class CSTNPotential extends CSTNIR {
 			if (count > numberOfNodes) {
 				newValue = Constants.INT_NEG_INFINITE;
 				node.putLabeledPotential(newLabel, newValue);
+				if (potentialQueue != null) {
+					potentialQueue.enqueueModified(node);
+				}
 				if (Debug.ON) {
 					if (LOG.isLoggable(Level.FINER)) {
 						LOG.log(Level.FINER,
@@ -510,6 +544,37 @@ public class CSTNPotential extends CSTNIR {
 		return i;
 	}
 
+	/**
+	 * @return true if labeled potentials are propagated one modified (node, label) pair at a time in order of label size and value.
+	 */
+	public boolean isPriorityPropagation() {
+		return priorityPropagation;
+	}
+
+	/**
+	 * @param priorityPropagation1 true for propagating labeled potentials one modified (node, label) pair at a time in order of label size and value (default),
+	 *                             false for propagating all labeled potentials of each modified node in FIFO order.
+	 */
+	public void setPriorityPropagation(boolean priorityPropagation1) {
+		priorityPropagation = priorityPropagation1;
+	}
+
+	/**
+	 * @return true if negative loops are searched also in a concurrent thread during the propagation by priority.
+	 */
+	public boolean isConcurrentNegativeLoopDetection() {
+		return concurrentNegativeLoopDetection;
+	}
+
+	/**
+	 * @param concurrentNegativeLoopDetection1 true for searching negative loops also in a concurrent thread during the propagation by priority, so that a
+	 *                                         negative loop can be found before the update count of its values reaches the number of nodes. Default
+	 *                                         false.
+	 */
+	public void setConcurrentNegativeLoopDetection(boolean concurrentNegativeLoopDetection1) {
+		concurrentNegativeLoopDetection = concurrentNegativeLoopDetection1;
+	}
+
 	/**
 	 * @return the isUpperBoundRequested
 	 */
@@ -550,6 +615,12 @@ public class CSTNPotential extends CSTNIR {
 		assert Z != null;
 		nodesToCheck.enqueue(Z);
 		Z.putLabeledPotential(Label.emptyLabel, 0);
+		final boolean concurrentVerification = priorityPropagation && concurrentNegativeLoopDetection;
+		potentialQueue = (priorityPropagation) ? new LabeledPotentialQueue(allNodes, concurrentVerification) : null;
+		if (potentialQueue != null) {
+			potentialQueue.enqueueModified(Z);
+		}
+		negativeLoopVerifier = (concurrentVerification) ? new NegativeLoopVerifier() : null;
 
 		NodesToCheck obsNodesInvolved;
 
@@ -567,7 +638,8 @@ public class CSTNPotential extends CSTNIR {
 			checkStatus.cycles++;
 
 			// backward propagates all minimal distances to Z.
-			obsNodesInvolved = singleSinkShortestPaths(nodesToCheck, timeoutInstant);
+			obsNodesInvolved = (potentialQueue != null) ? singleSinkShortestPathsByPriority(timeoutInstant)
+			                                             : singleSinkShortestPaths(nodesToCheck, timeoutInstant);
 			// ASSERTIONS
 			// nodesToCheck is empty
 			// obsNodesToCheck may be not empty
@@ -601,6 +673,10 @@ public class CSTNPotential extends CSTNIR {
 			}
 			i++;
 		} // end checking
+		if (negativeLoopVerifier != null) {
+			negativeLoopVerifier.close();
+			negativeLoopVerifier = null;
+		}
 
 		if (checkStatus.timeout) {
 			if (Debug.ON) {
@@ -858,6 +934,141 @@ public class CSTNPotential extends CSTNIR {
 		return obsNodesToCheck;
 	}
 
+	/**
+	 * Sets to -∞ the values of the pairs in the negative loop found by {@link #negativeLoopVerifier}, if its last verification is completed and found
+	 * one.
+	 *
+	 * The pairs of the loop lose their parents, so that the same loop is not found again.
+	 * This method modified {@code this.checkStatus}: check it for verifying if a negative cycle occurred.
+	 *
+	 * @return the conjunction of the labels of the values set to -∞, {@link Label#emptyLabel} if no value has been set.
+	 */
+	private Label setNegativeLoopFoundConcurrently() {
+		assert potentialQueue != null && negativeLoopVerifier != null;
+		final int[] cycle = negativeLoopVerifier.poll();
+		if (cycle == null) {
+			return Label.emptyLabel;
+		}
+		checkStatus.concurrentNegativeLoops++;
+		Label involved = Label.emptyLabel;
+		for (final int pair : cycle) {
+			final LabeledNode node = potentialQueue.getNode(pair);
+			final Label label = potentialQueue.getLabel(pair);
+			potentialQueue.setParent(node, label, -1, 0);
+			final String log = (Debug.ON) ? "Negative loop found by the concurrent verification on " + node.getName() + " with label " + label + "\n" : "";
+			if (updatePotential(node, label, Constants.INT_NEG_INFINITE, false, log)) {
+				involved = involved.conjunctionExtended(label);
+				if (!checkStatus.consistency) {
+					break;
+				}
+			}
+		}
+		return involved;
+	}
+
+	/**
+	 * Label-correcting version of {@link #singleSinkShortestPaths(NodesToCheck, Instant)}.<br>
+	 * Instead of propagating all labeled values of each modified node in FIFO order, it propagates, in order of label size and value, only the labeled values
+	 * {@code A_[u,α]} that have been modified since their last propagation. Such values are kept in {@link #potentialQueue} by
+	 * {@link #updatePotential(LabeledNode, Label, int, boolean, String)}, also when they are determined by rule R3. The relaxation step is the same:
+	 *
+	 * <pre>
+	 * A_[u,α] &lt;---(v,β)---B
+	 * adds
+	 * B_[(u+v),γ]
+	 * where γ=α*β if v&lt;0, γ=αβ otherwise and (u+v) &lt; possibly previous value.
+	 * </pre>
+	 * <p>
+	 * Each pair (node, label) is propagated again only when its value decreases; the count of such decreases is bounded by
+	 * {@link #updatePotential(LabeledNode, Label, int, boolean, String)} that sets the value to -∞ after {@link #numberOfNodes} updates.
+	 * If {@link #concurrentNegativeLoopDetection} is true, a snapshot of the parents of the pairs is verified by {@link #negativeLoopVerifier} in a
+	 * concurrent thread and the values of the pairs in a found negative loop are set to -∞ as soon as the verification ends.
+	 * <p>
+	 * This method modified {@code this.checkStatus}: check it for verifying if a negative cycle or a timeout occurred.
+	 *
+	 * @param timeoutInstant time instant limit allowed to the computation.
+	 *
+	 * @return the set of observation nodes that have proposition in at least one labeled potential modified, null if a
+	 * 	negative cycle or a timeout occurred.
+	 */
+	@Nullable
+	NodesToCheck singleSinkShortestPathsByPriority(Instant timeoutInstant) {
+		assert potentialQueue != null;
+		LabeledNode B;
+		final NodesToCheck obsNodesToCheck = new NodesToCheck();
+		Label obsInvolved = Label.emptyLabel;
+		int extractionsSinceSnapshot = 0;
+		while (!potentialQueue.isEmpty()) {
+			if (negativeLoopVerifier != null) {
+				obsInvolved = obsInvolved.conjunctionExtended(setNegativeLoopFoundConcurrently());
+				if (!checkStatus.consistency) {
+					return null;
+				}
+				if (negativeLoopVerifier.isIdle() && ++extractionsSinceSnapshot >= Math.max(numberOfNodes, potentialQueue.pairCount() >> 3)) {
+					negativeLoopVerifier.submit(potentialQueue.parentSnapshot());
+					extractionsSinceSnapshot = 0;
+				}
+			}
+			final int pair = potentialQueue.extractFirst();
+			final LabeledNode A = potentialQueue.getNode(pair);
+			final Label alpha = potentialQueue.getLabel(pair);
+			final int u = A.getLabeledPotential(alpha);
+			if (u == Constants.INT_NULL) {
+				continue;// the value has been removed because a value with a shorter label has been added
+			}
+			if (Debug.ON) {
+				if (LOG.isLoggable(Level.FINE)) {
+					LOG.log(Level.FINE, "\nConsidering " + A.getName() + "_[" + pairAsString(alpha, u) + "]");
+				}
+			}
+			for (final CSTNEdge AB : g.getInEdges(A)) {
+				B = g.getSource(AB);
+				assert B != null;
+				boolean isBModified = false;
+
+				for (final Entry<Label> ABEntry : AB.getLabeledValueSet()) {
+					final int v = ABEntry.getIntValue();
+					final int newValue = Constants.sumWithOverflowCheck(u, v);
+					if (newValue >= 0 || (newValue == Constants.INT_NEG_INFINITE && v > 0)) {
+						continue;// only non-positive values are interesting and -∞ through positive edges cannot be propagated
+					}
+					final Label beta = ABEntry.getKey();
+					final Label newLabel = (v < 0) ? alpha.conjunctionExtended(beta) : alpha.conjunction(beta);// IR assumed.
+					if (newLabel != null) {
+						final String log = (Debug.ON) ? A.getName() + "_[" + pairAsString(alpha, u) + "]<--" + pairAsString(beta, v) + "--"
+						                                + B.getName() + "\n" : "";
+						if (updatePotential(B, newLabel, newValue, false, log)) {
+							isBModified = true;
+							potentialQueue.setParent(B, (B.isObserver()) ? newLabel.remove(B.getPropositionObserved()) : newLabel, pair, v);
+							obsInvolved = obsInvolved.conjunctionExtended(newLabel);
+							checkStatus.labeledValuePropagationCalls++;
+							if (!checkStatus.consistency) {
+								return null;
+							}
+						}
+					}
+				}
+				if (isBModified && B.isObserver()) {
+					obsNodesToCheck.enqueue(B);
+				}
+				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+					return null;
+				}
+			}
+		}
+
+		// add all obs node that have to be checked.
+		for (final char p : obsInvolved.getPropositions()) {
+			obsNodesToCheck.enqueue(g.getObserver(p));
+		}
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINER)) {
+				LOG.log(Level.FINER, "Observation nodes involved by new labeled values: " + obsNodesToCheck);
+			}
+		}
+		return obsNodesToCheck;
+	}
+
 	/**
 	 * Executes the single-source BellmanFord algorithm for each node in {@code nodesToCheck}. The relax operation is
 	 * defined as:
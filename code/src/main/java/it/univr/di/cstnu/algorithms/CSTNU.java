@@ -13,6 +13,7 @@ import it.univr.di.labeledvalue.*;
 import it.univr.di.labeledvalue.ALabelAlphabet.ALetter;
 import org.xml.sax.SAXException;
 
+import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.time.Duration;
@@ -74,6 +75,19 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 	 * time point.
 	 */
 	Object2ObjectMap<LabeledNode, CSTNUEdge> lowerContingentEdge;
+	/**
+	 * For each modified edge, the labeled values (a-label {@link ALabel#emptyLabel}) and the upper-case values added to
+	 * the edge after the last time the edge has been considered by the rules.<br>
+	 * When an edge is considered, the rules combine only such values with all the values of the adjacent edges
+	 * (semi-naive evaluation), so that two values already combined are not combined again.<br>
+	 * If null, all the values of the edges to check are new, i.e., the next step is the first one.
+	 */
+	Reference2ObjectOpenHashMap<CSTNUEdge, LabeledALabelIntTreeMap> newValues;
+	/**
+	 * In the first step of the check, the edges that have not been considered yet. All their values are going to be
+	 * combined in the step, so their new values are not stored in {@link #newValues}. Null in the other steps.
+	 */
+	ReferenceOpenHashSet<CSTNUEdge> edgesWithAllValuesToCombine;
 
 	/**
 	 * Just to check if a new labeled value is negative, its label has not unknown literals, and it is in a self loop.
@@ -140,6 +154,7 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		propagationOnlyToZ = false;
 		contingentAlsoAsOrdinary = true;
 		reactionTime = 0;// IR semantics
+		dcSemantics = DCSemantics.IR;
 	}
 
 	/**
@@ -309,6 +324,7 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		}
 
 		final EdgesToCheck<CSTNUEdge> edgesToCheck = new EdgesToCheck<>(g.getEdges());
+		newValues = null;// in the first step, all values are new.
 
 		final int n = g.getVertexCount();
 		int k = g.getContingentNodeCount();
@@ -740,7 +756,10 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 
 	/**
 	 * Executes one step of the dynamic controllability check.<br> Before the first execution of this method, it is
-	 * necessary to execute {@link #initAndCheck()}.
+	 * necessary to execute {@link #initAndCheck()}.<br>
+	 * An edge to check is combined with the adjacent edges considering only its values added after the last time it
+	 * was checked (see {@link #newValues}): new values of the first edge are combined with all values of the second
+	 * one and vice versa.
 	 *
 	 * @param edgesToCheck   set of edges that have to be checked.
 	 * @param timeoutInstant time instant limit allowed to the computation.
@@ -761,6 +780,16 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		}
 
 		final EdgesToCheck<CSTNUEdge> newEdgesToCheck = new EdgesToCheck<>();
+		final boolean allValuesNew = newValues == null;
+		if (allValuesNew) {
+			newValues = new Reference2ObjectOpenHashMap<>();
+			edgesWithAllValuesToCombine = new ReferenceOpenHashSet<>();
+			for (final CSTNUEdge e : edgesToCheck) {
+				edgesWithAllValuesToCombine.add(e);
+			}
+		} else {
+			edgesWithAllValuesToCombine = null;
+		}
 		int i = 1;
 		// int maxNumberOfValueInAnEdge = 0, maxNumberOfUpperCaseValuesInAnEdge = 0;
 		// CSTNUEdge fatEdgeInLabeledValues = null, fatEdgeInUpperCaseValues = null;// for sure they will be initialized!
@@ -806,12 +835,20 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 			if (!AB.hasSameValues(edgeCopy)) {
 				assert A != null;
 				newEdgesToCheck.add(AB, A, B, Z, g, propagationOnlyToZ);
+				addNewValues(AB, edgeCopy);
 			}
 
 			if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
 				return getCheckStatus();
 			}
 
+			// null if all the values of AB are new.
+			final LabeledALabelIntTreeMap newAB = takeNewValues(AB, allValuesNew);
+			if (!allValuesNew && newAB == null) {
+				// AB has been added only for applying the rules above. Its values have been already combined.
+				continue;
+			}
+
 			/*
 			 * Step 1/2: Make all propagation considering edge AB as first edge.<br>
 			 * A-->B-->C
@@ -834,9 +871,13 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 					edgeCopy = null;
 				}
 
-				labeledLetterRemovalRule(B, C, BC);
+				if (labeledLetterRemovalRule(B, C, BC)) {
+					// the new values of BC must be combined in the next step as well.
+					newEdgesToCheck.add(BC, B, C, Z, g, propagationOnlyToZ);
+					addNewValues(BC, null);
+				}
 
-				labelPropagation(A, B, C, AB, BC, AC);
+				labelPropagation(A, B, C, AB, BC, AC, newAB, null);
 
 				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
 					return getCheckStatus();
@@ -844,8 +885,9 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 
 				/*
 				 * The following rule are called if there are condition (avoid to call for nothing)
+				 * Lower-case values are set only by initAndCheck(), so the one of AB is new only when all values are new.
 				 */
-				if (!AB.getLowerCaseValue().isEmpty()) {
+				if (newAB == null && !AB.getLowerCaseValue().isEmpty()) {
 					labeledCrossLowerCaseRule(A, B, C, AB, BC, AC);
 				}
 
@@ -861,6 +903,7 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 				if (add) {
 					assert A != null;
 					newEdgesToCheck.add(AC, A, C, Z, g, propagationOnlyToZ);
+					addNewValues(AC, edgeCopy);
 				}
 
 				if (!checkStatus.consistency) {
@@ -903,16 +946,19 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 					edgeCopy = null;
 				}
 
-				labeledLetterRemovalRule(C, A, CA);
+				if (labeledLetterRemovalRule(C, A, CA)) {
+					newEdgesToCheck.add(CA, C, A, Z, g, propagationOnlyToZ);
+					addNewValues(CA, null);
+				}
 
-				labelPropagation(C, A, B, CA, AB, CB);
+				labelPropagation(C, A, B, CA, AB, CB, null, newAB);
 
 				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
 					return getCheckStatus();
 				}
 
 				if (!CA.getLowerCaseValue().isEmpty()) {
-					labeledCrossLowerCaseRule(C, A, B, CA, AB, CB);
+					labeledCrossLowerCaseRule(C, A, B, CA, AB, CB, newAB);
 				}
 
 				boolean add = false;
@@ -927,6 +973,7 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 				if (add) {
 					assert C != null;
 					newEdgesToCheck.add(CB, C, B, Z, g, propagationOnlyToZ);
+					addNewValues(CB, edgeCopy);
 				}
 
 				if (!checkStatus.consistency) {
@@ -961,7 +1008,9 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 	/**
 	 * Executes one step of the dynamic controllability check considering only a pair of edges going to Z, i.e., in the
 	 * form A-->B-->Z.<br> Before the first execution of this method, it is necessary to execute
-	 * {@link #initAndCheck()}.
+	 * {@link #initAndCheck()}.<br>
+	 * Since only edges to Z are modified, an edge BZ to check is combined with the edges AB considering only its values
+	 * added after the last time it was checked (see {@link #newValues}).
 	 *
 	 * @param edgesToCheck   set of edges that have to be checked.
 	 * @param timeoutInstant time instant limit allowed to the computation.
@@ -986,6 +1035,16 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		}
 
 		final EdgesToCheck<CSTNUEdge> newEdgesToCheck = new EdgesToCheck<>();
+		final boolean allValuesNew = newValues == null;
+		if (allValuesNew) {
+			newValues = new Reference2ObjectOpenHashMap<>();
+			edgesWithAllValuesToCombine = new ReferenceOpenHashSet<>();
+			for (final CSTNUEdge e : edgesToCheck) {
+				edgesWithAllValuesToCombine.add(e);
+			}
+		} else {
+			edgesWithAllValuesToCombine = null;
+		}
 		int i = 1;
 		// int maxNumberOfValueInAnEdge = 0, maxNumberOfUpperCaseValuesInAnEdge = 0;
 		// CSTNUEdge fatEdgeInLabeledValues = null, fatEdgeInUpperCaseValues = null;// for sure they will be initialized!
@@ -1029,12 +1088,20 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 
 			if (!BZ.hasSameValues(edgeCopy)) {
 				newEdgesToCheck.add(BZ, B, Z, Z, g, propagationOnlyToZ);
+				addNewValues(BZ, edgeCopy);
 			}
 
 			if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
 				return getCheckStatus();
 			}
 
+			// null if all the values of BZ are new. When B is Z, the first edges go to Z, and they can be modified.
+			final LabeledALabelIntTreeMap newBZ = takeNewValues(BZ, allValuesNew || B == Z);
+			if (!allValuesNew && B != Z && newBZ == null) {
+				// BZ has been added only for applying the rules above. Its values have been already combined.
+				continue;
+			}
+
 			/*
 			 * Make all propagation considering edge AB as first edge in the chain.<br>
 			 * A-->B-->Z
@@ -1063,14 +1130,14 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 					edgeCopy = null;
 				}
 
-				labelPropagation(A, B, Z, AB, BZ, AZ);
+				labelPropagation(A, B, Z, AB, BZ, AZ, null, newBZ);
 
 				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
 					return getCheckStatus();
 				}
 
 				if (!AB.getLowerCaseValue().isEmpty()) {
-					labeledCrossLowerCaseRule(A, B, Z, AB, BZ, AZ);
+					labeledCrossLowerCaseRule(A, B, Z, AB, BZ, AZ, newBZ);
 				}
 
 				boolean add = false;
@@ -1084,6 +1151,7 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 				}
 				if (add) {
 					newEdgesToCheck.add(AZ, A, Z, Z, g, propagationOnlyToZ);
+					addNewValues(AZ, edgeCopy);
 				}
 
 				if (!checkStatus.consistency) {
@@ -1115,12 +1183,81 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		return getCheckStatus();
 	}
 
+	/**
+	 * Adds to {@link #newValues} the labeled and upper-case values of {@code e} that are not present with the same
+	 * value in {@code old}.
+	 *
+	 * @param e   the modified edge.
+	 * @param old the copy of the edge before the modification. If null, all the values of {@code e} are new.
+	 */
+	void addNewValues(final CSTNUEdge e, @Nullable final CSTNUEdge old) {
+		if (newValues == null || (edgesWithAllValuesToCombine != null && edgesWithAllValuesToCombine.contains(e))) {
+			return;
+		}
+		LabeledALabelIntTreeMap eNewValues = newValues.get(e);
+		if (eNewValues == null) {
+			eNewValues = new LabeledALabelIntTreeMap(e.getLabeledIntMapImplClass());
+			newValues.put(e, eNewValues);
+		}
+		for (final Object2IntMap.Entry<Label> entry : e.getLabeledValueSet()) {
+			final Label l = entry.getKey();
+			final int v = entry.getIntValue();
+			if (old == null || old.getValue(l) != v) {
+				addNewValue(eNewValues, l, ALabel.emptyLabel, v);
+			}
+		}
+		final LabeledALabelIntTreeMap upperCaseValueMap = e.getUpperCaseValueMap();
+		for (final ALabel aleph : upperCaseValueMap.keySet()) {
+			for (final Object2IntMap.Entry<Label> entry : upperCaseValueMap.get(aleph).entrySet()) {
+				final Label l = entry.getKey();
+				final int v = entry.getIntValue();
+				if (old == null || old.getUpperCaseValue(l, aleph) != v) {
+					addNewValue(eNewValues, l, aleph, v);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the new values of {@code e} from {@link #newValues} because they are going to be combined.
+	 *
+	 * @param e         the edge
+	 * @param allValues true if all the values of {@code e} are going to be combined.
+	 *
+	 * @return the new values of e, null if all the values of {@code e} are going to be combined or if there is no new
+	 * 	value.
+	 */
+	private LabeledALabelIntTreeMap takeNewValues(final CSTNUEdge e, final boolean allValues) {
+		if (edgesWithAllValuesToCombine != null) {
+			edgesWithAllValuesToCombine.remove(e);
+		}
+		final LabeledALabelIntTreeMap eNewValues = newValues.remove(e);
+		return (allValues) ? null : eNewValues;
+	}
+
+	/**
+	 * Stores the triple (l, aleph, v) in map without any label optimization, if there is no smaller value for (l, aleph).
+	 *
+	 * @param map   the map of new values of an edge.
+	 * @param l     label
+	 * @param aleph a-label
+	 * @param v     value
+	 */
+	private static void addNewValue(final LabeledALabelIntTreeMap map, final Label l, final ALabel aleph, final int v) {
+		final int old = map.getValue(l, aleph);
+		if (old == Constants.INT_NULL || v < old) {
+			map.mergeTriple(l, aleph, v, true);
+		}
+	}
+
 	/**
 	 * Resets all internal structures
 	 */
 	@Override
 	public void reset() {
 		super.reset();
+		newValues = null;
+		edgesWithAllValuesToCombine = null;
 		if (activationNode == null) {
 			activationNode = new Object2ObjectOpenHashMap<>();
 			lowerContingentEdge = new Object2ObjectOpenHashMap<>();
@@ -1545,16 +1682,45 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 	// Don't rename such method because it has to overwrite the CSTN one!
 	boolean labelPropagation(final LabeledNode nX, final LabeledNode nY, final LabeledNode nW, final CSTNUEdge eXY,
 	                         final CSTNUEdge eYW, final CSTNUEdge eXW) {
+		return labelPropagation(nX, nY, nW, eXY, eYW, eXW, null, null);
+	}
+
+	/**
+	 * Applies the rules of {@link #labelPropagation(LabeledNode, LabeledNode, LabeledNode, CSTNUEdge, CSTNUEdge, CSTNUEdge)}
+	 * considering only the given values of eXY or of eYW.
+	 *
+	 * @param nX          node
+	 * @param nY          node
+	 * @param nW          node
+	 * @param eXY         CANNOT BE NULL
+	 * @param eYW         CANNOT BE NULL
+	 * @param eXW         CANNOT BE NULL
+	 * @param newXYValues the values of eXY to consider (labeled values have a-label {@link ALabel#emptyLabel}). If
+	 *                    null, all the values of eXY are considered.
+	 * @param newYWValues the values of eYW to consider. If null, all the values of eYW are considered.
+	 *
+	 * @return true if a reduction is applied at least
+	 */
+	boolean labelPropagation(final LabeledNode nX, final LabeledNode nY, final LabeledNode nW, final CSTNUEdge eXY,
+	                         final CSTNUEdge eYW, final CSTNUEdge eXW, @Nullable LabeledALabelIntTreeMap newXYValues,
+	                         @Nullable LabeledALabelIntTreeMap newYWValues) {
 
 		boolean ruleApplied = false;
 		final LabeledNode Z = g.getZ();
 		final boolean nWisNotZ = nW != Z;
-		final LabeledALabelIntTreeMap YWAllLabeledValueMap = eYW.getAllUpperCaseAndLabeledValuesMaps();
+		final LabeledALabelIntTreeMap YWAllLabeledValueMap =
+			(newYWValues != null) ? newYWValues : eYW.getAllUpperCaseAndLabeledValuesMaps();
 		if (YWAllLabeledValueMap.isEmpty()) {
 			return false;
 		}
 
-		final Set<Object2IntMap.Entry<Label>> XYLabeledValueMap = eXY.getLabeledValueSet();
+		final Set<Object2IntMap.Entry<Label>> XYLabeledValueMap;
+		if (newXYValues == null) {
+			XYLabeledValueMap = eXY.getLabeledValueSet();
+		} else {
+			final LabeledIntMap newXYLabeledValues = newXYValues.get(ALabel.emptyLabel);
+			XYLabeledValueMap = (newXYLabeledValues != null) ? newXYLabeledValues.entrySet() : ObjectSets.emptySet();
+		}
 		if (Debug.ON) {
 			if (LOG.isLoggable(Level.FINER)) {
 				LOG.log(Level.FINER, "zLP/Nc/Uc + z!: start.");
@@ -1656,7 +1822,9 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 			return ruleApplied;
 		}
 
-		final ObjectSet<ALabel> XYUpperCaseALabels = eXY.getUpperCaseValueMap().keySet();
+		final LabeledALabelIntTreeMap XYUpperCaseValueMap =
+			(newXYValues != null) ? newXYValues : eXY.getUpperCaseValueMap();
+		final ObjectSet<ALabel> XYUpperCaseALabels = XYUpperCaseValueMap.keySet();
 
 		// 2) CASE FLUC + LCUC
 		final ALabel nXasALabel = nX.getALabel();
@@ -1664,7 +1832,7 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 			if (upperCaseLabel.size() != 1 || !upperCaseLabel.equals(nXasALabel)) {
 				continue;// only UC label corresponding to original contingent upper case value is considered.
 			}
-			for (final it.unimi.dsi.fastutil.objects.Object2IntMap.Entry<Label> entryXY : eXY.getUpperCaseValueMap()
+			for (final it.unimi.dsi.fastutil.objects.Object2IntMap.Entry<Label> entryXY : XYUpperCaseValueMap
 				.get(upperCaseLabel).entrySet()) {// entrySet
 				// read-only
 				final Label alpha = entryXY.getKey();
@@ -1806,6 +1974,28 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 	 */
 	boolean labeledCrossLowerCaseRule(final LabeledNode nA, final LabeledNode nC, final LabeledNode nX,
 	                                  final CSTNUEdge eAC, final CSTNUEdge eCX, final CSTNUEdge eAX) {
+		return labeledCrossLowerCaseRule(nA, nC, nX, eAC, eCX, eAX, null);
+	}
+
+	/**
+	 * Applies the rule of
+	 * {@link #labeledCrossLowerCaseRule(LabeledNode, LabeledNode, LabeledNode, CSTNUEdge, CSTNUEdge, CSTNUEdge)}
+	 * considering only the given values of eCX.
+	 *
+	 * @param nA          node
+	 * @param nC          node
+	 * @param nX          node
+	 * @param eAC         CANNOT BE NULL
+	 * @param eCX         CANNOT BE NULL
+	 * @param eAX         CANNOT BE NULL
+	 * @param newCXValues the values of eCX to consider (labeled values have a-label {@link ALabel#emptyLabel}). If
+	 *                    null, all the values of eCX are considered.
+	 *
+	 * @return true if the rule has been applied.
+	 */
+	boolean labeledCrossLowerCaseRule(final LabeledNode nA, final LabeledNode nC, final LabeledNode nX,
+	                                  final CSTNUEdge eAC, final CSTNUEdge eCX, final CSTNUEdge eAX,
+	                                  @Nullable LabeledALabelIntTreeMap newCXValues) {
 
 		boolean ruleApplied = false;
 		final LabeledLowerCaseValue lowerCaseValue = eAC.getLowerCaseValue();
@@ -1818,7 +2008,8 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		final Label alpha = lowerCaseValue.getLabel();
 		final int u = lowerCaseValue.getValue();
 
-		final LabeledALabelIntTreeMap CXAllValueMap = eCX.getAllUpperCaseAndLabeledValuesMaps();
+		final LabeledALabelIntTreeMap CXAllValueMap =
+			(newCXValues != null) ? newCXValues : eCX.getAllUpperCaseAndLabeledValuesMaps();
 		if (CXAllValueMap.isEmpty()) {
 			return false;
 		}
@@ -2014,17 +2205,6 @@ public class CSTNU extends AbstractCSTN<CSTNUEdge> {
 		return ruleApplied;
 	}
 
-	/**
-	 * IR Semantics {@inheritDoc}
-	 */
-	@SuppressWarnings("FinalMethod")
-	@Override
-	final boolean mainConditionForSkippingInR0qR0(final int w) {
-		// Table 1 ICAPS2016 paper for IR semantics
-		// w must be < 0.
-		return w >= 0;
-	}
-
 	/*
 	 * Create a copy of this.g merging, for each each of g, all ordinary and upper case values.
 	 * Moreover, for each edge representing lower bound of a contingent, sets its ordinary value to the maximum of the contingent.
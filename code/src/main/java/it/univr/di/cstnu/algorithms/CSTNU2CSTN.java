@@ -137,8 +137,6 @@ public class CSTNU2CSTN extends CSTNU {
 
 		initAndCheck();
 
-		final TNGraph<CSTNUEdge> nextGraph = new TNGraph<>(g, g.getEdgeImplClass());
-		nextGraph.setName("Next tNGraph");
 		final CSTNUCheckStatus status = new CSTNUCheckStatus();
 
 		final Instant startInstant = Instant.now();
@@ -195,16 +193,8 @@ public class CSTNU2CSTN extends CSTNU {
 	 *
 	 * @return g represented as a CSTN
 	 */
-	@SuppressWarnings("unchecked")
 	TNGraph<CSTNEdge> transform() {
-		final TNGraph<CSTNEdge> cstnGraph = new TNGraph<>("", EdgeSupplier.DEFAULT_CSTN_EDGE_CLASS);
-		cstnGraph.copy(cstnGraph.getClass().cast(g));
-
 		final int nOfContingents = g.getContingentNodeCount();
-		if (nOfContingents == 0) {
-			return cstnGraph;
-		}
-
 		final CharSet usedProposition = g.getPropositions();
 		final int nOfTrueConditions = usedProposition.size();
 		final int nOfVertices = g.getVertexCount();
@@ -225,7 +215,12 @@ public class CSTNU2CSTN extends CSTNU {
 				+ Label.NUMBER_OF_POSSIBLE_PROPOSITIONS
 				+ ", the maximum capacity of this implementation.");
 		}
-		// cleaning cstn
+		// The CSTN is built in a single pass over g: the adjacency is allocated once for the original nodes plus one observation node for each contingent
+		// link, and only the contingent links are rewritten.
+		// Nodes and edges of g cannot be shared with the CSTN because the CSTN check modifies them (node labels, potentials, and labeled values).
+		// The edge copies, instead, share the labeled value maps of g (copy-on-write): a map is duplicated only when the CSTN check modifies it.
+		// Therefore, the transformation allocates new maps only for the edges of the new observation nodes.
+		final TNGraph<CSTNEdge> cstnGraph = new TNGraph<>(g.getName(), EdgeSupplier.DEFAULT_CSTN_EDGE_CLASS);
 		cstnGraph.clear(nOfVertices + nOfContingents);
 
 		// build the vector of proposition that can be used for codifying contingents.
@@ -250,7 +245,7 @@ public class CSTNU2CSTN extends CSTNU {
 			}
 		}
 
-		// clone all edges, transforming the contingent ones
+		// copy all edges sharing their labeled value maps, transforming the contingent ones
 		CSTNEdge newE;
 		CSTNUEdge eInverted;
 		LabeledLowerCaseValue lowerCaseValueTuple;
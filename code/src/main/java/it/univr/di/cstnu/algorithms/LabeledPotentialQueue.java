@@ -0,0 +1,362 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.cstnu.algorithms;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.univr.di.cstnu.graph.LabeledNode;
+import it.univr.di.labeledvalue.Constants;
+import it.univr.di.labeledvalue.Label;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Minimum priority queue of (node, label) pairs used by {@link CSTNPotential} for propagating labeled potentials in a label-correcting way.
+ * <p>
+ * A pair is a labeled value {@code (label, value)} of the potential of a node that has not been propagated yet. Pairs are extracted in order of
+ * label size and then of value (see {@link #less(int, int)}). A pair is inserted again only when the corresponding value of the node potential decreases, so that only the modified labeled values of a node are
+ * propagated instead of all the labeled values of the node.
+ * <p>
+ * For each label, the last queued value and the heap position of each node are stored in two int arrays indexed by the node index. A pair is
+ * represented in the heap by the int {@code labelIndex * numberOfNodes + nodeIndex}.
+ * <p>
+ * Optionally, the queue stores also the parent of each pair, i.e., the pair and the edge value that determined its last value. Parents are used
+ * by {@link NegativeLoopVerifier} for finding negative loops before the update count of a pair reaches the number of nodes.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+final class LabeledPotentialQueue {
+
+	/**
+	 * Node index, i.e., the position of the node in the array given to the constructor.
+	 */
+	private final Object2IntOpenHashMap<LabeledNode> node2index;
+
+	/**
+	 * Nodes by index.
+	 */
+	private final LabeledNode[] nodes;
+
+	/**
+	 * Label index.
+	 */
+	private final Object2IntOpenHashMap<Label> label2index;
+
+	/**
+	 * Labels by index.
+	 */
+	private final ObjectArrayList<Label> labels;
+
+	/**
+	 * For each label index, the last queued value of each node. {@link Constants#INT_NULL} if no value was queued.
+	 */
+	private final ObjectArrayList<int[]> queuedValue;
+
+	/**
+	 * For each label index, the heap position of each node. -1 if the pair is not in the heap.
+	 */
+	private final ObjectArrayList<int[]> position;
+
+	/**
+	 * For each label index, the parent pair of each node. -1 if the pair has no parent. Null if parents are not stored.
+	 */
+	@Nullable
+	private final ObjectArrayList<int[]> parentPairs;
+
+	/**
+	 * For each label index, the value of the edge from each node to its parent. Null if parents are not stored.
+	 */
+	@Nullable
+	private final ObjectArrayList<int[]> parentEdgeValues;
+
+	/**
+	 * Binary heap of pairs.
+	 */
+	private int[] heap;
+
+	/**
+	 * Number of pairs in the heap.
+	 */
+	private int size;
+
+	/**
+	 * @param allNodes all the nodes of the network.
+	 */
+	LabeledPotentialQueue(LabeledNode[] allNodes) {
+		this(allNodes, false);
+	}
+
+	/**
+	 * @param allNodes    all the nodes of the network.
+	 * @param withParents true if the parent of each pair has to be stored (see {@link #setParent(LabeledNode, Label, int, int)}).
+	 */
+	LabeledPotentialQueue(LabeledNode[] allNodes, boolean withParents) {
+		nodes = allNodes;
+		node2index = new Object2IntOpenHashMap<>(allNodes.length);
+		node2index.defaultReturnValue(Constants.INT_NULL);
+		for (int i = 0; i < allNodes.length; i++) {
+			node2index.put(allNodes[i], i);
+		}
+		label2index = new Object2IntOpenHashMap<>();
+		label2index.defaultReturnValue(Constants.INT_NULL);
+		labels = new ObjectArrayList<>();
+		queuedValue = new ObjectArrayList<>();
+		position = new ObjectArrayList<>();
+		parentPairs = (withParents) ? new ObjectArrayList<>() : null;
+		parentEdgeValues = (withParents) ? new ObjectArrayList<>() : null;
+		heap = new int[Math.max(16, allNodes.length)];
+		size = 0;
+	}
+
+	/**
+	 * Queues each labeled value of the potential of {@code node} that is smaller than the value queued last time for the same label.<br>
+	 * It must be called after any modification of the potential of the node, because a modification can also add simplified labels or remove
+	 * dominated ones.
+	 *
+	 * @param node the node whose potential was modified.
+	 */
+	void enqueueModified(LabeledNode node) {
+		final int nodeIndex = node2index.getInt(node);
+		if (nodeIndex == Constants.INT_NULL) {
+			return;
+		}
+		for (final Object2IntMap.Entry<Label> entry : node.getLabeledPotential().entrySet()) {
+			final int value = entry.getIntValue();
+			final int labelIndex = labelIndex(entry.getKey());
+			final int[] queued = queuedValue.get(labelIndex);
+			if (queued[nodeIndex] != Constants.INT_NULL && queued[nodeIndex] <= value) {
+				continue;
+			}
+			queued[nodeIndex] = value;
+			final int[] pos = position.get(labelIndex);
+			if (pos[nodeIndex] >= 0) {
+				siftUp(pos[nodeIndex]);
+				continue;
+			}
+			if (size == heap.length) {
+				heap = Arrays.copyOf(heap, (int) Math.min(Integer.MAX_VALUE - 8, size * 2L));
+			}
+			heap[size] = labelIndex * nodes.length + nodeIndex;
+			pos[nodeIndex] = size;
+			siftUp(size++);
+		}
+	}
+
+	/**
+	 * Removes the first pair, i.e., the pair with the shortest label and the minimum value.
+	 *
+	 * @return the pair as {@code labelIndex * numberOfNodes + nodeIndex}. Use {@link #getNode(int)} and {@link #getLabel(int)} to decode it.
+	 *
+	 * @throws NoSuchElementException if the queue is empty.
+	 */
+	int extractFirst() {
+		if (size == 0) {
+			throw new NoSuchElementException("The queue is empty.");
+		}
+		final int first = heap[0];
+		position.get(first / nodes.length)[first % nodes.length] = -1;
+		if (--size > 0) {
+			final int last = heap[size];
+			heap[0] = last;
+			position.get(last / nodes.length)[last % nodes.length] = 0;
+			siftDown(0);
+		}
+		return first;
+	}
+
+	/**
+	 * @param pair a pair returned by {@link #extractFirst()}
+	 *
+	 * @return the label of the pair.
+	 */
+	Label getLabel(int pair) {
+		return labels.get(pair / nodes.length);
+	}
+
+	/**
+	 * @param pair a pair returned by {@link #extractFirst()}
+	 *
+	 * @return the node of the pair.
+	 */
+	LabeledNode getNode(int pair) {
+		return nodes[pair % nodes.length];
+	}
+
+	/**
+	 * @return the number of (node, label) pairs that can be represented with the labels met so far.
+	 */
+	int pairCount() {
+		return labels.size() * nodes.length;
+	}
+
+	/**
+	 * Copies the parents of all pairs.
+	 *
+	 * @return an array of two arrays indexed by pair: the first contains the parent pair (-1 if none), the second the value of the edge to the parent.
+	 *
+	 * @throws IllegalStateException if parents are not stored.
+	 */
+	int[][] parentSnapshot() {
+		if (parentPairs == null || parentEdgeValues == null) {
+			throw new IllegalStateException("Parents are not stored by this queue.");
+		}
+		final int n = nodes.length;
+		final int[] parentPair = new int[pairCount()];
+		final int[] edgeValue = new int[parentPair.length];
+		for (int i = 0; i < labels.size(); i++) {
+			System.arraycopy(parentPairs.get(i), 0, parentPair, i * n, n);
+			System.arraycopy(parentEdgeValues.get(i), 0, edgeValue, i * n, n);
+		}
+		return new int[][]{parentPair, edgeValue};
+	}
+
+	/**
+	 * Stores that the last value of the pair {@code (node, label)} has been determined by the pair {@code parentPair} through an edge from
+	 * {@code node} having value {@code edgeValue}. It does nothing if parents are not stored.
+	 *
+	 * @param node       the node whose potential was modified.
+	 * @param label      the label of the modified value, as stored in the potential.
+	 * @param parentPair the pair (returned by {@link #extractFirst()}) that determined the value.
+	 * @param edgeValue  the value of the edge from node to the node of the parent pair.
+	 */
+	void setParent(LabeledNode node, Label label, int parentPair, int edgeValue) {
+		if (parentPairs == null || parentEdgeValues == null) {
+			return;
+		}
+		final int nodeIndex = node2index.getInt(node);
+		if (nodeIndex == Constants.INT_NULL) {
+			return;
+		}
+		final int labelIndex = labelIndex(label);
+		parentPairs.get(labelIndex)[nodeIndex] = parentPair;
+		parentEdgeValues.get(labelIndex)[nodeIndex] = edgeValue;
+	}
+
+	/**
+	 * @return true if the queue is empty.
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @return the number of pairs in the queue.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param label the label
+	 *
+	 * @return the index of the label, adding the label if it is new.
+	 */
+	private int labelIndex(Label label) {
+		int index = label2index.getInt(label);
+		if (index != Constants.INT_NULL) {
+			return index;
+		}
+		index = labels.size();
+		if ((long) (index + 1) * nodes.length > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Too many different labels for the labeled potential queue: " + index);
+		}
+		label2index.put(label, index);
+		labels.add(label);
+		final int[] queued = new int[nodes.length];
+		Arrays.fill(queued, Constants.INT_NULL);
+		queuedValue.add(queued);
+		final int[] pos = new int[nodes.length];
+		Arrays.fill(pos, -1);
+		position.add(pos);
+		if (parentPairs != null && parentEdgeValues != null) {
+			final int[] par = new int[nodes.length];
+			Arrays.fill(par, -1);
+			parentPairs.add(par);
+			parentEdgeValues.add(new int[nodes.length]);
+		}
+		return index;
+	}
+
+	/**
+	 * @param pair the pair
+	 *
+	 * @return the priority of the pair.
+	 */
+	private int priority(int pair) {
+		return queuedValue.get(pair / nodes.length)[pair % nodes.length];
+	}
+
+	/**
+	 * Pairs are ordered by label size and then by value. A value with a shorter label is propagated first because it can make useless the values
+	 * with longer labels that it subsumes.
+	 *
+	 * @param a a pair
+	 * @param b a pair
+	 *
+	 * @return true if a precedes b.
+	 */
+	private boolean less(int a, int b) {
+		final int sizeA = labels.get(a / nodes.length).size();
+		final int sizeB = labels.get(b / nodes.length).size();
+		if (sizeA != sizeB) {
+			return sizeA < sizeB;
+		}
+		return priority(a) < priority(b);
+	}
+
+	/**
+	 * Moves down the pair at position i until the heap property is restored.
+	 *
+	 * @param i the position
+	 */
+	private void siftDown(int i) {
+		final int pair = heap[i];
+		int child;
+		while ((child = 2 * i + 1) < size) {
+			if (child + 1 < size && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!less(heap[child], pair)) {
+				break;
+			}
+			setHeap(i, heap[child]);
+			i = child;
+		}
+		setHeap(i, pair);
+	}
+
+	/**
+	 * Moves up the pair at position i until the heap property is restored.
+	 *
+	 * @param i the position
+	 */
+	private void siftUp(int i) {
+		final int pair = heap[i];
+		while (i > 0) {
+			final int parent = (i - 1) >>> 1;
+			if (!less(pair, heap[parent])) {
+				break;
+			}
+			setHeap(i, heap[parent]);
+			i = parent;
+		}
+		setHeap(i, pair);
+	}
+
+	/**
+	 * Puts pair at position i of the heap.
+	 *
+	 * @param i    the position
+	 * @param pair the pair
+	 */
+	private void setHeap(int i, int pair) {
+		heap[i] = pair;
+		position.get(pair / nodes.length)[pair % nodes.length] = i;
+	}
+}
@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.cstnu.algorithms;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Searches negative loops in the parent graph of the (node, label) pairs stored by a {@link LabeledPotentialQueue} in a thread concurrent to the
+ * propagation of {@link CSTNPotential}.
+ * <p>
+ * The parent of a pair {@code (B, γ)} is the pair {@code (A, α)} whose value determined the last value of {@code (B, γ)} through an edge
+ * {@code B---(v,β)--->A}, with {@code γ=α*β} (without the proposition observed by B, if any). Each parent link is a legal propagation step. Therefore,
+ * if the parent links form a cycle whose sum of edge values is negative, propagating again along the cycle returns the same labels with smaller
+ * values, i.e., the potential of each pair in the cycle is -∞. Label-correcting propagation finds the same loop only after the values of the pairs
+ * have been decreased {@link CSTNPotential#numberOfNodes} times.
+ * <p>
+ * The propagation submits a snapshot of the parent links (see {@link LabeledPotentialQueue#parentSnapshot()}) when the verifier is idle and polls the
+ * result from time to time. The snapshot is a copy, so the verification does not need any synchronization with the propagation.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+final class NegativeLoopVerifier implements AutoCloseable {
+
+	/**
+	 * Single thread executor of the verifications.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * The running verification, null if there is none.
+	 */
+	@Nullable
+	private Future<int[]> pending;
+
+	/**
+	 * Default constructor.
+	 */
+	NegativeLoopVerifier() {
+		executor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "negative-loop-verifier");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Determines the pairs of a negative cycle in a parent graph.
+	 *
+	 * @param parentPair the parent pair of each pair, -1 if the pair has no parent.
+	 * @param edgeValue  the value of the edge from each pair to its parent.
+	 *
+	 * @return the pairs of the first found cycle having negative sum of edge values, null if there is no such cycle.
+	 */
+	@Nullable
+	static int[] findNegativeCycle(int[] parentPair, int[] edgeValue) {
+		final int n = parentPair.length;
+		// 0 = not visited, otherwise 1 + the pair from which the visit started.
+		final int[] visitedFrom = new int[n];
+		for (int start = 0; start < n; start++) {
+			if (visitedFrom[start] != 0) {
+				continue;
+			}
+			int pair = start;
+			while (pair >= 0 && pair < n && visitedFrom[pair] == 0) {
+				visitedFrom[pair] = start + 1;
+				pair = parentPair[pair];
+			}
+			if (pair < 0 || pair >= n || visitedFrom[pair] != start + 1) {
+				continue;// the walk reached a root or a pair already visited by a previous walk
+			}
+			// pair is in a cycle found by this walk
+			long sum = 0;
+			int length = 0;
+			int p = pair;
+			do {
+				sum += edgeValue[p];
+				length++;
+				p = parentPair[p];
+			} while (p != pair);
+			if (sum >= 0) {
+				continue;
+			}
+			final int[] cycle = new int[length];
+			for (int i = 0; i < length; i++) {
+				cycle[i] = p;
+				p = parentPair[p];
+			}
+			return cycle;
+		}
+		return null;
+	}
+
+	/**
+	 * Stops any running verification.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+		pending = null;
+	}
+
+	/**
+	 * @return true if there is no submitted verification whose result has not been returned by {@link #poll()} yet.
+	 */
+	boolean isIdle() {
+		return pending == null;
+	}
+
+	/**
+	 * Returns the result of the submitted verification if it is completed.
+	 *
+	 * @return the pairs of a negative cycle if the submitted verification is completed and found one, null otherwise.
+	 *
+	 * @throws IllegalStateException if the verification has been interrupted or has thrown an exception.
+	 */
+	@Nullable
+	int[] poll() {
+		if (pending == null || !pending.isDone()) {
+			return null;
+		}
+		final Future<int[]> done = pending;
+		pending = null;
+		try {
+			return done.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Negative loop verification interrupted.", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Negative loop verification failed: " + e.getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Submits a verification of the given parent graph. The arrays must not be modified afterward.
+	 *
+	 * @param snapshot the parent graph as returned by {@link LabeledPotentialQueue#parentSnapshot()}.
+	 *
+	 * @throws IllegalStateException if a verification is already running.
+	 */
+	void submit(int[][] snapshot) {
+		if (pending != null) {
+			throw new IllegalStateException("A negative loop verification is already running.");
+		}
+		final int[] parentPair = snapshot[0];
+		final int[] edgeValue = snapshot[1];
+		pending = executor.submit(() -> findNegativeCycle(parentPair, edgeValue));
+	}
+}
@@ -5,18 +5,33 @@ package it.univr.di.cstnu.algorithms;
 
 import it.unimi.dsi.fastutil.objects.Object2IntMap;
 import it.unimi.dsi.fastutil.objects.Object2IntMap.Entry;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import it.univr.di.Debug;
 import it.univr.di.cstnu.graph.*;
 import it.univr.di.cstnu.visualization.CSTNUStaticLayout;
 import it.univr.di.labeledvalue.*;
+import org.kohsuke.args4j.Option;
 import org.xml.sax.SAXException;
 
+import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.io.Serial;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,6 +66,25 @@ public class PCSTNU extends CSTNU {
 	 */
 	ObjectArrayList<LabeledNode> parameterNodes;
 
+	/**
+	 * If true, {@link #oneStepDynamicControllabilityLimitedToZ(EdgesToCheck, Instant)} groups the rule applications by the parameter node (or Z)
+	 * whose edges they modify and applies the groups concurrently (see {@link #oneStepByParameterGroups(EdgesToCheck, Instant)}).
+	 */
+	@Option(name = "-parallelParameters", usage = "Apply the rules grouped by parameter node, evaluating the groups concurrently.")
+	boolean parallelParameterGroups;
+
+	/**
+	 * Number of threads used when {@link #parallelParameterGroups} is true. Default, the number of available processors.
+	 */
+	@Option(name = "-nThreads", usage = "Number of threads used by the parallel parameter mode. Default, the number of available processors.", metaVar = "n")
+	int nThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Executor of the parameter groups. It exists only during a check with {@link #parallelParameterGroups} true.
+	 */
+	@Nullable
+	private ExecutorService parameterGroupExecutor;
+
 	/**
 	 * @param graphXML an XML description of a parameterized PCSTNU instance
 	 *
@@ -60,6 +94,7 @@ public class PCSTNU extends CSTNU {
 	 */
 	public PCSTNU(String graphXML) throws IOException, ParserConfigurationException, SAXException {
 		super(graphXML);
+		checkStatus = new PCSTNUCheckStatus();
 		propagationOnlyToZ =
 			true;// this class version applies rules Table 1 of the paper "Dynamic Controllability of Parameterized CSTNUs". So only to Z
 		// and from Z rules.
@@ -72,6 +107,7 @@ public class PCSTNU extends CSTNU {
 	 */
 	public PCSTNU(TNGraph<CSTNUEdge> graph) {
 		super(graph);
+		checkStatus = new PCSTNUCheckStatus();
 		propagationOnlyToZ =
 			true;// this class version applies rules Table 1 of the paper "Dynamic Controllability of Parameterized CSTNUs". So only to Z
 		// and from Z rules.
@@ -85,6 +121,7 @@ public class PCSTNU extends CSTNU {
 	 */
 	public PCSTNU(TNGraph<CSTNUEdge> graph, int giveTimeOut) {
 		super(graph, giveTimeOut);
+		checkStatus = new PCSTNUCheckStatus();
 		propagationOnlyToZ =
 			true;// this class version applies rules Table 1 of the paper "Dynamic Controllability of Parameterized CSTNUs". So only to Z
 		// and from Z rules.
@@ -109,6 +146,7 @@ public class PCSTNU extends CSTNU {
 	 * Constructor only for the main and possible extensions.
 	 */
 	PCSTNU() {
+		checkStatus = new PCSTNUCheckStatus();
 		propagationOnlyToZ =
 			true;// this class version applies rules Table 1 of the paper "Dynamic Controllability of Parameterized CSTNUs". So only to Z
 		// and from Z rules.
@@ -197,6 +235,93 @@ public class PCSTNU extends CSTNU {
 		}
 	}
 
+	/**
+	 * Copy used for applying the rules of a parameter group in a concurrent thread. It shares the graph and all the data structures of
+	 * {@code in}, but it has its own check status.
+	 *
+	 * @param in the checker to copy
+	 */
+	private PCSTNU(PCSTNU in) {
+		this();
+		g = in.g;
+		gCheckedCleaned = in.gCheckedCleaned;
+		fInput = in.fInput;
+		fOutput = in.fOutput;
+		cleanCheckedInstance = in.cleanCheckedInstance;
+		horizon = in.horizon;
+		maxWeight = in.maxWeight;
+		propagationOnlyToZ = in.propagationOnlyToZ;
+		reactionTime = in.reactionTime;
+		dcSemantics = in.dcSemantics;
+		r0SkipThreshold = in.r0SkipThreshold;
+		r3SkipThreshold = in.r3SkipThreshold;
+		r3SkipEqualToZ = in.r3SkipEqualToZ;
+		r3ObsShift = in.r3ObsShift;
+		lpConsistentThreshold = in.lpConsistentThreshold;
+		lpConsistentOnlyIfVNegative = in.lpConsistentOnlyIfVNegative;
+		timeOut = in.timeOut;
+		heapBudget = in.heapBudget;
+		withNodeLabels = in.withNodeLabels;
+		activationNode = in.activationNode;
+		contingentAlsoAsOrdinary = in.contingentAlsoAsOrdinary;
+		lowerContingentEdge = in.lowerContingentEdge;
+		parameterNodes = in.parameterNodes;
+		checkStatus.initialized = true;
+	}
+
+	/**
+	 * {@inheritDoc} If {@link #parallelParameterGroups} is true, the rule applications of each step are grouped by parameter node and the groups
+	 * are evaluated by {@link #nThreads} threads.
+	 */
+	@Override
+	public PCSTNUCheckStatus dynamicControllabilityCheck() throws WellDefinitionException {
+		if (!parallelParameterGroups) {
+			return (PCSTNUCheckStatus) super.dynamicControllabilityCheck();
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, nThreads));
+		parameterGroupExecutor = executor;
+		try {
+			return (PCSTNUCheckStatus) super.dynamicControllabilityCheck();
+		} finally {
+			executor.shutdownNow();
+			parameterGroupExecutor = null;
+		}
+	}
+
+	@Override
+	public PCSTNUCheckStatus getCheckStatus() {
+		return ((PCSTNUCheckStatus) checkStatus);
+	}
+
+	/**
+	 * @return the number of threads used by the parallel parameter mode.
+	 */
+	public int getNThreads() {
+		return nThreads;
+	}
+
+	/**
+	 * @param n the number of threads used by the parallel parameter mode. Values less than 1 are considered as 1.
+	 */
+	public void setNThreads(int n) {
+		nThreads = Math.max(1, n);
+	}
+
+	/**
+	 * @return true if the rule applications are grouped by parameter node and the groups are evaluated concurrently.
+	 */
+	public boolean isParallelParameterGroups() {
+		return parallelParameterGroups;
+	}
+
+	/**
+	 * @param parallelParameterGroups1 true for grouping the rule applications by parameter node and evaluating the groups concurrently, false for
+	 *                                 the sequential rule application (default).
+	 */
+	public void setParallelParameterGroups(boolean parallelParameterGroups1) {
+		parallelParameterGroups = parallelParameterGroups1;
+	}
+
 	@Override
 	public CSTNUCheckStatus oneStepDynamicControllability(final EdgesToCheck<CSTNUEdge> edgesToCheck,
 	                                                      Instant timeoutInstant) {
@@ -281,6 +406,10 @@ public class PCSTNU extends CSTNU {
 	@Override
 	public CSTNUCheckStatus oneStepDynamicControllabilityLimitedToZ(final EdgesToCheck<CSTNUEdge> edgesToCheck,
 	                                                                Instant timeoutInstant) {
+		if (parameterGroupExecutor != null && heapBudget == 0) {
+			// spilled labeled values are loaded also by reads, so the groups cannot share them.
+			return oneStepByParameterGroups(edgesToCheck, timeoutInstant);
+		}
 
 		checkStatus.cycles++;
 		if (Debug.ON) {
@@ -465,7 +594,7 @@ public class PCSTNU extends CSTNU {
 					boolean add = false;
 					if (edgeCopy == null && !BA.isEmpty()) {
 						// the new CB has to be added to the graph!
-						g.addEdge(BA, A, Z);
+						g.addEdge(BA, B, A);
 						add = true;
 					} else if (edgeCopy != null && !edgeCopy.hasSameValues(BA)) {
 						// CB was already present and it has been changed!
@@ -615,6 +744,144 @@ public class PCSTNU extends CSTNU {
 		return getCheckStatus();
 	}
 
+	/**
+	 * Parallel version of {@link #oneStepDynamicControllabilityLimitedToZ(EdgesToCheck, Instant)}.<br>
+	 * The rule applications of the step are grouped by the node of the edges they modify: in the lower bound phase, a group contains the
+	 * applications that modify edges going to a given parameter node or Z; in the upper bound phase, the ones that modify edges coming from a given
+	 * parameter node or Z. So, each edge is modified by one group only.<br>
+	 * The groups of a phase are evaluated concurrently by {@link #parameterGroupExecutor}. Each group modifies private copies of its edges and reads
+	 * the graph as it was at the beginning of the phase. When all the groups of a phase are completed, their copies are merged into the graph
+	 * in group order, and the modified edges are added to the edges to check in the next step.<br>
+	 * The time spent by each group is summed up in {@link PCSTNUCheckStatus#parameterGroupTimeNS}.
+	 *
+	 * @param edgesToCheck   set of edges that have to be checked.
+	 * @param timeoutInstant time instant limit allowed to the computation.
+	 *
+	 * @return the update status (for convenience. It is not necessary because return the same parameter status).
+	 */
+	private PCSTNUCheckStatus oneStepByParameterGroups(final EdgesToCheck<CSTNUEdge> edgesToCheck, Instant timeoutInstant) {
+		checkStatus.cycles++;
+		final LabeledNode Z = g.getZ();
+		assert Z != null;
+		final EdgesToCheck<CSTNUEdge> newEdgesToCheck = new EdgesToCheck<>();
+
+		// LOWER BOUND propagation: pattern A--->B--->D and, when D is a parameter, B--->D--->A where A is a parameter.
+		final Reference2ObjectLinkedOpenHashMap<LabeledNode, ParameterGroup> lowerGroups = new Reference2ObjectLinkedOpenHashMap<>();
+		for (final CSTNUEdge BD : edgesToCheck) {
+			final LabeledNode D = g.getDest(BD);
+			assert D != null;
+			if (D != Z && !D.isParameter()) {
+				continue;
+			}
+			lowerGroups.computeIfAbsent(D, node -> new ParameterGroup((LabeledNode) node, true)).edges.add(BD);
+			if (D.isParameter()) {
+				for (final CSTNUEdge DA : g.getOutEdges(D)) {
+					final LabeledNode A = g.getDest(DA);
+					assert A != null;
+					if (A.isParameter()) {
+						final ParameterGroup group = lowerGroups.computeIfAbsent(A, node -> new ParameterGroup((LabeledNode) node, true));
+						group.firstEdges.add(BD);
+						group.secondEdges.add(DA);
+					}
+				}
+			}
+		}
+		if (!applyParameterGroups(lowerGroups.values(), newEdgesToCheck, timeoutInstant)) {
+			return getCheckStatus();
+		}
+
+		// UPPER BOUND propagation: pattern B--->D--->A where B is Z or a parameter.
+		final Reference2ObjectLinkedOpenHashMap<LabeledNode, ParameterGroup> upperGroups = new Reference2ObjectLinkedOpenHashMap<>();
+		for (final CSTNUEdge BD : edgesToCheck) {
+			final LabeledNode B = g.getSource(BD);
+			assert B != null;
+			if (B == Z || B.isParameter()) {
+				upperGroups.computeIfAbsent(B, node -> new ParameterGroup((LabeledNode) node, false)).edges.add(BD);
+			}
+		}
+		if (!applyParameterGroups(upperGroups.values(), newEdgesToCheck, timeoutInstant)) {
+			return getCheckStatus();
+		}
+
+		edgesToCheck.clear();// in any case, this set has been elaborated. It is better to clear it out.
+		checkStatus.finished = newEdgesToCheck.size() == 0;
+		if (!checkStatus.finished) {
+			edgesToCheck.takeIn(newEdgesToCheck);
+		}
+		return getCheckStatus();
+	}
+
+	/**
+	 * Evaluates the given groups concurrently and merges their results into the graph and into the check status.
+	 *
+	 * @param groups          the groups of a phase
+	 * @param newEdgesToCheck the set where the modified edges are added
+	 * @param timeoutInstant  time instant limit allowed to the computation.
+	 *
+	 * @return false if a negative loop or a timeout occurred.
+	 */
+	private boolean applyParameterGroups(final Iterable<ParameterGroup> groups, final EdgesToCheck<CSTNUEdge> newEdgesToCheck,
+	                                     Instant timeoutInstant) {
+		assert parameterGroupExecutor != null;
+		final List<Future<ParameterGroup>> results;
+		final ObjectList<Callable<ParameterGroup>> tasks = new ObjectArrayList<>();
+		for (final ParameterGroup group : groups) {
+			tasks.add(() -> group.apply(timeoutInstant));
+		}
+		// The lazy caches of the graph are built without synchronization. They are built here, before the groups read them concurrently.
+		for (final LabeledNode obs : g.getObservers()) {
+			g.getChildrenOf(obs);
+		}
+		try {
+			results = parameterGroupExecutor.invokeAll(tasks);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Parameter groups interrupted.", e);
+		}
+		final LabeledNode Z = g.getZ();
+		final PCSTNUCheckStatus status = getCheckStatus();
+		// the graph is modified only here, when no group is running.
+		for (final Future<ParameterGroup> result : results) {
+			final ParameterGroup group;
+			try {
+				group = result.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Parameter groups interrupted.", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Parameter group failed: " + e.getMessage(), e.getCause());
+			}
+			status.parameterGroupTimeNS.addTo(group.node.getName(), group.timeNS);
+			status.add(group.worker.getCheckStatus());
+			for (final Reference2ObjectMap.Entry<CSTNUEdge, CSTNUEdge> entry : group.copies.reference2ObjectEntrySet()) {
+				final CSTNUEdge edge = entry.getKey();
+				if (!edge.hasSameValues(entry.getValue())) {
+					edge.takeIn(entry.getValue());
+					newEdgesToCheck.add(edge, g.getSource(edge), g.getDest(edge), Z, g, propagationOnlyToZ);
+				}
+			}
+			for (final Object2ObjectMap.Entry<LabeledNode, CSTNUEdge> entry : group.newEdges.object2ObjectEntrySet()) {
+				final CSTNUEdge edge = entry.getValue();
+				if (edge.isEmpty()) {
+					continue;
+				}
+				if (g.getEdge(edge.getName()) != null) {
+					// another group created an edge with the same name.
+					edge.setName(makeNewEdge(edge.getName(), edge.getConstraintType()).getName());
+				}
+				final LabeledNode source = (group.lower) ? entry.getKey() : group.node;
+				final LabeledNode dest = (group.lower) ? group.node : entry.getKey();
+				g.addEdge(edge, source, dest);
+				newEdgesToCheck.add(edge, source, dest, Z, g, propagationOnlyToZ);
+			}
+		}
+		if (!checkStatus.consistency) {
+			checkStatus.finished = !checkStatus.timeout;
+			return false;
+		}
+		return !checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant);
+	}
+
 	/**
 	 * Apply A, A-Parameter, C rules of paper about Parameter-CSTNU.
 	 *
@@ -1632,4 +1899,257 @@ public class PCSTNU extends CSTNU {
 		}
 		return ruleApplied;
 	}
+
+	/**
+	 * Rule applications of a step that modify the edges going to (lower bound phase) or coming from (upper bound phase) a parameter node or Z.
+	 * See {@link #oneStepByParameterGroups(EdgesToCheck, Instant)}.
+	 */
+	private final class ParameterGroup {
+		/**
+		 * The parameter node or Z.
+		 */
+		final LabeledNode node;
+		/**
+		 * True if the group belongs to the lower bound phase.
+		 */
+		final boolean lower;
+		/**
+		 * Edges to check going to (lower bound phase) or coming from (upper bound phase) {@link #node}.
+		 */
+		final ObjectArrayList<CSTNUEdge> edges = new ObjectArrayList<>();
+		/**
+		 * Lower bound phase only: first edges B--->D of the chains B--->D--->node where D is a parameter.
+		 */
+		final ObjectArrayList<CSTNUEdge> firstEdges = new ObjectArrayList<>();
+		/**
+		 * Lower bound phase only: second edges D--->node of the chains in {@link #firstEdges}.
+		 */
+		final ObjectArrayList<CSTNUEdge> secondEdges = new ObjectArrayList<>();
+		/**
+		 * Private copies of the modified graph edges.
+		 */
+		final Reference2ObjectOpenHashMap<CSTNUEdge, CSTNUEdge> copies = new Reference2ObjectOpenHashMap<>();
+		/**
+		 * New edges, not in the graph yet, by their other end point.
+		 */
+		final Object2ObjectLinkedOpenHashMap<LabeledNode, CSTNUEdge> newEdges = new Object2ObjectLinkedOpenHashMap<>();
+		/**
+		 * Checker applying the rules with its own check status.
+		 */
+		final PCSTNU worker = new PCSTNU(PCSTNU.this);
+		/**
+		 * Time spent by {@link #apply(Instant)}.
+		 */
+		long timeNS;
+
+		/**
+		 * @param node  the parameter node or Z
+		 * @param lower true if the group belongs to the lower bound phase
+		 */
+		ParameterGroup(LabeledNode node, boolean lower) {
+			this.node = node;
+			this.lower = lower;
+		}
+
+		/**
+		 * Applies the rules of the group as {@link #oneStepDynamicControllabilityLimitedToZ(EdgesToCheck, Instant)} does, modifying only private
+		 * copies of the edges of the group.
+		 *
+		 * @param timeoutInstant time instant limit allowed to the computation.
+		 *
+		 * @return this group.
+		 */
+		ParameterGroup apply(Instant timeoutInstant) {
+			final long start = System.nanoTime();
+			try {
+				if (lower) {
+					applyLowerBoundRules(timeoutInstant);
+				} else {
+					applyUpperBoundRules(timeoutInstant);
+				}
+			} finally {
+				timeNS = System.nanoTime() - start;
+			}
+			return this;
+		}
+
+		/**
+		 * Lower bound rules. See the first part of {@link #oneStepDynamicControllabilityLimitedToZ(EdgesToCheck, Instant)}.
+		 *
+		 * @param timeoutInstant time instant limit allowed to the computation.
+		 */
+		private void applyLowerBoundRules(Instant timeoutInstant) {
+			final CSTNUCheckStatus status = worker.getCheckStatus();
+			final LabeledNode D = node;
+			for (final CSTNUEdge edge : edges) {
+				final LabeledNode B = g.getSource(edge);
+				assert B != null;
+				final CSTNUEdge BD = modifiable(B);
+				if (D == g.getZ()) {
+					if (B.isObserver()) {
+						worker.labelModificationqR0(B, BD);
+					}
+					worker.labelModificationqR3(B, BD);
+					if (B.isObserver()) {
+						worker.labelModificationqR0(B, BD);
+					}
+					worker.zLabeledLetterRemovalRule(B, BD);
+				}
+				for (final CSTNUEdge edgeAB : g.getInEdges(B)) {
+					final LabeledNode A = g.getSource(edgeAB);
+					assert A != null;
+					final CSTNUEdge AB = readable(edgeAB);
+					final CSTNUEdge AD = modifiable(A);
+					worker.labelPropagation(A, B, D, AB, BD, AD);
+					if (!AB.getLowerCaseValue().isEmpty()) {
+						worker.labeledCrossLowerCaseRule(A, B, D, AB, BD, AD);
+					}
+					if (!status.consistency) {
+						return;
+					}
+				}
+				if (status.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+					return;
+				}
+			}
+			final LabeledNode A = node;
+			for (int i = 0; i < firstEdges.size(); i++) {
+				final CSTNUEdge BD = readable(firstEdges.get(i));
+				final CSTNUEdge DA = readable(secondEdges.get(i));
+				final LabeledNode B = g.getSource(firstEdges.get(i));
+				final LabeledNode parameterD = g.getDest(firstEdges.get(i));
+				assert B != null && parameterD != null;
+				final CSTNUEdge BA = modifiable(B);
+				worker.labelPropagation(B, parameterD, A, BD, DA, BA);
+				if (!DA.getLowerCaseValue().isEmpty()) {
+					worker.labeledCrossLowerCaseRule(B, parameterD, A, BD, DA, BA);
+				}
+				if (!status.consistency || status.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Upper bound rules. See the second part of {@link #oneStepDynamicControllabilityLimitedToZ(EdgesToCheck, Instant)}.
+		 *
+		 * @param timeoutInstant time instant limit allowed to the computation.
+		 */
+		private void applyUpperBoundRules(Instant timeoutInstant) {
+			final CSTNUCheckStatus status = worker.getCheckStatus();
+			final LabeledNode B = node;
+			for (final CSTNUEdge edge : edges) {
+				final LabeledNode D = g.getDest(edge);
+				assert D != null;
+				final CSTNUEdge BD = modifiable(D);
+				if (B == g.getZ()) {
+					if (D.isObserver()) {
+						worker.labelModificationR1(B, BD, D);
+					}
+					worker.labelModificationqR2(B, BD);
+				}
+				for (final CSTNUEdge edgeDA : g.getOutEdges(D)) {
+					final LabeledNode A = g.getDest(edgeDA);
+					assert A != null;
+					final CSTNUEdge DA = readable(edgeDA);
+					final CSTNUEdge BA = modifiable(A);
+					worker.ruleAPlus_AparameterPlus(B, D, A, BD, DA, BA);
+					if (D.isContingent()) {
+						worker.ruleBPlus_BparameterPlus(B, D, A, BD, DA, BA);
+					}
+					if (!status.consistency) {
+						return;
+					}
+				}
+				if (status.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @param other the other end point
+		 *
+		 * @return the private copy of the edge between other and {@link #node} (in the direction of the phase), creating it if necessary.
+		 */
+		private CSTNUEdge modifiable(LabeledNode other) {
+			final CSTNUEdge edge = (lower) ? g.findEdge(other, node) : g.findEdge(node, other);
+			if (edge != null) {
+				return copies.computeIfAbsent(edge, e -> g.getEdgeFactory().get((CSTNUEdge) e));
+			}
+			return newEdges.computeIfAbsent(other, o -> worker.makeNewEdge(
+				(lower) ? ((LabeledNode) o).getName() + "_" + node.getName() : node.getName() + "_" + ((LabeledNode) o).getName(),
+				CSTNUEdge.ConstraintType.derived));
+		}
+
+		/**
+		 * @param edge a graph edge
+		 *
+		 * @return the private copy of edge if the group has one, edge otherwise.
+		 */
+		private CSTNUEdge readable(CSTNUEdge edge) {
+			final CSTNUEdge copy = copies.get(edge);
+			return (copy != null) ? copy : edge;
+		}
+	}
+
+	/**
+	 * Status of a PCSTNU check. In addition to {@link CSTNUCheckStatus}, it contains the time spent by each parameter group when the rules are
+	 * applied grouped by parameter node.
+	 *
+	 * @author posenato
+	 */
+	public static class PCSTNUCheckStatus extends CSTNUCheckStatus {
+		/**
+		 *
+		 */
+		@Serial
+		static public final long serialVersionUID = 1L;
+		/**
+		 * Time (ns) spent by the rule applications of each parameter node (or Z), by node name. It is filled only when
+		 * {@link #parallelParameterGroups} is true. Being the groups concurrent, the sum of the times can be greater than the execution time.
+		 */
+		public final Object2LongLinkedOpenHashMap<String> parameterGroupTimeNS = new Object2LongLinkedOpenHashMap<>();
+
+		/**
+		 * Adds the counters of the given status to this one. If the given status is not consistent, this status becomes not consistent with the
+		 * same negative loop node or timeout.
+		 *
+		 * @param status the status of a parameter group
+		 */
+		void add(CSTNUCheckStatus status) {
+			r0calls += status.r0calls;
+			r3calls += status.r3calls;
+			labeledValuePropagationCalls += status.labeledValuePropagationCalls;
+			potentialUpdate += status.potentialUpdate;
+			zExclamationRuleCalls += status.zExclamationRuleCalls;
+			lowerCaseRuleCalls += status.lowerCaseRuleCalls;
+			crossCaseRuleCalls += status.crossCaseRuleCalls;
+			letterRemovalRuleCalls += status.letterRemovalRuleCalls;
+			if (status.timeout) {
+				timeout = true;
+				consistency = false;
+				finished = false;
+			} else if (!status.consistency && consistency) {
+				consistency = false;
+				negativeLoopNode = status.negativeLoopNode;
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			parameterGroupTimeNS.clear();
+		}
+
+		@Override
+		public String toString() {
+			if (parameterGroupTimeNS.isEmpty()) {
+				return super.toString();
+			}
+			final StringBuilder sb = new StringBuilder(super.toString());
+			sb.append("\nTime spent by each parameter group (ns): ").append(parameterGroupTimeNS);
+			return sb.toString();
+		}
+	}
 }
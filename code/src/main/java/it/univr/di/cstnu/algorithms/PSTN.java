@@ -241,6 +241,12 @@ public class PSTN {
 	@Option(name = "-save", usage = "Save the checked instance.")
 	private boolean save;
 
+	/**
+	 * Maximum number of distinct SRNCs that {@link #buildApproxSTNU()} solves in each minimization. Default 1.
+	 */
+	@Option(name = "-srncMax", usage = "Maximum number of distinct semi-reducible negative cycles solved by each minimization of the contingent ranges.", metaVar = "k")
+	private int srncMaxCount;
+
 	/**
 	 * Timeout in seconds for the check.
 	 */
@@ -398,6 +404,7 @@ public class PSTN {
 		this.timeOut = 2700;// seconds
 		this.rangeFactor = 3.3;
 		this.optimizationEngine = null;
+		this.srncMaxCount = 1;
 	}
 
 	/**
@@ -406,6 +413,8 @@ public class PSTN {
 	 * <p>
 	 * The STNU has the same time-points and ordinary constraints as the PSTN, together with contingent links over the same activation and contingent
 	 * time-points. If unable to find such an STNU or the STNU contains a SRN made by only ordinary edges, it returns a null approximating STNU.
+	 * <p>
+	 * Each minimization solves up to {@link #getSRNCMaxCount()} distinct SRNCs of the current approximating STNU.
 	 *
 	 * @return The result (Su, F) is stored in {@link PSTNCheckStatus#approximatingSTNU} and {@link PSTNCheckStatus#probabilityMass}. If it is not possible to
 	 * 	find an approximation because the optimization fails, {@link PSTNCheckStatus#exitFlag} assumes negative values (see
@@ -439,6 +448,7 @@ public class PSTN {
 		//I use a copy of the graph for not destroying the input one.
 		TNGraph<STNUEdge> stnuG = new TNGraph<>(this.g, this.g.getEdgeFactory().getEdgeImplClass());
 		final STNU stnu = new STNU(stnuG);
+		stnu.setSRNCMaxCount(srncMaxCount);
 		try {
 			stnu.initAndCheck();
 		} catch (WellDefinitionException e) {
@@ -587,9 +597,18 @@ public class PSTN {
 				return status;
 			}
 			//SRNCInfo already contains all the information determined by the fec=tchEdgeInfo procedure in the pseudocode of the TIME 2024 paper
-			final STNU.STNUCheckStatus.SRNCInfo negCycle = stnu1Status.getNegativeSTNUCycleInfo(true, stnu1.getG());
+			//Each SRNC found by SRNCycleFinder (see setSRNCMaxCount) determines a constraint of the minimization problem.
+			final int m = stnu1Status.getNegativeSTNUCycleCount();
+			final ObjectList<STNU.STNUCheckStatus.SRNCInfo> negCycles = new ObjectArrayList<>(m);
+			for (int r = 0; r < m; r++) {
+				negCycles.add(stnu1Status.getNegativeSTNUCycleInfo(r));
+			}
+			final STNU.STNUCheckStatus.SRNCInfo negCycle = negCycles.get(0);
 			status.srncKind = stnu1Status.srncKind;
-			if (negCycle.edgeType() == STNU.STNUCheckStatus.SRNCEdges.ordinary) {
+			for (final STNU.STNUCheckStatus.SRNCInfo cycle : negCycles) {
+				if (cycle.edgeType() != STNU.STNUCheckStatus.SRNCEdges.ordinary) {
+					continue;
+				}
 				if (LOG.isLoggable(Level.INFO)) {
 					LOG.info("Found a negative cycle made only by ordinary constraints. It is not possible to solve minimizing contingent ranges. Giving up!");
 				}
@@ -598,38 +617,51 @@ public class PSTN {
 				status.consistency = false;
 				status.finished = true;
 				status.approximatingSTNU = null;
-				status.srn = negCycle.srnExpanded();
+				status.srn = cycle.srnExpanded();
 				status.exitFlag = -10;
 				status.partialExecutionTimeNS = 0;
 				status.probabilityMass = -1.0;
 				return status;
 			}
-			//For each contingent link present in the negative cycle, put is bounds in an array (constraint coefficients for the maximization problem)
+			//For each contingent link present in the negative cycles, put is bounds in an array (constraint coefficients for the maximization problem)
 			//and associate their indices with contingent node
 			if (LOG.isLoggable(Level.FINER)) {
-				LOG.finer("Found the negative semi-reducible cycle: " + negCycle.srnExpanded() +
-				          "\nStart to minimize the contingent ranges to solve the negative cycle.");
+				LOG.finer("Found " + m + " negative semi-reducible cycle(s). The first one is: " + negCycle.srnExpanded() +
+				          "\nStart to minimize the contingent ranges to solve the negative cycle(s).");
 			}
 
 			startMinimization = Instant.now();
-			final Object2IntMap<LabeledNode> lowerCaseCount = negCycle.lowerCaseCount();
-			final Object2IntMap<LabeledNode> upperCaseCount = negCycle.upperCaseCount();
-			final ObjectArraySet<LabeledNode> ctgInSRN = new ObjectArraySet<>(lowerCaseCount.keySet());
-			ctgInSRN.addAll(upperCaseCount.keySet());
+			//The SRNCs after the first one are found in copies of the network of stnu1. Their contingent nodes are determined by name in stnu1.
+			final TNGraph<STNUEdge> stnu1G = stnu1.getG();
+			final ObjectList<Object2IntMap<LabeledNode>> lowerCaseCount = new ObjectArrayList<>(m);
+			final ObjectList<Object2IntMap<LabeledNode>> upperCaseCount = new ObjectArrayList<>(m);
+			final ObjectArraySet<LabeledNode> ctgInSRN = new ObjectArraySet<>();
+			for (final STNU.STNUCheckStatus.SRNCInfo cycle : negCycles) {
+				final Object2IntMap<LabeledNode> lcCount = new Object2IntOpenHashMap<>();
+				for (final Object2IntMap.Entry<LabeledNode> entry : cycle.lowerCaseCount().object2IntEntrySet()) {
+					lcCount.put(stnu1G.getNode(entry.getKey().getName()), entry.getIntValue());
+				}
+				final Object2IntMap<LabeledNode> ucCount = new Object2IntOpenHashMap<>();
+				for (final Object2IntMap.Entry<LabeledNode> entry : cycle.upperCaseCount().object2IntEntrySet()) {
+					ucCount.put(stnu1G.getNode(entry.getKey().getName()), entry.getIntValue());
+				}
+				lowerCaseCount.add(lcCount);
+				upperCaseCount.add(ucCount);
+				ctgInSRN.addAll(lcCount.keySet());
+				ctgInSRN.addAll(ucCount.keySet());
+			}
 			//remove contingent nodes that not have a log-normal distribution
 			for (final LabeledNode node : ctgInSRN.toArray(new LabeledNode[0])) {
 				if (node.getLogNormalDistribution() == null) {
 					LOG.info("Contingent node " + node + " in the SRNC is removed because it hasn't a log-normal distribution.");
 					ctgInSRN.remove(node);
-					lowerCaseCount.removeInt(node);
-					upperCaseCount.removeInt(node);
 				}
 			}
 			final int k = ctgInSRN.size();//number of contingent links
 			final int n = 2 * k;//number of variables
 			final double[] x = new double[n];
-			final double[][] A = new double[1][n];
-			final double[] b = new double[1];
+			final double[][] A = new double[m][n];
+			final double[] b = new double[m];
 			final double[] mu = new double[k];
 			final double[] sigma = new double[k];
 			/*
@@ -643,21 +675,20 @@ public class PSTN {
 			assert upperCaseEdges != null;
 			int i = 0;
 			int j = 0;
-			double partialSumConstantCoefficient = 0.0;
+			final double[] partialSumConstantCoefficient = new double[m];
 
 			for (final LabeledNode ctg : ctgInSRN) {
-				final int nL = lowerCaseCount.getInt(ctg);
-				final int nU = upperCaseCount.getInt(ctg);
-				if (nL == 0 && nU == 0) {
-					continue;
-				}
 				index2Ctg.put(i, ctg);
 				x[i] = lowerCaseEdges.get(ctg).getLabeledValue();//lower bound of the current contingent link
 				x[i + 1] = -upperCaseEdges.get(ctg).getLabeledValue();//upper bound of the current contingent link
-				A[0][i] = -nL; //Since matLabEngine.nonLinearOptimization solve a minimization problem, I have to invert all the coefficients
-				A[0][i + 1] = nU;
-				partialSumConstantCoefficient +=
-					(nL * x[i] - nU * x[i + 1]); //Since nonLinearOptimization solve a minimization problem, I have to invert all the coefficients
+				for (int r = 0; r < m; r++) {
+					final int nL = lowerCaseCount.get(r).getInt(ctg);
+					final int nU = upperCaseCount.get(r).getInt(ctg);
+					A[r][i] = -nL; //Since matLabEngine.nonLinearOptimization solve a minimization problem, I have to invert all the coefficients
+					A[r][i + 1] = nU;
+					partialSumConstantCoefficient[r] +=
+						(nL * x[i] - nU * x[i + 1]); //Since nonLinearOptimization solve a minimization problem, I have to invert all the coefficients
+				}
 				final LogNormalDistributionParameter logNormalPar = logNormalParameterWithSTNUNode.get(stnuG.getNode(ctg.getName()));
 				mu[j] = logNormalPar.getLocation();
 				sigma[j] = logNormalPar.getScale();
@@ -669,7 +700,9 @@ public class PSTN {
 				i += 2;
 				j++;
 			}
-			b[0] = negCycle.value() - partialSumConstantCoefficient;
+			for (int r = 0; r < m; r++) {
+				b[r] = negCycles.get(r).value() - partialSumConstantCoefficient[r];
+			}
 			final OptimizationEngine.OptimizationResult result;
 
 			if (Debug.ON) {
@@ -689,7 +722,7 @@ public class PSTN {
 			status.exitFlag = result.exitFlag();
 			if (result.exitFlag() < 1) {
 				LOG.severe(
-					"MatLab was not able to solve the problem relative to the following SRNC: " + negCycle
+					"MatLab was not able to solve the problem relative to the following SRNC(s): " + negCycles
 					+ "\nMatrix A: " + Arrays.toString(A[0]) + "\nb: " +
 					Arrays.toString(b) + "\nx: " + Arrays.toString(x) + "\nmu: " + Arrays.toString(mu) + "\nsigma: " + Arrays.toString(sigma) + "\nresult: " +
 					result);
@@ -822,6 +855,24 @@ public class PSTN {
 		return maxWeight;
 	}
 
+	/**
+	 * @return the maximum number of distinct SRNCs that {@link #buildApproxSTNU()} solves in each minimization.
+	 */
+	public int getSRNCMaxCount() {
+		return srncMaxCount;
+	}
+
+	/**
+	 * Sets the maximum number of distinct SRNCs that {@link #buildApproxSTNU()} solves in each minimization. The SRNCs are found by
+	 * {@link STNU.CheckAlgorithm#SRNCycleFinder} (see {@link STNU#setSRNCMaxCount(int)}), and each of them is a constraint of the minimization problem.
+	 * Solving more SRNCs in one minimization can reduce the number of minimizations.
+	 *
+	 * @param k a positive number. Values less than 1 are considered as 1.
+	 */
+	public void setSRNCMaxCount(int k) {
+		srncMaxCount = Math.max(1, k);
+	}
+
 	/**
 	 * @return the time-out in seconds for the DC checking method.
 	 */
@@ -6,6 +6,9 @@ package it.univr.di.cstnu.algorithms;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import it.unimi.dsi.fastutil.Pair;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.AbstractObject2IntMap.BasicEntry;
 import it.unimi.dsi.fastutil.objects.*;
 import it.univr.di.Debug;
@@ -15,8 +18,8 @@ import it.univr.di.cstnu.graph.*;
 import it.univr.di.cstnu.graph.STNUEdge.CaseLabel;
 import it.univr.di.cstnu.util.ExtendedPriorityQueue;
 import it.univr.di.cstnu.util.ExtendedPriorityQueue.Status;
+import it.univr.di.cstnu.util.IntIndexedPriorityQueue;
 import it.univr.di.cstnu.util.ObjectPair;
-import it.univr.di.cstnu.visualization.CSTNUStaticLayout;
 import it.univr.di.labeledvalue.ALabelAlphabet.ALetter;
 import it.univr.di.labeledvalue.Constants;
 import it.univr.di.labeledvalue.Label;
@@ -34,10 +37,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -70,6 +80,14 @@ public class STNU {
 		 * Morris cubic algorithm
 		 */
 		Morris2014,
+		/**
+		 * Morris cubic algorithm + dispatchable phase where independent negative nodes are processed in parallel
+		 */
+		Morris2014DispatchableParallel,
+		/**
+		 * Morris cubic algorithm where independent negative nodes are processed in parallel
+		 */
+		Morris2014Parallel,
 		/**
 		 * Cairo, Rizzi and Hunsberger RUL^- algorithm
 		 */
@@ -179,6 +197,13 @@ public class STNU {
 		 */
 		STNUPath negativeSTNUCycle;
 
+		/**
+		 * All the distinct SRNCs found by SRNCycleFinder (see {@link STNU#setSRNCMaxCount(int)}). The first element is always about
+		 * {@link #negativeSTNUCycle}.<br>
+		 * Each element is a snapshot, with the expansion, taken when the SRNC was found because the SRNCs after the first one are found in copies of the
+		 * network that are not maintained.
+		 */
+		final ObjectArrayList<SRNCInfo> negativeSTNUCycles = new ObjectArrayList<>();
 
 		/**
 		 * Kind of SRNC
@@ -186,9 +211,9 @@ public class STNU {
 		SRNCKind srncKind;
 
 		/**
-		 * It maintains, for each edge (key), the STNUPath that determined the edge.
+		 * It maintains, for each edge, the STNUPath that determined the edge in an int-encoded form.
 		 */
-		transient Object2ObjectOpenHashMap<STNUEdge, STNUPath> edgePathAnnotation;
+		transient EdgeDerivationStore edgePathAnnotation;
 
 		/**
 		 * Default constructor
@@ -198,7 +223,7 @@ public class STNU {
 			this.checkAlgorithm = null;
 			this.maxMinConstraint = 0;
 			this.negativeSTNUCycle = null;
-			this.edgePathAnnotation = new Object2ObjectOpenHashMap<>();
+			this.edgePathAnnotation = new EdgeDerivationStore();
 			srncKind = null;
 		}
 
@@ -213,6 +238,7 @@ public class STNU {
 			this.checkAlgorithm = in.checkAlgorithm;
 			this.maxMinConstraint = 0;
 			this.negativeSTNUCycle = in.negativeSTNUCycle;
+			this.negativeSTNUCycles.addAll(in.negativeSTNUCycles);
 			this.edgePathAnnotation = in.edgePathAnnotation;
 			srncKind = in.srncKind;
 		}
@@ -235,15 +261,7 @@ public class STNU {
 		 * @return the sequence of edges that determine the given edge.
 		 */
 		public final Object2ObjectMap<STNUEdge, ObjectList<STNUEdge>> getEdgePathAnnotation() {
-			final Object2ObjectMap<STNUEdge, ObjectList<STNUEdge>> newMap = new Object2ObjectOpenHashMap<>();
-			for (final Entry<STNUEdge, STNUPath> entry : this.edgePathAnnotation.entrySet()) {
-				final STNUEdge e = entry.getKey();
-				final STNUPath path = entry.getValue();
-				if (path.size() != 0) {
-					newMap.put(e, new ObjectArrayList<>(path.get()));
-				}
-			}
-			return newMap;
+			return this.edgePathAnnotation.toMap();
 		}
 
 		/**
@@ -265,9 +283,90 @@ public class STNU {
 			if (this.negativeSTNUCycle == null) {
 				return null;
 			}
+			return buildSRNCInfo(this.negativeSTNUCycle, this.srncKind, expanded, g);
+		}
+
+		/**
+		 * @param i index of the SRNC, {@code 0 <= i < }{@link #getNegativeSTNUCycleCount()}. The SRNC of index 0 is the one returned by
+		 *          {@link #getNegativeSTNUCycleInfo(boolean, TNGraph)}.
+		 *
+		 * @return the i-th negative cycle found by SRNCycleFinder, always expanded. The edges of the SRNCs after the first one, and the keys of their lower/upper
+		 * 	case counters, belong to copies of the network. Use their names for finding the corresponding edges/nodes in the network.
+		 *
+		 * @throws IndexOutOfBoundsException if i is not a valid index.
+		 */
+		public SRNCInfo getNegativeSTNUCycleInfo(int i) {
+			return this.negativeSTNUCycles.get(i);
+		}
+
+		/**
+		 * @return the number of distinct SRNCs found by the last SRNCycleFinder execution. It is 0 if the network is DC or the check was not done by
+		 * 	SRNCycleFinder.
+		 */
+		public int getNegativeSTNUCycleCount() {
+			return this.negativeSTNUCycles.size();
+		}
+
+		/**
+		 * Adds a snapshot of the given SRNC to the list of found SRNCs if it is not already present. Two SRNCs are equal if the sequence of edge names of one is
+		 * a rotation of the other one, so that SRNCs found in different copies of the same network can be compared.
+		 * The first added SRNC becomes also the {@link #negativeSTNUCycle}.
+		 *
+		 * @param cycle the SRNC
+		 * @param kind  its kind
+		 * @param g     the network containing the SRNC
+		 *
+		 * @return true if the cycle was added, false if it was already present.
+		 */
+		boolean addNegativeSTNUCycle(@Nonnull STNUPath cycle, SRNCKind kind, @Nonnull TNGraph<STNUEdge> g) {
+			for (final SRNCInfo c : this.negativeSTNUCycles) {
+				if (isRotationByName(c.srnc(), cycle.get())) {
+					return false;
+				}
+			}
+			if (this.negativeSTNUCycles.isEmpty()) {
+				this.negativeSTNUCycle = cycle;
+				this.srncKind = kind;
+			}
+			this.negativeSTNUCycles.add(buildSRNCInfo(cycle, kind, true, g));
+			return true;
+		}
+
+		/**
+		 * @return true if the sequence of edge names of c1 is equal to a rotation of the one of c2.
+		 */
+		private static boolean isRotationByName(@Nonnull List<STNUEdge> c1, @Nonnull List<STNUEdge> c2) {
+			final int n = c1.size();
+			if (n != c2.size()) {
+				return false;
+			}
+			if (n == 0) {
+				return true;
+			}
+			final String first = c1.get(0).getName();
+			for (int shift = 0; shift < n; shift++) {
+				if (!c2.get(shift).getName().equals(first)) {
+					continue;
+				}
+				int i = 1;
+				while (i < n && c1.get(i).getName().equals(c2.get((i + shift) % n).getName())) {
+					i++;
+				}
+				if (i == n) {
+					return true;
+				}
+			}
+			return false;
+		}
 
+		/**
+		 * Builds the statistics about the given SRNC.
+		 * <p>
+		 * When expanded is true, each derived edge is replaced by the (cached) sequence of original edges that determine it. Therefore, the cost of this
+		 * method is linear in the length of the expanded SRNC after the first call.
+		 */
+		private SRNCInfo buildSRNCInfo(@Nonnull STNUPath cycle, SRNCKind kind, boolean expanded, @Nullable TNGraph<STNUEdge> g) {
 			int pathValue = 0, length = 0, maxEdgeRepetition = 0, expandedPathValue = 0;
-			SRNCEdges type = SRNCEdges.ordinary;
 			boolean simple = true;
 			final ObjectArrayList<STNUEdge> expandedPath = new ObjectArrayList<>();
 			final Object2IntMap<STNUEdge> repetition = new Object2IntOpenHashMap<>();
@@ -277,91 +376,36 @@ public class STNU {
 			lowerCaseCount.defaultReturnValue(0);
 			final Object2IntMap<LabeledNode> upperCaseCount = new Object2IntOpenHashMap<>();
 			upperCaseCount.defaultReturnValue(0);
+			final SRNCEdges[] type = {SRNCEdges.ordinary};
 
-			for (final STNUEdge edge : this.negativeSTNUCycle.get()) {
+			for (final STNUEdge edge : cycle.get()) {
 				length++;
-				final int edgeValue;
-				final boolean lowerCase;
-
-				if ((lowerCase = edge.isLowerCase()) || edge.isUpperCase()) {
-					edgeValue = edge.getLabeledValue();
-					if (g != null) {
-						final LabeledNode ctg = (lowerCase) ? g.getDest(edge) : g.getSource(edge);
-						assert ctg != null;
-						if (lowerCase) {
-							lowerCaseCount.put(ctg, lowerCaseCount.getInt(ctg) + 1);
-						} else {
-							upperCaseCount.put(ctg, upperCaseCount.getInt(ctg) + 1);
-						}
-					}
-					if (type != SRNCEdges.all) {
-						if (lowerCase) {
-							type = SRNCEdges.ordinaryLC;
-						} else {
-							type = SRNCEdges.all;
-						}
-					}
-				} else {
-					if (edge.isWait()) {
-						edgeValue = edge.getLabeledValue();
-					} else {
-						edgeValue = edge.getValue();
-					}
-				}
-
+				final int edgeValue = countSRNCEdge(edge, g, lowerCaseCount, upperCaseCount, type);
 				pathValue = Constants.sumWithOverflowCheck(pathValue, edgeValue);
-				int repetitionValue = repetition.getInt(edge);
-				repetitionValue++;
+				int repetitionValue = repetition.getInt(edge) + 1;
 				if (repetitionValue > maxEdgeRepetition) {
 					maxEdgeRepetition = repetitionValue;
 				}
 				repetition.put(edge, repetitionValue);
-				final ObjectList<STNUEdge> derivation = this.getEdgePathAnnotation().get(edge);
-				if (simple && derivation != null) {
+				final int edgeId = this.edgePathAnnotation.getId(edge);
+				final boolean derived = this.edgePathAnnotation.isDerived(edgeId);
+				if (simple && derived) {
 					simple = false;
 				}
 
 				if (expanded) {
-					if (derivation == null) {
+					if (!derived) {
 						//the edge has been already evaluated.
 						expandedPath.add(edge);
 						expandedPathValue = Constants.sumWithOverflowCheck(expandedPathValue, edgeValue);
 						continue;
 					}
-					final ObjectList<STNUEdge> subPath = resolveEdgeDerivation(edge);
-					for (final STNUEdge e1 : subPath) {
-						final int e1Value;
-						final boolean lowerCase1;
-
-						if ((lowerCase1 = e1.isLowerCase()) || e1.isUpperCase()) {
-							e1Value = e1.getLabeledValue();
-							if (g != null) {
-								final LabeledNode ctg = (lowerCase1) ? g.getDest(e1) : g.getSource(e1);
-								assert ctg != null;
-								if (lowerCase1) {
-									lowerCaseCount.put(ctg, lowerCaseCount.getInt(ctg) + 1);
-								} else {
-									upperCaseCount.put(ctg, upperCaseCount.getInt(ctg) + 1);
-								}
-							}
-							if (type != SRNCEdges.all) {
-								if (lowerCase) {
-									type = SRNCEdges.ordinaryLC;
-								} else {
-									type = SRNCEdges.all;
-								}
-							}
-						} else {
-							if (e1.isWait()) {
-								e1Value = e1.getLabeledValue();
-							} else {
-								e1Value = e1.getValue();
-							}
-						}
-
+					final int[] subPath = this.edgePathAnnotation.getExpansion(edgeId);
+					for (final int e1Id : subPath) {
+						final STNUEdge e1 = this.edgePathAnnotation.getEdge(e1Id);
+						final int e1Value = countSRNCEdge(e1, g, lowerCaseCount, upperCaseCount, type);
 						expandedPathValue = Constants.sumWithOverflowCheck(expandedPathValue, e1Value);
-						repetitionValue = repetition.getInt(e1);
-						repetitionValue++;
+						repetitionValue = repetition.getInt(e1) + 1;
 						if (repetitionValue > maxEdgeRepetition) {
 							maxEdgeRepetition = repetitionValue;
 						}
@@ -374,11 +418,11 @@ public class STNU {
 					}
 				}
 			}
-			return new SRNCInfo(new ObjectImmutableList<>(this.negativeSTNUCycle.get())
+			return new SRNCInfo(new ObjectImmutableList<>(cycle.get())
 				, pathValue
 				, length
-				, srncKind
-				, type
+				, kind
+				, type[0]
 				, simple
 				, new ObjectImmutableList<>(expandedPath)
 				, maxEdgeRepetition
@@ -387,6 +431,36 @@ public class STNU {
 			);
 		}
 
+		/**
+		 * Auxiliary method of {@link #buildSRNCInfo(STNUPath, SRNCKind, boolean, TNGraph)}.
+		 * It updates the lower/upper case counters and the kind of edges of an SRNC considering the given edge.
+		 *
+		 * @return the value of the edge in the SRNC.
+		 */
+		private static int countSRNCEdge(@Nonnull STNUEdge edge, @Nullable TNGraph<STNUEdge> g, Object2IntMap<LabeledNode> lowerCaseCount,
+		                                 Object2IntMap<LabeledNode> upperCaseCount, SRNCEdges[] type) {
+			final boolean lowerCase;
+			if ((lowerCase = edge.isLowerCase()) || edge.isUpperCase()) {
+				if (g != null) {
+					final LabeledNode ctg = (lowerCase) ? g.getDest(edge) : g.getSource(edge);
+					assert ctg != null;
+					if (lowerCase) {
+						lowerCaseCount.put(ctg, lowerCaseCount.getInt(ctg) + 1);
+					} else {
+						upperCaseCount.put(ctg, upperCaseCount.getInt(ctg) + 1);
+					}
+				}
+				if (type[0] != SRNCEdges.all) {
+					type[0] = (lowerCase) ? SRNCEdges.ordinaryLC : SRNCEdges.all;
+				}
+				return edge.getLabeledValue();
+			}
+			if (edge.isWait()) {
+				return edge.getLabeledValue();
+			}
+			return edge.getValue();
+		}
+
 		/**
 		 * @return the SRNC type
 		 */
@@ -417,6 +491,8 @@ public class STNU {
 			checkAlgorithm = null;
 			maxMinConstraint = 0;
 			this.negativeSTNUCycle = null;
+			this.negativeSTNUCycles.clear();
+			this.srncKind = null;
 			this.edgePathAnnotation.clear();
 		}
 
@@ -427,13 +503,13 @@ public class STNU {
 		 */
 		public final ObjectList<STNUEdge> resolveEdgeDerivation(STNUEdge e) {
 			final ObjectList<STNUEdge> path = new ObjectArrayList<>();
-			final ObjectList<STNUEdge> derivation = this.getEdgePathAnnotation().get(e);
-			if (derivation != null) {
-				for (final STNUEdge derivationEdge : derivation) {
-					path.addAll(resolveEdgeDerivation(derivationEdge));
-				}
-			} else {
+			final int id = this.edgePathAnnotation.getId(e);
+			if (!this.edgePathAnnotation.isDerived(id)) {
 				path.add(e);
+				return path;
+			}
+			for (final int e1Id : this.edgePathAnnotation.getExpansion(id)) {
+				path.add(this.edgePathAnnotation.getEdge(e1Id));
 			}
 			return path;
 		}
@@ -590,6 +666,197 @@ public class STNU {
 		}
 	}
 
+	/**
+	 * Int-encoded store of the derivation paths of the edges determined by SRNCycleFinder.
+	 * <p>
+	 * Each edge is mapped to an int id, and the derivation path of a derived edge is stored as a slice of a single int array of edge ids. The full expansion of
+	 * a derived edge (the sequence of original edges obtained resolving recursively all derived edges) is determined only on demand, and it is cached in
+	 * another int array, so that subsequent requests cost only the length of the expansion.<br> Any new derivation invalidates the cached expansions because
+	 * expansions of other edges could depend on it.
+	 */
+	private static final class EdgeDerivationStore {
+		/**
+		 * Edge --> id
+		 */
+		private final Object2IntOpenHashMap<STNUEdge> edgeId;
+		/**
+		 * id --> edge
+		 */
+		private final ObjectArrayList<STNUEdge> edges;
+		/**
+		 * For each edge id, the start of its derivation in {@link #derivationPool}, -1 if the edge is not derived.
+		 */
+		private final IntArrayList derivationStart;
+		/**
+		 * For each edge id, the length of its derivation.
+		 */
+		private final IntArrayList derivationLength;
+		/**
+		 * Concatenation of all derivation paths as edge ids.
+		 */
+		private final IntArrayList derivationPool;
+		/**
+		 * Cache of the expansions. For each edge id, the expansion as an array of edge ids, null if not determined.
+		 */
+		private final ObjectArrayList<int[]> expansion;
+		/**
+		 * True if at least one expansion is cached.
+		 */
+		private boolean expansionCached;
+
+		/**
+		 * Default constructor.
+		 */
+		EdgeDerivationStore() {
+			edgeId = new Object2IntOpenHashMap<>();
+			edgeId.defaultReturnValue(-1);
+			edges = new ObjectArrayList<>();
+			derivationStart = new IntArrayList();
+			derivationLength = new IntArrayList();
+			derivationPool = new IntArrayList();
+			expansion = new ObjectArrayList<>();
+			expansionCached = false;
+		}
+
+		/**
+		 * Removes all derivations.
+		 */
+		void clear() {
+			edgeId.clear();
+			edges.clear();
+			derivationStart.clear();
+			derivationLength.clear();
+			derivationPool.clear();
+			expansion.clear();
+			expansionCached = false;
+		}
+
+		/**
+		 * @param id a valid id
+		 *
+		 * @return the edge having the given id.
+		 */
+		STNUEdge getEdge(int id) {
+			return edges.get(id);
+		}
+
+		/**
+		 * @param e an edge
+		 *
+		 * @return the id of the edge, -1 if the edge was never stored.
+		 */
+		int getId(STNUEdge e) {
+			return edgeId.getInt(e);
+		}
+
+		/**
+		 * @param id an edge id, possibly -1.
+		 *
+		 * @return true if the edge has a derivation path.
+		 */
+		boolean isDerived(int id) {
+			return id >= 0 && derivationStart.getInt(id) >= 0;
+		}
+
+		/**
+		 * @param e an edge
+		 *
+		 * @return the id of the edge, adding it if it was not present.
+		 */
+		private int getOrAddId(STNUEdge e) {
+			int id = edgeId.getInt(e);
+			if (id < 0) {
+				id = edges.size();
+				edgeId.put(e, id);
+				edges.add(e);
+				derivationStart.add(-1);
+				derivationLength.add(0);
+				expansion.add(null);
+			}
+			return id;
+		}
+
+		/**
+		 * Sets the derivation path of the given edge. The path is copied. An empty or null path removes the derivation.
+		 *
+		 * @param e    the derived edge
+		 * @param path the path of edges that determined e.
+		 */
+		void put(@Nonnull STNUEdge e, @Nullable STNUPath path) {
+			final int id = getOrAddId(e);
+			if (path == null || path.size() == 0) {
+				derivationStart.set(id, -1);
+				derivationLength.set(id, 0);
+			} else {
+				final ObjectArrayList<STNUEdge> p = path.get();
+				final int size = p.size();
+				final int start = derivationPool.size();
+				for (int i = 0; i < size; i++) {
+					derivationPool.add(getOrAddId(p.get(i)));
+				}
+				derivationStart.set(id, start);
+				derivationLength.set(id, size);
+			}
+			if (expansionCached) {
+				for (int i = expansion.size(); i-- != 0; ) {
+					expansion.set(i, null);
+				}
+				expansionCached = false;
+			}
+		}
+
+		/**
+		 * @param id the id of a derived edge
+		 *
+		 * @return the expansion of the given edge as edge ids of original (not derived) edges. The returned array must not be modified.
+		 */
+		int[] getExpansion(int id) {
+			int[] exp = expansion.get(id);
+			if (exp != null) {
+				return exp;
+			}
+			final int start = derivationStart.getInt(id);
+			if (start < 0) {
+				exp = new int[]{id};
+			} else {
+				final int length = derivationLength.getInt(id);
+				final IntArrayList result = new IntArrayList(length);
+				for (int i = start; i < start + length; i++) {
+					final int childId = derivationPool.getInt(i);
+					if (derivationStart.getInt(childId) < 0) {
+						result.add(childId);
+					} else {
+						result.addElements(result.size(), getExpansion(childId));
+					}
+				}
+				exp = result.toIntArray();
+			}
+			expansion.set(id, exp);
+			expansionCached = true;
+			return exp;
+		}
+
+		/**
+		 * @return a map (derived edge, derivation path). Only derived edges are present.
+		 */
+		Object2ObjectMap<STNUEdge, ObjectList<STNUEdge>> toMap() {
+			final Object2ObjectMap<STNUEdge, ObjectList<STNUEdge>> newMap = new Object2ObjectOpenHashMap<>();
+			for (int id = 0; id < edges.size(); id++) {
+				final int start = derivationStart.getInt(id);
+				if (start < 0) {
+					continue;
+				}
+				final int length = derivationLength.getInt(id);
+				final ObjectArrayList<STNUEdge> path = new ObjectArrayList<>(length);
+				for (int i = start; i < start + length; i++) {
+					path.add(edges.get(derivationPool.getInt(i)));
+				}
+				newMap.put(edges.get(id), path);
+			}
+			return newMap;
+		}
+	}
+
 	/**
 	 * Data structure for RUL algorithm.
 	 *
@@ -622,6 +889,20 @@ public class STNU {
 		 */
 		final Object2ObjectMap<STNUEdge, Pair<STNUEdge, STNUPath>> interruptBy;
 
+		/**
+		 * Scratch space reused by all the searches of rul2021BackPropagation. It is allocated at the first use.
+		 */
+		RULScratch scratch;
+
+		/**
+		 * Contingent nodes whose forward propagation has been deferred in batched mode.
+		 */
+		final ObjectList<LabeledNode> deferredFwdPropNode;
+
+		/**
+		 * DeltaC of each contingent node in {@link #deferredFwdPropNode}.
+		 */
+		final IntArrayList deferredFwdPropDeltaC;
 
 		/**
 		 * Default constructor
@@ -636,6 +917,181 @@ public class STNU {
 			upperCaseEdgeFromActivation = null;
 			localInfoOfContingentNodes = new Object2ObjectOpenHashMap<>(nUpperCaseEdges);
 			interruptBy = new Object2ObjectOpenHashMap<>(nUpperCaseEdges);
+			scratch = null;
+			deferredFwdPropNode = new ObjectArrayList<>();
+			deferredFwdPropDeltaC = new IntArrayList();
+		}
+	}
+
+	/**
+	 * Scratch space for the searches of RUL2021.
+	 * <p>
+	 * Nodes are represented by int ids, so that the searches use an {@link IntIndexedPriorityQueue} that is allocated once and emptied in O(1) time, and the
+	 * RELAX<sup>-</sup>/LOWER<sup>-</sup> results are stored in two reusable lists instead of a new list of entries for each node.
+	 * A scratch must be used by one thread at a time. Scratches for other threads can be created by {@link #RULScratch(RULScratch)}.
+	 *
+	 * @author posenato
+	 */
+	private static final class RULScratch {
+		/**
+		 * Node of each id.
+		 */
+		final LabeledNode[] node;
+		/**
+		 * Id of each node. It is shared (read-only) by all the scratches derived from the same one.
+		 */
+		final Object2IntOpenHashMap<LabeledNode> nodeId;
+		/**
+		 * Reusable queue.
+		 */
+		final IntIndexedPriorityQueue queue;
+		/**
+		 * Nodes determined by the last call of rul2021NewApplyRelaxLower.
+		 */
+		final ObjectArrayList<LabeledNode> relaxedNode;
+		/**
+		 * Distances to the contingent node of the nodes in {@link #relaxedNode}.
+		 */
+		final IntArrayList relaxedValue;
+		/**
+		 * Distances to the contingent node of the back-propagations in progress, one for each level of recursion of rul2021BackPropagation.
+		 * They are allocated at the first use of each level and then reused.
+		 */
+		final ObjectArrayList<RULDistance> distance;
+		/**
+		 * Number of back-propagations in progress.
+		 */
+		int depth;
+
+		/**
+		 * @param nodes the nodes of the network. The id of a node is its position in the array.
+		 */
+		RULScratch(@Nonnull LabeledNode[] nodes) {
+			node = nodes;
+			nodeId = new Object2IntOpenHashMap<>(nodes.length);
+			nodeId.defaultReturnValue(-1);
+			for (int i = 0; i < nodes.length; i++) {
+				nodeId.put(nodes[i], i);
+			}
+			queue = new IntIndexedPriorityQueue(nodes.length);
+			relaxedNode = new ObjectArrayList<>();
+			relaxedValue = new IntArrayList();
+			distance = new ObjectArrayList<>();
+			depth = 0;
+		}
+
+		/**
+		 * Creates a new scratch sharing the node ids with the given one.
+		 *
+		 * @param shared the scratch to share the node ids with.
+		 */
+		RULScratch(@Nonnull RULScratch shared) {
+			node = shared.node;
+			nodeId = shared.nodeId;
+			queue = new IntIndexedPriorityQueue(node.length);
+			relaxedNode = new ObjectArrayList<>();
+			relaxedValue = new IntArrayList();
+			distance = new ObjectArrayList<>();
+			depth = 0;
+		}
+
+		/**
+		 * @param n a node of the network
+		 *
+		 * @return the id of the node.
+		 */
+		int id(@Nonnull LabeledNode n) {
+			return nodeId.getInt(n);
+		}
+
+		/**
+		 * Starts a new back-propagation.
+		 *
+		 * @return the (empty) distances of the new back-propagation. They are valid until {@link #popDistance()}.
+		 */
+		RULDistance pushDistance() {
+			if (depth == distance.size()) {
+				distance.add(new RULDistance(node.length));
+			}
+			final RULDistance d = distance.get(depth++);
+			d.clear();
+			return d;
+		}
+
+		/**
+		 * Ends the last back-propagation started by {@link #pushDistance()}.
+		 */
+		void popDistance() {
+			depth--;
+		}
+	}
+
+	/**
+	 * Distances of the nodes to a contingent node determined by a back-propagation of RUL2021.
+	 * <p>
+	 * Nodes are represented by their ids in a {@link RULScratch}. As in {@link IntIndexedPriorityQueue}, each id is stamped with the epoch in which its
+	 * distance was set, so that {@link #clear()} runs in O(1) time. The ids having a distance are also kept in {@link #reached}.
+	 *
+	 * @author posenato
+	 */
+	private static final class RULDistance {
+		/**
+		 * Distance of each id.
+		 */
+		final int[] value;
+		/**
+		 * Epoch in which the distance of each id was set.
+		 */
+		final int[] stamp;
+		/**
+		 * Ids having a distance in the current epoch.
+		 */
+		final IntArrayList reached;
+		/**
+		 * Current epoch.
+		 */
+		int epoch;
+
+		/**
+		 * @param capacity number of ids.
+		 */
+		RULDistance(int capacity) {
+			value = new int[capacity];
+			stamp = new int[capacity];
+			reached = new IntArrayList();
+			epoch = 1;
+		}
+
+		/**
+		 * Removes all distances.
+		 */
+		void clear() {
+			reached.clear();
+			if (++epoch == Integer.MAX_VALUE) {
+				Arrays.fill(stamp, 0);
+				epoch = 1;
+			}
+		}
+
+		/**
+		 * @param id a node id
+		 *
+		 * @return the distance of id, {@link Constants#INT_POS_INFINITE} if it has not been set.
+		 */
+		int get(int id) {
+			return (stamp[id] == epoch) ? value[id] : Constants.INT_POS_INFINITE;
+		}
+
+		/**
+		 * @param id a node id
+		 * @param v  the new distance of id
+		 */
+		void put(int id, int v) {
+			if (stamp[id] != epoch) {
+				stamp[id] = epoch;
+				reached.add(id);
+			}
+			value[id] = v;
 		}
 	}
 
@@ -652,8 +1108,11 @@ public class STNU {
 
 		/**
 		 * Distance from a node to the contingent node associated to this local info.
+		 * <p>
+		 * RUL2021 determines the distances in a {@link RULDistance} and, at the end of the back-propagation, it stores here only the ones less than
+		 * DeltaC, that are the only ones read by the forward propagation and by FD_STNU.
 		 */
-		final Object2IntMap<LabeledNode> distanceFromNodeToContingent;
+		Object2IntMap<LabeledNode> distanceFromNodeToContingent;
 
 		/**
 		 * Edges to check
@@ -667,41 +1126,255 @@ public class STNU {
 
 
 		/**
-		 * Default constructor
-		 *
-		 * @param defaultDistance default distance when map does not contain the key.
+		 * Default constructor
+		 *
+		 * @param defaultDistance default distance when map does not contain the key.
+		 */
+		@SuppressWarnings("SameParameterValue")
+		RULLocalInfo(int defaultDistance) {
+			distanceFromNodeToContingent = new Object2IntOpenHashMap<>();
+			distanceFromNodeToContingent.defaultReturnValue(defaultDistance);
+			ccLoop = false;
+			unStartedUCEdges = null;
+			path = new Object2ObjectOpenHashMap<>();
+		}
+
+		/**
+		 * Constructor for RUL2021. The distances are set at the end of the back-propagation and {@link #path} is not used.
+		 */
+		RULLocalInfo() {
+			distanceFromNodeToContingent = null;
+			ccLoop = false;
+			unStartedUCEdges = null;
+			path = null;
+		}
+	}
+
+	/**
+	 * Kind of update of an edge {@code (U, X)} determined by a back-propagation of the parallel versions of Morris' algorithm.
+	 */
+	private enum MorrisEdgeOpKind {
+		/**
+		 * Ordinary value used by {@link #applyMorris2014Parallel()}.
+		 */
+		ordinary,
+		/**
+		 * Non-negative ordinary value used by {@link #applyMorris2014DispatchableParallel()}.
+		 */
+		dispatchableOrdinary,
+		/**
+		 * Negative ordinary value used by {@link #applyMorris2014DispatchableParallel()}.
+		 */
+		dispatchableNegativeOrdinary,
+		/**
+		 * Wait (or ordinary value derived from a simplified wait) used by {@link #applyMorris2014DispatchableParallel()}.
+		 */
+		dispatchableWait
+	}
+
+	/**
+	 * Nodes removed from the network by {@link #applyCompressDispatchableESTNU()}.
+	 * <p>
+	 * Each removed node X belongs to a rigid component whose representative R is still in the network, and in each execution X must be executed at
+	 * time {@code t(R) + offset(X)}. Therefore, a schedule of the compressed network can be expressed in terms of the original nodes by
+	 * {@link #expandSchedule(Object2IntMap)}.
+	 *
+	 * @param representative map (removed node, representative node).
+	 * @param offset         map (removed node, distance from its representative node).
+	 */
+	public record CollapsedNodeMap(@Nonnull Object2ObjectMap<LabeledNode, LabeledNode> representative, @Nonnull Object2IntMap<LabeledNode> offset) {
+		/**
+		 * Adds to the given schedule the execution time of each removed node.
+		 * <br>
+		 * Representatives are searched by name, so the schedule can be determined on a copy of the compressed network (as {@link STNURTE} does).
+		 *
+		 * @param schedule a schedule of the compressed network. It is modified.
+		 *
+		 * @throws IllegalStateException if the representative of a removed node is not in the schedule.
+		 */
+		public void expandSchedule(@Nonnull Object2IntMap<LabeledNode> schedule) {
+			final Object2ObjectMap<String, LabeledNode> scheduledNode = new Object2ObjectOpenHashMap<>(schedule.size());
+			for (final LabeledNode node : schedule.keySet()) {
+				scheduledNode.put(node.getName(), node);
+			}
+			for (final Object2ObjectMap.Entry<LabeledNode, LabeledNode> entry : representative.object2ObjectEntrySet()) {
+				final LabeledNode rep = scheduledNode.get(entry.getValue().getName());
+				if (rep == null) {
+					throw new IllegalStateException(
+						"The representative " + entry.getValue().getName() + " of the removed node " + entry.getKey().getName() + " is not in the schedule.");
+				}
+				schedule.put(entry.getKey(), Constants.sumWithOverflowCheck(schedule.getInt(rep), offset.getInt(entry.getKey())));
+			}
+		}
+
+		/**
+		 * @return the number of removed nodes.
+		 */
+		public int size() {
+			return representative.size();
+		}
+	}
+
+	/**
+	 * Update of the edge {@code (U, X)} determined by a back-propagation of the parallel versions of Morris' algorithm.
+	 * <p>
+	 * Back-propagations run concurrently on the network without modifying it. Their updates are applied to the network, in a deterministic order, after
+	 * the back-propagations have been completed.
+	 *
+	 * @param U                          source node
+	 * @param X                          destination node (the negative node of the back-propagation)
+	 * @param value                      the value determined by the back-propagation
+	 * @param kind                       the kind of update
+	 * @param contingentNodeCase         the upper-case letter of the wait. Only for {@link MorrisEdgeOpKind#dispatchableWait}.
+	 * @param contingentLowerBoundNegated the negated lower bound of the contingent link of the wait. Only for {@link MorrisEdgeOpKind#dispatchableWait}.
+	 */
+	private record MorrisEdgeOp(LabeledNode U, LabeledNode X, int value, MorrisEdgeOpKind kind, ALetter contingentNodeCase,
+	                            int contingentLowerBoundNegated) {}
+
+	/**
+	 * Result of the back-propagation from a negative node executed by the parallel versions of Morris' algorithm.
+	 *
+	 * @param blockedBy the negative node not yet completed that was met by the back-propagation. If it is not null, the back-propagation has been
+	 *                  interrupted, and edgeOps is not significant.
+	 * @param edgeOps   the edge updates determined by the back-propagation in the order they were determined.
+	 */
+	private record MorrisBackpropResult(LabeledNode blockedBy, ObjectList<MorrisEdgeOp> edgeOps) {}
+
+	/**
+	 * Compact store of the ordinary and wait constraints derived by FD_STNU before they are added to the network.
+	 * <p>
+	 * A constraint is represented by the int ids of its nodes, its int value and, for a wait, the int id of its contingent node, without creating any
+	 * edge object. Constraints with the same key are merged keeping the minimum value. In this way, the network is modified only once for each derived
+	 * edge by {@link #materialize(TNGraph, Object2ObjectMap)}.
+	 *
+	 * @author posenato
+	 */
+	private static final class DerivedConstraintStore {
+		/**
+		 * Node of each id.
+		 */
+		private final LabeledNode[] node;
+		/**
+		 * Id of each node.
+		 */
+		private final Object2IntOpenHashMap<LabeledNode> nodeId;
+		/**
+		 * Map (source id, destination id) --> minimum ordinary value.
+		 */
+		private final Long2IntOpenHashMap ordinary;
+		/**
+		 * Map (source id, contingent node id) --> minimum wait value. The destination of a wait is the activation node of the contingent node.
+		 */
+		private final Long2IntOpenHashMap wait;
+
+		/**
+		 * @param nodes the nodes of the network. The id of a node is its position in the array.
+		 */
+		DerivedConstraintStore(@Nonnull LabeledNode[] nodes) {
+			node = nodes;
+			nodeId = new Object2IntOpenHashMap<>(nodes.length);
+			nodeId.defaultReturnValue(-1);
+			for (int i = 0; i < nodes.length; i++) {
+				nodeId.put(nodes[i], i);
+			}
+			ordinary = new Long2IntOpenHashMap();
+			wait = new Long2IntOpenHashMap();
+		}
+
+		/**
+		 * @param first  first id
+		 * @param second second id
+		 *
+		 * @return the long key representing the pair of ids.
+		 */
+		private static long key(int first, int second) {
+			return ((long) first << 32) | (second & 0xFFFFFFFFL);
+		}
+
+		/**
+		 * Adds the wait {@code (source, C:value, A)}, where {@code A} is the activation node of {@code C}, if it is stronger than the stored one.
+		 *
+		 * @param source    source node
+		 * @param contingent contingent node
+		 * @param value     the wait value
+		 */
+		void addWait(@Nonnull LabeledNode source, @Nonnull LabeledNode contingent, int value) {
+			put(wait, key(nodeId.getInt(source), nodeId.getInt(contingent)), value);
+		}
+
+		/**
+		 * Adds the ordinary constraint {@code (source, value, destination)} if it is stronger than the stored one.
+		 *
+		 * @param source      source node
+		 * @param destination destination node
+		 * @param value       the constraint value
+		 */
+		void addOrdinary(@Nonnull LabeledNode source, @Nonnull LabeledNode destination, int value) {
+			put(ordinary, key(nodeId.getInt(source), nodeId.getInt(destination)), value);
+		}
+
+		/**
+		 * Adds all the stored constraints to the network {@code g}, creating the missing edges as derived ones. Waits are added before ordinary
+		 * constraints; the resulting edges do not depend on such order because both kinds of update keep only the strongest values.
+		 *
+		 * @param g              the network
+		 * @param activationNode map (contingent node, activation node)
+		 */
+		void materialize(@Nonnull TNGraph<STNUEdge> g, @Nonnull Object2ObjectMap<LabeledNode, LabeledNode> activationNode) {
+			for (final Long2IntMap.Entry entry : wait.long2IntEntrySet()) {
+				final LabeledNode source = node[(int) (entry.getLongKey() >>> 32)];
+				final LabeledNode C = node[(int) entry.getLongKey()];
+				final LabeledNode A = activationNode.get(C);
+				STNUEdge e = g.findEdge(source, A);
+				if (e == null) {
+					e = g.makeNewEdge(source.getName() + "-" + A.getName(), ConstraintType.derived);
+					g.addEdge(e, source, A);
+				}
+				final boolean isUpdated = e.updateWait(entry.getIntValue(), new ALetter(C.getName()));
+				if (Debug.ON) {
+					if (isUpdated && STNU.LOG.isLoggable(Level.FINE)) {
+						STNU.LOG.fine("Added wait in " + e);
+					}
+				}
+			}
+			for (final Long2IntMap.Entry entry : ordinary.long2IntEntrySet()) {
+				final LabeledNode source = node[(int) (entry.getLongKey() >>> 32)];
+				final LabeledNode destination = node[(int) entry.getLongKey()];
+				final int value = entry.getIntValue();
+				STNUEdge e = g.findEdge(source, destination);
+				if (e == null) {
+					e = g.makeNewEdge(source.getName() + "-" + destination.getName(), ConstraintType.derived);
+					e.setValue(value);
+					g.addEdge(e, source, destination);
+				} else {
+					e.updateValue(value);
+				}
+				if (Debug.ON) {
+					if (STNU.LOG.isLoggable(Level.FINER)) {
+						STNU.LOG.finer("Added or lowered ordinary value " + value + " in " + e);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return the number of stored constraints.
 		 */
-		@SuppressWarnings("SameParameterValue")
-		RULLocalInfo(int defaultDistance) {
-			distanceFromNodeToContingent = new Object2IntOpenHashMap<>();
-			distanceFromNodeToContingent.defaultReturnValue(defaultDistance);
-			ccLoop = false;
-			unStartedUCEdges = null;
-			path = new Object2ObjectOpenHashMap<>();
+		int size() {
+			return ordinary.size() + wait.size();
 		}
-	}
-
-	/**
-	 * Represents the immutable triple (sourceNode, weight, destinationNode) necessary for generating a STNUEdge.
-	 *
-	 * @author posenato
-	 */
-	private static class EdgeData {
-		final LabeledNode source;
-		final LabeledNode destination;
-		final int weight;
 
 		/**
-		 * Constructor for an immutable edgeData object.
+		 * Puts (key, value) in map if key is not present or value is smaller than the present one.
 		 *
-		 * @param s the source node
-		 * @param d the destination node
-		 * @param w the weight of the edge
+		 * @param map   the map
+		 * @param key   the key
+		 * @param value the value
 		 */
-		EdgeData(LabeledNode s, LabeledNode d, int w) {
-			source = s;
-			destination = d;
-			weight = w;
+		private static void put(@Nonnull Long2IntOpenHashMap map, long key, int value) {
+			if (!map.containsKey(key) || value < map.get(key)) {
+				map.put(key, value);
+			}
 		}
 	}
 
@@ -1009,7 +1682,7 @@ public class STNU {
 		}
 		if (stnu.fOutput != null) {
 			System.out.println("Saving the result in file " + stnu.fOutput.getName());
-			final TNGraphMLWriter writer = new TNGraphMLWriter(null);
+			final TNGraphMLStreamWriter writer = new TNGraphMLStreamWriter();
 			try {
 				writer.save(stnu.g, stnu.fOutput);
 			} catch (IOException e) {
@@ -1211,6 +1884,22 @@ public class STNU {
 	 */
 	@Option(name = "-save", usage = "Save the checked instance.")
 	private boolean save;
+	/**
+	 * Maximum number of distinct SRNCs that SRNCycleFinder collects in one run. Default 1.
+	 */
+	@Option(name = "-srncMax", usage = "Maximum number of distinct semi-reducible negative cycles that SRNCycleFinder collects when the network is not DC.", metaVar = "k")
+	private int srncMaxCount;
+	/**
+	 * Number of threads used by the parallel versions of the algorithms. Default, the number of available processors.
+	 */
+	@Option(name = "-nThreads", usage = "Number of threads used by the parallel versions of the algorithms. Default, the number of available processors.", metaVar = "n")
+	private int nThreads;
+	/**
+	 * If true, RUL2021 and FD_STNU execute the forward propagations of the contingent nodes having a CC loop all together (and in parallel) after all
+	 * the back-propagations.
+	 */
+	@Option(name = "-rulBatched", usage = "Execute the forward propagations of RUL2021 and FD_STNU in parallel after all the back-propagations.")
+	private boolean rulBatched;
 	/**
 	 * Timeout in seconds for the check.
 	 */
@@ -1269,6 +1958,9 @@ public class STNU {
 		this.lowerContingentEdge = (in.lowerContingentEdge != null) ? new Object2ObjectOpenHashMap<>(in.lowerContingentEdge) : null;
 		this.maxWeight = in.maxWeight;
 		this.save = in.save;
+		this.srncMaxCount = in.srncMaxCount;
+		this.nThreads = in.nThreads;
+		this.rulBatched = in.rulBatched;
 		this.timeOut = in.timeOut;
 		this.upperContingentEdge = (in.upperContingentEdge != null) ? new Object2ObjectOpenHashMap<>(in.upperContingentEdge) : null;
 		this.versionReq = in.versionReq;
@@ -1286,9 +1978,151 @@ public class STNU {
 		contingentAlsoAsOrdinary = save = false;
 		lowerContingentEdge = upperContingentEdge = null;
 		defaultControllabilityCheckAlg = CheckAlgorithm.RUL2021;
+		srncMaxCount = 1;
+		nThreads = Runtime.getRuntime().availableProcessors();
 		timeOut = 2700;// seconds
 	}
 
+	/**
+	 * Compresses the current dispatchable network for reducing the number of nodes that a real-time execution must consider. The current network must be
+	 * already dispatchable. Therefore, it must be already successfully checked by either {@link #applyMorris2014Dispatchable()} or
+	 * {@link #applyFastDispatchSTNU(boolean)} method. The best result is obtained after {@link #applyMinDispatchableESTNU()}.
+	 * <p>
+	 * The compression
+	 * <ol>
+	 *     <li>collapses the rigid components of the network into their representatives, determined by
+	 *     {@link #GET_REPRESENTATIVE_RIGID_COMPONENTS(ObjectList, Object2IntMap, LabeledNode, ObjectCollection)}. Contingent nodes and activation nodes that
+	 *     are not representatives are not collapsed because each activation node can start only one contingent link;</li>
+	 *     <li>removes the waits dominated by an ordinary value of the same edge and transforms into ordinary constraints the waits that are not greater
+	 *     than the lower bound of their contingent link. Collapsing a rigid component shifts the values of the rerouted waits, so new dominated waits can
+	 *     arise.</li>
+	 * </ol>
+	 * The resulting network is still dispatchable. The removed nodes are returned together with their representatives, so that a schedule of the
+	 * compressed network can be expressed in terms of the original nodes (see {@link STNURTE#STNURTE(TNGraph, CollapsedNodeMap, boolean)}).
+	 *
+	 * @return the map of the removed nodes. It is empty if no node was removed.
+	 *
+	 * @throws IllegalArgumentException if the network is not DC, was not checked by one of {@link CheckAlgorithm#Morris2014Dispatchable},
+	 *                                  {@link CheckAlgorithm#Morris2014DispatchableParallel}, {@link CheckAlgorithm#FD_STNU}, or
+	 *                                  {@link CheckAlgorithm#FD_STNU_IMPROVED}, or its ordinary constraints are not consistent.
+	 * @throws IllegalStateException    if the predecessor graph of the temporary source node cannot be determined.
+	 */
+	public final CollapsedNodeMap applyCompressDispatchableESTNU() throws IllegalArgumentException, IllegalStateException {
+		if (Debug.ON) {
+			LOG.info("applyCompressDispatchableESTNU started.\n");
+		}
+		if (!this.checkStatus.isControllable()) {
+			throw new IllegalArgumentException("The network is not DC.");
+		}
+		if (this.checkStatus.checkAlgorithm != CheckAlgorithm.Morris2014Dispatchable && this.checkStatus.checkAlgorithm != CheckAlgorithm.FD_STNU &&
+		    this.checkStatus.checkAlgorithm != CheckAlgorithm.FD_STNU_IMPROVED &&
+		    this.checkStatus.checkAlgorithm != CheckAlgorithm.Morris2014DispatchableParallel) {
+			throw new IllegalArgumentException("The network has not been checked by Morris2014Dispatchable or FD_STNU. " +
+			                                   "It is not possible to compress it.");
+		}
+		final Object2ObjectMap<LabeledNode, LabeledNode> removedNodeRep = new Object2ObjectOpenHashMap<>();
+		final Object2IntMap<LabeledNode> removedNodeOffset = new Object2IntOpenHashMap<>();
+		final ObjectSet<LabeledNode> activationNodes = new ObjectOpenHashSet<>();
+		final Object2IntMap<LabeledNode> contingentLowerBound = new Object2IntOpenHashMap<>();
+		final ObjectList<STNUEdge> waitEdges = new ObjectArrayList<>();
+		for (final STNUEdge edge : this.g.getEdges()) {
+			if (edge.isContingentEdge() && edge.isLowerCase()) {
+				activationNodes.add(this.g.getSource(edge));
+				contingentLowerBound.put(this.g.getDest(edge), edge.getLabeledValue());
+				continue;
+			}
+			if (edge.isWait()) {
+				waitEdges.add(edge);
+			}
+		}
+
+		//
+		// 1) Collapse rigid components as done by makeOrdinaryConstraintMinimalDispatchable, but without restoring them.
+		//
+		final LabeledNode fakeSource = new LabeledNode("_FAKE_" + System.currentTimeMillis());
+		this.g.addVertex(fakeSource);
+		try {
+			//noinspection StringConcatenationMissingWhitespace
+			STN.MAKE_NODES_REACHABLE_BY(this.g, fakeSource, 0, "P" + System.currentTimeMillis());
+			final Object2IntMap<LabeledNode> nodePotential = STN.GET_SSSP_BellmanFord(this.g, fakeSource, null);
+			if (nodePotential == null) {
+				throw new IllegalArgumentException("The ordinary constraints of the network are not consistent.");
+			}
+			final TNGraph<STNUEdge> fakeSourcePredecessorGraph =
+				STN.GET_STN_PREDECESSOR_SUBGRAPH(this.g, fakeSource, nodePotential, new Object2IntOpenHashMap<>(), null);
+			if (fakeSourcePredecessorGraph == null) {
+				throw new IllegalStateException("Fake source predecessor graph is null while it shouldn't.");
+			}
+			final ObjectList<ObjectList<LabeledNode>> rigidComponents = STN.GET_STRONG_CONNECTED_COMPONENTS(fakeSourcePredecessorGraph, fakeSource);
+			if (rigidComponents.size() > 0) {
+				assert this.g.getZ() != null;
+				final Pair<Object2ObjectMap<LabeledNode, LabeledNode>, Object2IntMap<LabeledNode>>
+					pairRepDistance = GET_REPRESENTATIVE_RIGID_COMPONENTS(rigidComponents, nodePotential, this.g.getZ(), activationNodes);
+				final Object2ObjectMap<LabeledNode, LabeledNode> nodeRepMap = pairRepDistance.first();
+				final Object2IntMap<LabeledNode> nodeDistanceFromRep = pairRepDistance.second();
+				//contingent nodes and activation nodes that are not representatives remain in the network.
+				for (final LabeledNode node : new ObjectArrayList<>(nodeRepMap.keySet())) {
+					final LabeledNode rep = nodeRepMap.get(node);
+					if (node.isContingent() || rep.isContingent() || (activationNodes.contains(node) && rep != node)) {
+						nodeRepMap.remove(node);
+						nodeDistanceFromRep.removeInt(node);
+					}
+				}
+				for (final Object2ObjectMap.Entry<LabeledNode, LabeledNode> entry : nodeRepMap.object2ObjectEntrySet()) {
+					final LabeledNode node = entry.getKey();
+					if (node != entry.getValue()) {
+						removedNodeRep.put(node, entry.getValue());
+						removedNodeOffset.put(node, nodeDistanceFromRep.getInt(node));
+					}
+				}
+				if (Debug.ON) {
+					if (LOG.isLoggable(Level.FINE)) {
+						LOG.fine("Found " + rigidComponents.size() + " rigid components. Collapsing " + removedNodeRep.size() + " nodes.");
+					}
+				}
+				if (!removedNodeRep.isEmpty()) {
+					collapseRigidComponents(nodeRepMap, nodeDistanceFromRep, new ObjectOpenHashSet<>(), waitEdges);
+				}
+			}
+		} finally {
+			this.g.removeVertex(fakeSource);
+		}
+
+		//
+		// 2) Remove dominated waits.
+		//
+		int removedWaits = 0;
+		for (final STNUEdge edge : this.g.getEdges()) {
+			if (!edge.isWait()) {
+				continue;
+			}
+			final int waitValue = edge.getLabeledValue();
+			final LabeledNode C = this.g.getNode(edge.getCaseLabel().getName().toString());
+			final int x = (C != null) ? contingentLowerBound.getOrDefault(C, Constants.INT_NULL) : Constants.INT_NULL;
+			final int value = edge.getValue();
+			if (x != Constants.INT_NULL && waitValue >= -x) {
+				// the contingent node cannot occur before the end of the wait: it is an ordinary constraint.
+				edge.resetLabeledValue();
+				edge.updateValue(waitValue);
+				removedWaits++;
+				continue;
+			}
+			if (value != Constants.INT_NULL && value <= waitValue) {
+				edge.resetLabeledValue();
+				removedWaits++;
+			}
+		}
+
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINE)) {
+				LOG.fine("Removed " + removedNodeRep.size() + " nodes and " + removedWaits + " dominated waits. Final number of edges: " +
+				         this.g.getEdgeCount());
+			}
+			LOG.info("applyCompressDispatchableESTNU finished.\n");
+		}
+		return new CollapsedNodeMap(removedNodeRep, removedNodeOffset);
+	}
+
 	/**
 	 * Makes the current DC network dispatchable removing <b>all</b> the dominated edges (ordinaries or waits). The current network must be already
 	 * dispatchable. Therefore, it must be already successfully checked by either {@link #applyMorris2014Dispatchable()} or
@@ -1311,7 +2145,8 @@ public class STNU {
 			throw new IllegalArgumentException("The network is not DC.");
 		}
 		if (this.checkStatus.checkAlgorithm != CheckAlgorithm.Morris2014Dispatchable && this.checkStatus.checkAlgorithm != CheckAlgorithm.FD_STNU &&
-		    this.checkStatus.checkAlgorithm != CheckAlgorithm.FD_STNU_IMPROVED) {
+		    this.checkStatus.checkAlgorithm != CheckAlgorithm.FD_STNU_IMPROVED &&
+		    this.checkStatus.checkAlgorithm != CheckAlgorithm.Morris2014DispatchableParallel) {
 			throw new IllegalArgumentException("The network has not been checked by Morris2014Dispatchable or FD_STNU. " +
 			                                   "It is not possible to determine the minimal dispatchability version.");
 		}
@@ -1849,6 +2684,12 @@ public class STNU {
 			case Morris2014Dispatchable:
 				applyMorris2014Dispatchable();
 				break;
+			case Morris2014Parallel:
+				applyMorris2014Parallel();
+				break;
+			case Morris2014DispatchableParallel:
+				applyMorris2014DispatchableParallel();
+				break;
 			case RUL2018:
 				applyRul2018();
 				break;
@@ -2506,10 +3347,8 @@ public class STNU {
 		g1.setName(fOutput.getName());
 		g1.removeEmptyEdges();
 
-		final CSTNUStaticLayout<STNUEdge> layout = new CSTNUStaticLayout<>(g1);
-		final TNGraphMLWriter graphWriter = new TNGraphMLWriter(layout);
 		try {
-			graphWriter.save(g1, fOutput);
+			new TNGraphMLStreamWriter().save(g1, fOutput);
 		} catch (IOException e) {
 			System.err.println("It is not possible to save the result. File " + fOutput + " cannot be created: " + e.getMessage());
 			return;
@@ -2517,6 +3356,55 @@ public class STNU {
 		STNU.LOG.info("Checked instance saved in file " + fOutput.getAbsolutePath());
 	}
 
+	/**
+	 * @return the number of threads used by the parallel versions of the algorithms.
+	 */
+	public int getNThreads() {
+		return nThreads;
+	}
+
+	/**
+	 * @param n the number of threads used by the parallel versions of the algorithms. Values less than 1 are considered as 1.
+	 */
+	public void setNThreads(int n) {
+		nThreads = Math.max(1, n);
+	}
+
+	/**
+	 * @return true if RUL2021 and FD_STNU execute the forward propagations in batch after all the back-propagations.
+	 */
+	public boolean isRulBatched() {
+		return rulBatched;
+	}
+
+	/**
+	 * Sets the batched mode of RUL2021 and FD_STNU. In batched mode, the forward propagations from the contingent nodes having a CC loop shorter than the
+	 * contingent range are executed after all the back-propagations, in parallel using {@link #getNThreads()} threads, considering the final potential.
+	 * Since the derived edges only shorten the distances, a forward propagation that finds a negative loop during the check finds it also at the end.
+	 *
+	 * @param batched true for the batched mode.
+	 */
+	public void setRulBatched(boolean batched) {
+		rulBatched = batched;
+	}
+
+	/**
+	 * @return the maximum number of distinct SRNCs that SRNCycleFinder collects in one run.
+	 */
+	public int getSRNCMaxCount() {
+		return srncMaxCount;
+	}
+
+	/**
+	 * Sets the maximum number of distinct SRNCs that {@link CheckAlgorithm#SRNCycleFinder} has to collect in one run when the network is not DC. The found
+	 * SRNCs are available by {@link STNUCheckStatus#getNegativeSTNUCycleInfo(int)}.
+	 *
+	 * @param k a positive number. Values less than 1 are considered as 1.
+	 */
+	public void setSRNCMaxCount(int k) {
+		srncMaxCount = Math.max(1, k);
+	}
+
 	/**
 	 * @return the versionReq
 	 */
@@ -2822,6 +3710,14 @@ public class STNU {
 				return;
 			}
 		}
+		if (rul2021DeferredFwdPropNotDC(globalInfo)) {
+			checkStatus.consistency = false;
+			checkStatus.finished = true;
+			if (Debug.ON) {
+				STNU.LOG.fine("Found an inconsistency in the deferred forward propagations!");
+			}
+			return;
+		}
 		if (Debug.ON) {
 			STNU.LOG.fine("Done!");
 			if (STNU.LOG.isLoggable(Level.FINER)) {
@@ -2834,7 +3730,10 @@ public class STNU {
 		 * From this point this method adds some edges to the network for making it dispatchable.
 		 * This is what differentiates this method from applyRul2021().
 		 * 1. Add all UC edges (waits) not added by RUL2021:
+		 * Waits and the ordinary constraints of the next step are collected in a compact store and added to the network all together,
+		 * so that each derived edge is created/updated only once.
 		 */
+		final DerivedConstraintStore derivedConstraints = new DerivedConstraintStore(g.getVerticesArray());
 		for (final STNUEdge currentUpperCaseEdge : upperContingentEdge.values()) {
 			final LabeledNode C = g.getSource(currentUpperCaseEdge);
 			final LabeledNode A = g.getDest(currentUpperCaseEdge);
@@ -2869,27 +3768,15 @@ public class STNU {
 						}
 					}
 					assert A != null;
-					STNUEdge e = g.findEdge(otherNode.getName(), A.getName());
-					if (e == null) {
-						e = this.g.makeNewEdge(otherNode.getName() + "-" + A.getName(), ConstraintType.derived);
-						g.addEdge(e, otherNode, A);
-					}
-					final boolean isUpdated;
 					if (w >= -x) {//it is a wait that can be simplified to an ordinary constraint
-						isUpdated = e.updateValue(w);
+						derivedConstraints.addOrdinary(otherNode, A, w);
 					} else {
 						assert C != null;
-						isUpdated = e.updateWait(w, new ALetter(C.getName()));
+						derivedConstraints.addWait(otherNode, C, w);
 					}
 					if (Debug.ON) {
-						if (isUpdated) {
-							if (STNU.LOG.isLoggable(Level.FINE)) {
-								STNU.LOG.fine("Added wait (or a simplified wait) in " + e);
-							}
-						} else {
-							if (STNU.LOG.isLoggable(Level.FINER)) {
-								STNU.LOG.finer("Edge " + e + " contains already a stronger value that wait " + w + ": Wait not added");
-							}
+						if (STNU.LOG.isLoggable(Level.FINER)) {
+							STNU.LOG.finer("Stored wait (or a simplified wait) " + w + " from " + otherNode + " to " + A);
 						}
 					}
 				}
@@ -2898,53 +3785,23 @@ public class STNU {
 		if (Debug.ON) {
 			STNU.LOG.fine("Done!");
 			if (STNU.LOG.isLoggable(Level.FINER)) {
-				STNU.LOG.finer("After adding of all wait constraints, number of edges: " + this.g.getEdgeCount());
+				STNU.LOG.finer("After collecting all wait constraints, number of stored constraints: " + derivedConstraints.size());
 			}
 		}
 
 		/*
 		 * 2. Add all ordinary edges that represent the bypass of lower-case edges
 		 */
-		/*
-		 * accumulatedMoatEdges is a list of (sourceNode, bypassEdge destination node, path value) object
-		 */
-		final ObjectArrayList<EdgeData> accumulatedBypassEdgeData = new ObjectArrayList<>();
-
 		if (Debug.ON) {
 			STNU.LOG.info("Starting accumulating all ordinary edges representing bypass of lower-case edges...");
 		}
 		for (final STNUEdge currentLowerEdge : lowerContingentEdge.values()) {
-			accumulatedBypassEdgeData.addAll(fastDispatchSTNULowerCaseForwardPropagation(currentLowerEdge, globalInfo.nodePotential));
+			fastDispatchSTNULowerCaseForwardPropagation(currentLowerEdge, globalInfo.nodePotential, derivedConstraints);
 		}
 		if (Debug.ON) {
-			STNU.LOG.info("Done!\nStarting adding all accumulated ordinary edges...");
-		}
-		// create and add all edges derived from accumulatedBypassEdgeData
-		for (final EdgeData entry : accumulatedBypassEdgeData) {
-			final LabeledNode source = entry.source;
-			final LabeledNode destination = entry.destination;
-			final int value = entry.weight;
-			STNUEdge eInG = g.findEdge(source, destination);
-			if (eInG == null) {
-				eInG = this.g.makeNewEdge(source.getName() + "-" + destination.getName(), ConstraintType.derived);
-				eInG.setValue(value);
-				g.addEdge(eInG, source, destination);
-				if (Debug.ON) {
-					if (STNU.LOG.isLoggable(Level.FINE)) {
-						STNU.LOG.fine("Added the moat edge " + eInG);
-					}
-				}
-			} else {
-				final boolean isLowered = eInG.updateValue(value);
-				if (Debug.ON) {
-					if (isLowered) {
-						if (STNU.LOG.isLoggable(Level.FINE)) {
-							STNU.LOG.fine("Lowering value of edge " + eInG + " to " + value);
-						}
-					}
-				}
-			}
+			STNU.LOG.info("Done!\nStarting adding all accumulated waits and ordinary edges...");
 		}
+		derivedConstraints.materialize(g, activationNode);
 		if (Debug.ON) {
 			STNU.LOG.info("Done!");
 			if (STNU.LOG.isLoggable(Level.FINE)) {
@@ -3137,6 +3994,93 @@ public class STNU {
 		}
 	}
 
+	/**
+	 * Parallel version of {@link #applyMorris2014()}.
+	 * <p>
+	 * The back-propagations from the negative nodes are executed in rounds. In each round, the back-propagations from all negative nodes that are not
+	 * waiting for the completion of another negative node are executed concurrently (using {@link #getNThreads()} threads) on the network, which is not
+	 * modified during the round. A back-propagation that meets a negative node not yet completed (a recursive call in the sequential version) is interrupted
+	 * and rescheduled in the round after the completion of such a node. At the end of a round, the derived edges of the completed back-propagations are added
+	 * to the network following the order of the negative nodes by name.
+	 * <p>
+	 * Since a back-propagation from {@code X} adds only edges ending in {@code X} and depends only on the in-edges of the completed negative nodes, the
+	 * resulting network is the same of the sequential version. If in a round no back-propagation can be executed, the interruptions form a cycle, and
+	 * the network is not DC.
+	 *
+	 * @return true if the graph is dynamic controllable (DC), false otherwise.
+	 */
+	final boolean applyMorris2014Parallel() {
+		contingentAlsoAsOrdinary = false; // Morris consider only labeled value for contingent links.
+		checkStatus.checkAlgorithm = CheckAlgorithm.Morris2014Parallel;
+		if (!applyNormalForm()) {
+			checkStatus.consistency = false;
+			checkStatus.finished = true;
+			return false;
+		}
+		// determine negative nodes, i.e., nodes target of negative ordinary edges or upper-case edge.
+		final ObjectList<LabeledNode> negativeNodes = new ObjectArrayList<>();
+		for (final LabeledNode node : g.getVerticesArray()) {
+			for (final STNUEdge inEdge : g.getInEdges(node)) {
+				if (STNU.GET_UPPER_OR_ORDINARY_VALUE(inEdge) < 0) {
+					negativeNodes.add(node);
+					break;
+				}
+			}
+		}
+		final boolean consistent = morris2014ParallelRounds(negativeNodes, null, Instant.now().plusSeconds(this.timeOut));
+		if (checkStatus.timeout) {
+			return false;
+		}
+		checkStatus.consistency = consistent;
+		checkStatus.finished = true;
+		return consistent;
+	}
+
+	/**
+	 * Parallel version of {@link #applyMorris2014Dispatchable()}.
+	 * <p>
+	 * The back-propagations from the negative nodes are scheduled as in {@link #applyMorris2014Parallel()}. For an activation time-point, the
+	 * back-propagation generating waits and the one generating ordinary constraints are executed in two consecutive rounds because the second one starts
+	 * from the edges added by the first one. The resulting network is the same of the sequential version, and it can be minimized by
+	 * {@link #applyMinDispatchableESTNU()}.
+	 */
+	final void applyMorris2014DispatchableParallel() {
+		contingentAlsoAsOrdinary = false; // Morris consider only labeled value for contingent links.
+		checkStatus.checkAlgorithm = CheckAlgorithm.Morris2014DispatchableParallel;
+		//no normal form
+		final Instant timeoutInstant = Instant.now().plusSeconds(this.timeOut);
+		final ObjectList<LabeledNode> negativeNodes = new ObjectArrayList<>();
+		final Object2ObjectMap<LabeledNode, STNUEdge> activationNodesMap = new Object2ObjectOpenHashMap<>();
+		activationNodesMap.defaultReturnValue(null);
+		for (final LabeledNode node : g.getVerticesArray()) {
+			boolean negative = false;
+			for (final STNUEdge inEdge : g.getInEdges(node)) {
+				if (inEdge.getConstraintType() == ConstraintType.contingent && inEdge.isUpperCase()) {
+					//node is an activation time point
+					activationNodesMap.put(node, inEdge);
+					negative = true;
+					break;
+				}
+				final int v = inEdge.getValue();
+				if (v != Constants.INT_NULL && v < 0) {
+					negative = true;
+				}
+			}
+			if (negative) {
+				negativeNodes.add(node);
+			}
+		}
+		if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+			return;
+		}
+		final boolean consistent = morris2014ParallelRounds(negativeNodes, activationNodesMap, timeoutInstant);
+		if (checkStatus.timeout) {
+			return;
+		}
+		checkStatus.consistency = consistent;
+		checkStatus.finished = true;
+	}
+
 	/**
 	 * RUL^- algorithm by Cairo, Hunsberger, and Rizzi, presented in
 	 * <a href="https://www.doi.org/10.4230/LIPIcs.TIME.2018.8">Faster dynamic controllability checking for simple
@@ -3355,6 +4299,12 @@ public class STNU {
 				return;
 			}
 		}
+		if (rul2021DeferredFwdPropNotDC(globalInfo)) {
+			checkStatus.consistency = false;
+			checkStatus.finished = true;
+
+			return;
+		}
 		if (Debug.ON) {
 			STNU.LOG.info("RUL2021 found network controllable! Finished!");
 		}
@@ -3368,6 +4318,10 @@ public class STNU {
 	 * Cycle.<br> If the instance is not DC, the negative cycle is in {@link STNUCheckStatus#getNegativeSTNUCycleInfo(boolean, TNGraph)} and for each edge in
 	 * the SRNC, the {@link STNUCheckStatus#getEdgePathAnnotation()} represents the path of edges that generates the considered edge.
 	 * <p>
+	 * If {@link #getSRNCMaxCount()} is greater than 1, after the first SRNC, the procedure collects other distinct SRNCs (see
+	 * {@link STNUCheckStatus#getNegativeSTNUCycleInfo(int)}) restarting the bypassing of upper-case edges from different upper-case edges on copies of the
+	 * input network.
+	 * <p>
 	 * Its theoretical time complexity is <code>O(mn + k<sup>2</sup>n + kn log n)</code>, where {@code m} is the number of edges, {@code n} the number of nodes,
 	 * and {@code k} the number of contingent links.
 	 */
@@ -3382,6 +4336,8 @@ public class STNU {
 			return;
 		}
 		k = g.getContingentNodeCount();
+		// The searches of further SRNCs start from the input network because the edges derived by the first search form a negative cycle.
+		final TNGraph<STNUEdge> input = (srncMaxCount > 1 && k > 1) ? new TNGraph<>(this.g, this.g.getEdgeImplClass()) : null;
 
 		final RULGlobalInfo globalInfo = new RULGlobalInfo(GET_SSSP_BellmanFordOL(this.g, this.checkStatus), k);
 		if (globalInfo.nodePotential == null) {
@@ -3405,8 +4361,7 @@ public class STNU {
 				negCycle.add(e);
 				prev = node;
 			}
-			checkStatus.srncKind = STNUCheckStatus.SRNCKind.loGraphPotFailure;
-			checkStatus.negativeSTNUCycle = negCycle;
+			checkStatus.addNegativeSTNUCycle(negCycle, STNUCheckStatus.SRNCKind.loGraphPotFailure, this.g);
 			return;
 		}
 		if (k == 0) {
@@ -3420,13 +4375,7 @@ public class STNU {
 		}
 
 		// Prepare some auxiliary data structure necessary for OneStepBackProp
-		globalInfo.upperCaseEdgeFromActivation = new Object2ObjectOpenHashMap<>();
-
-		for (final Entry<LabeledNode, STNUEdge> entry : upperContingentEdge.entrySet()) {
-			final STNUEdge upperCaseEdge = entry.getValue();
-			final LabeledNode actNode = activationNode.get(entry.getKey());
-			globalInfo.upperCaseEdgeFromActivation.put(actNode, upperCaseEdge);
-		}
+		globalInfo.upperCaseEdgeFromActivation = SRNCycleFinderUpperCaseEdgeFromActivation();
 
 		assert k == globalInfo.upperCaseEdgeFromActivation.size() : "Number of contingents is not equal to the number of upper case edges: " + k + "," +
 		                                                            globalInfo.upperCaseEdgeFromActivation.size();
@@ -3434,13 +4383,16 @@ public class STNU {
 		if (Debug.ON) {
 			STNU.LOG.finer("Starting to bypass each upper-case edge.");
 		}
-		for (final STNUEdge upperCaseEdge : upperContingentEdge.values()) {
-			if (!SRNCycleFinderBackPropagation(upperCaseEdge, globalInfo)) {
-				//the negative cycle is already in checkStatus
-				checkStatus.consistency = false;
-				checkStatus.finished = true;
-				return;
+		final ObjectList<STNUEdge> upperCaseEdges = new ObjectArrayList<>(upperContingentEdge.values());
+		if (!SRNCycleFinderBypassAll(upperCaseEdges, 0, globalInfo)) {
+			//the negative cycle is already in checkStatus
+			checkStatus.addNegativeSTNUCycle(checkStatus.negativeSTNUCycle, checkStatus.srncKind, this.g);
+			checkStatus.consistency = false;
+			checkStatus.finished = true;
+			if (input != null) {
+				SRNCycleFinderCollectOtherSRNCs(input, upperCaseEdges);
 			}
+			return;
 		}
 		if (Debug.ON) {
 			STNU.LOG.info("applySRNCycleFinder found network controllable! Finished!");
@@ -4159,29 +5111,105 @@ public class STNU {
 					STNU.LOG.finest("Apply LOWER considering: " + lowerCaseEdge);
 				}
 			}
-			edges.add(new BasicEntry<>(lowerCaseEdge, Constants.sumWithOverflowCheck(lowerCaseEdge.getLabeledValue(), deltaVC)));
-		} else {
-			for (final Pair<STNUEdge, LabeledNode> edgeAndSource : g.getInEdgesAndNodes(V)) {
-				final STNUEdge e = edgeAndSource.left();
-				if (!e.isOrdinaryEdge()) {
-					continue;
-				}
-//				final LabeledNode W = edgeAndSource.right();
-				// Apply RELAX^-
+			edges.add(new BasicEntry<>(lowerCaseEdge, Constants.sumWithOverflowCheck(lowerCaseEdge.getLabeledValue(), deltaVC)));
+		} else {
+			for (final Pair<STNUEdge, LabeledNode> edgeAndSource : g.getInEdgesAndNodes(V)) {
+				final STNUEdge e = edgeAndSource.left();
+				if (!e.isOrdinaryEdge()) {
+					continue;
+				}
+//				final LabeledNode W = edgeAndSource.right();
+				// Apply RELAX^-
+				if (Debug.ON) {
+					if (STNU.LOG.isLoggable(Level.FINEST)) {
+						STNU.LOG.finest("Apply `RELAX` considering: " + e);
+					}
+				}
+				edges.add(new BasicEntry<>(e, Constants.sumWithOverflowCheck(e.getValue(), deltaVC)));
+			}
+		}
+		if (Debug.ON) {
+			if (STNU.LOG.isLoggable(Level.FINEST)) {
+				STNU.LOG.finest("newApplyRelaxLower. Resulting data for edges to add (W->deltaWC): " + edges);
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * Bypasses all the given upper-case edges, starting from the one at position {@code first} and proceeding in circular order.
+	 *
+	 * @param upperCaseEdges the upper-case edges of the network
+	 * @param first          the position of the first edge to bypass
+	 * @param globalInfo     global data structure for the algorithm
+	 *
+	 * @return true if no negative circuit was found, false otherwise. If false, the negative cycle is in {@link STNUCheckStatus#negativeSTNUCycle}.
+	 */
+	private boolean SRNCycleFinderBypassAll(ObjectList<STNUEdge> upperCaseEdges, int first, RULGlobalInfo globalInfo) {
+		final int k = upperCaseEdges.size();
+		for (int i = 0; i < k; i++) {
+			if (!SRNCycleFinderBackPropagation(upperCaseEdges.get((first + i) % k), globalInfo)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Collects other distinct SRNCs after the first one has been found, until {@link #srncMaxCount} SRNCs are found or all the upper-case edges have been
+	 * used as starting point.
+	 * <p>
+	 * Each further search restarts the bypassing of the upper-case edges from a different upper-case edge on a new copy of the input network. Indeed, the
+	 * edges derived by a search that found an SRNC form a negative cycle, and any further search on the same network would stop at the determination of the
+	 * potential. All the searches share the derivation store of this network. Each new SRNC is stored as a snapshot (see
+	 * {@link STNUCheckStatus#addNegativeSTNUCycle(STNUPath, STNUCheckStatus.SRNCKind, TNGraph)}) because its copy of the network is not maintained.
+	 * <p>
+	 * This network and {@link STNUCheckStatus#negativeSTNUCycle} remain the ones of the first search.
+	 *
+	 * @param input          a copy of the network before the first search
+	 * @param upperCaseEdges the upper-case edges of the network in the order used by the first search
+	 */
+	private void SRNCycleFinderCollectOtherSRNCs(@Nonnull TNGraph<STNUEdge> input, @Nonnull ObjectList<STNUEdge> upperCaseEdges) {
+		final int k = upperCaseEdges.size();
+
+		for (int first = 1; first < k && checkStatus.getNegativeSTNUCycleCount() < srncMaxCount; first++) {
+			final STNU restart = new STNU(new TNGraph<>(input, input.getEdgeImplClass()));
+			try {
+				restart.initAndCheck();
+			} catch (WellDefinitionException e) {
+				throw new IllegalStateException("The copy of a checked network is not well-defined: " + e.getMessage());
+			}
+			restart.contingentAlsoAsOrdinary = false;
+			restart.checkStatus.edgePathAnnotation = checkStatus.edgePathAnnotation;
+
+			final RULGlobalInfo globalInfo = new RULGlobalInfo(GET_SSSP_BellmanFordOL(restart.g, restart.checkStatus), k);
+			assert globalInfo.nodePotential != null : "The potential of the input network was determined by the first search.";
+			globalInfo.upperCaseEdgeFromActivation = restart.SRNCycleFinderUpperCaseEdgeFromActivation();
+			final ObjectList<STNUEdge> restartUpperCaseEdges = new ObjectArrayList<>(k);
+			for (final STNUEdge e : upperCaseEdges) {
+				restartUpperCaseEdges.add(restart.g.getEdge(e.getName()));
+			}
+			if (!restart.SRNCycleFinderBypassAll(restartUpperCaseEdges, first, globalInfo)) {
+				final boolean added =
+					checkStatus.addNegativeSTNUCycle(restart.checkStatus.negativeSTNUCycle, restart.checkStatus.srncKind, restart.g);
 				if (Debug.ON) {
-					if (STNU.LOG.isLoggable(Level.FINEST)) {
-						STNU.LOG.finest("Apply `RELAX` considering: " + e);
+					if (STNU.LOG.isLoggable(Level.FINER)) {
+						STNU.LOG.finer("Search starting from " + upperCaseEdges.get(first) + " found " + ((added) ? "a new" : "an already known") + " SRNC.");
 					}
 				}
-				edges.add(new BasicEntry<>(e, Constants.sumWithOverflowCheck(e.getValue(), deltaVC)));
 			}
 		}
-		if (Debug.ON) {
-			if (STNU.LOG.isLoggable(Level.FINEST)) {
-				STNU.LOG.finest("newApplyRelaxLower. Resulting data for edges to add (W->deltaWC): " + edges);
-			}
+	}
+
+	/**
+	 * @return the map (activation node, upper-case edge) of the network. The network must be initialized.
+	 */
+	private Object2ObjectMap<LabeledNode, STNUEdge> SRNCycleFinderUpperCaseEdgeFromActivation() {
+		final Object2ObjectMap<LabeledNode, STNUEdge> upperCaseEdgeFromActivation = new Object2ObjectOpenHashMap<>();
+		for (final Entry<LabeledNode, STNUEdge> entry : upperContingentEdge.entrySet()) {
+			upperCaseEdgeFromActivation.put(activationNode.get(entry.getKey()), entry.getValue());
 		}
-		return edges;
+		return upperCaseEdgeFromActivation;
 	}
 
 	/**
@@ -4697,15 +5725,15 @@ public class STNU {
 
 	/**
 	 * Determines the moat edges for the lower-case edge associated to lower-case edge {@code (actNode, contNode:lowerCaseValue, contNode)}, using Dijkstra
-	 * technique based on {@code nodePotential}. Then, returns the bypass edges obtained combining the lower-case edge and the found moat edges.
+	 * technique based on {@code nodePotential}. Then, adds to {@code bypassStore} the bypass edges obtained combining the lower-case edge and the found moat
+	 * edges.
 	 *
 	 * @param currentLowerEdge the considered lower-case edge. No check is done.
 	 * @param nodePotential    a solution of the ordinary-lower-case graph. No check is done.
-	 *
-	 * @return list of bypass edge data as a list of #EdgeData object
+	 * @param bypassStore      the store where to add the bypass edges.
 	 */
-	private ObjectList<EdgeData> fastDispatchSTNULowerCaseForwardPropagation(@Nonnull STNUEdge currentLowerEdge,
-	                                                                         @Nonnull Object2IntMap<LabeledNode> nodePotential) {
+	private void fastDispatchSTNULowerCaseForwardPropagation(@Nonnull STNUEdge currentLowerEdge, @Nonnull Object2IntMap<LabeledNode> nodePotential,
+	                                                         @Nonnull DerivedConstraintStore bypassStore) {
 
 		if (!currentLowerEdge.isLowerCase()) {
 			throw new IllegalStateException("Edge " + currentLowerEdge + " is not a lower-case edge");
@@ -4716,7 +5744,6 @@ public class STNU {
 		assert C != null;
 		final int x = currentLowerEdge.getLabeledValue();
 
-		final ObjectList<EdgeData> bypassEdgeData = new ObjectArrayList<>();
 		final ExtendedPriorityQueue<LabeledNode> nodeQueue = new ExtendedPriorityQueue<>();
 		nodeQueue.insertOrUpdate(C, -nodePotential.getInt(C));
 
@@ -4741,7 +5768,7 @@ public class STNU {
 						               Constants.formatInt(byPassValue));
 					}
 				}
-				bypassEdgeData.add(new EdgeData(A, node, byPassValue));
+				bypassStore.addOrdinary(A, node, byPassValue);
 				continue;
 			}
 			for (final Pair<STNUEdge, LabeledNode> pairEdgeDest : g.getOutEdgesAndNodes(node)) {
@@ -4763,7 +5790,6 @@ public class STNU {
 				nodeQueue.insertOrUpdate(adjNode, adjNodeNewKey);
 			}
 		}
-		return bypassEdgeData;
 	}
 
 	/**
@@ -5256,6 +6282,308 @@ public class STNU {
 		return true;
 	}
 
+	/**
+	 * Executes the back-propagations of the parallel versions of Morris' algorithm in rounds. See {@link #applyMorris2014Parallel()}.
+	 *
+	 * @param negativeNodes      the negative nodes in the order used for applying the edge updates.
+	 * @param activationNodesMap map (activation node, upper-case edge) for the dispatchable version, null for the non-dispatchable version.
+	 * @param timeoutInstant     the instant after which the check is interrupted.
+	 *
+	 * @return true if all the back-propagations have been completed, false if the network is not DC or a timeout occurred (in such a case,
+	 * 	{@link STNUCheckStatus#timeout} is true).
+	 */
+	private boolean morris2014ParallelRounds(@Nonnull ObjectList<LabeledNode> negativeNodes,
+	                                         @Nullable Object2ObjectMap<LabeledNode, STNUEdge> activationNodesMap, @Nonnull Instant timeoutInstant) {
+		final ObjectSet<LabeledNode> negativeNodeSet = new ObjectOpenHashSet<>(negativeNodes);
+		final ObjectSet<LabeledNode> finished = new ObjectOpenHashSet<>(negativeNodes.size());
+		// activation nodes whose back-propagation generating waits has been completed
+		final ObjectSet<LabeledNode> halfFinished = new ObjectOpenHashSet<>();
+		final Object2ObjectMap<LabeledNode, LabeledNode> blockedBy = new Object2ObjectOpenHashMap<>();
+		final ObjectList<LabeledNode> pending = new ObjectArrayList<>(negativeNodes);
+		final ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+		try {
+			while (!pending.isEmpty()) {
+				final ObjectList<LabeledNode> ready = new ObjectArrayList<>();
+				final List<Callable<MorrisBackpropResult>> tasks = new ArrayList<>();
+				for (final LabeledNode X : pending) {
+					final LabeledNode blocker = blockedBy.get(X);
+					if (blocker != null && !finished.contains(blocker)) {
+						continue;
+					}
+					ready.add(X);
+					if (activationNodesMap == null) {
+						tasks.add(() -> morris2014ParallelBackpropagation(X, negativeNodeSet, finished));
+					} else {
+						final boolean generateUC = activationNodesMap.containsKey(X) && !halfFinished.contains(X);
+						tasks.add(() -> morris2014DispatchableParallelBackpropagation(X, generateUC, activationNodesMap, negativeNodeSet, finished));
+					}
+				}
+				if (ready.isEmpty()) {
+					if (Debug.ON) {
+						STNU.LOG.info("Found a semi-reducible negative cycle since each pending negative node waits for another pending one.");
+					}
+					return false;
+				}
+				if (Debug.ON) {
+					if (STNU.LOG.isLoggable(Level.FINER)) {
+						STNU.LOG.finer("New round of back-propagations from " + ready);
+					}
+				}
+				// getInEdgesAndNodes fills a cache of the graph at the first call for a node. Filling it here, the back-propagations only read it.
+				for (final LabeledNode node : g.getVertices()) {
+					g.getInEdgesAndNodes(node);
+				}
+				final List<Future<MorrisBackpropResult>> results = executor.invokeAll(tasks);
+				// the graph is modified only here, when no back-propagation is running.
+				for (int i = 0; i < ready.size(); i++) {
+					final LabeledNode X = ready.get(i);
+					final MorrisBackpropResult result = results.get(i).get();
+					if (result.blockedBy() != null) {
+						if (result.blockedBy() == X) {
+							if (Debug.ON) {
+								STNU.LOG.info("Found a semi-reducible negative cycle since source node " + X + " was met again.");
+							}
+							return false;
+						}
+						blockedBy.put(X, result.blockedBy());
+						continue;
+					}
+					for (final MorrisEdgeOp op : result.edgeOps()) {
+						applyMorrisEdgeOp(op);
+					}
+					checkStatus.cycles++;
+					if (activationNodesMap != null && activationNodesMap.containsKey(X) && halfFinished.add(X)) {
+						continue;
+					}
+					finished.add(X);
+				}
+				pending.removeIf(finished::contains);
+				if (checkStatus.checkTimeOutAndAdjustStatus(timeoutInstant)) {
+					return false;
+				}
+			}
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Parallel back-propagation interrupted: " + e.getMessage());
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Parallel back-propagation failed: " + e.getCause(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Applies to the network the given edge update determined by a back-propagation of the parallel versions of Morris' algorithm. The update logic is the
+	 * same of {@link #morris2014DCBackpropagation(LabeledNode, Object2ObjectMap)} and
+	 * {@link #morris2014DispatchableDCBackpropagation(LabeledNode, boolean, Object2ObjectMap, Object2ObjectMap)}.
+	 *
+	 * @param op the edge update
+	 */
+	private void applyMorrisEdgeOp(@Nonnull MorrisEdgeOp op) {
+		final LabeledNode U = op.U();
+		final LabeledNode X = op.X();
+		final int distU = op.value();
+		STNUEdge newE = g.findEdge(U, X);
+		switch (op.kind()) {
+			case ordinary -> {
+				if (newE == null) {
+					newE = this.g.makeNewEdge(U.getName() + "-" + X.getName(), ConstraintType.derived);
+					newE.setValue(distU);
+					g.addEdge(newE, U, X);
+				} else if (distU < newE.getValue() || newE.getValue() == Constants.INT_NULL) {
+					newE.setValue(distU);
+				}
+			}
+			case dispatchableOrdinary -> {
+				if (newE == null) {
+					newE = this.g.makeNewEdge(U.getName() + "-" + X.getName(), ConstraintType.derived);
+					newE.setValue(distU);
+					g.addEdge(newE, U, X);
+				} else if (!newE.isContingentEdge()) {
+					newE.updateValue(distU);
+				}
+			}
+			case dispatchableNegativeOrdinary -> {
+				if (newE == null) {
+					newE = this.g.makeNewEdge(U.getName() + "-" + X.getName(), ConstraintType.derived);
+					g.addEdge(newE, U, X);
+					newE.setValue(distU);
+				} else {
+					newE.updateValue(distU);
+				}
+			}
+			case dispatchableWait -> {
+				if (newE == null) {
+					newE = this.g.makeNewEdge(U.getName() + "-" + X.getName(), ConstraintType.derived);
+					g.addEdge(newE, U, X);
+				}
+				if (distU >= op.contingentLowerBoundNegated()) {
+					newE.updateValue(distU);
+					return;
+				}
+				if (newE.updateWait(distU, op.contingentNodeCase()) && newE.getValue() >= op.contingentLowerBoundNegated()) {
+					newE.setValue(Constants.INT_NULL);
+				}
+			}
+		}
+		if (Debug.ON) {
+			if (STNU.LOG.isLoggable(Level.FINER)) {
+				STNU.LOG.finer("Applied " + op.kind() + " update " + distU + " to " + newE);
+			}
+		}
+	}
+
+	/**
+	 * Back-propagation from the negative node {@code X} of {@link #applyMorris2014Parallel()}. It is the non-recursive version of
+	 * {@link #morris2014DCBackpropagation(LabeledNode, Object2ObjectMap)} that does not modify the network.
+	 * <p>
+	 * It can be executed concurrently with other back-propagations because it only reads the network (the in-edge cache is filled before each round).
+	 *
+	 * @param X               the negative node
+	 * @param negativeNodeSet the set of negative nodes
+	 * @param finished        the set of negative nodes already completed. It is not modified.
+	 *
+	 * @return the edge updates or the negative node not yet completed that interrupted the back-propagation.
+	 */
+	private MorrisBackpropResult morris2014ParallelBackpropagation(@Nonnull LabeledNode X, @Nonnull ObjectSet<LabeledNode> negativeNodeSet,
+	                                                              @Nonnull ObjectSet<LabeledNode> finished) {
+		final ObjectList<MorrisEdgeOp> ops = new ObjectArrayList<>();
+		final Object2IntOpenHashMap<LabeledNode> distance = new Object2IntOpenHashMap<>();
+		distance.defaultReturnValue(Constants.INT_POS_INFINITE);
+		distance.put(X, 0);
+
+		final ExtendedPriorityQueue<LabeledNode> queue = new ExtendedPriorityQueue<>();
+		for (final ObjectObjectImmutablePair<STNUEdge, LabeledNode> inEdgeSource : g.getInEdgesAndNodes(X)) {
+			final int v = STNU.GET_UPPER_OR_ORDINARY_VALUE(inEdgeSource.left());
+			if (v >= 0) {
+				continue;
+			}
+			final LabeledNode s = inEdgeSource.right();
+			distance.put(s, v);
+			queue.insertOrUpdate(s, v);
+		}
+		while (!queue.isEmpty()) {
+			final LabeledNode U = queue.extractFirst();
+			final int distU = distance.getInt(U);
+			if (distU >= 0) {
+				ops.add(new MorrisEdgeOp(U, X, distU, MorrisEdgeOpKind.ordinary, null, Constants.INT_NULL));
+				continue;
+			}
+			if (negativeNodeSet.contains(U) && !finished.contains(U)) {
+				return new MorrisBackpropResult(U, null);
+			}
+			for (final ObjectObjectImmutablePair<STNUEdge, LabeledNode> VUpair : g.getInEdgesAndNodes(U)) {
+				final STNUEdge eVU = VUpair.left();
+				final LabeledNode V = VUpair.right();
+				if (eVU.isLowerCase() && X != V) {
+					STNU.MORRIS2014_UPDATE_DISTANCE(V, eVU.getLabeledValue(), distU, queue, distance);
+				}
+				final int valueVU = eVU.getValue();
+				if (valueVU < 0) {// || valueVU == Constants.INT_NULL is subsumed by < 0
+					continue;
+				}
+				STNU.MORRIS2014_UPDATE_DISTANCE(V, valueVU, distU, queue, distance);
+			}
+		}
+		return new MorrisBackpropResult(null, ops);
+	}
+
+	/**
+	 * Back-propagation from the negative node {@code X} of {@link #applyMorris2014DispatchableParallel()}. It is the non-recursive version of
+	 * {@link #morris2014DispatchableDCBackpropagation(LabeledNode, boolean, Object2ObjectMap, Object2ObjectMap)} that does not modify the network.
+	 * <p>
+	 * It can be executed concurrently with other back-propagations because it only reads the network (the in-edge cache is filled before each round).
+	 *
+	 * @param X                  the negative node
+	 * @param generateUC         true if the back-propagation has to generate waits (X must be an activation time-point).
+	 * @param activationNodesMap map (activation node, upper-case edge)
+	 * @param negativeNodeSet    the set of negative nodes
+	 * @param finished           the set of negative nodes already completed. It is not modified.
+	 *
+	 * @return the edge updates or the negative node not yet completed that interrupted the back-propagation.
+	 */
+	private MorrisBackpropResult morris2014DispatchableParallelBackpropagation(@Nonnull LabeledNode X, boolean generateUC,
+	                                                                          @Nonnull Object2ObjectMap<LabeledNode, STNUEdge> activationNodesMap,
+	                                                                          @Nonnull ObjectSet<LabeledNode> negativeNodeSet,
+	                                                                          @Nonnull ObjectSet<LabeledNode> finished) {
+		final ObjectList<MorrisEdgeOp> ops = new ObjectArrayList<>();
+		int contingentLowerBoundNegated = Constants.INT_NULL;
+		int contingentUpperBoundNegated = Constants.INT_NULL;
+		ALetter contingentNodeCase = null;
+		LabeledNode contingentNode = null;
+
+		final Object2IntOpenHashMap<LabeledNode> distance = new Object2IntOpenHashMap<>();
+		distance.defaultReturnValue(Constants.INT_POS_INFINITE);
+		distance.put(X, 0);
+		final ExtendedPriorityQueue<LabeledNode> queue = new ExtendedPriorityQueue<>();
+
+		if (generateUC) {
+			final STNUEdge upperCaseEdge = activationNodesMap.get(X);
+			contingentNode = g.getSource(upperCaseEdge);
+			assert contingentNode != null;
+			contingentUpperBoundNegated = upperCaseEdge.getLabeledValue();
+			distance.put(contingentNode, contingentUpperBoundNegated);
+			queue.insertOrUpdate(contingentNode, contingentUpperBoundNegated);
+			final STNUEdge lowerCaseEdge = g.findEdge(X, contingentNode);
+			assert lowerCaseEdge != null;
+			contingentLowerBoundNegated = -lowerCaseEdge.getLabeledValue();
+			contingentNodeCase = new ALetter(contingentNode.getName());
+		} else {
+			if (activationNodesMap.containsKey(X)) {
+				// as in the sequential version, the contingent node is excluded also when ordinary constraints are generated.
+				contingentNode = g.getSource(activationNodesMap.get(X));
+			}
+			for (final ObjectObjectImmutablePair<STNUEdge, LabeledNode> inEdgeSource : g.getInEdgesAndNodes(X)) {
+				final int v = inEdgeSource.left().getValue();
+				if (v == Constants.INT_NULL || v >= 0) {//v==Constants.INT_NULL in case of contingent upper-case
+					continue;
+				}
+				final LabeledNode s = inEdgeSource.right();
+				distance.put(s, v);
+				queue.insertOrUpdate(s, v);
+			}
+		}
+		while (!queue.isEmpty()) {
+			final LabeledNode U = queue.extractFirst();
+			final int distU = distance.getInt(U);
+			if (distU >= 0) {
+				ops.add(new MorrisEdgeOp(U, X, distU, MorrisEdgeOpKind.dispatchableOrdinary, null, Constants.INT_NULL));
+				continue;
+			}
+			//distU is negative
+			if (negativeNodeSet.contains(U) && !finished.contains(U)) {
+				return new MorrisBackpropResult(U, null);
+			}
+			if (generateUC && U != contingentNode && distU >= contingentUpperBoundNegated) {
+				ops.add(new MorrisEdgeOp(U, X, distU, MorrisEdgeOpKind.dispatchableWait, contingentNodeCase, contingentLowerBoundNegated));
+				if (distU >= contingentLowerBoundNegated) {
+					continue;
+				}
+			} else {
+				if (!generateUC && U != contingentNode) {
+					ops.add(new MorrisEdgeOp(U, X, distU, MorrisEdgeOpKind.dispatchableNegativeOrdinary, null, Constants.INT_NULL));
+				}
+			}
+			for (final ObjectObjectImmutablePair<STNUEdge, LabeledNode> VUpair : g.getInEdgesAndNodes(U)) {
+				final STNUEdge eVU = VUpair.left();
+				if (eVU.isUpperCase()) {
+					continue;
+				}
+				final LabeledNode V = VUpair.right();
+				//If X is activation tp for a contingent link, then cannot back-prop along LC-edge for that contingent link
+				if (!generateUC || !eVU.isLowerCase() || V != X) {
+					final int valueVU = (eVU.isLowerCase()) ? eVU.getLabeledValue() : eVU.getValue();
+					if (valueVU < 0) {
+						continue;
+					}
+					STNU.MORRIS2014_UPDATE_DISTANCE(V, valueVU, distU, queue, distance);
+				}
+			}
+		}
+		return new MorrisBackpropResult(null, ops);
+	}
+
 	/**
 	 * RUL<sup>-</sup> algorithm: applyRelaxLower
 	 *
@@ -5537,12 +6865,20 @@ public class STNU {
 				STNU.LOG.finest("DeltaC is about contingent link " + A.getName() + C.getName() + ": " + DeltaC);
 			}
 		}
-		final RULLocalInfo localInfo = new RULLocalInfo(Constants.INT_POS_INFINITE);
+		final RULLocalInfo localInfo = new RULLocalInfo();
 		// save localInfo in globalInfo for the rul2021Dispatchable version of the algorithm
 		globalInfo.localInfoOfContingentNodes.put(C, localInfo);
 
-		// queue contains the adjusted distance from X to C
-		final ExtendedPriorityQueue<LabeledNode> queue = new ExtendedPriorityQueue<>();
+		if (globalInfo.scratch == null) {
+			globalInfo.scratch = new RULScratch(g.getVerticesArray());
+		}
+		final RULScratch scratch = globalInfo.scratch;
+		// distance of each node from C. It is not touched by the recursive calls, that use the next level of the scratch.
+		final RULDistance distance = scratch.pushDistance();
+		// queue contains the adjusted distance from X to C.
+		// It is shared with the recursive calls, that are done only when it is empty.
+		final IntIndexedPriorityQueue queue = scratch.queue;
+		queue.clear();
 
 		for (final Pair<STNUEdge, LabeledNode> edgeAndSource : g.getInEdgesAndNodes(C)) {
 			//consider only ordinary constraints
@@ -5551,7 +6887,7 @@ public class STNU {
 				continue;
 			}
 			final LabeledNode X = edgeAndSource.right();
-			queue.insertOrUpdate(X, Constants.sumWithOverflowCheck(globalInfo.nodePotential.getInt(X), e.getValue()));
+			queue.insertOrUpdate(scratch.id(X), Constants.sumWithOverflowCheck(globalInfo.nodePotential.getInt(X), e.getValue()));
 		}
 		if (Debug.ON) {
 			if (STNU.LOG.isLoggable(Level.FINEST)) {
@@ -5560,7 +6896,8 @@ public class STNU {
 		}
 		boolean cycle = true;
 		do {
-			if (!rul2021OneStepBackProp(C, DeltaC, queue, globalInfo, localInfo)) {
+			if (!rul2021OneStepBackProp(C, DeltaC, queue, globalInfo, localInfo, distance)) {
+				scratch.popDistance();
 				return false;
 			}
 			if (!localInfo.unStartedUCEdges.isEmpty()) {
@@ -5571,6 +6908,7 @@ public class STNU {
 						}
 					}
 					if (!rul2021BackPropagation(e, globalInfo)) {
+						scratch.popDistance();
 						return false;
 					}
 				}
@@ -5581,21 +6919,37 @@ public class STNU {
 							STNU.LOG.finest("From unStarted upper-case edge, update node " + X + " in the queue.");
 						}
 					}
-					queue.insertOrUpdate(X,
-					                     Constants.sumWithOverflowCheck(localInfo.distanceFromNodeToContingent.getInt(X), globalInfo.nodePotential.getInt(X)));
-					localInfo.distanceFromNodeToContingent.put(X, Constants.INT_POS_INFINITE);
+					final int XId = scratch.id(X);
+					queue.insertOrUpdate(XId, Constants.sumWithOverflowCheck(distance.get(XId), globalInfo.nodePotential.getInt(X)));
+					distance.put(XId, Constants.INT_POS_INFINITE);
 				}
 			} else {
 				cycle = false;
 			}
 		} while (cycle);
+		// Only the distances less than DeltaC are read after this method (forward propagation and FD_STNU).
+		final Object2IntOpenHashMap<LabeledNode> shortDistance = new Object2IntOpenHashMap<>();
+		shortDistance.defaultReturnValue(Constants.INT_POS_INFINITE);
+		for (int i = 0; i < distance.reached.size(); i++) {
+			final int XId = distance.reached.getInt(i);
+			final int deltaXC = distance.get(XId);
+			if (deltaXC < DeltaC) {
+				shortDistance.put(scratch.node[XId], deltaXC);
+			}
+		}
+		localInfo.distanceFromNodeToContingent = shortDistance;
 		if (Debug.ON) {
 			if (STNU.LOG.isLoggable(Level.FINEST)) {
 				STNU.LOG.finest("Updated localInfo.distanceFrom: " + localInfo.distanceFromNodeToContingent);
 			}
 		}
-		if (localInfo.ccLoop && rul2021FwdPropNotDC(C, DeltaC, localInfo.distanceFromNodeToContingent, globalInfo.nodePotential)) {
-			return false;
+		if (localInfo.ccLoop) {
+			if (rulBatched) {
+				globalInfo.deferredFwdPropNode.add(C);
+				globalInfo.deferredFwdPropDeltaC.add(DeltaC);
+			} else if (rul2021FwdPropNotDC(C, DeltaC, localInfo.distanceFromNodeToContingent, globalInfo.nodePotential, scratch)) {
+				return false;
+			}
 		}
 
 		boolean addedEdge = false;
@@ -5603,7 +6957,7 @@ public class STNU {
 			if (X == C) {
 				continue;
 			}
-			final int deltaXC = localInfo.distanceFromNodeToContingent.getInt(X);
+			final int deltaXC = distance.get(scratch.id(X));
 			if (deltaXC == Constants.INT_POS_INFINITE || deltaXC < DeltaC) {
 				continue;
 			}
@@ -5631,6 +6985,7 @@ public class STNU {
 				}
 			}
 		}
+		scratch.popDistance();
 		if (addedEdge) {
 			globalInfo.nodePotential = rul2018UpdatePotential(globalInfo.nodePotential, A);
 		}
@@ -5646,6 +7001,66 @@ public class STNU {
 		return true;
 	}
 
+	/**
+	 * Executes the forward propagations deferred by {@link #rul2021BackPropagation(STNUEdge, RULGlobalInfo)} in batched mode (see
+	 * {@link #setRulBatched(boolean)}) using the current potential. The forward propagations only read the network (after the out-edge cache has been
+	 * filled), so they are executed in parallel using {@link #getNThreads()} threads, each one with its own scratch space.
+	 *
+	 * @param globalInfo the global checking data structure
+	 *
+	 * @return true iff a forward propagation discovered a negative loop.
+	 */
+	private boolean rul2021DeferredFwdPropNotDC(@Nonnull RULGlobalInfo globalInfo) {
+		final int nDeferred = globalInfo.deferredFwdPropNode.size();
+		if (nDeferred == 0) {
+			return false;
+		}
+		if (Debug.ON) {
+			if (STNU.LOG.isLoggable(Level.FINER)) {
+				STNU.LOG.finer("Executing " + nDeferred + " deferred forward propagations.");
+			}
+		}
+		final Object2IntMap<LabeledNode> potential = globalInfo.nodePotential;
+		if (nThreads == 1 || nDeferred == 1) {
+			for (int i = 0; i < nDeferred; i++) {
+				final LabeledNode C = globalInfo.deferredFwdPropNode.get(i);
+				if (rul2021FwdPropNotDC(C, globalInfo.deferredFwdPropDeltaC.getInt(i),
+				                        globalInfo.localInfoOfContingentNodes.get(C).distanceFromNodeToContingent, potential, globalInfo.scratch)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		// getOutEdgesAndNodes fills a cache of the graph at the first call for a node. Filling it here, the forward propagations only read it.
+		for (final LabeledNode node : globalInfo.scratch.node) {
+			g.getOutEdgesAndNodes(node);
+		}
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(nThreads, nDeferred));
+		final ThreadLocal<RULScratch> threadScratch = ThreadLocal.withInitial(() -> new RULScratch(globalInfo.scratch));
+		try {
+			final List<Callable<Boolean>> tasks = new ArrayList<>(nDeferred);
+			for (int i = 0; i < nDeferred; i++) {
+				final LabeledNode C = globalInfo.deferredFwdPropNode.get(i);
+				final int DeltaC = globalInfo.deferredFwdPropDeltaC.getInt(i);
+				final Object2IntMap<LabeledNode> distanceFromC = globalInfo.localInfoOfContingentNodes.get(C).distanceFromNodeToContingent;
+				tasks.add(() -> rul2021FwdPropNotDC(C, DeltaC, distanceFromC, potential, threadScratch.get()));
+			}
+			for (final Future<Boolean> result : executor.invokeAll(tasks)) {
+				if (result.get()) {
+					return true;
+				}
+			}
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Deferred forward propagation interrupted: " + e.getMessage());
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Deferred forward propagation failed: " + e.getCause(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/**
 	 * Auxiliary procedure for the Luke Hunsberger implementation of RUL<sup>-</sup> algorithm.
 	 * <p>
@@ -5658,13 +7073,17 @@ public class STNU {
 	 * @param DeltaC          the difference y-x of contingent link associated to C
 	 * @param distanceFromC   distances of X from C computed during back-propagation.
 	 * @param globalPotential global potential
+	 * @param scratch         the scratch space to use. The method only reads the network, so it can be executed concurrently using different scratches
+	 *                        once the out-edge cache of the network has been filled (see {@link #rul2021DeferredFwdPropNotDC(RULGlobalInfo)}).
 	 *
 	 * @return true iff forward propagation discovered a negative loop. Otherwise, the lower case from A to C is reduced away.
 	 */
-	private boolean rul2021FwdPropNotDC(LabeledNode C, int DeltaC, Object2IntMap<LabeledNode> distanceFromC, Object2IntMap<LabeledNode> globalPotential) {
+	private boolean rul2021FwdPropNotDC(LabeledNode C, int DeltaC, Object2IntMap<LabeledNode> distanceFromC, Object2IntMap<LabeledNode> globalPotential,
+	                                    @Nonnull RULScratch scratch) {
 
-		final ExtendedPriorityQueue<LabeledNode> queue = new ExtendedPriorityQueue<>();
-		queue.insertOrUpdate(C, -globalPotential.getInt(C));
+		final IntIndexedPriorityQueue queue = scratch.queue;
+		queue.clear();
+		queue.insertOrUpdate(scratch.id(C), -globalPotential.getInt(C));
 
 		if (Debug.ON) {
 			if (STNU.LOG.isLoggable(Level.FINEST)) {
@@ -5672,9 +7091,9 @@ public class STNU {
 			}
 		}
 		while (!queue.isEmpty()) {
-			final BasicEntry<LabeledNode> minEntry = queue.extractFirstEntry();
-			final LabeledNode X = minEntry.getKey();
-			final int Xkey = minEntry.getIntValue();
+			final int XId = queue.extractFirst();
+			final LabeledNode X = scratch.node[XId];
+			final int Xkey = queue.getPriority(XId);
 			final int deltaCX = Xkey + globalPotential.getInt(X);
 			if (Debug.ON) {
 				if (STNU.LOG.isLoggable(Level.FINEST)) {
@@ -5709,7 +7128,7 @@ public class STNU {
 				final LabeledNode Y = entry.right();
 				int newKey = Constants.sumWithOverflowCheck(deltaCX, eValue);
 				newKey = Constants.sumWithOverflowCheck(newKey, -globalPotential.getInt(Y));// lower case o no-case value
-				queue.insertOrUpdate(Y, newKey);
+				queue.insertOrUpdate(scratch.id(Y), newKey);
 			}
 		}
 		return false;
@@ -5725,22 +7144,25 @@ public class STNU {
 	 * @param V       the considered node
 	 * @param DeltaC  the deltaC of the contingent link
 	 * @param deltaVC the delta between V and C
-	 *
-	 * @return a list of pair (node, int) obtained applying RELAX^- and LOWER^- rules to all LO-edges incoming to V, together with the edge (V,deltaVC,C).
+	 * @param scratch the scratch where to store the pairs (node, int) obtained applying RELAX^- and LOWER^- rules to all LO-edges incoming to V, together
+	 *                with the edge (V,deltaVC,C). Nodes are stored in {@link RULScratch#relaxedNode} and values in {@link RULScratch#relaxedValue}.
 	 */
-	private ObjectList<BasicEntry<LabeledNode>> rul2021NewApplyRelaxLower(LabeledNode V, int DeltaC, int deltaVC) {
+	private void rul2021NewApplyRelaxLower(LabeledNode V, int DeltaC, int deltaVC, @Nonnull RULScratch scratch) {
 		if (Debug.ON) {
 			if (STNU.LOG.isLoggable(Level.FINEST)) {
 				STNU.LOG.finest("newApplyRelaxLower started with parameters: node V: " + V + ", DeltaC: " + DeltaC + ", deltaVC: " + deltaVC);
 			}
 		}
 
-		final ObjectArrayList<BasicEntry<LabeledNode>> edges = new ObjectArrayList<>();
+		final ObjectArrayList<LabeledNode> nodes = scratch.relaxedNode;
+		final IntArrayList values = scratch.relaxedValue;
+		nodes.clear();
+		values.clear();
 		if (deltaVC >= DeltaC) {
 			if (Debug.ON) {
 				STNU.LOG.finest("newApplyRelaxLower. deltaVC >= DeltaC, returns no new edges.");
 			}
-			return edges; // The RELAX^- and LOWER^- rules don't apply
+			return; // The RELAX^- and LOWER^- rules don't apply
 		}
 		final STNUEdge lowerCaseEdge = lowerContingentEdge.get(V);
 		if (lowerCaseEdge != null) {// == V is a contingent node
@@ -5750,9 +7172,8 @@ public class STNU {
 					STNU.LOG.finest("newApplyRelaxLower. Apply LOWER considering: " + lowerCaseEdge);
 				}
 			}
-			final BasicEntry<LabeledNode> localEntry =
-				new BasicEntry<>(activationNode.get(V), Constants.sumWithOverflowCheck(lowerCaseEdge.getLabeledValue(), deltaVC));
-			edges.add(localEntry);
+			nodes.add(activationNode.get(V));
+			values.add(Constants.sumWithOverflowCheck(lowerCaseEdge.getLabeledValue(), deltaVC));
 		} else {
 			for (final Pair<STNUEdge, LabeledNode> edgeAndSource : g.getInEdgesAndNodes(V)) {
 				final STNUEdge e = edgeAndSource.left();
@@ -5766,15 +7187,15 @@ public class STNU {
 						STNU.LOG.finest("newApplyRelaxLower. Apply `RELAX` considering: " + e);
 					}
 				}
-				edges.add(new BasicEntry<>(W, Constants.sumWithOverflowCheck(e.getValue(), deltaVC)));
+				nodes.add(W);
+				values.add(Constants.sumWithOverflowCheck(e.getValue(), deltaVC));
 			}
 		}
 		if (Debug.ON) {
 			if (STNU.LOG.isLoggable(Level.FINEST)) {
-				STNU.LOG.finest("newApplyRelaxLower. Resulting data for edges to add (W->deltaWC): " + edges);
+				STNU.LOG.finest("newApplyRelaxLower. Resulting data for edges to add (W, deltaWC): " + nodes + ", " + values);
 			}
 		}
-		return edges;
 	}
 
 	/**
@@ -5784,20 +7205,23 @@ public class STNU {
 	 * <p>
 	 * The Tech. Appendix is published at <a href="https://hdl.handle.net/11562/1045707">http://hdl.handle.net/11562/1045707</a>.
 	 * <p>
-	 * Side effects: Modifies contents of localInfo.
+	 * Side effects: Modifies contents of localInfo and distance.
 	 * </p>
 	 *
 	 * @param C          contingent time-point
 	 * @param DeltaC     the difference y-x of contingent link associated to C.
-	 * @param Q          a priority queue containing all incoming ordinary edges of C with priority adjusted with the potential of source node.
+	 * @param Q          a priority queue containing (the ids of) the sources of all incoming ordinary edges of C with priority adjusted with the potential of
+	 *                   source node.
 	 * @param globalInfo the global checking data structure
 	 * @param localInfo  the local checking data structure
+	 * @param distance   the distances from the nodes to C
 	 *
 	 * @return false iff back-propagation from C reveals STNU to be non-DC.
 	 */
 	@SuppressWarnings("BooleanMethodIsAlwaysInverted")
-	private boolean rul2021OneStepBackProp(@Nonnull LabeledNode C, int DeltaC, @Nonnull ExtendedPriorityQueue<LabeledNode> Q, @Nonnull RULGlobalInfo globalInfo,
-	                                       @Nonnull RULLocalInfo localInfo) {
+	private boolean rul2021OneStepBackProp(@Nonnull LabeledNode C, int DeltaC, @Nonnull IntIndexedPriorityQueue Q, @Nonnull RULGlobalInfo globalInfo,
+	                                       @Nonnull RULLocalInfo localInfo, @Nonnull RULDistance distance) {
+		final RULScratch scratch = globalInfo.scratch;
 
 		localInfo.unStartedUCEdges = new Object2ObjectOpenHashMap<>();
 		if (Debug.ON) {
@@ -5806,9 +7230,9 @@ public class STNU {
 			}
 		}
 		while (!Q.isEmpty()) {
-			final BasicEntry<LabeledNode> minEntry = Q.extractFirstEntry();
-			final LabeledNode X = minEntry.getKey();
-			final int XKey = minEntry.getIntValue();
+			final int XId = Q.extractFirst();
+			final LabeledNode X = scratch.node[XId];
+			final int XKey = Q.getPriority(XId);
 			final int weightEdgeXC = XKey - globalInfo.nodePotential.getInt(X);
 			final STNUEdge upperCaseEdgeFromX = globalInfo.upperCaseEdgeFromActivation.get(X);
 
@@ -5817,15 +7241,15 @@ public class STNU {
 					STNU.LOG.finest(
 						"OneStepBackProp. Considering node " + X + ", XKey: " + XKey + ", deltaXC: " + weightEdgeXC + ", possible upper-case edge with " + X +
 						" as activation: " + upperCaseEdgeFromX + ", distance of " + X + " from C: " +
-						Constants.formatInt(localInfo.distanceFromNodeToContingent.getInt(X)));
+						Constants.formatInt(distance.get(XId)));
 				}
 			}
 
-			if (weightEdgeXC >= localInfo.distanceFromNodeToContingent.getInt(X)) {
+			if (weightEdgeXC >= distance.get(XId)) {
 				continue;
 			}
 
-			localInfo.distanceFromNodeToContingent.put(X, weightEdgeXC);
+			distance.put(XId, weightEdgeXC);
 			if (Debug.ON) {
 				if (STNU.LOG.isLoggable(Level.FINEST)) {
 					STNU.LOG.finest("OneStepBackProp. New distance of " + X + ": " + weightEdgeXC);
@@ -5884,9 +7308,10 @@ public class STNU {
 					}
 				}
 				// case 4
-				for (final BasicEntry<LabeledNode> entry : rul2021NewApplyRelaxLower(X, DeltaC, weightEdgeXC)) {
-					final LabeledNode W = entry.getKey();
-					final int deltaWC = entry.getIntValue();
+				rul2021NewApplyRelaxLower(X, DeltaC, weightEdgeXC, scratch);
+				for (int i = 0; i < scratch.relaxedNode.size(); i++) {
+					final LabeledNode W = scratch.relaxedNode.get(i);
+					final int deltaWC = scratch.relaxedValue.getInt(i);
 					STNUEdge wc = g.findEdge(W, C);
 					int wcValue = Constants.INT_NULL;
 					if (wc != null && (wcValue = wc.getValue()) == Constants.INT_NULL) {// it does not represent an ordinary edge, so ignore it!
@@ -5894,20 +7319,20 @@ public class STNU {
 					}
 					if (Debug.ON) {
 						if (STNU.LOG.isLoggable(Level.FINEST)) {
-							STNU.LOG.finest("OneStepBackProp. Considering (W->deltaWC): " + entry + ". The current edge WC: " + wc);
+							STNU.LOG.finest("OneStepBackProp. Considering (W->deltaWC): " + W + "->" + deltaWC + ". The current edge WC: " + wc);
 						}
 					}
 					if (wc == null || deltaWC < wcValue) {
 						final int newKey = Constants.sumWithOverflowCheck(deltaWC, globalInfo.nodePotential.getInt(W));
 						if (Debug.ON) {
-							final Status Wstatus = Q.getStatus(W);
+							final Status Wstatus = Q.getStatus(scratch.id(W));
 							if (STNU.LOG.isLoggable(Level.FINEST)) {
 								STNU.LOG.finest(
 									"OneStepBackProp. potential(" + W + "): " + globalInfo.nodePotential.getInt(W) + ", newKey of " + W + ": " + newKey +
 									", queue status of " + W + ": " + Wstatus);
 							}
 						}
-						Q.insertOrUpdate(W, newKey);
+						Q.insertOrUpdate(scratch.id(W), newKey);
 						if (Debug.ON) {
 							if (STNU.LOG.isLoggable(Level.FINEST)) {
 								STNU.LOG.finest("OneStepBackProp. Queue after adding " + W + ": " + Q);
@@ -759,6 +759,12 @@ public class STNURTE {
 	 */
 	@Option(name = "-r", aliases = "--rted", usage = "Which strategy to use for RTE decision.")
 	private StrategyEnum chosenRtedStrategy;
+	/**
+	 * Nodes removed from the original network by {@link STNU#applyCompressDispatchableESTNU()}. If not null, the schedule determined by
+	 * {@link #rte(Strategy, Strategy)} is expanded to the removed nodes.
+	 */
+	@Nullable
+	private STNU.CollapsedNodeMap collapsedNodes;
 
 	/**
 	 * @param graph                  TNGraph to check
@@ -771,6 +777,16 @@ public class STNURTE {
 	}
 
 
+	/**
+	 * @param graph                  compressed TNGraph to check. It must be the network compressed by {@link STNU#applyCompressDispatchableESTNU()}.
+	 * @param collapsedNodes         the nodes removed by the compression. The schedule determined by {@link #rte(Strategy, Strategy)} contains also them.
+	 * @param strictEnvironmentCheck Disables (=true) the sanity checks on the durations selected by the environment strategy.
+	 */
+	public STNURTE(@Nonnull TNGraph<STNUEdge> graph, @Nonnull STNU.CollapsedNodeMap collapsedNodes, boolean strictEnvironmentCheck) {
+		this(graph, strictEnvironmentCheck);
+		this.collapsedNodes = collapsedNodes;
+	}
+
 	/**
 	 * Default constructor. Graph is necessary.
 	 *
@@ -942,6 +958,9 @@ public class STNURTE {
 				}
 			}
 		}
+		if (collapsedNodes != null) {
+			collapsedNodes.expandSchedule(state.schedule);
+		}
 		stopWatch.suspend();
 		if (Debug.ON) {
 			LOG.finer("rte() finished.");
@@ -524,6 +524,21 @@ public final class LazyCSTN {
 	 */
 	PrintStream output = null;
 
+	/**
+	 * If true, at each ∂ adjustment the initialized network is copied and re-checked from scratch.<br>
+	 * Otherwise (default), each ∂ adjustment re-checks the network in place keeping the values that do not depend on ∂
+	 * (see {@link #dynamicConsistencyCheck()}).
+	 */
+	@Option(required = false, name = "-restartOnDelta", usage = "At each ∂ adjustment, re-check a copy of the initialized network from scratch.")
+	boolean restartOnDeltaAdjustment = false;
+
+	/**
+	 * True if a -∞ value has been determined by a negative q-loop depending on ∂.<br>
+	 * Such -∞ is a {@link LazyNumber}, and LazyNumber values determined from it (e.g., by {@link LazyWeight#max(LazyWeight, LazyWeight, Label)}) can
+	 * depend on ∂.
+	 */
+	boolean negInftyDependsOnDelta = false;
+
 	/**
 	 * Software Version.
 	 */
@@ -823,6 +838,11 @@ public final class LazyCSTN {
 	 * Checks the dynamic consistency of a CSTN instance within timeout seconds.
 	 * During the execution of this method, the given graph is modified. <br>
 	 * If the check is successful, all constraints to node Z in g are minimized; otherwise, g contains a negative cycle at least.
+	 * <p>
+	 * When a negative loop depending on ∂ is found, ∂ is adjusted and the network is checked again.
+	 * If {@link #restartOnDeltaAdjustment} is false, the network is re-initialized in place by {@link #resetKeepingNumbers(LabeledLazyWeightGraph)},
+	 * so that the values already determined that do not depend on ∂ are not determined again.
+	 * Otherwise, a copy of the initialized network with the new ∂ is checked.
 	 *
 	 * @return the final status of the checking with some statistics.
 	 * @throws it.univr.di.cstnu.algorithms.WellDefinitionException if any.
@@ -868,11 +888,16 @@ public final class LazyCSTN {
 				if (Debug.ON) {
 					if (LOG.isLoggable(Level.INFO)) {
 						LOG.log(Level.INFO, "Adjustment #" + adjustement + ". A new value for ∂ is " + this.checkStatus.minimumDelta
-								+ "\nNow a new initialized graph with this new value for ∂ will be prepared and checked.");
+								+ "\nNow the initialized graph with this new value for ∂ will be prepared and checked.");
 					}
 				}
 
-				this.g = initializeGraphWithDelta(initializedGraph, this.checkStatus.minimumDelta);
+				if (this.restartOnDeltaAdjustment) {
+					this.g = initializeGraphWithDelta(initializedGraph, this.checkStatus.minimumDelta);
+					this.Z = this.g.getZ();// rules compare nodes with Z by reference
+				} else {
+					resetKeepingNumbers(initializedGraph);
+				}
 			}
 		} while (!this.checkStatus.finished && !this.checkStatus.timeout);
 		if (Debug.ON) {
@@ -909,6 +934,64 @@ public final class LazyCSTN {
 		return newG;
 	}
 
+	/**
+	 * Re-initializes {@link #g} in place for checking it with the current minimum ∂.
+	 * <p>
+	 * Each edge is reset to its values in the initialized graph g1, where all LazyPiece(s) are set to the current minimum ∂ and all LazySum(s)
+	 * and LazyMax(s) are removed.
+	 * Then, all finite {@link LazyNumber} values of the edge are added again. A LazyNumber is determined only from LazyNumber values (see
+	 * {@link LazyWeight#sum(LazyWeight, LazyWeight, Label)} and {@link LazyWeight#max(LazyWeight, LazyWeight, Label)}); therefore, it does not
+	 * depend on ∂, and it is still valid for the new ∂ value.<br>
+	 * The only exception is -∞ that can be determined by a negative q-loop depending on ∂. For this reason, -∞ values are never kept, and no
+	 * LazyNumber value is kept when such a -∞ was determined ({@link #negInftyDependsOnDelta}).
+	 * <br>
+	 * Edges that remain empty are removed.
+	 *
+	 * @param g1 the initialized graph.
+	 */
+	private void resetKeepingNumbers(LabeledLazyWeightGraph g1) {
+		final ObjectArrayList<LabeledLazyWeightEdge> emptyEdges = new ObjectArrayList<>();
+		final Object2ObjectMap<Label, LazyWeight> numbers = new Object2ObjectArrayMap<>();
+		final boolean keepNumbers = !this.negInftyDependsOnDelta;
+		for (final LabeledLazyWeightEdge e : this.g.getEdges()) {
+			numbers.clear();
+			for (final Entry<Label, LazyWeight> entry : e.getLabeledValueSet()) {
+				final LazyWeight lw = entry.getValue();
+				if (keepNumbers && lw.getType() == SubType.Number && lw.getValue() != Constants.INT_NEG_INFINITE) {
+					numbers.put(entry.getKey(), lw);
+				}
+			}
+			e.clearLabels();
+			final LabeledLazyWeightEdge initialEdge = g1.findEdge(this.g.getSource(e).getName(), this.g.getDest(e).getName());
+			if (initialEdge != null) {
+				for (final Entry<Label, LazyWeight> entry : initialEdge.getLabeledValueSet()) {
+					final LazyWeight lw = entry.getValue();
+					if (lw.getType() == SubType.Piece) {
+						lw.setX(this.checkStatus.minimumDelta);
+					} else if (lw.getType() != SubType.Number) {
+						continue;
+					}
+					e.mergeLabeledValue(entry.getKey(), lw);
+				}
+			}
+			for (final Entry<Label, LazyWeight> entry : numbers.object2ObjectEntrySet()) {
+				e.mergeLabeledValue(entry.getKey(), entry.getValue());
+			}
+			if (e.isEmpty()) {
+				emptyEdges.add(e);
+			}
+		}
+		for (final LabeledLazyWeightEdge e : emptyEdges) {
+			this.g.removeEdge(e);
+		}
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINE)) {
+				LOG.log(Level.FINE, "Graph re-initialized for ∂ = " + this.checkStatus.minimumDelta + ". Derived LazyNumber values kept: " + keepNumbers);
+			}
+		}
+		this.negInftyDependsOnDelta = false;
+	}
+
 	private void adjustDeltaValue() {
 		Fraction newDelta;
 		double newValue;
@@ -1516,6 +1599,9 @@ public final class LazyCSTN {
 						this.checkStatus.labeledValuePropagationCalls++;
 						return true;
 					}
+					if (sum.getType() != SubType.Number) {
+						this.negInftyDependsOnDelta = true;
+					}
 					sum = LazyNumber.LazyNegInfty;
 				} else {
 					// in the case of A != C, a value is stored only if it is more negative than the current one.
@@ -2670,6 +2756,7 @@ public final class LazyCSTN {
 		this.Z = null;
 		this.maxWeight = 0;
 		this.horizon = 0;
+		this.negInftyDependsOnDelta = false;
 		this.checkStatus.reset();
 	}
 }
@@ -63,6 +63,19 @@ public abstract class AbstractComponent implements Component {
 		inNegativeCycle = false;
 	}
 
+	/**
+	 * Creates a component with name {@code n} that notifies its changes by the given property change support, shared with other components.
+	 * <br>
+	 * It is used by components that must be as small as possible (see {@link EdgeArena}).
+	 *
+	 * @param n         the name for the component. It must be not null.
+	 * @param sharedPcs the property change support
+	 */
+	AbstractComponent(@Nonnull String n, @Nonnull PropertyChangeSupport sharedPcs) {
+		name = n;
+		pcs = sharedPcs;
+	}
+
 	/**
 	 * Constructor to clone the component.
 	 *
@@ -6,6 +6,7 @@ package it.univr.di.cstnu.graph;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import javax.annotation.Nonnull;
+import java.beans.PropertyChangeSupport;
 import java.io.Serial;
 
 /**
@@ -64,6 +65,20 @@ public abstract class AbstractEdge extends AbstractComponent implements Edge {
 		}
 	}
 
+	/**
+	 * Creates an edge with name {@code n}, or 'e&lt;id&gt;' if n is null or empty, and type {@link ConstraintType#requirement} that notifies its
+	 * changes by the given property change support. No event is fired.
+	 *
+	 * @param n         name of edge
+	 * @param sharedPcs the property change support shared with other edges
+	 *
+	 * @see AbstractComponent#AbstractComponent(String, PropertyChangeSupport)
+	 */
+	AbstractEdge(String n, @Nonnull PropertyChangeSupport sharedPcs) {
+		super(((n == null) || (n.isEmpty())) ? "e%d".formatted(AbstractEdge.nextId()) : n, sharedPcs);
+		constraintType = ConstraintType.requirement;
+	}
+
 	/**
 	 * Creates an edge with name {@code n} and type {@link ConstraintType#requirement}.
 	 *
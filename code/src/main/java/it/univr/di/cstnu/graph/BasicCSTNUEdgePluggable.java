@@ -149,13 +149,19 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	 */
 	LabeledALabelIntTreeMap upperCaseValue;
 
+	/**
+	 * True if {@link #upperCaseValue} may be shared with other edges because one of them is a copy of the other. A shared map is copied before its
+	 * first modification (copy-on-write).
+	 */
+	boolean upperCaseValueShared;
+
 	/**
 	 * @param n                 name of edge
 	 * @param labeledIntMapImpl the class for representing the labeled value maps. If null, then {@link #DEFAULT_LABELED_INT_MAP_CLASS} is used.
 	 */
 	public BasicCSTNUEdgePluggable(String n, Class<? extends LabeledIntMap> labeledIntMapImpl) {
 		super(n, labeledIntMapImpl);
-		upperCaseValue = new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
+		upperCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
 		consideredUpperCaseValue = new Object2IntArrayMap<>();
 		consideredUpperCaseValue.defaultReturnValue(Constants.INT_NULL);
 	}
@@ -168,16 +174,23 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	}
 
 	/**
+	 * If e is a {@link BasicCSTNUEdgePluggable} having the same labeled value map implementation, the upper-case value map is shared until one of the
+	 * two edges modifies it (copy-on-write), as the labeled value map (see {@link CSTNEdgePluggable#CSTNEdgePluggable(Edge, Class)}).
+	 *
 	 * @param e                 edge to clone
 	 * @param labeledIntMapImpl the class for representing the labeled value maps. If null, then {@link #DEFAULT_LABELED_INT_MAP_CLASS} is used.
 	 */
 	BasicCSTNUEdgePluggable(Edge e, Class<? extends LabeledIntMap> labeledIntMapImpl) {
 		super(e, labeledIntMapImpl);
-		if (e != null && BasicCSTNUEdge.class.isAssignableFrom(e.getClass())) {
+		if (e instanceof BasicCSTNUEdgePluggable e1 && e1.getLabeledIntMapImplClass() == getLabeledIntMapImplClass()) {
+			upperCaseValue = e1.upperCaseValue;
+			upperCaseValueShared = true;
+			e1.upperCaseValueShared = true;
+		} else if (e != null && BasicCSTNUEdge.class.isAssignableFrom(e.getClass())) {
 			final BasicCSTNUEdge e1 = (BasicCSTNUEdge) e;
-			upperCaseValue = new LabeledALabelIntTreeMap(e1.getUpperCaseValueMap(), this.getLabeledIntMapImplClass());
+			upperCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(e1.getUpperCaseValueMap(), this.getLabeledIntMapImplClass());
 		} else {
-			upperCaseValue = new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
+			upperCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
 		}
 		consideredUpperCaseValue = new Object2IntArrayMap<>();
 		consideredUpperCaseValue.defaultReturnValue(Constants.INT_NULL);
@@ -196,7 +209,7 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	@Override
 	public void clear() {
 		super.clear();
-		upperCaseValue.clear();
+		clearUpperCaseValues();
 		consideredUpperCaseValue.clear();
 	}
 
@@ -205,7 +218,12 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	 */
 	@Override
 	public final void clearUpperCaseValues() {
-		upperCaseValue.clear();
+		if (upperCaseValueShared) {
+			upperCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
+			upperCaseValueShared = false;
+		} else {
+			upperCaseValue.clear();
+		}
 	}
 
 	/**
@@ -251,7 +269,9 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	 */
 	@Override
 	public final void setUpperCaseValueMap(LabeledALabelIntTreeMap inputLabeledValue) {
-		upperCaseValue = (inputLabeledValue == null) ? new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass()) : inputLabeledValue;
+		upperCaseValue =
+			(inputLabeledValue == null) ? LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass()) : inputLabeledValue;
+		upperCaseValueShared = false;
 	}
 
 	/**
@@ -374,7 +394,7 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 			}
 			return false;
 		}
-		return upperCaseValue.mergeTriple(l, nodeName, i, false);
+		return upperCaseValueForWrite().mergeTriple(l, nodeName, i, false);
 	}
 
 	/**
@@ -384,7 +404,7 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	public final boolean putLabeledValue(Label l, int i) {
 		// once a value has been inserted, it is useless to insert it again in the future.
 		consideredLabeledValue.put(l, i);
-		return labeledValue.put(l, i);
+		return labeledValueForWrite().put(l, i);
 	}
 
 	/**
@@ -414,7 +434,7 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 //			return false;
 //		}
 		setUpperCaseValueAsConsidered(l, nodeName, i);// once it has been added, it is useless to add it again!
-		return upperCaseValue.mergeTriple(l, nodeName, i, true);
+		return upperCaseValueForWrite().mergeTriple(l, nodeName, i, true);
 	}
 
 	/**
@@ -423,7 +443,10 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 	@Override
 	public final int removeUpperCaseValue(Label l, ALabel n) {
 		// this.consideredUpperCaseValue.removeInt(new InternalEntry(l, n));
-		return upperCaseValue.remove(l, n);
+		if (upperCaseValue.getValue(l, n) == Constants.INT_NULL) {
+			return Constants.INT_NULL;
+		}
+		return upperCaseValueForWrite().remove(l, n);
 	}
 
 	/**
@@ -437,10 +460,23 @@ public abstract class BasicCSTNUEdgePluggable extends CSTNEdgePluggable implemen
 		super.takeIn(e);
 		if (e instanceof BasicCSTNUEdgePluggable e1) {
 			upperCaseValue = e1.upperCaseValue;
+			upperCaseValueShared = e1.upperCaseValueShared;
 			consideredUpperCaseValue = e1.consideredUpperCaseValue;
 		}
 	}
 
+	/**
+	 * @return the upper-case value map of this edge ready to be modified. If the map is shared with other edges, it is replaced by a copy before
+	 * 	returning it. The map is replaced by a spillable copy also when spilling is enabled and the map is not spillable (e.g., it was set by a reader).
+	 */
+	final LabeledALabelIntTreeMap upperCaseValueForWrite() {
+		if (upperCaseValueShared || (LabeledValueSpillStore.isEnabled() && !LabeledValueSpillStore.isSpillable(upperCaseValue))) {
+			upperCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(upperCaseValue, this.getLabeledIntMapImplClass());
+			upperCaseValueShared = false;
+		}
+		return upperCaseValue;
+	}
+
 	/**
 	 * Return a string representation of labeled values.h
 	 */
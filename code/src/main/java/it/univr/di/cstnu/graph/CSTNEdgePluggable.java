@@ -51,6 +51,12 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 	 */
 	protected LabeledIntMap labeledValue;
 
+	/**
+	 * True if {@link #labeledValue} may be shared with other edges because one of them is a copy of the other (see
+	 * {@link #CSTNEdgePluggable(Edge, Class)}). A shared map is copied before its first modification (copy-on-write).
+	 */
+	boolean labeledValueShared;
+
 	/**
 	 *
 	 */
@@ -90,6 +96,9 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 
 	/**
 	 * A simple constructor cloner.
+	 * <br>
+	 * If e is a {@link CSTNEdgePluggable} having the same labeled value map implementation, the labeled value map is not copied: the two edges share
+	 * it until one of them modifies it (copy-on-write).
 	 *
 	 * @param e                     edge to clone. If null, an empty edge is created with type = normal.
 	 * @param labeledValueMapImplem the class for representing the labeled value maps. If null, then {@link #DEFAULT_LABELED_INT_MAP_CLASS}
@@ -98,7 +107,11 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 	CSTNEdgePluggable(Edge e, final Class<? extends LabeledIntMap> labeledValueMapImplem) {
 		super(e);
 		labeledValueMapImpl = (labeledValueMapImplem == null) ? DEFAULT_LABELED_INT_MAP_CLASS : labeledValueMapImplem;
-		if (e != null && CSTNEdge.class.isAssignableFrom(e.getClass())) {
+		if (e instanceof CSTNEdgePluggable e1 && e1.labeledValueMapImpl == labeledValueMapImpl) {
+			labeledValue = e1.labeledValue;
+			labeledValueShared = true;
+			e1.labeledValueShared = true;
+		} else if (e != null && CSTNEdge.class.isAssignableFrom(e.getClass())) {
 			labeledValue = (new LabeledIntMapSupplier<>(labeledValueMapImpl)).get(((CSTNEdge) e).getLabeledValueMap());
 		} else {
 			labeledValue = (new LabeledIntMapSupplier<>(labeledValueMapImpl)).get();
@@ -124,7 +137,12 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 	@Override
 	public void clear() {
 		super.clear();
-		labeledValue.clear();
+		if (labeledValueShared) {
+			labeledValue = (new LabeledIntMapSupplier<>(labeledValueMapImpl)).get();
+			labeledValueShared = false;
+		} else {
+			labeledValue.clear();
+		}
 		consideredLabeledValue.clear();
 	}
 
@@ -133,6 +151,11 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 		return labeledValueMapImpl;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned map can be shared with copies of this edge. Therefore, it must be modified only by the methods of this edge.
+	 */
 	@Override
 	public LabeledIntMap getLabeledValueMap() {
 		return labeledValue;
@@ -142,9 +165,10 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 	@edu.umd.cs.findbugs.annotations.SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "For efficiency reason, it includes an external mutable object.")
 	public void setLabeledValueMap(LabeledIntMap inputLabeledValue) {
 		if (inputLabeledValue == null) {
-			labeledValue.clear();
+			labeledValueForWrite().clear();
 		} else {
 			labeledValue = inputLabeledValue;
+			labeledValueShared = false;
 		}
 	}
 
@@ -241,7 +265,7 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 			return false;
 		}
 		consideredLabeledValue.put(l, i); // once a value has been inserted, it is useless to insert it again in the future.
-		return labeledValue.put(l, i);
+		return labeledValueForWrite().put(l, i);
 	}
 
 	/**
@@ -275,7 +299,7 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 	@Override
 	public boolean putLabeledValue(Label l, int i) {
 		consideredLabeledValue.put(l, i); // once a value has been inserted, it is useless to insert it again in the future.
-		return labeledValue.put(l, i);
+		return labeledValueForWrite().put(l, i);
 	}
 
 	/**
@@ -291,7 +315,9 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 			}
 		}
 		consideredLabeledValue.removeInt(l); // If it is removed, we assume that it can be reconsidered to be added.
-		labeledValue.remove(l);
+		if (labeledValue.get(l) != Constants.INT_NULL) {
+			labeledValueForWrite().remove(l);
+		}
 	}
 
 	@Override
@@ -308,10 +334,23 @@ public class CSTNEdgePluggable extends AbstractEdge implements CSTNEdge {
 		if (e instanceof CSTNEdgePluggable e1) {
 			constraintType = e1.constraintType;
 			labeledValue = e1.labeledValue;
+			labeledValueShared = e1.labeledValueShared;
 			consideredLabeledValue = e1.consideredLabeledValue;
 		}
 	}
 
+	/**
+	 * @return the labeled value map of this edge ready to be modified. If the map is shared with other edges, it is replaced by a copy before
+	 * 	returning it.
+	 */
+	final LabeledIntMap labeledValueForWrite() {
+		if (labeledValueShared) {
+			labeledValue = (new LabeledIntMapSupplier<>(labeledValueMapImpl)).get(labeledValue);
+			labeledValueShared = false;
+		}
+		return labeledValue;
+	}
+
 	/**
 	 * @return the string representation of this edge
 	 */
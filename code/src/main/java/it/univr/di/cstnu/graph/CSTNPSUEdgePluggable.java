@@ -66,7 +66,7 @@ public class CSTNPSUEdgePluggable extends BasicCSTNUEdgePluggable implements CST
 	 */
 	CSTNPSUEdgePluggable(String n) {
 		super(n);
-		lowerCaseValue = new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
+		lowerCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
 		consideredLowerCaseValue = new Object2IntArrayMap<>();
 		consideredLowerCaseValue.defaultReturnValue(Constants.INT_NULL);
 	}
@@ -80,17 +80,17 @@ public class CSTNPSUEdgePluggable extends BasicCSTNUEdgePluggable implements CST
 		super(e);
 		if (e != null && CSTNPSUEdge.class.isAssignableFrom(e.getClass())) {
 			final CSTNPSUEdge e1 = (CSTNPSUEdge) e;
-			lowerCaseValue = new LabeledALabelIntTreeMap(e1.getLowerCaseValueMap(), this.getLabeledIntMapImplClass());
+			lowerCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(e1.getLowerCaseValueMap(), this.getLabeledIntMapImplClass());
 		} else {
 			if (e != null && CSTNUEdge.class.isAssignableFrom(e.getClass())) {
 				final CSTNUEdge e1 = (CSTNUEdge) e;
-				lowerCaseValue = new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
+				lowerCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
 				final LabeledLowerCaseValue lcv = e1.getLowerCaseValue();
 				if (!lcv.isEmpty()) {
 					lowerCaseValue.mergeTriple(lcv.getLabel(), lcv.getNodeName(), lcv.getValue());
 				}
 			} else {
-				lowerCaseValue = new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
+				lowerCaseValue = LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass());
 			}
 		}
 		consideredLowerCaseValue = new Object2IntArrayMap<>();
@@ -140,7 +140,8 @@ public class CSTNPSUEdgePluggable extends BasicCSTNUEdgePluggable implements CST
 
 	@Override
 	public void setLowerCaseValue(LabeledALabelIntTreeMap lowerCaseValue1) {
-		lowerCaseValue = (lowerCaseValue1 == null) ? new LabeledALabelIntTreeMap(this.getLabeledIntMapImplClass()) : lowerCaseValue1;
+		lowerCaseValue =
+			(lowerCaseValue1 == null) ? LabeledValueSpillStore.newLabeledALabelIntTreeMap(this.getLabeledIntMapImplClass()) : lowerCaseValue1;
 	}
 
 	@Override
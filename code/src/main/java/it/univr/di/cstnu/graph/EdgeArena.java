@@ -0,0 +1,214 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.univr.di.cstnu.graph.STNUEdge.CaseLabel;
+import it.univr.di.labeledvalue.Constants;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Storage of the values of STN/STNU edges ({@link STNEdgeArena}, {@link STNUEdgeArena}) in primitive arrays addressed by edge id.
+ * <br>
+ * An edge of an arena is a small handle (name, type, and id): its value is stored in an int array of the arena, the (rare) case label and labeled value
+ * of STNU edges are stored in two sparse maps, and all edges of the arena notify their changes by one property change support shared by all edges.
+ * Therefore, an edge of an arena requires about {@value #EDGE_BYTES} bytes plus its name, while a {@link STNEdgeInt} added to a {@link TNGraph} requires
+ * also its own property change support with the listeners of the graph.
+ * <br>
+ * An arena is created for each {@link EdgeSupplier} of an arena edge class, i.e., for each {@link TNGraph} of such edges. A graph can be built on a
+ * given arena by {@link TNGraph#TNGraph(String, Class, EdgeArena)}, for example, to pre-size it when the number of edges is known.
+ * <br>
+ * Ids are not reused: the value slot of an edge is released only when the arena is garbage collected.
+ * This class is not thread-safe, as the edges.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public final class EdgeArena implements Serializable {
+
+	/**
+	 * Estimated number of bytes of an arena edge object (64-bit JVM with compressed references).
+	 */
+	static final int EDGE_BYTES = 40;
+
+	/**
+	 * Estimated number of bytes of an entry of the sparse maps.
+	 */
+	static final int SPARSE_ENTRY_BYTES = 16;
+
+	/**
+	 *
+	 */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Case labels of STNU edges.
+	 */
+	private final Int2ObjectOpenHashMap<CaseLabel> caseLabels = new Int2ObjectOpenHashMap<>();
+
+	/**
+	 * Labeled values of STNU edges.
+	 */
+	private final Int2IntOpenHashMap labeledValues = new Int2IntOpenHashMap();
+
+	/**
+	 * Property change support shared by all edges of the arena.
+	 */
+	final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
+
+	/**
+	 * Number of edges.
+	 */
+	private int size;
+
+	/**
+	 * Values of edges.
+	 */
+	private int[] values;
+
+	/**
+	 * Creates an arena for 16 edges. It grows when necessary.
+	 */
+	public EdgeArena() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedEdges the expected number of edges. The arena grows when necessary.
+	 */
+	public EdgeArena(int expectedEdges) {
+		values = new int[Math.max(expectedEdges, 16)];
+		labeledValues.defaultReturnValue(Constants.INT_NULL);
+	}
+
+	/**
+	 * @return the estimated number of bytes per edge used by the arena and by its edge objects, names excluded.
+	 */
+	public double getBytesPerEdge() {
+		return (size == 0) ? 0 : (double) getMemoryFootprint() / size;
+	}
+
+	/**
+	 * @return the estimated number of bytes used by the arena and by its edge objects, names excluded.
+	 */
+	public long getMemoryFootprint() {
+		return 16L + (long) values.length * Integer.BYTES + (long) size * EDGE_BYTES +
+		       (long) (caseLabels.size() + labeledValues.size()) * SPARSE_ENTRY_BYTES;
+	}
+
+	/**
+	 * @return the number of edges created in the arena.
+	 */
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "Edge arena: " + size + " edges, " + String.format("%.1f", getBytesPerEdge()) + " bytes per edge.";
+	}
+
+	/**
+	 * Allocates the slot of a new edge.
+	 *
+	 * @param value the value of the new edge
+	 *
+	 * @return the id of the new edge.
+	 */
+	int add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, (long) (size * TNGraph.growFactor) + 1));
+		}
+		values[size] = value;
+		return size++;
+	}
+
+	/**
+	 * Registers l as observer of propertyName of all edges of the arena. The observer is registered only once.
+	 *
+	 * @param propertyName the property
+	 * @param l            the observer
+	 */
+	void addObserver(String propertyName, PropertyChangeListener l) {
+		for (final PropertyChangeListener l1 : pcs.getPropertyChangeListeners(propertyName)) {
+			if (l1 == l) {
+				return;
+			}
+		}
+		pcs.addPropertyChangeListener(propertyName, l);
+	}
+
+	/**
+	 * @param id edge id
+	 *
+	 * @return the case label of the edge, null if it is not present.
+	 */
+	@Nullable
+	CaseLabel getCaseLabel(int id) {
+		return caseLabels.get(id);
+	}
+
+	/**
+	 * @param id edge id
+	 *
+	 * @return the labeled value of the edge, {@link Constants#INT_NULL} if it is not present.
+	 */
+	int getLabeledValue(int id) {
+		return labeledValues.get(id);
+	}
+
+	/**
+	 * @param id edge id
+	 *
+	 * @return the value of the edge.
+	 */
+	int getValue(int id) {
+		return values[id];
+	}
+
+	/**
+	 * Removes the case label and the labeled value of the edge.
+	 *
+	 * @param id edge id
+	 *
+	 * @return the old labeled value.
+	 */
+	int resetLabeledValue(int id) {
+		caseLabels.remove(id);
+		return labeledValues.remove(id);
+	}
+
+	/**
+	 * @param id        edge id
+	 * @param caseLabel the case label
+	 * @param w         the labeled value
+	 *
+	 * @return the old labeled value.
+	 */
+	int setLabeledValue(int id, @Nonnull CaseLabel caseLabel, int w) {
+		caseLabels.put(id, caseLabel);
+		return labeledValues.put(id, w);
+	}
+
+	/**
+	 * @param id edge id
+	 * @param w  the new value
+	 *
+	 * @return the old value.
+	 */
+	int setValue(int id, int w) {
+		final int old = values[id];
+		values[id] = w;
+		return old;
+	}
+}
@@ -82,6 +82,22 @@ public class EdgeSupplier<E extends Edge> implements Supplier<E> {
 		}
 	}
 
+	/**
+	 * Supplier of arena edges ({@link STNEdgeArena}, {@link STNUEdgeArena}) that creates all edges in the given arena.
+	 *
+	 * @param edgeImplClass class of arena edges. It must have the constructor E(EdgeArena).
+	 * @param arena         the arena of the edges.
+	 */
+	public EdgeSupplier(Class<? extends E> edgeImplClass, EdgeArena arena) {
+		generatorClass = edgeImplClass;
+		try {
+			generator = edgeImplClass.getDeclaredConstructor(EdgeArena.class).newInstance(arena);
+		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException |
+		         InvocationTargetException | NoSuchMethodException | SecurityException e) {
+			throw new IllegalStateException("Problem constructing an edge supplier: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * @param <K>       type of edge
 	 * @param edgeClass dd
@@ -0,0 +1,252 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import it.univr.di.labeledvalue.Constants;
+
+import javax.annotation.Nonnull;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.Serial;
+
+/**
+ * Implementation of STNEdge whose value is stored in an {@link EdgeArena}.
+ * <br>
+ * All edges created by {@link #newInstance()}, {@link #newInstance(Edge)}, and {@link #newInstance(String)} belong to the arena of this edge. The
+ * default constructor creates a new arena; therefore, each {@link EdgeSupplier} of this class, and so each {@link TNGraph}, has its own arena.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class STNEdgeArena extends AbstractEdge implements STNEdge {
+
+	/**
+	 *
+	 */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The arena containing the value.
+	 */
+	final EdgeArena arena;
+
+	/**
+	 * The id of this edge in the arena.
+	 */
+	final int id;
+
+	/**
+	 * Creates an edge in a new arena.
+	 */
+	public STNEdgeArena() {
+		this(new EdgeArena());
+	}
+
+	/**
+	 * Creates an edge in the given arena.
+	 *
+	 * @param arena1 the arena.
+	 */
+	public STNEdgeArena(@Nonnull EdgeArena arena1) {
+		this(arena1, (String) null);
+	}
+
+	/**
+	 * Creates an edge in the given arena cloning {@code e} if not null. Otherwise, it creates an empty edge.
+	 *
+	 * @param arena1 the arena.
+	 * @param e      the edge to clone.
+	 */
+	STNEdgeArena(@Nonnull EdgeArena arena1, Edge e) {
+		this(arena1, (e != null) ? e.getName() : null);
+		if (e != null) {
+			constraintType = e.getConstraintType();
+			if (e instanceof STNEdge e1) {
+				arena.setValue(id, e1.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Creates an edge in the given arena.
+	 *
+	 * @param arena1 the arena.
+	 * @param n      name of the edge. If null or empty, a unique name is given.
+	 */
+	STNEdgeArena(@Nonnull EdgeArena arena1, String n) {
+		super(n, arena1.pcs);
+		arena = arena1;
+		id = arena1.add(Constants.INT_NULL);
+	}
+
+	/**
+	 * If this edge notifies by the property change support of the arena, the observer is registered once for all edges of the arena.
+	 */
+	@Override
+	public void addObserver(String propertyName, PropertyChangeListener l) {
+		if (pcs == arena.pcs) {
+			arena.addObserver(propertyName, l);
+		} else {
+			super.addObserver(propertyName, l);
+		}
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		arena.setValue(id, Constants.INT_NULL);
+	}
+
+	/**
+	 * @return the arena containing the value of this edge.
+	 */
+	public EdgeArena getArena() {
+		return arena;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public int getValue() {
+		return arena.getValue(id);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean hasSameValues(Edge e) {
+		if (!(e instanceof STNEdge)) {
+			return false;
+		}
+		return getValue() == ((STNEdge) e).getValue();
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean isEmpty() {
+		return getValue() == Constants.INT_NULL;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean isSTNEdge() {
+		return true;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public STNEdgeArena newInstance() {
+		return new STNEdgeArena(arena);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public STNEdgeArena newInstance(Edge edge) {
+		return new STNEdgeArena(arena, edge);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public STNEdgeArena newInstance(String name1) {
+		return new STNEdgeArena(arena, name1);
+	}
+
+	/**
+	 * The event is fired with this edge as source because the property change support can be shared.
+	 */
+	@Override
+	public void setConstraintType(ConstraintType type) {
+		final ConstraintType old = constraintType;
+		constraintType = type;
+		pcs.firePropertyChange(new PropertyChangeEvent(this, "edgeType", old, type));
+	}
+
+	/**
+	 * The event is fired with this edge as source because the property change support can be shared.
+	 */
+	@Nonnull
+	@Override
+	public String setName(@Nonnull String newName) {
+		final String old = getName();
+		if (!newName.isEmpty()) {
+			name = newName;
+			pcs.firePropertyChange(new PropertyChangeEvent(this, "edgeName", old, newName));
+		}
+		return old;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public int setValue(int w) {
+		return arena.setValue(id, w);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public void takeIn(Edge e) {
+		if (!(e instanceof STNEdge)) {
+			return;
+		}
+		super.takeIn(e);
+		arena.setValue(id, ((STNEdge) e).getValue());
+	}
+
+	/**
+	 * @return string representation of the edge.
+	 */
+	@SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE", justification = "False positive.")
+	@Nonnull
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(20);
+		sb.append(Constants.OPEN_TUPLE);
+		if (getName().isEmpty()) {
+			sb.append("<empty>");
+		} else {
+			sb.append(getName());
+		}
+		sb.append("; ").append(getConstraintType()).append("; ");
+		sb.append(Constants.formatInt(getValue())).append("; ");
+		sb.append(Constants.CLOSE_TUPLE);
+		return sb.toString();
+	}
+
+	/**
+	 * Sets the ordinary value if v is smaller than the current one.
+	 *
+	 * @param v the new weight value
+	 *
+	 * @return true if the update occurred, false otherwise;
+	 */
+	@Override
+	public boolean updateValue(int v) {
+		final int oldV = getValue();
+		if (oldV == Constants.INT_NULL || v < oldV) {
+			arena.setValue(id, v);
+			return true;
+		}
+		return false;
+	}
+}
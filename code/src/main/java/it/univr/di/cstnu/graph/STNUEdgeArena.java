@@ -0,0 +1,262 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import it.univr.di.Debug;
+import it.univr.di.labeledvalue.ALabelAlphabet.ALetter;
+import it.univr.di.labeledvalue.Constants;
+
+import javax.annotation.Nonnull;
+import java.io.Serial;
+import java.util.logging.Level;
+
+/**
+ * Implementation of {@link STNUEdge} whose values are stored in an {@link EdgeArena}.
+ * <br>
+ * The case label and the labeled value are stored in the sparse maps of the arena because only contingent links and waits have them.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class STNUEdgeArena extends STNEdgeArena implements STNUEdge {
+
+	/**
+	 *
+	 */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates an edge in a new arena.
+	 */
+	public STNUEdgeArena() {
+		this(new EdgeArena());
+	}
+
+	/**
+	 * Creates an edge in the given arena.
+	 *
+	 * @param arena1 the arena.
+	 */
+	public STNUEdgeArena(@Nonnull EdgeArena arena1) {
+		this(arena1, (String) null);
+	}
+
+	/**
+	 * Creates an edge in the given arena cloning {@code e} if not null. Otherwise, it creates an empty edge.
+	 *
+	 * @param arena1 the arena.
+	 * @param e      the edge to clone.
+	 */
+	STNUEdgeArena(@Nonnull EdgeArena arena1, Edge e) {
+		super(arena1, e);
+		if (e instanceof STNUEdge e1 && e1.getCaseLabel() != null) {
+			arena.setLabeledValue(id, e1.getCaseLabel(), e1.getLabeledValue());// pair is read-only
+		}
+	}
+
+	/**
+	 * Creates an edge in the given arena.
+	 *
+	 * @param arena1 the arena.
+	 * @param n      name of the edge. If null or empty, a unique name is given.
+	 */
+	STNUEdgeArena(@Nonnull EdgeArena arena1, String n) {
+		super(arena1, n);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public void clear() {
+		super.clear();
+		arena.resetLabeledValue(id);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public CaseLabel getCaseLabel() {
+		return arena.getCaseLabel(id);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public int getLabeledValue() {
+		return arena.getLabeledValue(id);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean hasSameValues(Edge e) {
+		if (!(e instanceof STNUEdge e1)) {
+			return false;
+		}
+		if (getValue() != e1.getValue()) {
+			return false;
+		}
+		if (!this.isWait() && !e1.isWait()) {
+			return true;
+		}
+		if (this.isWait() && e1.isWait()) {
+			return getLabeledValue() == e1.getLabeledValue() && getCaseLabel().equals(e1.getCaseLabel());
+		}
+		return false;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean isEmpty() {
+		return getValue() == Constants.INT_NULL && getLabeledValue() == Constants.INT_NULL;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean isSTNEdge() {
+		return false;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public boolean isSTNUEdge() {
+		return true;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public STNUEdgeArena newInstance() {
+		return new STNUEdgeArena(arena);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public STNUEdgeArena newInstance(Edge edge) {
+		return new STNUEdgeArena(arena, edge);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public STNUEdgeArena newInstance(String name1) {
+		return new STNUEdgeArena(arena, name1);
+	}
+
+	/**
+	 * Removes the labeled value and make the edges an ordinary constraint if it was contingent.
+	 *
+	 * @return the old labeled value.
+	 */
+	public int resetLabeledValue() {
+		final int old = arena.resetLabeledValue(id);
+		if (constraintType == ConstraintType.contingent) {
+			constraintType = ConstraintType.requirement;
+		}
+		return old;
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public int setLabeledValue(ALetter nodeALetter, int w, boolean upperCase) {
+		if (nodeALetter == null || w == Constants.INT_NULL) {
+			return resetLabeledValue();
+		}
+		if (!upperCase && w < 0) {
+			throw new IllegalArgumentException(
+				"A lower-case value cannot be negative. Details: " + nodeALetter + ": " + w + ".");
+		}
+		return arena.setLabeledValue(id, new CaseLabel(nodeALetter, upperCase), w);
+	}
+
+	/**
+	 *
+	 */
+	@Override
+	public void takeIn(Edge e) {
+		if (e == null) {
+			return;
+		}
+		super.takeIn(e);
+		if ((e instanceof STNUEdge e1)) {
+			final CaseLabel caseLabel = e1.getCaseLabel();
+			if (caseLabel == null) {
+				arena.resetLabeledValue(id);
+			} else {
+				arena.setLabeledValue(id, caseLabel, e1.getLabeledValue());
+			}
+		}
+	}
+
+	/**
+	 * @return string representation of the edge
+	 */
+	@SuppressFBWarnings(value = "RCN_REDUNDANT_NULLCHECK_OF_NONNULL_VALUE", justification = "False positive.")
+	@Nonnull
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder(20);
+		sb.append(Constants.OPEN_TUPLE);
+		if (getName().isEmpty()) {
+			sb.append("<empty>");
+		} else {
+			sb.append(getName());
+		}
+		sb.append("; ").append(getConstraintType()).append("; ");
+		if (getValue() != Constants.INT_NULL) {
+			sb.append(Constants.formatInt(getValue())).append("; ");
+		}
+		final String lvf = getLabeledValueFormatted();
+		if (!lvf.isEmpty()) {
+			sb.append(lvf);
+		}
+		sb.append(Constants.CLOSE_TUPLE);
+		return sb.toString();
+	}
+
+	/**
+	 * If the edge is not a wait, it sets the ordinary value if v is smaller than the current one. If the edge is a wait, it sets the ordinary value if v is
+	 * negative. Moreover, if v is smaller (i.e., stronger) than the wait value, the wait is removed.
+	 *
+	 * @param v the new weight value
+	 *
+	 * @return true if the update occurred, false otherwise;
+	 */
+	@Override
+	public boolean updateValue(int v) {
+		if (this.isWait()) {
+			if (v >= 0) {
+				return false;
+			}
+			final int labeledValue = getLabeledValue();
+			if (v <= labeledValue) {
+				if (Debug.ON) {
+					if (LOG.isLoggable(Level.FINEST)) {
+						LOG.finest("Edge " + this + ": new value " + v + " removed wait " + labeledValue);
+					}
+				}
+				this.resetLabeledValue();
+			}
+		}
+		return super.updateValue(v);
+	}
+}
@@ -541,6 +541,20 @@ public class TNGraph<E extends Edge> extends AbstractTypedGraph<LabeledNode, E>
 		aLabelAlphabet = alphabet;
 	}
 
+	/**
+	 * Constructor for a graph of arena edges ({@link STNEdgeArena}, {@link STNUEdgeArena}) whose values are stored in the given arena.
+	 *
+	 * @param <E1>               type of edge
+	 * @param graphName          a name for the graph
+	 * @param inputEdgeImplClass type of edges. It must have the constructor E(EdgeArena).
+	 * @param arena              the arena of the edges. It can be pre-sized for the expected number of edges.
+	 */
+	@SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "For efficiency reason, it includes an external mutable object.")
+	public <E1 extends E> TNGraph(@Nonnull final String graphName, @Nonnull Class<E1> inputEdgeImplClass, @Nonnull EdgeArena arena) {
+		this(graphName, inputEdgeImplClass);
+		edgeFactory = new EdgeSupplier<>(inputEdgeImplClass, arena);
+	}
+
 	/**
 	 * A constructor that copy a given graph g using copy constructor for internal structures.<br> If g is null, this
 	 * new graph will be empty.
@@ -831,6 +845,26 @@ public class TNGraph<E extends Edge> extends AbstractTypedGraph<LabeledNode, E>
 		clearCache();
 	}
 
+	/**
+	 * Clear all internal structures sizing them for the given number of vertices and edges. The graph will be erased.
+	 * <p>
+	 * It is useful when the size of the graph is known before adding vertices and edges, like when a graph is read from a file, because it avoids the
+	 * growing of the internal structures.
+	 *
+	 * @param initialAdjSize  initial number of vertices.
+	 * @param initialEdgeSize initial number of edges.
+	 */
+	public void clear(int initialAdjSize, int initialEdgeSize) {
+		clear();
+		if (adjacency.length < initialAdjSize) {
+			adjacency = createAdjacency(initialAdjSize);
+		}
+		nodeName2index = new Object2IntOpenHashMap<>(initialAdjSize);
+		nodeName2index.defaultReturnValue(Constants.INT_NULL);
+		index2node = new Int2ObjectOpenHashMap<>(initialAdjSize);
+		edge2index = new Object2ObjectOpenHashMap<>(initialEdgeSize);
+	}
+
 	/**
 	 * Clear all internal caches.
 	 * <p>
@@ -1956,6 +1990,10 @@ public class TNGraph<E extends Edge> extends AbstractTypedGraph<LabeledNode, E>
 			if ("edgeName".equals(property)) {
 				final String oldName = (String) old;
 				final EdgeIndex oldI = edge2index.get(oldName);
+				if (oldI == null || oldI.edge != edge) {
+					// Edges of an arena notify all graphs registered to the arena. This graph does not contain the edge.
+					return;
+				}
 				final EdgeIndex newI = edge2index.get(edge.getName());
 				if (newI != null) {
 					if (Debug.ON) {
@@ -0,0 +1,339 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import it.univr.di.Debug;
+import it.univr.di.cstnu.graph.Edge.ConstraintType;
+import it.univr.di.cstnu.graph.TNGraph.NetworkType;
+import it.univr.di.cstnu.util.LogNormalDistributionParameter;
+import it.univr.di.labeledvalue.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Allows the reading of a Temporal Network graph from a file or a buffer in the binary format written by {@link TNGraphBinaryWriter}.
+ * <br>
+ * The file is memory-mapped and the graph is built directly from the mapped buffer: nodes and edges are created in the order they are stored, the
+ * graph is sized once using the number of vertices and edges in the header, and labeled values are read as packed labels (see
+ * {@link Label#valueOfPacked(long)}) and ints without any string parsing.
+ * <br>
+ * The resulting graph is equal to the one read by {@link TNGraphMLReader} from the GraphML representation of the same network.
+ *
+ * @param <E> the type of edge
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class TNGraphBinaryReader<E extends Edge> {
+
+	/**
+	 * logger
+	 */
+	static final Logger LOG = Logger.getLogger(TNGraphBinaryReader.class.getName());
+
+	/**
+	 * @param file a file
+	 *
+	 * @return true if file starts with {@link TNGraphBinaryWriter#MAGIC}.
+	 */
+	public static boolean isBinaryNetwork(File file) {
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+			return channel.read(magic, 0) == Integer.BYTES && magic.getInt(0) == TNGraphBinaryWriter.MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @param file a file in binary format
+	 *
+	 * @return the type of the network stored in file.
+	 *
+	 * @throws java.io.IOException if file cannot be read or if it does not contain a valid binary network.
+	 */
+	public static NetworkType getNetworkType(File file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(256);
+			channel.read(header, 0);
+			header.flip();
+			if (header.getInt() != TNGraphBinaryWriter.MAGIC) {
+				throw new IOException("The file " + file + " is not a binary network.");
+			}
+			header.getShort();
+			return NetworkType.valueOf(readString(header));
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("The file " + file + " does not contain a valid binary network. Details: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * A TNGraphBinaryReader object can be used many times for reading different graphs, also concurrently.
+	 */
+	public TNGraphBinaryReader() {
+	}
+
+	/**
+	 * Reads graphFile and returns the corresponding graph as a TNGraph object. Edges of TNGraph are created using the edgeImplClass.
+	 * <br>
+	 * The file is memory-mapped.
+	 *
+	 * @param graphFile     file containing the graph in binary format.
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graph.
+	 *
+	 * @throws java.io.IOException if any error occurs during the graphFile reading or if graphFile does not contain a valid binary network.
+	 */
+	public TNGraph<E> readGraph(final File graphFile, Class<? extends E> edgeImplClass) throws IOException {
+		final MappedByteBuffer buffer;
+		try (final FileChannel channel = FileChannel.open(graphFile.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("The file " + graphFile + " is too big to be mapped.");
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} catch (NoSuchFileException e) {
+			throw new FileNotFoundException("There is a problem to read the file containing the network. Details: " + e.getMessage());
+		}
+		final TNGraph<E> tnGraph = readGraph(buffer, edgeImplClass);
+		tnGraph.setInputFile(graphFile);
+		return tnGraph;
+	}
+
+	/**
+	 * Reads the graph stored in buffer from its current position. At the end, the buffer position is after the graph.
+	 *
+	 * @param buffer        a buffer containing a graph in binary format.
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graph.
+	 *
+	 * @throws java.io.IOException if buffer does not contain a valid binary network.
+	 */
+	public TNGraph<E> readGraph(final ByteBuffer buffer, Class<? extends E> edgeImplClass) throws IOException {
+		try {
+			return load(buffer, edgeImplClass);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("The input does not contain a valid binary network. Details: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @param buffer        the input
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graph.
+	 *
+	 * @throws IOException if the header is not valid.
+	 */
+	@SuppressWarnings("unchecked")
+	private TNGraph<E> load(final ByteBuffer buffer, Class<? extends E> edgeImplClass) throws IOException {
+		if (buffer.getInt() != TNGraphBinaryWriter.MAGIC) {
+			throw new IOException("The input is not a binary network.");
+		}
+		final short version = buffer.getShort();
+		if (version > TNGraphBinaryWriter.VERSION) {
+			throw new IOException("The input has version " + version + " that is not supported by this reader (max version " +
+			                      TNGraphBinaryWriter.VERSION + ").");
+		}
+		final ALabelAlphabet aLabelAlphabet = new ALabelAlphabet();
+		final TNGraph<E> tnGraph = new TNGraph<>("", edgeImplClass, aLabelAlphabet);
+		final NetworkType fileType = NetworkType.valueOf(readString(buffer));
+		if (Debug.ON && fileType != tnGraph.getType()) {
+			if (LOG.isLoggable(Level.INFO)) {
+				LOG.info("The input network is a " + fileType + " while the graph is a " + tnGraph.getType() + ". Values not representable are ignored.");
+			}
+		}
+		if (fileType == NetworkType.PSTN && tnGraph.getType() == NetworkType.STNU) {
+			tnGraph.setType(NetworkType.PSTN);
+		}
+		final String name = readString(buffer);
+		tnGraph.setName((name != null) ? name : "no name");
+		final int nVertices = buffer.getInt();
+		final int nEdges = buffer.getInt();
+		final int zIndex = buffer.getInt();
+		if (nVertices > 0) {
+			tnGraph.clear(nVertices, nEdges);
+		}
+		final Class<? extends LabeledIntMap> caseLabeledIntMapImpl =
+			(tnGraph.getType() == NetworkType.OSTNU) ? LabeledIntTreeSimpleMap.class : LabeledIntMapSupplier.DEFAULT_LABELEDINTMAP_CLASS;
+		final LabeledIntMapSupplier<? extends LabeledIntMap> labIntMapSupplier = new LabeledIntMapSupplier<>(TNGraphMLReader.labeledValueMapImpl);
+
+		// nodes
+		final LabeledNode[] node = new LabeledNode[nVertices];
+		for (int i = 0; i < nVertices; i++) {
+			final LabeledNode n = LabeledNodeSupplier.get(readString(buffer));
+			n.setX(buffer.getDouble());
+			n.setY(buffer.getDouble());
+			n.setLabel(Label.valueOfPacked(buffer.getLong()));
+			final char obs = buffer.getChar();
+			if (obs != Constants.UNKNOWN) {
+				n.setObservable(obs);
+			}
+			final byte flags = buffer.get();
+			if ((flags & TNGraphBinaryWriter.NODE_CONTINGENT) != 0) {
+				n.setContingent(true);
+			}
+			if ((flags & TNGraphBinaryWriter.NODE_PARAMETER) != 0) {
+				n.setParameter(true);
+			}
+			if ((flags & TNGraphBinaryWriter.NODE_LOGNORMAL) != 0) {
+				final double location = buffer.getDouble();
+				final double scale = buffer.getDouble();
+				n.setLogNormalDistributionParameter(new LogNormalDistributionParameter(location, scale, buffer.getInt()));
+			}
+			final LabeledIntMap potential = readLabeledIntMap(buffer, labIntMapSupplier);
+			if (!potential.isEmpty()) {
+				n.setLabeledPotential(potential);
+			}
+			tnGraph.addVertex(n);
+			node[i] = n;
+		}
+		if (zIndex >= 0) {
+			tnGraph.setZ(node[zIndex]);
+		}
+
+		// edges
+		final int[] rowPtr = new int[nVertices + 1];
+		buffer.asIntBuffer().get(rowPtr);
+		buffer.position(buffer.position() + (nVertices + 1) * Integer.BYTES);
+		final boolean containsLabeledValues = CSTNEdge.class.isAssignableFrom(edgeImplClass);
+		final boolean isCSTNPSU = CSTNPSUEdge.class.isAssignableFrom(edgeImplClass);
+		final boolean isCSTNU = CSTNUEdge.class.isAssignableFrom(edgeImplClass);
+		final ConstraintType[] constraintType = ConstraintType.values();
+		for (int s = 0; s < nVertices; s++) {
+			final LabeledNode source = node[s];
+			for (int k = rowPtr[s]; k < rowPtr[s + 1]; k++) {
+				final LabeledNode dest = node[buffer.getInt()];
+				final E edge = tnGraph.getEdgeFactory().get(readString(buffer));
+				edge.setConstraintType(constraintType[buffer.get()]);
+				final byte flags = buffer.get();
+				if ((flags & TNGraphBinaryWriter.EDGE_VALUE) != 0) {
+					final int v = buffer.getInt();
+					if (edge instanceof STNEdge stnEdge) {
+						stnEdge.setValue(v);
+					} else if (containsLabeledValues && (flags & TNGraphBinaryWriter.EDGE_LABELED_VALUES) == 0) {
+						((CSTNEdge) edge).mergeLabeledValue(Label.emptyLabel, v);
+					}
+				}
+				if ((flags & TNGraphBinaryWriter.EDGE_CASE_VALUE) != 0) {
+					final String contingent = readString(buffer);
+					final int v = buffer.getInt();
+					final boolean upperCase = buffer.get() != 0;
+					if (edge instanceof STNUEdge stnuEdge) {
+						stnuEdge.setLabeledValue(new ALabelAlphabet.ALetter(contingent), v, upperCase);
+					}
+				}
+				if ((flags & TNGraphBinaryWriter.EDGE_LABELED_VALUES) != 0) {
+					final LabeledIntMap map = readLabeledIntMap(buffer, labIntMapSupplier);
+					if (!containsLabeledValues) {
+						throw new IllegalArgumentException(
+							"Labeled value set is present, but it cannot be stored because edge type is not a CSTN o derived type: " + map);
+					}
+					((CSTNEdge) edge).setLabeledValueMap(map);
+				}
+				LabeledALabelIntTreeMap upperCase = null, lowerCaseMap = null;
+				LabeledLowerCaseValue lowerCase = null;
+				if ((flags & TNGraphBinaryWriter.EDGE_UC_VALUES) != 0) {
+					upperCase = readLabeledALabelIntMap(buffer, caseLabeledIntMapImpl, aLabelAlphabet);
+				}
+				if ((flags & TNGraphBinaryWriter.EDGE_LC_VALUE) != 0) {
+					final ALabel aLabel = ALabel.parse(readString(buffer), aLabelAlphabet);
+					final Label l = Label.valueOfPacked(buffer.getLong());
+					lowerCase = LabeledLowerCaseValue.create(aLabel, buffer.getInt(), l);
+				}
+				if ((flags & TNGraphBinaryWriter.EDGE_LC_VALUES) != 0) {
+					lowerCaseMap = readLabeledALabelIntMap(buffer, caseLabeledIntMapImpl, aLabelAlphabet);
+				}
+				if (edge instanceof BasicCSTNUEdge e) {
+					e.setUpperCaseValueMap((upperCase != null) ? upperCase : new LabeledALabelIntTreeMap(caseLabeledIntMapImpl));
+					if (isCSTNU) {
+						((CSTNUEdge) edge).setLowerCaseValue((lowerCase != null) ? lowerCase : LabeledLowerCaseValue.emptyLabeledLowerCaseValue);
+					}
+					if (isCSTNPSU) {
+						((CSTNPSUEdge) edge).setLowerCaseValue((lowerCaseMap != null) ? lowerCaseMap : new LabeledALabelIntTreeMap(caseLabeledIntMapImpl));
+					}
+				}
+				if (!edge.isEmpty()) {
+					tnGraph.addEdge(edge, source, dest);
+				}
+			}
+		}
+		return tnGraph;
+	}
+
+	/**
+	 * @param buffer                the input
+	 * @param caseLabeledIntMapImpl the implementation of the labeled int maps of the result
+	 * @param alphabet              the alphabet for the aLabels
+	 *
+	 * @return the map read from buffer.
+	 */
+	private static LabeledALabelIntTreeMap readLabeledALabelIntMap(ByteBuffer buffer, Class<? extends LabeledIntMap> caseLabeledIntMapImpl,
+	                                                              ALabelAlphabet alphabet) {
+		final LabeledALabelIntTreeMap map = new LabeledALabelIntTreeMap(caseLabeledIntMapImpl);
+		final int nALabel = buffer.getInt();
+		for (int i = 0; i < nALabel; i++) {
+			final ALabel aLabel = ALabel.parse(readString(buffer), alphabet);
+			final int size = buffer.getInt();
+			final int valuesStart = buffer.position() + size * Long.BYTES;
+			for (int j = 0; j < size; j++) {
+				map.mergeTriple(Label.valueOfPacked(buffer.getLong()), aLabel, buffer.getInt(valuesStart + j * Integer.BYTES), false);
+			}
+			buffer.position(valuesStart + size * Integer.BYTES);
+		}
+		return map;
+	}
+
+	/**
+	 * @param buffer   the input
+	 * @param supplier the supplier of the map
+	 *
+	 * @return the labeled int map read from buffer.
+	 */
+	private static LabeledIntMap readLabeledIntMap(ByteBuffer buffer, LabeledIntMapSupplier<? extends LabeledIntMap> supplier) {
+		final LabeledIntMap map = supplier.get();
+		final int size = buffer.getInt();
+		final int valuesStart = buffer.position() + size * Long.BYTES;
+		for (int j = 0; j < size; j++) {
+			map.put(Label.valueOfPacked(buffer.getLong()), buffer.getInt(valuesStart + j * Integer.BYTES));
+		}
+		buffer.position(valuesStart + size * Integer.BYTES);
+		return map;
+	}
+
+	/**
+	 * @param buffer the input
+	 *
+	 * @return the string written by {@link TNGraphBinaryWriter#writeString(java.io.DataOutputStream, String)}.
+	 */
+	private static String readString(ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (length < 0) {
+			//noinspection ReturnOfNull
+			return null;
+		}
+		final String s;
+		if (buffer.hasArray()) {
+			s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		} else {
+			final byte[] b = new byte[length];
+			buffer.get(b);
+			s = new String(b, StandardCharsets.UTF_8);
+		}
+		return s;
+	}
+}
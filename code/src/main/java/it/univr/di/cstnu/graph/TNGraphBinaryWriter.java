@@ -0,0 +1,398 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap.Entry;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectObjectImmutablePair;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.univr.di.cstnu.util.LogNormalDistributionParameter;
+import it.univr.di.labeledvalue.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.logging.Logger;
+
+/**
+ * Allows the writing of a Temporal Network graph to a file or a stream in a compact binary format that can be read by {@link TNGraphBinaryReader}.
+ * <br>
+ * The format is versioned and it can represent all the network types managed by {@link TNGraph}. All values are written in big-endian order (as
+ * {@link DataOutputStream} does). Strings are written as the number of bytes of their UTF-8 representation followed by such bytes (-1 represents
+ * null). Labels are written in the packed form given by {@link Label#toPacked()}.
+ * <pre>
+ * header:  int MAGIC, short VERSION, string networkType, string graphName, int nVertices, int nEdges, int indexOfZ (-1 if Z is not set)
+ * nodes:   for each node, in the order given by the index of the node,
+ *          string name, double x, double y, long label, char observedProposition, byte flags (NODE_* constants),
+ *          [double location, double scale, int shift] if flags contains NODE_LOGNORMAL,
+ *          labeled int map (potential)
+ * edges:   int[nVertices + 1] rowPtr (edges outgoing node i are the ones in [rowPtr[i], rowPtr[i+1]))
+ *          for each edge, ordered by source node,
+ *          int destIndex, string name, byte constraintType ordinal, byte flags (EDGE_* constants),
+ *          [int value] if flags contains EDGE_VALUE,
+ *          [string contingentName, int value, boolean upperCase] if flags contains EDGE_CASE_VALUE,
+ *          [labeled int map] if flags contains EDGE_LABELED_VALUES,
+ *          [labeled aLabel int map] if flags contains EDGE_UC_VALUES,
+ *          [string aLabel, long label, int value] if flags contains EDGE_LC_VALUE,
+ *          [labeled aLabel int map] if flags contains EDGE_LC_VALUES
+ * labeled int map:        int n, long[n] labels, int[n] values
+ * labeled aLabel int map: int n, n times (string aLabel, labeled int map)
+ * </pre>
+ * The same format, in a canonical form, is used by {@link #contentDigest(TNGraph)} for determining a digest of the content of a network.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class TNGraphBinaryWriter {
+
+	/**
+	 * Magic number at the beginning of each binary network file ("TNGB").
+	 */
+	static public final int MAGIC = 0x544E4742;
+	/**
+	 * Current version of the format.
+	 */
+	static public final short VERSION = 1;
+	/**
+	 * Suggested extension for files in this format.
+	 */
+	static public final String FILE_EXTENSION = ".tngb";
+	/**
+	 * Edge flag: the edge has an ordinary value ({@link STNEdge}).
+	 */
+	static final byte EDGE_VALUE = 1;
+	/**
+	 * Edge flag: the edge has a case value ({@link STNUEdge}).
+	 */
+	static final byte EDGE_CASE_VALUE = 2;
+	/**
+	 * Edge flag: the edge has labeled values ({@link CSTNEdge}).
+	 */
+	static final byte EDGE_LABELED_VALUES = 4;
+	/**
+	 * Edge flag: the edge has upper-case labeled values ({@link BasicCSTNUEdge}).
+	 */
+	static final byte EDGE_UC_VALUES = 8;
+	/**
+	 * Edge flag: the edge has a lower-case labeled value ({@link CSTNUEdge}).
+	 */
+	static final byte EDGE_LC_VALUE = 16;
+	/**
+	 * Edge flag: the edge has lower-case labeled values ({@link CSTNPSUEdge}).
+	 */
+	static final byte EDGE_LC_VALUES = 32;
+	/**
+	 * Node flag: contingent node.
+	 */
+	static final byte NODE_CONTINGENT = 1;
+	/**
+	 * Node flag: parameter node.
+	 */
+	static final byte NODE_PARAMETER = 2;
+	/**
+	 * Node flag: the node has a log-normal distribution parameter.
+	 */
+	static final byte NODE_LOGNORMAL = 4;
+	/**
+	 * logger
+	 */
+	static final Logger LOG = Logger.getLogger(TNGraphBinaryWriter.class.getName());
+
+	/**
+	 * A TNGraphBinaryWriter object can be used many times for writing different graphs, but not concurrently.
+	 */
+	public TNGraphBinaryWriter() {
+	}
+
+	/**
+	 * Returns the SHA-256 digest of the content of the graph.
+	 * <br>
+	 * The digest is determined on a canonical form of the binary format where nodes are ordered by name, edges by source and destination, labeled
+	 * values by label, and where graph name, node positions, and edge names are not present. Therefore, two graphs representing the same network have
+	 * the same digest independently of the order of node/edge insertion and of their layout.
+	 *
+	 * @param graph the network
+	 *
+	 * @return the SHA-256 digest of graph content.
+	 */
+	public static byte[] contentDigest(TNGraph<? extends Edge> graph) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available: " + e.getMessage(), e);
+		}
+		try (final DataOutputStream data = new DataOutputStream(
+			new DigestOutputStream(new BufferedOutputStream(OutputStream.nullOutputStream(), 1 << 16), digest))) {
+			final LabeledNode[] nodes = graph.getVerticesArray();
+			Arrays.sort(nodes, Comparator.comparing(LabeledNode::getName));
+			final Reference2IntOpenHashMap<LabeledNode> nodeIndex = new Reference2IntOpenHashMap<>(nodes.length);
+			nodeIndex.defaultReturnValue(-1);
+			for (int i = 0; i < nodes.length; i++) {
+				nodeIndex.put(nodes[i], i);
+			}
+			writeString(data, graph.getType().name());
+			data.writeInt(nodes.length);
+			data.writeInt(graph.getEdgeCount());
+			final LabeledNode z = graph.getZ();
+			data.writeInt((z != null) ? nodeIndex.getInt(z) : -1);
+			for (final LabeledNode node : nodes) {
+				writeNode(data, node, true);
+			}
+			final ObjectArrayList<ObjectObjectImmutablePair<? extends Edge, LabeledNode>> outEdges = new ObjectArrayList<>();
+			for (final LabeledNode node : nodes) {
+				outEdges.clear();
+				outEdges.addAll(graph.getOutEdgesAndNodes(node));
+				outEdges.sort(Comparator.comparingInt(pair -> nodeIndex.getInt(pair.right())));
+				data.writeInt(outEdges.size());
+				for (final ObjectObjectImmutablePair<? extends Edge, LabeledNode> pair : outEdges) {
+					data.writeInt(nodeIndex.getInt(pair.right()));
+					writeEdge(data, pair.left(), true);
+				}
+			}
+		} catch (IOException e) {
+			// a null output stream cannot throw
+			throw new IllegalStateException(e);
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Writes graph into outputFile.
+	 *
+	 * @param graph      the network to save
+	 * @param outputFile file where to save the graph.
+	 *
+	 * @throws java.io.IOException if it is not possible to save to outputFile
+	 */
+	public void save(TNGraph<? extends Edge> graph, File outputFile) throws IOException {
+		try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile), 1 << 16)) {
+			save(graph, out);
+		}
+	}
+
+	/**
+	 * Writes graph into the given stream. The stream is flushed, but not closed.
+	 *
+	 * @param graph the network to save
+	 * @param out   the stream to use
+	 *
+	 * @throws java.io.IOException if the stream cannot be written
+	 */
+	public void save(TNGraph<? extends Edge> graph, OutputStream out) throws IOException {
+		final DataOutputStream data = new DataOutputStream(out);
+		final LabeledNode[] nodes = graph.getVerticesArray();
+		final int n = nodes.length;
+		final Reference2IntOpenHashMap<LabeledNode> nodeIndex = new Reference2IntOpenHashMap<>(n);
+		nodeIndex.defaultReturnValue(-1);
+		for (int i = 0; i < n; i++) {
+			nodeIndex.put(nodes[i], i);
+		}
+
+		// header
+		data.writeInt(MAGIC);
+		data.writeShort(VERSION);
+		writeString(data, graph.getType().name());
+		writeString(data, graph.getName());
+		data.writeInt(n);
+		data.writeInt(graph.getEdgeCount());
+		final LabeledNode z = graph.getZ();
+		data.writeInt((z != null) ? nodeIndex.getInt(z) : -1);
+
+		// nodes
+		for (final LabeledNode node : nodes) {
+			writeNode(data, node, false);
+		}
+
+		// edges as CSR
+		int rowPtr = 0;
+		data.writeInt(rowPtr);
+		for (final LabeledNode node : nodes) {
+			rowPtr += graph.outDegree(node);
+			data.writeInt(rowPtr);
+		}
+		for (final LabeledNode node : nodes) {
+			for (final ObjectObjectImmutablePair<? extends Edge, LabeledNode> pair : graph.getOutEdgesAndNodes(node)) {
+				data.writeInt(nodeIndex.getInt(pair.right()));
+				writeEdge(data, pair.left(), false);
+			}
+		}
+		data.flush();
+	}
+
+	/**
+	 * @param data      the destination
+	 * @param e         the edge to write
+	 * @param canonical true if the edge has to be written in canonical form (without name)
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeEdge(DataOutputStream data, Edge e, boolean canonical) throws IOException {
+		if (!canonical) {
+			writeString(data, e.getName());
+		}
+		data.writeByte(e.getConstraintType().ordinal());
+		byte flags = 0;
+		if (e instanceof STNEdge stnEdge && stnEdge.getValue() != Constants.INT_NULL) {
+			flags |= EDGE_VALUE;
+		}
+		if (e instanceof STNUEdge stnuEdge && stnuEdge.getCaseLabel() != null) {
+			flags |= EDGE_CASE_VALUE;
+		}
+		if (e instanceof CSTNEdge cstnEdge && !cstnEdge.getLabeledValueMap().isEmpty()) {
+			flags |= EDGE_LABELED_VALUES;
+		}
+		if (e instanceof BasicCSTNUEdge basic) {
+			if (!basic.getUpperCaseValueMap().isEmpty()) {
+				flags |= EDGE_UC_VALUES;
+			}
+			if (e instanceof CSTNPSUEdge psuEdge) {
+				if (!psuEdge.getLowerCaseValueMap().isEmpty()) {
+					flags |= EDGE_LC_VALUES;
+				}
+			} else if (!basic.getLowerCaseValue().isEmpty()) {
+				flags |= EDGE_LC_VALUE;
+			}
+		}
+		data.writeByte(flags);
+		if ((flags & EDGE_VALUE) != 0) {
+			data.writeInt(((STNEdge) e).getValue());
+		}
+		if ((flags & EDGE_CASE_VALUE) != 0) {
+			final STNUEdge e1 = (STNUEdge) e;
+			writeString(data, e1.getCaseLabel().getName().name);
+			data.writeInt(e1.getLabeledValue());
+			data.writeBoolean(e1.isUpperCase());
+		}
+		if ((flags & EDGE_LABELED_VALUES) != 0) {
+			writeLabeledIntMap(data, ((CSTNEdge) e).getLabeledValueMap(), canonical);
+		}
+		if ((flags & EDGE_UC_VALUES) != 0) {
+			writeLabeledALabelIntMap(data, ((BasicCSTNUEdge) e).getUpperCaseValueMap(), canonical);
+		}
+		if ((flags & EDGE_LC_VALUE) != 0) {
+			final LabeledLowerCaseValue lc = ((BasicCSTNUEdge) e).getLowerCaseValue();
+			writeString(data, lc.getNodeName().toString());
+			data.writeLong(lc.getLabel().toPacked());
+			data.writeInt(lc.getValue());
+		}
+		if ((flags & EDGE_LC_VALUES) != 0) {
+			writeLabeledALabelIntMap(data, ((CSTNPSUEdge) e).getLowerCaseValueMap(), canonical);
+		}
+	}
+
+	/**
+	 * Writes map as the number of aLabels followed by, for each aLabel, the aLabel and its labeled int map.
+	 *
+	 * @param data      the destination
+	 * @param map       the map to write
+	 * @param canonical true if the aLabels have to be written ordered by name
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeLabeledALabelIntMap(DataOutputStream data, LabeledALabelIntTreeMap map, boolean canonical) throws IOException {
+		final ObjectArrayList<ALabel> aLabels = new ObjectArrayList<>(map.keySet());
+		if (canonical) {
+			aLabels.sort(Comparator.comparing(ALabel::toString));
+		}
+		data.writeInt(aLabels.size());
+		for (final ALabel aLabel : aLabels) {
+			writeString(data, aLabel.toString());
+			writeLabeledIntMap(data, map.get(aLabel), canonical);
+		}
+	}
+
+	/**
+	 * Writes map as the number of entries, the array of packed labels and the array of values.
+	 *
+	 * @param data      the destination
+	 * @param map       the map to write
+	 * @param canonical true if the entries have to be written ordered by packed label
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeLabeledIntMap(DataOutputStream data, LabeledIntMap map, boolean canonical) throws IOException {
+		final int size = map.size();
+		final int[] values = new int[size];
+		data.writeInt(size);
+		if (canonical) {
+			final long[] packed = new long[size];
+			int i = 0;
+			for (final Entry<Label> entry : map.entrySet()) {
+				packed[i++] = entry.getKey().toPacked();
+			}
+			Arrays.sort(packed);
+			for (i = 0; i < size; i++) {
+				data.writeLong(packed[i]);
+				values[i] = map.get(Label.valueOfPacked(packed[i]));
+			}
+		} else {
+			int i = 0;
+			for (final Entry<Label> entry : map.entrySet()) {
+				data.writeLong(entry.getKey().toPacked());
+				values[i++] = entry.getIntValue();
+			}
+		}
+		for (final int v : values) {
+			data.writeInt(v);
+		}
+	}
+
+	/**
+	 * @param data      the destination
+	 * @param node      the node to write
+	 * @param canonical true if the node has to be written in canonical form (without position)
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void writeNode(DataOutputStream data, LabeledNode node, boolean canonical) throws IOException {
+		writeString(data, node.getName());
+		if (!canonical) {
+			data.writeDouble(node.getX());
+			data.writeDouble(node.getY());
+		}
+		data.writeLong(node.getLabel().toPacked());
+		data.writeChar(node.getPropositionObserved());
+		final LogNormalDistributionParameter logNormal = node.getLogNormalDistribution();
+		byte flags = 0;
+		if (node.isContingent()) {
+			flags |= NODE_CONTINGENT;
+		}
+		if (node.isParameter()) {
+			flags |= NODE_PARAMETER;
+		}
+		if (logNormal != null) {
+			flags |= NODE_LOGNORMAL;
+		}
+		data.writeByte(flags);
+		if (logNormal != null) {
+			data.writeDouble(logNormal.getLocation());
+			data.writeDouble(logNormal.getScale());
+			data.writeInt(logNormal.getShift());
+		}
+		writeLabeledIntMap(data, node.getLabeledPotential(), canonical);
+	}
+
+	/**
+	 * Writes s as the number of bytes of its UTF-8 representation followed by such bytes. A null string is written as -1.
+	 *
+	 * @param data the destination
+	 * @param s    the string
+	 *
+	 * @throws IOException if the stream cannot be written
+	 */
+	static void writeString(DataOutputStream data, String s) throws IOException {
+		if (s == null) {
+			data.writeInt(-1);
+			return;
+		}
+		final byte[] b = s.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(b.length);
+		data.write(b);
+	}
+}
@@ -0,0 +1,789 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.univr.di.Debug;
+import it.univr.di.cstnu.algorithms.AbstractCSTN;
+import it.univr.di.cstnu.graph.Edge.ConstraintType;
+import it.univr.di.cstnu.graph.TNGraph.NetworkType;
+import it.univr.di.cstnu.util.LogNormalDistributionParameter;
+import it.univr.di.labeledvalue.*;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Allows the reading of a Temporal Network (TN) graph from a file or a string in GraphML format in a single streaming pass.
+ * <br>
+ * It reads the same files read by {@link TNGraphMLReader} and builds the same graph, but it does not use the JUNG GraphML reader. The input is
+ * scanned by a StAX reader ({@link XMLStreamReader}): nodes and edges are created as soon as their elements are read, the graph is pre-sized using the
+ * {@link TNGraphMLWriter#GRAPH_nVERTICES_KEY} and {@link TNGraphMLWriter#GRAPH_nEDGES_KEY} graph attributes (when present), and labeled values are
+ * parsed directly from the character stream into the edge maps without building the string representing the whole map.
+ * <br>
+ * For big networks (e.g., checked CSTNUs) it is much faster and requires much less memory than {@link TNGraphMLReader}.
+ *
+ * @param <E> the type of edge
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class TNGraphMLStreamReader<E extends Edge> {
+
+	/**
+	 * Consumer of the entries of a labeled value map.
+	 */
+	@FunctionalInterface
+	private interface EntryConsumer {
+		/**
+		 * @param token the entry tokens.
+		 * @param n     the number of tokens.
+		 */
+		void accept(String[] token, int n);
+	}
+
+	/**
+	 * Scanner of the string representation of a labeled value map, i.e., {@code {(t1, t2, ...) (t1, t2, ...) ...}}.
+	 * <p>
+	 * The representation is given as a sequence of character chunks. Each entry is tokenized as soon as its closing parenthesis is read and given to
+	 * the current {@link EntryConsumer}. In this way, the string representing the whole map is never built.
+	 */
+	private static final class LabeledValueScanner {
+		/**
+		 * Current entry.
+		 */
+		private final StringBuilder entry = new StringBuilder(64);
+		/**
+		 * Tokens of the current entry.
+		 */
+		private final String[] token = new String[3];
+		/**
+		 * Current consumer.
+		 */
+		private EntryConsumer consumer;
+		/**
+		 * True if an entry is open.
+		 */
+		private boolean inEntry;
+
+		/**
+		 * Terminates the scanning of the current map.
+		 *
+		 * @throws IllegalArgumentException if the last entry is not closed.
+		 */
+		void end() {
+			if (inEntry) {
+				throw new IllegalArgumentException("Labeled values in a wrong format: entry '" + entry + "' is not closed.");
+			}
+			consumer = null;
+		}
+
+		/**
+		 * Scans the given chunk of characters.
+		 *
+		 * @param ch     chars
+		 * @param start  first char to consider
+		 * @param length number of chars to consider
+		 *
+		 * @throws IllegalArgumentException if the chunk contains a char not allowed outside an entry.
+		 */
+		void feed(char[] ch, int start, int length) {
+			final int end = start + length;
+			for (int i = start; i < end; i++) {
+				final char c = ch[i];
+				if (inEntry) {
+					if (c == ')') {
+						inEntry = false;
+						emit();
+					} else {
+						entry.append(c);
+					}
+					continue;
+				}
+				if (c == '(') {
+					inEntry = true;
+					entry.setLength(0);
+					continue;
+				}
+				if (c != '{' && c != '}' && !Character.isWhitespace(c)) {
+					throw new IllegalArgumentException("Labeled values in a wrong format: unexpected char '" + c + "'.");
+				}
+			}
+		}
+
+		/**
+		 * Scans the given string.
+		 *
+		 * @param s the string
+		 */
+		void feed(String s) {
+			feed(s.toCharArray(), 0, s.length());
+		}
+
+		/**
+		 * Starts the scanning of a new map.
+		 *
+		 * @param c the consumer of the entries of the map.
+		 */
+		void start(EntryConsumer c) {
+			consumer = c;
+			inEntry = false;
+			entry.setLength(0);
+		}
+
+		/**
+		 * Splits the current entry in tokens and gives them to the consumer.
+		 */
+		private void emit() {
+			int n = 0;
+			int begin = 0;
+			final int len = entry.length();
+			for (int i = 0; i <= len; i++) {
+				if (i == len || entry.charAt(i) == ',') {
+					if (n == token.length) {
+						throw new IllegalArgumentException("Labeled values in a wrong format: entry '" + entry + "' has too many components.");
+					}
+					token[n++] = entry.substring(begin, i).trim();
+					begin = i + 1;
+				}
+			}
+			consumer.accept(token, n);
+		}
+	}
+
+	/**
+	 * logger
+	 */
+	static final Logger LOG = Logger.getLogger(TNGraphMLStreamReader.class.getName());
+
+	/**
+	 * Element names
+	 */
+	private static final String DATA = "data", DEFAULT = "default", EDGE = "edge", GRAPH = "graph", KEY = "key", NODE = "node";
+
+	/**
+	 * @param s a value in the format of {@link Constants#formatInt(int)}
+	 *
+	 * @return the int value of s.
+	 *
+	 * @throws IllegalArgumentException if s is not a well-formed value.
+	 */
+	static int parseValue(String s) {
+		if (Constants.NEGATIVE_INFINITY_SYMBOLstring.equals(s)) {
+			return Constants.INT_NEG_INFINITE;
+		}
+		try {
+			return Integer.parseInt(s);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Labeled values in a wrong format: value '" + s + "' is not an integer.");
+		}
+	}
+
+	/**
+	 * Scanner for labeled value maps, reused for all maps.
+	 */
+	private final LabeledValueScanner scanner = new LabeledValueScanner();
+
+	/**
+	 * A TNGraphMLStreamReader object can be used many times for reading different graphs, but not concurrently.
+	 */
+	public TNGraphMLStreamReader() {
+	}
+
+	/**
+	 * Reads graphXML and returns the corresponding graph as a TNGraph object. Edges of TNGraph are created using the edgeImplClass.
+	 *
+	 * @param graphXML      a string representing the graph in GraphML format.
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graphML as TNGraph.
+	 *
+	 * @throws java.io.IOException if graphXML is not a valid GraphML instance.
+	 */
+	public TNGraph<E> readGraph(final String graphXML, Class<? extends E> edgeImplClass) throws IOException {
+		if (graphXML == null || graphXML.isEmpty()) {
+			throw new IllegalArgumentException("The given input is null or empty.");
+		}
+		return load(new StringReader(graphXML), edgeImplClass);
+	}
+
+	/**
+	 * Reads graphFile and returns the corresponding graph as a TNGraph object. Edges of TNGraph are created using the edgeImplClass.
+	 * <br>
+	 * The file can be gzip-compressed (e.g., written by {@link TNGraphMLStreamWriter}).
+	 *
+	 * @param graphFile     file containing the graph in GraphML format.
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graphML as TNGraph.
+	 *
+	 * @throws java.io.IOException if any error occurs during the graphFile reading or if graphFile does not contain a valid GraphML instance.
+	 */
+	public TNGraph<E> readGraph(final File graphFile, Class<? extends E> edgeImplClass) throws IOException {
+		try (final Reader fileReader = new BufferedReader(new InputStreamReader(openMaybeGzip(graphFile), StandardCharsets.UTF_8), 1 << 16)) {
+			final TNGraph<E> tnGraph = load(fileReader, edgeImplClass);
+			tnGraph.setInputFile(graphFile);
+			return tnGraph;
+		} catch (FileNotFoundException e) {
+			throw new FileNotFoundException("There is a problem to read the file containing the network. Details: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @param graphFile a file
+	 *
+	 * @return an input stream for graphFile. If graphFile is gzip-compressed, the stream decompresses it.
+	 *
+	 * @throws IOException if the file cannot be opened.
+	 */
+	private static InputStream openMaybeGzip(File graphFile) throws IOException {
+		final InputStream in = new BufferedInputStream(new FileInputStream(graphFile), 1 << 16);
+		in.mark(2);
+		final int b0 = in.read(), b1 = in.read();
+		in.reset();
+		if (b0 == (GZIPInputStream.GZIP_MAGIC & 0xFF) && b1 == (GZIPInputStream.GZIP_MAGIC >>> 8)) {
+			return new GZIPInputStream(in, 1 << 16);
+		}
+		return in;
+	}
+
+	/**
+	 * Creates the graph object using the given reader for acquiring the input.
+	 *
+	 * @param reader        the input
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graphML as TNGraph.
+	 *
+	 * @throws java.io.IOException if the input is not a valid GraphML instance.
+	 */
+	TNGraph<E> load(Reader reader, Class<? extends E> edgeImplClass) throws IOException {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		try {
+			final XMLStreamReader xml = factory.createXMLStreamReader(reader);
+			try {
+				return load(xml, edgeImplClass);
+			} finally {
+				xml.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("The input does not contain a valid GraphML instance. Details: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @param tnGraph the graph
+	 * @param name    node name
+	 *
+	 * @return the node of tnGraph having the given name. If it is not present, it is created and added.
+	 */
+	private static LabeledNode getOrAddNode(TNGraph<?> tnGraph, String name) {
+		LabeledNode node = tnGraph.getNode(name);
+		if (node == null) {
+			node = LabeledNodeSupplier.get(name);
+			tnGraph.addVertex(node);
+			if (name.equals(AbstractCSTN.ZERO_NODE_NAME)) {
+				tnGraph.setZ(node);
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * @param xml a reader positioned on a start element.
+	 * @param att attribute name
+	 *
+	 * @return the value of attribute att of the current element, null if it is not present.
+	 */
+	@Nullable
+	private static String getAttribute(XMLStreamReader xml, String att) {
+		return xml.getAttributeValue(null, att);
+	}
+
+	/**
+	 * Reads the text content of the current element (a {@code data} or a {@code default} one) until its end.
+	 *
+	 * @param xml a reader positioned on a start element.
+	 * @param sb  the buffer to use.
+	 *
+	 * @return the text content.
+	 *
+	 * @throws XMLStreamException if the element is not well-formed.
+	 */
+	private static String readText(XMLStreamReader xml, StringBuilder sb) throws XMLStreamException {
+		sb.setLength(0);
+		int event;
+		while ((event = xml.next()) != XMLStreamConstants.END_ELEMENT) {
+			if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+				sb.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+			} else if (event == XMLStreamConstants.START_ELEMENT) {
+				skipElement(xml);
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Scans the text content of the current element by {@link #scanner} until its end.
+	 *
+	 * @param xml      a reader positioned on a start element.
+	 * @param consumer the consumer of the entries.
+	 *
+	 * @throws XMLStreamException if the element is not well-formed.
+	 */
+	private void scanText(XMLStreamReader xml, EntryConsumer consumer) throws XMLStreamException {
+		scanner.start(consumer);
+		int event;
+		while ((event = xml.next()) != XMLStreamConstants.END_ELEMENT) {
+			if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE) {
+				scanner.feed(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+			} else if (event == XMLStreamConstants.START_ELEMENT) {
+				skipElement(xml);
+			}
+		}
+		scanner.end();
+	}
+
+	/**
+	 * Skips the current element and all its content.
+	 *
+	 * @param xml a reader positioned on a start element.
+	 *
+	 * @throws XMLStreamException if the element is not well-formed.
+	 */
+	private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			final int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Consumes an entry of a {@link LabeledIntMap}. The entry format is {@code (value, label)} or, old format, {@code (label, value)}.
+	 *
+	 * @param map   the destination map
+	 * @param token the entry
+	 * @param n     number of tokens in the entry
+	 */
+	private static void putLabeledIntMapEntry(LabeledIntMap map, String[] token, int n) {
+		if (n != 2) {
+			throw new IllegalArgumentException("Labeled values in a wrong format: entry with " + n + " components instead of 2.");
+		}
+		Label l = Label.parse(token[0]);
+		final int value;
+		if (l == null) {
+			value = parseValue(token[0]);
+			l = Label.parse(token[1]);
+			if (l == null) {
+				throw new IllegalArgumentException("Labeled values in a wrong format: label '" + token[1] + "' is not well-formed.");
+			}
+		} else {
+			value = parseValue(token[1]);
+		}
+		map.put(l, value);
+	}
+
+	/**
+	 * Parses an entry of a map of upper/lower-case values. The entry format is {@code (aLabel, value, label)} or, old format,
+	 * {@code (label, aLabel, value)}.
+	 *
+	 * @param token the entry
+	 * @param n     number of tokens in the entry
+	 * @param triple where the three components are returned in the order label, aLabel, value
+	 *
+	 * @return the label of the entry.
+	 */
+	private static Label parseALabelEntry(String[] token, int n, String[] triple) {
+		if (n != 3) {
+			throw new IllegalArgumentException("Labeled values in a wrong format: entry with " + n + " components instead of 3.");
+		}
+		Label l = Label.parse(token[2]);
+		if (l == null) {
+			// old format
+			triple[0] = token[0];
+			triple[1] = token[1];
+			triple[2] = token[2];
+			l = Label.parse(token[0]);
+			if (l == null) {
+				throw new IllegalArgumentException("Labeled values in a wrong format: label '" + token[0] + "' is not well-formed.");
+			}
+		} else {
+			triple[0] = token[2];
+			triple[1] = token[0];
+			triple[2] = token[1];
+		}
+		return l;
+	}
+
+	/**
+	 * Reads a GraphML instance from xml.
+	 *
+	 * @param xml           the reader
+	 * @param edgeImplClass the type for the edges of the graph.
+	 *
+	 * @return the graphML as TNGraph.
+	 *
+	 * @throws XMLStreamException if the input is not a valid GraphML instance.
+	 */
+	@SuppressWarnings("unchecked")
+	private TNGraph<E> load(XMLStreamReader xml, Class<? extends E> edgeImplClass) throws XMLStreamException {
+		final ALabelAlphabet aLabelAlphabet = new ALabelAlphabet();
+		final TNGraph<E> tnGraph = new TNGraph<>("", edgeImplClass, aLabelAlphabet);
+		final NetworkType type = tnGraph.getType();
+		final boolean notCSTNUCSTNPSU = type == NetworkType.STN || type == NetworkType.CSTN || type == NetworkType.STNU || type == NetworkType.PSTN;
+		final boolean stnValue = type == NetworkType.STN || type == NetworkType.STNU || type == NetworkType.PSTN;
+		final boolean stnuCase = type == NetworkType.STNU || type == NetworkType.PSTN;
+		final boolean containsLabeledValues = CSTNEdge.class.isAssignableFrom(edgeImplClass);
+		final Class<? extends LabeledIntMap> caseLabeledIntMapImpl =
+			(type == NetworkType.OSTNU) ? LabeledIntTreeSimpleMap.class : LabeledIntMapSupplier.DEFAULT_LABELEDINTMAP_CLASS;
+		final LabeledIntMapSupplier<? extends LabeledIntMap> labIntMapSupplier = new LabeledIntMapSupplier<>(TNGraphMLReader.labeledValueMapImpl);
+
+		// (key id, default value) of declared keys
+		final Object2ObjectOpenHashMap<String, String> keyDefault = new Object2ObjectOpenHashMap<>();
+		// (key id, value) of graph attributes
+		final Object2ObjectOpenHashMap<String, String> graphData = new Object2ObjectOpenHashMap<>();
+		// (key id, value) of short attributes of the current node/edge
+		final Object2ObjectOpenHashMap<String, String> data = new Object2ObjectOpenHashMap<>();
+		final StringBuilder text = new StringBuilder(64);
+		final String[] triple = new String[3];
+
+		boolean sized = false;
+		boolean caseKeysDeclared = false;
+		LabeledNode node = null;
+		LabeledIntMap nodePotential = null;
+		E edge = null;
+		LabeledNode source = null, dest = null;
+		LabeledIntMap edgeLabeledValues = null;
+		LabeledALabelIntTreeMap edgeUpperCase = null, edgeLowerCaseMap = null;
+		final LabeledLowerCaseValue[] edgeLowerCase = new LabeledLowerCaseValue[1];
+
+		while (xml.hasNext()) {
+			final int event = xml.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				final String element = xml.getLocalName();
+				switch (element) {
+					case KEY -> {
+						final String id = getAttribute(xml, "id");
+						String def = "";
+						int e;
+						while ((e = xml.next()) != XMLStreamConstants.END_ELEMENT) {
+							if (e == XMLStreamConstants.START_ELEMENT) {
+								if (DEFAULT.equals(xml.getLocalName())) {
+									def = readText(xml, text);
+								} else {
+									skipElement(xml);
+								}
+							}
+						}
+						if (id != null) {
+							keyDefault.put(id, def);
+						}
+						caseKeysDeclared = keyDefault.containsKey(TNGraphMLWriter.EDGE_LABELED_UC_VALUE_KEY) &&
+						                   keyDefault.containsKey(TNGraphMLWriter.EDGE_LABELED_LC_VALUE_KEY);
+					}
+					case NODE -> {
+						if (!sized) {
+							sized = true;
+							presize(tnGraph, graphData);
+						}
+						final String id = getAttribute(xml, "id");
+						if (id == null) {
+							throw new XMLStreamException("A node has no id.", xml.getLocation());
+						}
+						node = tnGraph.getNode(id);
+						if (node == null) {
+							node = LabeledNodeSupplier.get(id);
+						}
+						nodePotential = null;
+						data.clear();
+					}
+					case EDGE -> {
+						if (!sized) {
+							sized = true;
+							presize(tnGraph, graphData);
+						}
+						final String s = getAttribute(xml, "source");
+						final String d = getAttribute(xml, "target");
+						if (s == null || d == null) {
+							throw new XMLStreamException("An edge has no source or target.", xml.getLocation());
+						}
+						source = getOrAddNode(tnGraph, s);
+						dest = getOrAddNode(tnGraph, d);
+						String id = getAttribute(xml, "id");
+						if (id == null || tnGraph.getEdge(id) != null) {
+							final String fixed = s + "_" + d;
+							if (Debug.ON && id != null) {
+								if (LOG.isLoggable(Level.WARNING)) {
+									LOG.log(Level.WARNING, "Fixing edge name '" + id + "' using '" + fixed + "'.");
+								}
+							}
+							id = fixed;
+						}
+						edge = tnGraph.getEdgeFactory().get(id);
+						edgeLabeledValues = null;
+						edgeUpperCase = edgeLowerCaseMap = null;
+						edgeLowerCase[0] = null;
+						data.clear();
+					}
+					case DATA -> {
+						final String key = getAttribute(xml, KEY);
+						if (key == null) {
+							skipElement(xml);
+							break;
+						}
+						if (node != null) {
+							if (key.equals(TNGraphMLWriter.NODE_POTENTIAL_KEY)) {
+								final LabeledIntMap potential = labIntMapSupplier.get();
+								scanText(xml, (token, n) -> putLabeledIntMapEntry(potential, token, n));
+								nodePotential = potential;
+							} else {
+								data.put(key, readText(xml, text));
+							}
+							break;
+						}
+						if (edge != null) {
+							switch (key) {
+								case TNGraphMLWriter.EDGE_LABELED_VALUE_KEY -> {
+									final LabeledIntMap map = labIntMapSupplier.get();
+									scanText(xml, (token, n) -> putLabeledIntMapEntry(map, token, n));
+									edgeLabeledValues = map;
+								}
+								case TNGraphMLWriter.EDGE_LABELED_UC_VALUE_KEY -> {
+									final LabeledALabelIntTreeMap map = new LabeledALabelIntTreeMap(caseLabeledIntMapImpl);
+									scanText(xml, (token, n) -> {
+										final Label l = parseALabelEntry(token, n, triple);
+										map.mergeTriple(l, ALabel.parse(triple[1], aLabelAlphabet), parseValue(triple[2]), false);
+									});
+									edgeUpperCase = map;
+								}
+								case TNGraphMLWriter.EDGE_LABELED_LC_VALUE_KEY -> {
+									if (type == NetworkType.CSTNPSU) {
+										final LabeledALabelIntTreeMap map = new LabeledALabelIntTreeMap(caseLabeledIntMapImpl);
+										scanText(xml, (token, n) -> {
+											final Label l = parseALabelEntry(token, n, triple);
+											map.mergeTriple(l, ALabel.parse(triple[1], aLabelAlphabet), parseValue(triple[2]), false);
+										});
+										edgeLowerCaseMap = map;
+									} else {
+										edgeLowerCase[0] = LabeledLowerCaseValue.emptyLabeledLowerCaseValue;
+										scanText(xml, (token, n) -> {
+											final Label l = parseALabelEntry(token, n, triple);
+											if (edgeLowerCase[0].isEmpty()) {
+												// as LabeledLowerCaseValue.parse, only the first entry is considered
+												edgeLowerCase[0] = LabeledLowerCaseValue.create(new ALabel(triple[1], aLabelAlphabet), parseValue(triple[2]), l);
+											}
+										});
+									}
+								}
+								default -> data.put(key, readText(xml, text));
+							}
+							break;
+						}
+						// graph attribute
+						graphData.put(key, readText(xml, text));
+					}
+					case GRAPH, "graphml" -> {
+						// nothing to do, its content is managed by the other cases
+					}
+					default -> skipElement(xml);
+				}
+				continue;
+			}
+			if (event != XMLStreamConstants.END_ELEMENT) {
+				continue;
+			}
+			final String element = xml.getLocalName();
+			if (NODE.equals(element) && node != null) {
+				setNodeAttributes(node, data, keyDefault, nodePotential);
+				if (tnGraph.getNode(node.getName()) == null) {
+					tnGraph.addVertex(node);
+					if (node.getName().equals(AbstractCSTN.ZERO_NODE_NAME)) {
+						tnGraph.setZ(node);
+					}
+				}
+				node = null;
+				continue;
+			}
+			if (EDGE.equals(element) && edge != null) {
+				// Type
+				String t = valueOf(TNGraphMLWriter.EDGE_TYPE_KEY, data, keyDefault);
+				if (t == null || "normal".equals(t) || "constraint".equals(t)) {// 20211014 I removed normal and constraint type because they are not clear.
+					t = "requirement";
+				}
+				edge.setConstraintType(ConstraintType.valueOf(t));
+				// Labeled values
+				if (edgeLabeledValues == null) {
+					final String def = keyDefault.get(TNGraphMLWriter.EDGE_LABELED_VALUE_KEY);
+					if (def != null && !def.isEmpty()) {
+						final LabeledIntMap map = labIntMapSupplier.get();
+						scanner.start((token, n) -> putLabeledIntMapEntry(map, token, n));
+						scanner.feed(def);
+						scanner.end();
+						edgeLabeledValues = map;
+					}
+				}
+				if (edgeLabeledValues != null && !edgeLabeledValues.isEmpty()) {
+					if (!containsLabeledValues) {
+						throw new IllegalArgumentException(
+							"Labeled value set is present, but it cannot be stored because edge type is not a CSTN o derived type: " + edgeLabeledValues);
+					}
+					((CSTNEdge) edge).setLabeledValueMap(edgeLabeledValues);
+				}
+				// I parse also value parameter that was present in the first version of the graph file or in STN graph
+				String v = valueOf(TNGraphMLWriter.EDGE_VALUE_KEY, data, keyDefault);
+				if (v != null && !v.isEmpty()) {
+					if (stnValue) {
+						((STNEdge) edge).setValue(Integer.parseInt(v));
+						if (edge.getConstraintType() == ConstraintType.contingent) {
+							if (((STNEdge) edge).getValue() <= 0) {
+								source.setContingent(true);
+							} else {
+								dest.setContingent(true);
+							}
+						}
+					}
+					if (containsLabeledValues && ((CSTNEdge) edge).getLabeledValueMap().isEmpty()) {
+						final LabeledIntMap map = labIntMapSupplier.get();
+						map.put(Label.emptyLabel, Integer.parseInt(v));
+						((CSTNEdge) edge).setLabeledValueMap(map);
+					}
+				}
+				// STNU
+				v = valueOf(TNGraphMLWriter.EDGE_CASE_VALUE_KEY, data, keyDefault);
+				if (v != null && !v.isEmpty() && stnuCase) {
+					final STNUEdge e1 = ((STNUEdge) edge);
+					e1.setLabeledValue(v);
+					if (e1.getConstraintType() == ConstraintType.contingent) {
+						if (e1.isUpperCase()) {
+							source.setContingent(true);
+						} else {
+							dest.setContingent(true);
+						}
+					}
+				}
+				boolean add = true;
+				if (notCSTNUCSTNPSU) {
+					add = !edge.isEmpty();
+				} else if (caseKeysDeclared) {
+					final BasicCSTNUEdge e = (BasicCSTNUEdge) edge;
+					e.setUpperCaseValueMap((edgeUpperCase != null) ? edgeUpperCase : new LabeledALabelIntTreeMap(caseLabeledIntMapImpl));
+					if (type == NetworkType.CSTNU) {
+						((CSTNUEdge) edge).setLowerCaseValue(
+							(edgeLowerCase[0] != null) ? edgeLowerCase[0] : LabeledLowerCaseValue.emptyLabeledLowerCaseValue);
+					}
+					if (type == NetworkType.CSTNPSU) {
+						((CSTNPSUEdge) edge).setLowerCaseValue((edgeLowerCaseMap != null) ? edgeLowerCaseMap : new LabeledALabelIntTreeMap(caseLabeledIntMapImpl));
+					}
+					add = !e.isEmpty();
+				}
+				if (add) {
+					tnGraph.addEdge(edge, source, dest);
+				}
+				edge = null;
+				continue;
+			}
+			if (GRAPH.equals(element)) {
+				final String name = graphData.get(TNGraphMLWriter.GRAPH_NAME_KEY);
+				tnGraph.setName((name != null) ? name : keyDefault.getOrDefault(TNGraphMLWriter.GRAPH_NAME_KEY, "no name"));
+			}
+		}
+		if (Debug.ON && !caseKeysDeclared && !notCSTNUCSTNPSU) {
+			LOG.warning("The input file does not contain the meta declaration for upper case value or lower case value.");
+		}
+		return tnGraph;
+	}
+
+	/**
+	 * Sizes the graph using the graph attributes {@link TNGraphMLWriter#GRAPH_nVERTICES_KEY} and {@link TNGraphMLWriter#GRAPH_nEDGES_KEY}.
+	 *
+	 * @param tnGraph   the empty graph
+	 * @param graphData the graph attributes
+	 */
+	private static void presize(TNGraph<?> tnGraph, Object2ObjectOpenHashMap<String, String> graphData) {
+		try {
+			final int nVertices = Integer.parseInt(graphData.getOrDefault(TNGraphMLWriter.GRAPH_nVERTICES_KEY, "0"));
+			final int nEdges = Integer.parseInt(graphData.getOrDefault(TNGraphMLWriter.GRAPH_nEDGES_KEY, "0"));
+			if (nVertices > 0) {
+				tnGraph.clear(nVertices, nEdges);
+			}
+		} catch (NumberFormatException e) {
+			if (Debug.ON) {
+				LOG.warning("Graph attributes " + TNGraphMLWriter.GRAPH_nVERTICES_KEY + " or " + TNGraphMLWriter.GRAPH_nEDGES_KEY + " are not integer.");
+			}
+		}
+	}
+
+	/**
+	 * Sets the node attributes as {@link TNGraphMLReader} does.
+	 *
+	 * @param n          the node
+	 * @param data       the short attributes of the node
+	 * @param keyDefault the declared keys with their default value
+	 * @param potential  the potential, if present
+	 */
+	private static void setNodeAttributes(LabeledNode n, Object2ObjectOpenHashMap<String, String> data, Object2ObjectOpenHashMap<String, String> keyDefault,
+	                                      @Nullable LabeledIntMap potential) {
+		String s = valueOf(TNGraphMLWriter.NODE_LABEL_KEY, data, keyDefault);
+		if (s != null) {
+			n.setLabel(Label.parse(s));
+		}
+		s = valueOf(TNGraphMLWriter.NODE_OBSERVED_KEY, data, keyDefault);
+		if (s != null && s.length() == 1) {
+			n.setObservable(s.charAt(0));
+		}
+		s = valueOf(TNGraphMLWriter.NODE_PARAMETER_KEY, data, keyDefault);
+		if (Boolean.toString(true).equals(s)) {
+			n.setParameter(true);
+		}
+		if (potential != null) {
+			n.setLabeledPotential(potential);
+		} else if (keyDefault.containsKey(TNGraphMLWriter.NODE_POTENTIAL_KEY)) {
+			n.setLabeledPotential(AbstractLabeledIntMap.parse(keyDefault.get(TNGraphMLWriter.NODE_POTENTIAL_KEY), TNGraphMLReader.labeledValueMapImpl));
+		}
+		s = valueOf(TNGraphMLWriter.NODE_LOGNORMALDISTRIBUTION_KEY, data, keyDefault);
+		if (s != null && !s.isEmpty()) {
+			final LogNormalDistributionParameter logNormalDist = LogNormalDistributionParameter.parse(s);
+			if (s.length() > 2 && logNormalDist == null) {
+				throw new IllegalArgumentException("LogNormalDistributionParameter values in a wrong format: " + s + " in node " + n);
+			}
+			n.setLogNormalDistributionParameter(logNormalDist);
+		}
+		s = valueOf(TNGraphMLWriter.NODE_X_KEY, data, keyDefault);
+		if (s != null && !s.isEmpty()) {
+			n.setX(Double.parseDouble(s));
+		}
+		s = valueOf(TNGraphMLWriter.NODE_Y_KEY, data, keyDefault);
+		if (s != null && !s.isEmpty()) {
+			n.setY(Double.parseDouble(s));
+		}
+	}
+
+	/**
+	 * @param key        the attribute key
+	 * @param data       the attributes of the current element
+	 * @param keyDefault the declared keys with their default value
+	 *
+	 * @return the value of the attribute, its default value if it is not present, null if the key was not declared.
+	 */
+	@Nullable
+	private static String valueOf(String key, Object2ObjectOpenHashMap<String, String> data, Object2ObjectOpenHashMap<String, String> keyDefault) {
+		final String v = data.get(key);
+		return (v != null) ? v : keyDefault.get(key);
+	}
+}
@@ -0,0 +1,550 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.graph;
+
+import edu.uci.ics.jung.algorithms.layout.AbstractLayout;
+import it.unimi.dsi.fastutil.objects.Object2IntMap.Entry;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.univr.di.cstnu.graph.TNGraph.NetworkType;
+import it.univr.di.labeledvalue.*;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Allows the writing of a Temporal Network graph to a file, a stream, or a writer in GraphML format in a single streaming pass.
+ * <br>
+ * It writes the same attributes written by {@link TNGraphMLWriter} (so the output can be read by {@link TNGraphMLReader} and
+ * {@link TNGraphMLStreamReader}), but it does not use the JUNG GraphML writer. The document is written by a StAX writer ({@link XMLStreamWriter}) and
+ * labeled values are written directly from the edge/node maps, entry by entry, without building the string representing the whole map or the whole
+ * document.
+ * <br>
+ * The output can be gzip-compressed: {@link #save(TNGraph, File)} compresses when the file name ends with {@link #GZIP_SUFFIX};
+ * {@link TNGraphMLStreamReader} reads gzip-compressed files transparently.
+ * <br>
+ * For big networks (e.g., checked CSTNUs) it is much faster and requires much less memory than {@link TNGraphMLWriter}.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class TNGraphMLStreamWriter {
+
+	/**
+	 * Suffix of file names that are saved gzip-compressed by {@link #save(TNGraph, File)}.
+	 */
+	static public final String GZIP_SUFFIX = ".gz";
+
+	/**
+	 * logger
+	 */
+	static final Logger LOG = Logger.getLogger(TNGraphMLStreamWriter.class.getName());
+
+	/**
+	 * Element names
+	 */
+	private static final String DATA = "data", EDGE = "edge", GRAPH = "graph", KEY = "key", NODE = "node";
+
+	/**
+	 * Cache of label representations. Labels are cached objects, so identity is enough.
+	 */
+	private final Reference2ObjectOpenHashMap<Label, String> labelString = new Reference2ObjectOpenHashMap<>();
+	/**
+	 * Cache of aLabel representations.
+	 */
+	private final Object2ObjectOpenHashMap<ALabel, String> aLabelString = new Object2ObjectOpenHashMap<>();
+	/**
+	 * Buffer for sorting the entries of a map.
+	 */
+	private final ObjectArrayList<Entry<Label>> sorted = new ObjectArrayList<>();
+	/**
+	 * Buffer for writing integers.
+	 */
+	private final char[] intBuffer = new char[12];
+	/**
+	 * Possible layout for node positions.
+	 */
+	@Nullable
+	private final AbstractLayout<LabeledNode, ? extends Edge> layout;
+
+	/**
+	 * Node positions are taken from node coordinates.
+	 */
+	public TNGraphMLStreamWriter() {
+		this(null);
+	}
+
+	/**
+	 * @param lay a layout. If it is null, node positions are taken from node coordinates.
+	 */
+	@edu.umd.cs.findbugs.annotations.SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "For efficiency reason, it includes an external mutable object.")
+	public TNGraphMLStreamWriter(@Nullable AbstractLayout<LabeledNode, ? extends Edge> lay) {
+		layout = lay;
+	}
+
+	/**
+	 * Saves graph into outputFile using UTF-8 encoding. If the name of outputFile ends with {@link #GZIP_SUFFIX}, the output is gzip-compressed.
+	 *
+	 * @param graph      the network to save
+	 * @param outputFile file where to save the graph.
+	 *
+	 * @throws java.io.IOException if it is not possible to save to outputFile
+	 */
+	public void save(TNGraph<? extends Edge> graph, File outputFile) throws IOException {
+		save(graph, outputFile, outputFile.getName().endsWith(GZIP_SUFFIX));
+	}
+
+	/**
+	 * Saves graph into outputFile using UTF-8 encoding.
+	 *
+	 * @param graph      the network to save
+	 * @param outputFile file where to save the graph.
+	 * @param gzip       true if the output must be gzip-compressed.
+	 *
+	 * @throws java.io.IOException if it is not possible to save to outputFile
+	 */
+	public void save(TNGraph<? extends Edge> graph, File outputFile, boolean gzip) throws IOException {
+		try (final OutputStream out = new FileOutputStream(outputFile)) {
+			save(graph, out, gzip);
+		}
+	}
+
+	/**
+	 * Saves graph into the given stream using UTF-8 encoding. The stream is not closed.
+	 *
+	 * @param graph the network to save
+	 * @param out   the stream to use
+	 * @param gzip  true if the output must be gzip-compressed.
+	 *
+	 * @throws java.io.IOException if the stream cannot be written
+	 */
+	public void save(TNGraph<? extends Edge> graph, OutputStream out, boolean gzip) throws IOException {
+		final OutputStream nonClosing = new FilterOutputStream(out) {
+			@Override
+			public void close() throws IOException {
+				flush();
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				out.write(b, off, len);
+			}
+		};
+		try (final OutputStream stream = (gzip) ? new GZIPOutputStream(nonClosing, 1 << 16) : nonClosing;
+		     final Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16)) {
+			save(graph, writer);
+		}
+	}
+
+	/**
+	 * Saves graph using the given writer. The writer is flushed, but not closed.
+	 *
+	 * @param graph  the network to save
+	 * @param writer the writer to use
+	 *
+	 * @throws java.io.IOException if the writer cannot write
+	 */
+	public void save(TNGraph<? extends Edge> graph, Writer writer) throws IOException {
+		try {
+			final XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+			write(graph, xml);
+			xml.flush();
+			xml.close();
+		} catch (XMLStreamException e) {
+			throw new IOException("It is not possible to write the graph. Details: " + e.getMessage(), e);
+		} finally {
+			labelString.clear();
+			aLabelString.clear();
+			sorted.clear();
+		}
+		writer.flush();
+	}
+
+	/**
+	 * @param graph the network to save
+	 *
+	 * @return a GraphML string representing the graph.
+	 */
+	public String save(TNGraph<? extends Edge> graph) {
+		final StringWriter writer = new StringWriter();
+		try {
+			save(graph, writer);
+		} catch (IOException e) {
+			// a non likely possibility
+			LOG.severe(e.getMessage());
+			throw new IllegalStateException(e.toString());
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * @param type a network type
+	 * @param set  network types
+	 *
+	 * @return true if type is one of set.
+	 */
+	private static boolean in(NetworkType type, NetworkType... set) {
+		for (final NetworkType t : set) {
+			if (t == type) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Writes a {@code data} element with the given text.
+	 *
+	 * @param xml   the writer
+	 * @param key   the key
+	 * @param value the text
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private static void writeData(XMLStreamWriter xml, String key, String value) throws XMLStreamException {
+		xml.writeCharacters("\n");
+		xml.writeStartElement(DATA);
+		xml.writeAttribute(KEY, key);
+		xml.writeCharacters(value);
+		xml.writeEndElement();
+	}
+
+	/**
+	 * Writes a {@code key} element.
+	 *
+	 * @param xml          the writer
+	 * @param id           key id
+	 * @param forElement   the element the key is for
+	 * @param desc         the description
+	 * @param defaultValue the default value
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private static void writeKey(XMLStreamWriter xml, String id, String forElement, String desc, String defaultValue) throws XMLStreamException {
+		xml.writeCharacters("\n");
+		xml.writeStartElement(KEY);
+		xml.writeAttribute("id", id);
+		xml.writeAttribute("for", forElement);
+		xml.writeCharacters("\n");
+		xml.writeStartElement("desc");
+		xml.writeCharacters(desc);
+		xml.writeEndElement();
+		xml.writeCharacters("\n");
+		xml.writeStartElement("default");
+		xml.writeCharacters(defaultValue);
+		xml.writeEndElement();
+		xml.writeCharacters("\n");
+		xml.writeEndElement();
+	}
+
+	/**
+	 * @param aLabel an aLabel
+	 *
+	 * @return the (cached) string representation of aLabel.
+	 */
+	private String aLabelAsString(ALabel aLabel) {
+		String s = aLabelString.get(aLabel);
+		if (s == null) {
+			s = aLabel.toString();
+			aLabelString.put(ALabel.clone(aLabel), s);
+		}
+		return s;
+	}
+
+	/**
+	 * @param label a label
+	 *
+	 * @return the (cached) string representation of label.
+	 */
+	private String labelAsString(Label label) {
+		String s = labelString.get(label);
+		if (s == null) {
+			s = label.toString();
+			labelString.put(label, s);
+		}
+		return s;
+	}
+
+	/**
+	 * Writes the graph.
+	 *
+	 * @param graph the graph
+	 * @param xml   the writer
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private void write(TNGraph<? extends Edge> graph, XMLStreamWriter xml) throws XMLStreamException {
+		final NetworkType type = graph.getType();
+		final boolean withContingent = in(type, NetworkType.STNU, NetworkType.PSTN, NetworkType.CSTNU, NetworkType.CSTNPSU, NetworkType.PCSTNU);
+		final boolean withObs = in(type, NetworkType.OSTNU, NetworkType.CSTN, NetworkType.CSTNU, NetworkType.CSTNPSU, NetworkType.PCSTNU);
+		final boolean withLabel = in(type, NetworkType.CSTN, NetworkType.CSTNU, NetworkType.CSTNPSU, NetworkType.PCSTNU);
+		final boolean withValue = in(type, NetworkType.OSTNU, NetworkType.STN, NetworkType.STNU, NetworkType.PSTN);
+		final boolean withCaseValue = in(type, NetworkType.OSTNU, NetworkType.STNU, NetworkType.PSTN);
+		final boolean withUCLC = in(type, NetworkType.OSTNU, NetworkType.CSTNU, NetworkType.CSTNPSU, NetworkType.PCSTNU);
+
+		xml.writeStartDocument("UTF-8", "1.0");
+		xml.writeCharacters("\n");
+		xml.writeStartElement("graphml");
+		xml.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns/graphml");
+		xml.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+		xml.writeAttribute("xsi", "http://www.w3.org/2001/XMLSchema-instance", "schemaLocation", "http://graphml.graphdrawing.org/xmlns/graphml");
+
+		// keys
+		writeKey(xml, TNGraphMLWriter.NETWORK_TYPE_KEY, GRAPH, "Network Type", "CSTNU");
+		writeKey(xml, TNGraphMLWriter.GRAPH_NAME_KEY, GRAPH, "Graph Name", "");
+		if (withContingent) {
+			writeKey(xml, TNGraphMLWriter.GRAPH_nCTG_KEY, GRAPH, "Number of contingents in the graph", "0");
+		}
+		writeKey(xml, TNGraphMLWriter.GRAPH_nEDGES_KEY, GRAPH, "Number of edges in the graph", "0");
+		if (withObs) {
+			writeKey(xml, TNGraphMLWriter.GRAPH_nOBS_KEY, GRAPH, "Number of observed propositions in the graph", "0");
+		}
+		writeKey(xml, TNGraphMLWriter.GRAPH_nVERTICES_KEY, GRAPH, "Number of vertices in the graph", "0");
+		writeKey(xml, TNGraphMLWriter.NODE_X_KEY, NODE, "The x coordinate for the visualization. A positive value.", "0");
+		writeKey(xml, TNGraphMLWriter.NODE_Y_KEY, NODE, "The y coordinate for the visualization. A positive value.", "0");
+		if (withObs) {
+			writeKey(xml, TNGraphMLWriter.NODE_OBSERVED_KEY, NODE, "Proposition Observed. Value specification: " + Literal.PROPOSITION_RANGE, "");
+		}
+		if (type == NetworkType.PCSTNU) {
+			writeKey(xml, TNGraphMLWriter.NODE_PARAMETER_KEY, NODE, "Parameter node. Value specification: true", "");
+		}
+		if (withObs) {
+			writeKey(xml, TNGraphMLWriter.NODE_POTENTIAL_KEY, NODE,
+			         "Labeled Potential Values. Format: {[('node name (no case modification)', 'integer', 'label') ]+}|{}", "");
+		}
+		if (withLabel) {
+			writeKey(xml, TNGraphMLWriter.NODE_LABEL_KEY, NODE, "Label. Format: [¬" + Literal.PROPOSITION_RANGE + "|" + Literal.PROPOSITION_RANGE + "]+|⊡",
+			         "⊡");
+		}
+		if (type == NetworkType.PSTN) {
+			writeKey(xml, TNGraphMLWriter.NODE_LOGNORMALDISTRIBUTION_KEY, NODE,
+			         "LogNormalDistributionParameter. Format: LogNormalDistributionParameter[location=..., scale=...]", "");
+		}
+		writeKey(xml, TNGraphMLWriter.EDGE_TYPE_KEY, EDGE, "Type: Possible values: contingent|requirement|derived|internal.", "requirement");
+		if (withObs) {
+			writeKey(xml, TNGraphMLWriter.EDGE_LABELED_VALUE_KEY, EDGE, "Labeled Values. Format: {[('integer', 'label') ]+}|{}", "");
+		}
+		if (withValue) {
+			writeKey(xml, TNGraphMLWriter.EDGE_VALUE_KEY, EDGE, "Value for STN edge. Format: 'integer'", "");
+		}
+		if (withCaseValue) {
+			writeKey(xml, TNGraphMLWriter.EDGE_CASE_VALUE_KEY, EDGE, "Case Value. Format: 'LC(NodeName):integer' or 'UC(NodeName):integer'", "");
+		}
+		if (withUCLC) {
+			writeKey(xml, TNGraphMLWriter.EDGE_LABELED_UC_VALUE_KEY, EDGE,
+			         "Labeled Upper-Case Values. Format: {[('node name (no case modification)', 'integer', 'label') ]+}|{}", "");
+			writeKey(xml, TNGraphMLWriter.EDGE_LABELED_LC_VALUE_KEY, EDGE,
+			         "Labeled Lower-Case Values. Format: {[('node name (no case modification)', 'integer', 'label') ]+}|{}", "");
+		}
+
+		// graph
+		xml.writeCharacters("\n");
+		xml.writeStartElement(GRAPH);
+		xml.writeAttribute("edgedefault", "directed");
+		writeData(xml, TNGraphMLWriter.NETWORK_TYPE_KEY, type.toString());
+		writeData(xml, TNGraphMLWriter.GRAPH_NAME_KEY, graph.getName());
+		if (withContingent) {
+			writeData(xml, TNGraphMLWriter.GRAPH_nCTG_KEY, String.valueOf(graph.getContingentNodeCount()));
+		}
+		writeData(xml, TNGraphMLWriter.GRAPH_nEDGES_KEY, String.valueOf(graph.getEdgeCount()));
+		if (withObs) {
+			writeData(xml, TNGraphMLWriter.GRAPH_nOBS_KEY, String.valueOf(graph.getObserverCount()));
+		}
+		writeData(xml, TNGraphMLWriter.GRAPH_nVERTICES_KEY, String.valueOf(graph.getVertexCount()));
+
+		// nodes
+		for (final LabeledNode node : graph.getVertices()) {
+			xml.writeCharacters("\n");
+			xml.writeStartElement(NODE);
+			xml.writeAttribute("id", node.getName());
+			writeData(xml, TNGraphMLWriter.NODE_X_KEY, Double.toString((layout != null) ? layout.getX(node) : node.getX()));
+			writeData(xml, TNGraphMLWriter.NODE_Y_KEY, Double.toString((layout != null) ? layout.getY(node) : node.getY()));
+			if (withObs && node.getPropositionObserved() != Constants.UNKNOWN) {
+				writeData(xml, TNGraphMLWriter.NODE_OBSERVED_KEY, String.valueOf(node.getPropositionObserved()));
+			}
+			if (type == NetworkType.PCSTNU && node.isParameter()) {
+				writeData(xml, TNGraphMLWriter.NODE_PARAMETER_KEY, Boolean.toString(true));
+			}
+			if (withObs && !node.getLabeledPotential().isEmpty()) {
+				startData(xml, TNGraphMLWriter.NODE_POTENTIAL_KEY);
+				writeLabeledIntMap(xml, node.getLabeledPotential());
+				xml.writeEndElement();
+			}
+			if (withLabel) {
+				writeData(xml, TNGraphMLWriter.NODE_LABEL_KEY, labelAsString(node.getLabel()));
+			}
+			if (type == NetworkType.PSTN && node.getLogNormalDistribution() != null) {
+				writeData(xml, TNGraphMLWriter.NODE_LOGNORMALDISTRIBUTION_KEY, node.getLogNormalDistribution().toString());
+			}
+			xml.writeCharacters("\n");
+			xml.writeEndElement();
+		}
+
+		// edges
+		for (final Edge e : graph.getEdges()) {
+			final LabeledNode source = graph.getSource(e.getName());
+			final LabeledNode dest = graph.getDest(e.getName());
+			if (source == null || dest == null) {
+				continue;
+			}
+			xml.writeCharacters("\n");
+			xml.writeStartElement(EDGE);
+			xml.writeAttribute("id", e.getName());
+			xml.writeAttribute("source", source.getName());
+			xml.writeAttribute("target", dest.getName());
+			writeData(xml, TNGraphMLWriter.EDGE_TYPE_KEY, e.getConstraintType().toString());
+			if (withObs && e instanceof CSTNEdge e1) {
+				startData(xml, TNGraphMLWriter.EDGE_LABELED_VALUE_KEY);
+				writeLabeledIntMap(xml, e1.getLabeledValueMap());
+				xml.writeEndElement();
+			}
+			if (withValue && (e.isSTNEdge() || e.isSTNUEdge()) && ((STNEdge) e).getValue() != Constants.INT_NULL) {
+				writeData(xml, TNGraphMLWriter.EDGE_VALUE_KEY, String.valueOf(((STNEdge) e).getValue()));
+			}
+			if (withCaseValue && e.isSTNUEdge()) {
+				final String s = ((STNUEdge) e).getLabeledValueFormatted();
+				if (!s.isEmpty()) {
+					writeData(xml, TNGraphMLWriter.EDGE_CASE_VALUE_KEY, s);
+				}
+			}
+			if (withUCLC && e instanceof BasicCSTNUEdge e1) {
+				final LabeledALabelIntTreeMap uc = e1.getUpperCaseValueMap();
+				if (!uc.isEmpty()) {
+					startData(xml, TNGraphMLWriter.EDGE_LABELED_UC_VALUE_KEY);
+					writeLabeledALabelIntMap(xml, uc);
+					xml.writeEndElement();
+				}
+				if (e.isCSTNUEdge()) {
+					final LabeledLowerCaseValue lc = e1.getLowerCaseValue();
+					if (!lc.isEmpty()) {
+						writeData(xml, TNGraphMLWriter.EDGE_LABELED_LC_VALUE_KEY, lc.toString());
+					}
+				} else if (e instanceof CSTNPSUEdge e2 && !e2.getLowerCaseValueMap().isEmpty()) {
+					startData(xml, TNGraphMLWriter.EDGE_LABELED_LC_VALUE_KEY);
+					writeLabeledALabelIntMap(xml, e2.getLowerCaseValueMap());
+					xml.writeEndElement();
+				}
+			}
+			xml.writeCharacters("\n");
+			xml.writeEndElement();
+		}
+		xml.writeCharacters("\n");
+		xml.writeEndElement();// graph
+		xml.writeCharacters("\n");
+		xml.writeEndElement();// graphml
+		xml.writeCharacters("\n");
+		xml.writeEndDocument();
+	}
+
+	/**
+	 * Writes the start of a {@code data} element.
+	 *
+	 * @param xml the writer
+	 * @param key the key
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private static void startData(XMLStreamWriter xml, String key) throws XMLStreamException {
+		xml.writeCharacters("\n");
+		xml.writeStartElement(DATA);
+		xml.writeAttribute(KEY, key);
+	}
+
+	/**
+	 * Writes v as {@link Constants#formatInt(int)} does without creating a string.
+	 *
+	 * @param xml the writer
+	 * @param v   the value
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private void writeInt(XMLStreamWriter xml, int v) throws XMLStreamException {
+		if (v == Constants.INT_NEG_INFINITE || v == Constants.INT_POS_INFINITE || v == Constants.INT_NULL) {
+			xml.writeCharacters(Constants.formatInt(v));
+			return;
+		}
+		int i = intBuffer.length;
+		final boolean negative = v < 0;
+		// INT_NULL is Integer.MIN_VALUE, so -v is safe
+		int u = (negative) ? -v : v;
+		do {
+			intBuffer[--i] = (char) ('0' + u % 10);
+			u /= 10;
+		} while (u != 0);
+		if (negative) {
+			intBuffer[--i] = '-';
+		}
+		xml.writeCharacters(intBuffer, i, intBuffer.length - i);
+	}
+
+	/**
+	 * Writes map in the format of {@link LabeledALabelIntTreeMap#toString()}, entry by entry.
+	 *
+	 * @param xml the writer
+	 * @param map the map
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private void writeLabeledALabelIntMap(XMLStreamWriter xml, LabeledALabelIntTreeMap map) throws XMLStreamException {
+		xml.writeCharacters("{");
+		for (final ALabel aLabel : map.keySet()) {
+			final LabeledIntMap entries = map.get(aLabel);
+			if (entries.isEmpty()) {
+				continue;
+			}
+			final String aLabelS = aLabelAsString(aLabel);
+			for (final Entry<Label> entry : sortedEntries(entries)) {
+				xml.writeCharacters(Constants.OPEN_PAIR);
+				xml.writeCharacters(aLabelS);
+				xml.writeCharacters(", ");
+				writeInt(xml, entry.getIntValue());
+				xml.writeCharacters(", ");
+				xml.writeCharacters(labelAsString(entry.getKey()));
+				xml.writeCharacters(Constants.CLOSE_PAIR);
+				xml.writeCharacters(" ");
+			}
+		}
+		xml.writeCharacters("}");
+	}
+
+	/**
+	 * Writes map in the format of {@link AbstractLabeledIntMap#toString()}, entry by entry.
+	 *
+	 * @param xml the writer
+	 * @param map the map
+	 *
+	 * @throws XMLStreamException if xml cannot write
+	 */
+	private void writeLabeledIntMap(XMLStreamWriter xml, LabeledIntMap map) throws XMLStreamException {
+		xml.writeCharacters("{");
+		for (final Entry<Label> entry : sortedEntries(map)) {
+			xml.writeCharacters(Constants.OPEN_PAIR);
+			writeInt(xml, entry.getIntValue());
+			xml.writeCharacters(", ");
+			xml.writeCharacters(labelAsString(entry.getKey()));
+			xml.writeCharacters(Constants.CLOSE_PAIR);
+			xml.writeCharacters(" ");
+		}
+		xml.writeCharacters("}");
+	}
+
+	/**
+	 * @param map a map
+	 *
+	 * @return the entries of map sorted by {@link LabeledIntMap#entryComparator}. The returned list is reused by the next call.
+	 */
+	private ObjectArrayList<Entry<Label>> sortedEntries(LabeledIntMap map) {
+		sorted.clear();
+		sorted.addAll(map.entrySet());
+		sorted.sort(LabeledIntMap.entryComparator);
+		return sorted;
+	}
+}
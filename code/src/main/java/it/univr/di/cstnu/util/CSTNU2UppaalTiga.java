@@ -9,6 +9,11 @@ package it.univr.di.cstnu.util;
 import com.bpodgursky.jbool_expressions.Expression;
 import com.bpodgursky.jbool_expressions.parsers.ExprParser;
 import com.bpodgursky.jbool_expressions.rules.RuleSet;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectList;
 import it.unimi.dsi.fastutil.objects.ObjectRBTreeSet;
 import it.univr.di.cstnu.algorithms.CSTNU;
 import it.univr.di.cstnu.algorithms.WellDefinitionException;
@@ -17,29 +22,25 @@ import it.univr.di.labeledvalue.Constants;
 import it.univr.di.labeledvalue.Label;
 import it.univr.di.labeledvalue.Literal;
 import org.kohsuke.args4j.*;
-import org.w3c.dom.DOMConfiguration;
-import org.w3c.dom.Document;
-import org.w3c.dom.DocumentType;
-import org.w3c.dom.Element;
-import org.w3c.dom.bootstrap.DOMImplementationRegistry;
-import org.w3c.dom.ls.DOMImplementationLS;
-import org.w3c.dom.ls.LSOutput;
-import org.w3c.dom.ls.LSSerializer;
 import org.xml.sax.SAXException;
 
 import javax.annotation.Nonnull;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
-import java.io.IOException;
-import java.io.PrintStream;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashSet;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -48,17 +49,49 @@ import java.util.logging.Logger;
  * build an CSTNU2UppaalTiga object giving a TNGraph instance that represents the network of a CSTNU instance and an
  * output stream where the result must be sent (see
  * {@link CSTNU2UppaalTiga#CSTNU2UppaalTiga(TNGraph, PrintStream)}).<br> Then, invoking
- * {@link #translate()}, the result is sent to the specified output stream.
+ * {@link #translate()}, the result is sent to the specified output stream. The model is written while it is built, so it is never kept in memory.<br>
+ * From the command line, with option {@code --partition}, the model is split by the independent sub-networks of the CSTNU (see
+ * {@link #getIndependentSubnetworks(TNGraph)}), and each sub-network is saved in its own model and query files that can be verified in parallel.
  *
  * @author posenato
  * @version $Rev: 732 $
  */
 @SuppressWarnings({"DynamicRegexReplaceableByCompiledPattern", "RedundantEscapeInRegexReplacement"})
 public class CSTNU2UppaalTiga {
+	/**
+	 * Result of the verification of a sub-network model.
+	 */
+	private enum Verdict {
+		/**
+		 * The verifier has not been run.
+		 */
+		NOT_VERIFIED,
+		/**
+		 * The control query is satisfied, i.e., the sub-network is controllable.
+		 */
+		SATISFIED,
+		/**
+		 * The control query is not satisfied, i.e., the sub-network is not controllable.
+		 */
+		NOT_SATISFIED,
+		/**
+		 * The verifier output does not contain a verdict.
+		 */
+		UNKNOWN
+	}
+
 	/**
 	 * Token to represent logic AND in Tiga expression.
 	 */
 	static final String AND = " && ";
+	/**
+	 * Indentation of a level of the XML output.
+	 */
+	static final String INDENT = "    ";
+	/**
+	 * New line of the XML output.
+	 */
+	static final String NEW_LINE = "\r\n";
 	/**
 	 * Token to represent logic NOT in Tiga expression.
 	 */
@@ -75,7 +108,8 @@ public class CSTNU2UppaalTiga {
 	/**
 	 * Gives the version of the file
 	 */
-	static final String VERSIONandDATE = "1.65, January, 13 2021";// Fixed file encoding
+	// static final String VERSIONandDATE = "1.65, January, 13 2021";// Fixed file encoding
+	static final String VERSIONandDATE = "1.7, October, 18 2026";// Streaming output and translation by independent sub-networks
 	/**
 	 * class logger
 	 */
@@ -95,9 +129,13 @@ public class CSTNU2UppaalTiga {
 	 */
 	private TNGraph<CSTNUEdge> cstnuGraph;
 	/**
-	 * Document representing DOM of TIGA
+	 * Writer of the TIGA document. The document is written while it is built, so it is never kept in memory.
+	 */
+	private XMLStreamWriter xml;
+	/**
+	 * Current level of the XML document, used for the indentation.
 	 */
-	private Document doc;
+	private int xmlLevel;
 
 	// /**
 	// * Build an obs node name for a proposition.
@@ -172,6 +210,24 @@ public class CSTNU2UppaalTiga {
 	 */
 	@Option(name = "-compact", usage = "Translate using the minimal number of states")
 	private boolean compact;
+	/**
+	 * Number of threads for translating/verifying the sub-networks.
+	 */
+	@Option(name = "--nThreads", usage = "Number of threads used to translate and to verify the sub-networks in parallel. Default is the number of available processors.")
+	private int nThreads = Runtime.getRuntime().availableProcessors();
+	/**
+	 * Parameter for asking to split the translation by independent sub-networks.
+	 */
+	@Option(name = "--partition", usage = "Split the model by the independent sub-networks (weakly connected components after removing Z, where a node is "
+	                                      + "connected also to the observers of the propositions in its labels). Each sub-network is saved in its own model "
+	                                      + "and query files, named as the output file with suffix '_part<i>'. It requires an output file.")
+	private boolean partition;
+	/**
+	 * Verifier command line.
+	 */
+	@Option(name = "--verifier", usage = "Verifier command line (e.g., 'verifytga -w0'). If given with --partition, it is run on each model and query "
+	                                     + "file in parallel and its output is saved in the file with the model name and suffix '.out'.", metaVar = "command")
+	private String verifier;
 
 	/**
 	 * Build a clock name: "t" followed by node name cleaned off not allowed chars.
@@ -316,10 +372,145 @@ public class CSTNU2UppaalTiga {
 		LOG.finest("TNGraph loaded!");
 
 		LOG.finest("Translating tNGraph...");
-		translator.translate();
+		if (translator.partition) {
+			translator.translateParts();
+		} else {
+			translator.translate();
+		}
 		LOG.finest("TNGraph translated and saved!");
 	}
 
+	/**
+	 * Determines the independent sub-networks of a CSTNU. Two nodes different from Z are in the same sub-network if they are connected by a path
+	 * not containing Z, where each node is considered connected also to the observers of the propositions present in its label and in the labels of
+	 * its edges.<br>
+	 * Each sub-network contains a copy of Z, of its nodes, and of all the edges among them (edges to/from Z included). Since the sub-networks share
+	 * only Z, the CSTNU is dynamic controllable iff all its sub-networks are.<br>
+	 * Sub-networks share the a-label alphabet of g because the upper-case values of the copied edges refer to it.
+	 *
+	 * @param g a CSTNU with Z node.
+	 *
+	 * @return the list of independent sub-networks. Sub-networks are ordered by the name of their first node.
+	 */
+	public static ObjectList<TNGraph<CSTNUEdge>> getIndependentSubnetworks(@Nonnull TNGraph<CSTNUEdge> g) {
+		final LabeledNode Z = g.getZ();
+		if (Z == null) {
+			throw new IllegalArgumentException("The network has no Z node.");
+		}
+		final ObjectArrayList<LabeledNode> nodes = new ObjectArrayList<>(g.getVertices());
+		nodes.sort(null);
+		final Object2IntOpenHashMap<String> index = new Object2IntOpenHashMap<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			index.put(nodes.get(i).getName(), i);
+		}
+		final int[] root = new int[nodes.size()];
+		for (int i = 0; i < root.length; i++) {
+			root[i] = i;
+		}
+		for (final LabeledNode node : nodes) {
+			if (node != Z) {
+				joinObservers(g, root, index, node, node.getLabel());
+			}
+		}
+		for (final CSTNUEdge e : g.getEdges()) {
+			final LabeledNode s = g.getSource(e);
+			final LabeledNode d = g.getDest(e);
+			assert s != null;
+			assert d != null;
+			if (s != Z && d != Z) {
+				union(root, index.getInt(s.getName()), index.getInt(d.getName()));
+			}
+			final LabeledNode node = (s != Z) ? s : d;
+			if (node == Z) {
+				continue;
+			}
+			for (final Label label : e.getLabeledValueMap().keySet()) {
+				joinObservers(g, root, index, node, label);
+			}
+			if (!e.getLowerCaseValue().isEmpty()) {
+				joinObservers(g, root, index, node, e.getLowerCaseValue().getLabel());
+			}
+		}
+
+		// nodes are sorted, so parts are ordered by the name of their first node
+		final Int2IntOpenHashMap rootToPart = new Int2IntOpenHashMap();
+		final ObjectArrayList<TNGraph<CSTNUEdge>> parts = new ObjectArrayList<>();
+		final Object2ObjectOpenHashMap<String, TNGraph<CSTNUEdge>> nodeToPart = new Object2ObjectOpenHashMap<>(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			final LabeledNode node = nodes.get(i);
+			if (node == Z) {
+				continue;
+			}
+			final int r = find(root, i);
+			if (!rootToPart.containsKey(r)) {
+				final TNGraph<CSTNUEdge> part = new TNGraph<>(g.getName() + "_part" + parts.size(), g.getEdgeImplClass(),
+				                                                    g.getALabelAlphabet());
+				final LabeledNode newZ = LabeledNodeSupplier.get(Z);
+				part.addVertex(newZ);
+				part.setZ(newZ);
+				rootToPart.put(r, parts.size());
+				parts.add(part);
+			}
+			final TNGraph<CSTNUEdge> part = parts.get(rootToPart.get(r));
+			part.addVertex(LabeledNodeSupplier.get(node));
+			nodeToPart.put(node.getName(), part);
+		}
+		for (final CSTNUEdge e : g.getEdges()) {
+			final LabeledNode s = g.getSource(e);
+			final LabeledNode d = g.getDest(e);
+			assert s != null;
+			assert d != null;
+			final TNGraph<CSTNUEdge> part = nodeToPart.get(((s != Z) ? s : d).getName());
+			if (part != null) {
+				part.addEdge(part.getEdgeFactory().get(e), s.getName(), d.getName());
+			}
+		}
+		return parts;
+	}
+
+	/**
+	 * @param root union-find forest
+	 * @param i    an element
+	 *
+	 * @return the representative of the set containing i.
+	 */
+	private static int find(int[] root, int i) {
+		while (root[i] != i) {
+			root[i] = root[root[i]];
+			i = root[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Adds to the sub-network of node all the observers of the propositions in label.
+	 *
+	 * @param g     the network
+	 * @param root  union-find forest
+	 * @param index the index of the nodes in the forest
+	 * @param node  a node
+	 * @param label a label
+	 */
+	private static void joinObservers(TNGraph<CSTNUEdge> g, int[] root, Object2IntOpenHashMap<String> index, LabeledNode node, Label label) {
+		for (final char p : label.getPropositions()) {
+			final LabeledNode obs = g.getObserver(p);
+			if (obs != null && obs != g.getZ()) {
+				union(root, index.getInt(node.getName()), index.getInt(obs.getName()));
+			}
+		}
+	}
+
+	/**
+	 * Merges the sets containing i and j.
+	 *
+	 * @param root union-find forest
+	 * @param i    an element
+	 * @param j    an element
+	 */
+	private static void union(int[] root, int i, int j) {
+		root[find(root, i)] = find(root, j);
+	}
+
 	/**
 	 * Remove all character that cannot be part of a TIGA identifier.
 	 *
@@ -419,48 +610,33 @@ public class CSTNU2UppaalTiga {
 
 	/**
 	 * Convert a CSTNU TNGraph g into a Timed Game Automata in the UPPAAL TIGA format.
+	 * <br>
+	 * The automata are written to the output stream while they are determined.
 	 *
 	 * @return true if the translation has been done and saved.
 	 */
 	public boolean translate() {
 		try {
-			final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-			docFactory.setNamespaceAware(true);
-			docFactory.setValidating(true);
-			docFactory.setExpandEntityReferences(false);
-			final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-
-			final DocumentType docType = docBuilder.getDOMImplementation().createDocumentType(
-				"nta",
-				"-//Uppaal Team//DTD Flat System 1.1//EN",
-				"https://www.it.uu.se/research/group/darts/uppaal/flat-1_1.dtd");
-			doc = docBuilder.getDOMImplementation().createDocument(null, "nta", docType);
-
-			final Element rootElement = doc.getDocumentElement();
+			final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+			xml = XMLOutputFactory.newInstance().createXMLStreamWriter(writer);
+			xmlLevel = 0;
+			xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+			xml.writeDTD("<!DOCTYPE nta PUBLIC \"-//Uppaal Team//DTD Flat System 1.1//EN\" " +
+			             "\"https://www.it.uu.se/research/group/darts/uppaal/flat-1_1.dtd\">");
+			startElement("nta");
 
 			// global declaration element
-			// rootElement.appendChild(buildDeclarationElement(doc, g));
+			// writeDeclarationElement();
 
 			// template
-			rootElement.appendChild(buildTemplateElement());
-
-			// Get the implementations
-			final DOMImplementationRegistry registry = DOMImplementationRegistry.newInstance();
-
-			final DOMImplementationLS implLS = (DOMImplementationLS) registry.getDOMImplementation("LS");
-			// Prepare the output
-			final LSOutput domOutput = implLS.createLSOutput();
-			domOutput.setEncoding(StandardCharsets.UTF_8.name());
-			domOutput.setByteStream(output);
-			// Prepare the serialization
-			final LSSerializer domWriter = implLS.createLSSerializer();
-			domWriter.setNewLine("\r\n");
-			final DOMConfiguration domConfig = domWriter.getDomConfig();
-			domConfig.setParameter("format-pretty-print", true);
-			domConfig.setParameter("element-content-whitespace", true);
-			domConfig.setParameter("cdata-sections", Boolean.TRUE);
-			// And finally, write
-			domWriter.write(doc, domOutput);
+			writeTemplateElement();
+
+			endElement();
+			xml.writeCharacters(NEW_LINE);
+			xml.writeEndDocument();
+			xml.flush();
+			xml.close();
+			writer.flush();
 
 			if (fOutput != null) {
 				output.close();
@@ -468,14 +644,135 @@ public class CSTNU2UppaalTiga {
 				output = new PrintStream(name, StandardCharsets.UTF_8);
 			}
 			output.println("control: A[] not _processMain." + GOAL);
-		} catch (ParserConfigurationException | IOException | ClassNotFoundException | InstantiationException |
-		         IllegalAccessException | ClassCastException pce) {
-			LOG.severe(pce.getMessage());
+			if (fOutput != null) {
+				output.close();
+			}
+		} catch (IOException | XMLStreamException e) {
+			LOG.severe(e.getMessage());
 			return false;
+		} finally {
+			xml = null;
 		}
 		return true;
 	}
 
+	/**
+	 * Splits the CSTNU into its independent sub-networks (see {@link #getIndependentSubnetworks(TNGraph)}) and translates each of them into its own
+	 * model and query files in parallel. The file names are the output file name with suffix '_part&lt;i&gt;'.<br>
+	 * If a verifier is given, it is run on each pair of model and query files as soon as they are written. The CSTNU is controllable iff all
+	 * sub-networks are.
+	 *
+	 * @return true if all sub-networks have been translated (and verified, if a verifier is given).
+	 */
+	private boolean translateParts() {
+		final ObjectList<TNGraph<CSTNUEdge>> parts = getIndependentSubnetworks(cstnuGraph);
+		final String baseName = fOutput.getAbsolutePath().replaceFirst("\\.xml$", "");
+		System.out.println("Independent sub-networks: " + parts.size());
+
+		final ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+		final ObjectArrayList<Future<Verdict>> futures = new ObjectArrayList<>(parts.size());
+		for (int i = 0; i < parts.size(); i++) {
+			final TNGraph<CSTNUEdge> part = parts.get(i);
+			final File model = new File(baseName + "_part" + i + ".xml");
+			futures.add(executor.submit(() -> {
+				if (!newPartTranslator(part, model).translate()) {
+					throw new IOException("Sub-network " + part.getName() + " cannot be translated.");
+				}
+				return (verifier == null) ? Verdict.NOT_VERIFIED : verify(model);
+			}));
+		}
+		boolean ok = true;
+		boolean controllable = true;
+		boolean known = true;
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				Verdict verdict;
+				try {
+					verdict = futures.get(i).get();
+				} catch (ExecutionException e) {
+					System.out.println("Sub-network " + i + ": " + e.getCause().getMessage());
+					ok = false;
+					continue;
+				}
+				System.out.println("Sub-network " + i + " (" + parts.get(i).getVertexCount() + " nodes): " + verdict);
+				switch (verdict) {
+					case NOT_SATISFIED -> controllable = false;
+					case NOT_VERIFIED, UNKNOWN -> known = false;
+					case SATISFIED -> {
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			executor.shutdownNow();
+		}
+		if (verifier != null && ok) {
+			System.out.println(
+				(!controllable) ? "The CSTNU is NOT controllable." : (known) ? "The CSTNU is controllable." : "The controllability of the CSTNU is unknown.");
+		}
+		return ok;
+	}
+
+	/**
+	 * Runs the verifier on the given model and on its query file. The output of the verifier is saved in a file with the model name and suffix
+	 * '.out'.
+	 *
+	 * @param model the model file
+	 *
+	 * @return the verdict found in the verifier output.
+	 *
+	 * @throws IOException          if the verifier cannot be run
+	 * @throws InterruptedException if the thread is interrupted while waiting for the verifier
+	 */
+	private Verdict verify(File model) throws IOException, InterruptedException {
+		final String modelName = model.getAbsolutePath();
+		final ObjectArrayList<String> command = new ObjectArrayList<>(verifier.trim().split("\\s+"));
+		command.add(modelName);
+		command.add(modelName.replace(".xml", ".q"));
+		final File log = new File(modelName.replace(".xml", ".out"));
+		final Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+		final int exitCode = process.waitFor();
+		final String out = Files.readString(log.toPath(), StandardCharsets.UTF_8);
+		if (LOG.isLoggable(Level.FINER)) {
+			LOG.finer("Verifier exit code for " + modelName + ": " + exitCode);
+		}
+		if (out.contains("NOT satisfied")) {
+			return Verdict.NOT_SATISFIED;
+		}
+		if (out.contains("satisfied")) {
+			return Verdict.SATISFIED;
+		}
+		return Verdict.UNKNOWN;
+	}
+
+	/**
+	 * @param part  a sub-network of {@link #cstnuGraph}
+	 * @param model the output file
+	 *
+	 * @return a translator for part having the same options of this one.
+	 *
+	 * @throws IOException if the output file cannot be created
+	 */
+	private CSTNU2UppaalTiga newPartTranslator(TNGraph<CSTNUEdge> part, File model) throws IOException {
+		final CSTNU2UppaalTiga translator = new CSTNU2UppaalTiga();
+		translator.AGNES = AGNES;
+		translator.VERA = VERA;
+		translator.GO = GO;
+		translator.GOAL = GOAL;
+		translator.tDelta = tDelta;
+		translator.tG = tG;
+		translator.compact = compact;
+		translator.cstnuGraph = part;
+		if (!translator.checkCSTNUSyntax()) {
+			throw new IllegalArgumentException("Sub-network " + part.getName() + " is not well-formed!");
+		}
+		translator.fOutput = model;
+		translator.output = new PrintStream(model, StandardCharsets.UTF_8);
+		return translator;
+	}
+
 	/**
 	 * In a TGA, a location element contains the declaration of a node.
 	 * <p>In the CSTNU translation, there are three locations:
@@ -486,20 +783,18 @@ public class CSTNU2UppaalTiga {
 	 * </ul>
 	 * Then, there is one location for each CSTNU observation node, (id=nodeName without?).
 	 *
-	 * @param template the root of the document
+	 * @throws XMLStreamException if the element cannot be written
 	 */
-	private void addLocationElements(Element template) {
-		final Document localDoc = template.getOwnerDocument();
-
-		template.appendChild(buildLocationElement(AGNES, true));
-		template.appendChild(buildLocationElement(VERA, false));
-		template.appendChild(buildLocationElement(GOAL, false));
-		template.appendChild(buildLocationElement(GO, true));
+	private void writeLocationElements() throws XMLStreamException {
+		writeLocationElement(AGNES, true);
+		writeLocationElement(VERA, false);
+		writeLocationElement(GOAL, false);
+		writeLocationElement(GO, true);
 
 		// Add an urgent location for each proposition
 		// 13/06/2014: No more!
 		// for (final LabeledNode node : obsNode) {
-		// template.appendChild(buildLocationElement(getObsNodeName(node), true));
+		// writeLocationElement(getObsNodeName(node), true);
 		// }
 
 		if (!compact) {
@@ -507,46 +802,45 @@ public class CSTNU2UppaalTiga {
 			final int n = allConstraintsByLabel.size() - 1;// the empty label does not count!
 			if (n > 0) {
 				for (int i = 1; i < n; i++) {
-					template.appendChild(buildLocationElement(GO + i, true));
+					writeLocationElement(GO + i, true);
 				}
 			}
 		}
 		// The declaration of the initial node
-		final Element init = localDoc.createElement("init");
-		init.setAttribute("ref", AGNES);
-		template.appendChild(init);
+		newLine();
+		xml.writeEmptyElement("init");
+		xml.writeAttribute("ref", AGNES);
 	}
 
 	/**
 	 * In a TGA, a transition element contains the declaration of a transition between two nodes of the automaton. In
 	 * the CSTNU translation, there are 8 kinds of transition.
 	 *
-	 * @param template the input element
+	 * @throws XMLStreamException if the element cannot be written
 	 */
-	private void addTransitionElements(Element template) {
+	private void writeTransitionElements() throws XMLStreamException {
 		// first of all, the always present transitions
-		template.appendChild(doc.createComment("GAIN transition"));
+		writeComment("GAIN transition");
 		// (c1) The transition to guarantee to Agnes to gain the control (GAIN)
 		// It is only one: (vera, tDelta > 0, gain, "", agnes)
-		template.appendChild(buildTransitionElement(VERA, tDelta + " > 0", "gain", "", AGNES, false));
+		writeTransitionElement(VERA, tDelta + " > 0", "gain", "", AGNES, false);
 
-		template.appendChild(doc.createComment("PASS transition"));
+		writeComment("PASS transition");
 		// (c2) The transition to return the control to Vera
 		// It is only one: (vera, tDelta > 0, pass, "", agnes)
-		template.appendChild(buildTransitionElement(AGNES, "", "pass", tDelta + " := 0", VERA, false));
+		writeTransitionElement(AGNES, "", "pass", tDelta + " := 0", VERA, false);
 
-		template.appendChild(doc.createComment("Transitions for clock setting"));
+		writeComment("Transitions for clock setting");
 		// 1) Set of transaction
 		// For each free time-point X there is a non-controllable transaction (agnes, !xX, set_X, xX:=true, tX:=0,
 		// agnes)
 		for (final LabeledNode n : freeNode) {
 			final String exec = getExecutedName(n);
-			template.appendChild(
-				buildTransitionElement(AGNES, "!" + exec, "set_" + exec, exec + " := true," + getClockName(n) + " := 0",
-				                       AGNES, false));
+			writeTransitionElement(AGNES, "!" + exec, "set_" + exec, exec + " := true," + getClockName(n) + " := 0",
+			                       AGNES, false);
 		}
 
-		template.appendChild(doc.createComment("Transitions for proposition setting"));
+		writeComment("Transitions for proposition setting");
 		// 2) Set of transaction
 		// For each Observation node P, there are four transactions
 		// 2.1) (agnes, !xP, set_P, xP:=true, tP:=0, agnes) not controllable, for the clock
@@ -556,24 +850,21 @@ public class CSTNU2UppaalTiga {
 		for (final LabeledNode n : obsNode) {
 			final String exec = getExecutedName(n);
 			final String prop = getPropositionName(n);
-			template.appendChild(buildTransitionElement(AGNES, "!" + exec + AND + prop + " == 0", "set_" + prop,
-			                                            exec + " := true, " + getClockName(n)
-			                                            + " := 0", AGNES, false));
-			template.appendChild(
-				buildTransitionElement(VERA, exec + AND + prop + " == 0", "set_" + prop + "_false",
-				                       prop + " := -1, " + tDelta + " := 0",
-				                       VERA,
-				                       true));
-			template.appendChild(
-				buildTransitionElement(VERA, exec + AND + prop + " == 0", "set_" + prop + "_true",
-				                       prop + " := 1, " + tDelta + " := 0", VERA,
-				                       true));
-			template.appendChild(
-				buildTransitionElement(AGNES, exec + AND + prop + " == 0" + AND + tDelta + " > 0", prop + "not_set", "",
-				                       GOAL, false));
+			writeTransitionElement(AGNES, "!" + exec + AND + prop + " == 0", "set_" + prop,
+			                       exec + " := true, " + getClockName(n)
+			                       + " := 0", AGNES, false);
+			writeTransitionElement(VERA, exec + AND + prop + " == 0", "set_" + prop + "_false",
+			                       prop + " := -1, " + tDelta + " := 0",
+			                       VERA,
+			                       true);
+			writeTransitionElement(VERA, exec + AND + prop + " == 0", "set_" + prop + "_true",
+			                       prop + " := 1, " + tDelta + " := 0", VERA,
+			                       true);
+			writeTransitionElement(AGNES, exec + AND + prop + " == 0" + AND + tDelta + " > 0", prop + "not_set", "",
+			                       GOAL, false);
 		}
 
-		template.appendChild(doc.createComment("Transitions for contingent-constraint setting"));
+		writeComment("Transitions for contingent-constraint setting");
 		// 3) Set of transaction
 		// For each contingent link (A,l,u,C) there is
 		// 3.1) a transaction (vera, Sigma(tC,tA,tG), set_C, "xC:=true, tC:=0, tDelta:=0", vera) where Sigma(tC,tA,tG) := xA && !xC && (tA >= l) && (tA <=
@@ -589,15 +880,14 @@ public class CSTNU2UppaalTiga {
 
 			final String sigma =
 				xA + AND + "!" + xC + AND + "(" + tA + " >= " + c.lower + ")" + AND + "(" + tA + " <= " + c.upper + ")";
-			template.appendChild(
-				buildTransitionElement(VERA, sigma, "set_" + xC, xC + " := true, " + tC + " := 0, " + tDelta + " := 0",
-				                       VERA, true));
+			writeTransitionElement(VERA, sigma, "set_" + xC, xC + " := true, " + tC + " := 0, " + tDelta + " := 0",
+			                       VERA, true);
 
 			final String phi = xA + AND + "!" + xC + AND + "(" + tA + " > " + c.upper + ")";
-			template.appendChild(buildTransitionElement(AGNES, phi, "cv_" + tC, "", GOAL, false));
+			writeTransitionElement(AGNES, phi, "cv_" + tC, "", GOAL, false);
 		}
 
-		template.appendChild(doc.createComment("WIN transitions"));
+		writeComment("WIN transitions");
 		/*
 		 * 4) The transition for the end of the game.
 		 * We split the win transition into two sets:
@@ -652,11 +942,11 @@ public class CSTNU2UppaalTiga {
 				labelOrdinal++;
 				destState = (labelOrdinal == allConstraintsByLabel.size() - 1) ? GOAL : GO + labelOrdinal;
 				for (final Literal lit : label.negation()) {
-					template.appendChild(buildTransitionElement(sourceState, "(" + lit.getName() + " == " +
-					                                                         ((lit.isNegated()) ? "-1" : "1") + ")",
-					                                            "win_labelled%d%s".formatted(labelOrdinal,
-					                                                                         lit.getName()), "",
-					                                            destState, false));
+					writeTransitionElement(sourceState, "(" + lit.getName() + " == " +
+					                                    ((lit.isNegated()) ? "-1" : "1") + ")",
+					                       "win_labelled%d%s".formatted(labelOrdinal,
+					                                                    lit.getName()), "",
+					                       destState, false);
 					if (LOG.isLoggable(Level.FINEST)) {
 						LOG.finest("Transition added= (%s, (%s == %s), win_labelled%d%s, '', %s)".formatted(sourceState,
 						                                                                                    lit.getName(),
@@ -712,9 +1002,8 @@ public class CSTNU2UppaalTiga {
 			if (!compact && !label.isEmpty()) {
 				final String psi2clean = psi2dirty.substring(0, psi2dirty.length() - AND.length());
 				// LOG.finest("psi2" + labelOrdinal + "= " + psi2clean);
-				template.appendChild(
-					buildTransitionElement(sourceState, psi2clean, "win_labelled%d".formatted(labelOrdinal), "",
-					                       destState, false));
+				writeTransitionElement(sourceState, psi2clean, "win_labelled%d".formatted(labelOrdinal), "",
+				                       destState, false);
 				if (LOG.isLoggable(Level.FINEST)) {
 					LOG.finest("Transition added= (%s, %s, win_labelled%d, '', %s)".formatted(sourceState, psi2clean,
 					                                                                          labelOrdinal, destState));
@@ -725,7 +1014,7 @@ public class CSTNU2UppaalTiga {
 
 		// First set
 		final String psi1 = psi1dirty.substring(0, psi1dirty.length() - AND.length());
-		template.appendChild(buildTransitionElement(VERA, psi1, "win_unlabelled", "", GO, false));
+		writeTransitionElement(VERA, psi1, "win_unlabelled", "", GO, false);
 
 		// Second set when !useStatesForScenarios
 		if (LOG.isLoggable(Level.FINEST)) {
@@ -733,7 +1022,7 @@ public class CSTNU2UppaalTiga {
 		}
 		if (allConstraintsByLabel.size() == 1) {
 			// there are no labeled constraints!
-			template.appendChild(buildTransitionElement(GO, "", "win_labelled", "", GOAL, false));
+			writeTransitionElement(GO, "", "win_labelled", "", GOAL, false);
 		} else {
 			if (compact) {
 				final String psi2 = psi2dirty.substring(0, psi2dirty.length() - jboolAnd.length());
@@ -766,13 +1055,24 @@ public class CSTNU2UppaalTiga {
 
 				int i = 0;
 				for (final String psi2Disjunct : psi2DNF.split(" \\| ")) {
-					template.appendChild(
-						buildTransitionElement(GO, psi2Disjunct, "win_labelled_" + i++, "", GOAL, false));
+					writeTransitionElement(GO, psi2Disjunct, "win_labelled_" + i++, "", GOAL, false);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Writes a comment at the current level.
+	 *
+	 * @param comment the comment
+	 *
+	 * @throws XMLStreamException if the comment cannot be written
+	 */
+	private void writeComment(String comment) throws XMLStreamException {
+		newLine();
+		xml.writeComment(comment);
+	}
+
 	/**
 	 * In a TGA, declaration element contains the declaration of all clocks and variables. There are:
 	 * <ol>
@@ -781,11 +1081,9 @@ public class CSTNU2UppaalTiga {
 	 * <li>For each observed proposition P, one integer var 'pP' assuming only value 0, for no set, -1, for false and 1 for true. .
 	 * </ol>
 	 *
-	 * @return the element representing the clock declaration.
+	 * @throws XMLStreamException if the element cannot be written
 	 */
-	private Element buildDeclarationElement() {
-		final Element declaration = doc.createElement("declaration");
-
+	private void writeDeclarationElement() throws XMLStreamException {
 		final StringBuilder clocks = new StringBuilder("clock " + tG + ", " + tDelta);
 		final StringBuilder executed = new StringBuilder(80);
 		final StringBuilder obs = new StringBuilder(32);
@@ -812,61 +1110,57 @@ public class CSTNU2UppaalTiga {
 			obs.append(';');
 		}
 
-		declaration.appendChild(doc.createTextNode(clocks + "\n" + executed + "\n" + obs));
-		return declaration;
+		writeTextElement("declaration", null, null, clocks + "\n" + executed + "\n" + obs);
 	}
 
 	/**
-	 * Build a location element with id and name = id and urgent child if urgent is true.
+	 * Writes a location element with id and name = id and urgent child if urgent is true.
 	 *
 	 * @param id     the input id
 	 * @param urgent if true, it adds a child element to represent 'urgent'.
-	 * @return the location element
-	 */
-	private Element buildLocationElement(String id, Boolean urgent) {
-		final Element location = doc.createElement("location");
-		location.setAttribute("id", id);
-		final Element name = doc.createElement("name");
-		name.appendChild(doc.createTextNode(id));
-		location.appendChild(name);
+	 *
+	 * @throws XMLStreamException if the element cannot be written
+	 */
+	private void writeLocationElement(String id, boolean urgent) throws XMLStreamException {
+		startElement("location");
+		xml.writeAttribute("id", id);
+		writeTextElement("name", null, null, id);
 		if (urgent) {
-			location.appendChild(doc.createElement("urgent"));
+			newLine();
+			xml.writeEmptyElement("urgent");
 		}
-		return location;
+		endElement();
 	}
 
 	/**
 	 * In a TGA, template element contains the declaration of all nodes and transitions.
+	 * <br>
+	 * Each part is written as soon as it is determined, so that the model is never kept in memory.
 	 *
-	 * @return the element representing all clock, node, and transition declaration.
+	 * @throws XMLStreamException if the element cannot be written
 	 */
-	private Element buildTemplateElement() {
-		final Element template = doc.createElement("template");
+	private void writeTemplateElement() throws XMLStreamException {
+		startElement("template");
 
 		// name
-		final Element name = doc.createElement("name");
-		name.appendChild(doc.createTextNode(getTgaName(cstnuGraph)));
-		template.appendChild(name);
+		writeTextElement("name", null, null, getTgaName(cstnuGraph));
 
 		// local declaration
-		template.appendChild(doc.createComment("Clock and proposition declarations"));
-		template.appendChild(buildDeclarationElement());
+		writeComment("Clock and proposition declarations");
+		writeDeclarationElement();
 
-		template.appendChild(doc.createComment("LabeledNode declarations"));
-		addLocationElements(template);
+		writeComment("LabeledNode declarations");
+		writeLocationElements();
 
-		template.appendChild(doc.createComment("Transition declarations"));
-		addTransitionElements(template);
+		writeComment("Transition declarations");
+		writeTransitionElements();
 
-		final Element system = doc.createElement("system");
-		system.appendChild(
-			doc.createTextNode("_processMain = " + getTgaName(cstnuGraph) + "();\n\t\tsystem _processMain;"));
-		template.appendChild(system);
-		return template;
+		writeTextElement("system", null, null, "_processMain = " + getTgaName(cstnuGraph) + "();\n\t\tsystem _processMain;");
+		endElement();
 	}
 
 	/**
-	 * Build a transition element with source, target, guard, assignment, controllable attributes.
+	 * Writes a transition element with source, target, guard, assignment, controllable attributes.
 	 *
 	 * @param source       source id
 	 * @param guard        guard expression
@@ -874,33 +1168,88 @@ public class CSTNU2UppaalTiga {
 	 * @param assignment   assignment expression
 	 * @param target       target id
 	 * @param controllable true if the transition is controllable, false otherwise.
-	 * @return the location element
+	 *
+	 * @throws XMLStreamException if the element cannot be written
 	 */
-	private Element buildTransitionElement(
-		String source, String guard, String action, String assignment, String target, boolean controllable) {
-		final Element transition = doc.createElement("transition");
-		transition.setAttribute("controllable", controllable ? "true" : "false");
-		transition.setAttribute("action", action);
-
-		final Element sourceE = doc.createElement("source");
-		sourceE.setAttribute("ref", source);
-		transition.appendChild(sourceE);
+	private void writeTransitionElement(
+		String source, String guard, String action, String assignment, String target, boolean controllable) throws XMLStreamException {
+		startElement("transition");
+		xml.writeAttribute("action", action);
+		xml.writeAttribute("controllable", controllable ? "true" : "false");
+
+		newLine();
+		xml.writeEmptyElement("source");
+		xml.writeAttribute("ref", source);
+
+		newLine();
+		xml.writeEmptyElement("target");
+		xml.writeAttribute("ref", target);
+
+		writeTextElement("label", "kind", "guard", guard);
+		writeTextElement("label", "kind", "assignment", assignment);
+		endElement();
+	}
 
-		final Element targetE = doc.createElement("target");
-		targetE.setAttribute("ref", target);
-		transition.appendChild(targetE);
+	/**
+	 * Writes an element containing only text at the current level. If the text is empty, the element is written as empty element.
+	 *
+	 * @param name      element name
+	 * @param attribute attribute name. If null, the element has no attributes.
+	 * @param value     attribute value
+	 * @param text      the text content
+	 *
+	 * @throws XMLStreamException if the element cannot be written
+	 */
+	private void writeTextElement(String name, String attribute, String value, String text) throws XMLStreamException {
+		newLine();
+		if (text.isEmpty()) {
+			xml.writeEmptyElement(name);
+		} else {
+			xml.writeStartElement(name);
+		}
+		if (attribute != null) {
+			xml.writeAttribute(attribute, value);
+		}
+		if (!text.isEmpty()) {
+			xml.writeCharacters(text.replace("\n", NEW_LINE));
+			xml.writeEndElement();
+		}
+	}
 
-		Element label = doc.createElement("label");
-		label.setAttribute("kind", "guard");
-		label.appendChild(doc.createTextNode(guard));
-		transition.appendChild(label);
+	/**
+	 * Writes the start tag of an element at the current level and moves to the next level.
+	 *
+	 * @param name element name
+	 *
+	 * @throws XMLStreamException if the element cannot be written
+	 */
+	private void startElement(String name) throws XMLStreamException {
+		newLine();
+		xml.writeStartElement(name);
+		xmlLevel++;
+	}
 
-		label = doc.createElement("label");
-		label.setAttribute("kind", "assignment");
-		label.appendChild(doc.createTextNode(assignment));
-		transition.appendChild(label);
+	/**
+	 * Writes the end tag of the current element and returns to the previous level.
+	 *
+	 * @throws XMLStreamException if the element cannot be written
+	 */
+	private void endElement() throws XMLStreamException {
+		xmlLevel--;
+		newLine();
+		xml.writeEndElement();
+	}
 
-		return transition;
+	/**
+	 * Writes a new line and the indentation of the current level.
+	 *
+	 * @throws XMLStreamException if the characters cannot be written
+	 */
+	private void newLine() throws XMLStreamException {
+		xml.writeCharacters(NEW_LINE);
+		for (int i = xmlLevel; i-- != 0; ) {
+			xml.writeCharacters(INDENT);
+		}
 	}
 
 	/**
@@ -934,6 +1283,15 @@ public class CSTNU2UppaalTiga {
 			if (!fInput.exists()) {
 				throw new CmdLineException(parser, "Input file does not exist.");
 			}
+			if (partition && fOutput == null) {
+				throw new CmdLineException(parser, "Option --partition requires an output file.");
+			}
+			if (verifier != null && !partition) {
+				throw new CmdLineException(parser, "Option --verifier requires option --partition.");
+			}
+			if (nThreads < 1) {
+				throw new CmdLineException(parser, "The number of threads must be positive.");
+			}
 
 			if (fOutput != null) {
 				if (fOutput.isDirectory()) {
@@ -950,10 +1308,13 @@ public class CSTNU2UppaalTiga {
 						throw new IllegalStateException(m);
 					}
 				}
-				if (!fOutput.createNewFile()) {
-					LOG.warning("Cannot create " + fOutput.getName());
+				if (!partition) {
+					// in partition mode, each sub-network has its own files.
+					if (!fOutput.createNewFile()) {
+						LOG.warning("Cannot create " + fOutput.getName());
+					}
+					output = new PrintStream(fOutput, StandardCharsets.UTF_8);
 				}
-				output = new PrintStream(fOutput, StandardCharsets.UTF_8);
 			} else {
 				output = System.out;
 			}
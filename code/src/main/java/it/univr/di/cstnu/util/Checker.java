@@ -344,7 +344,7 @@ public class Checker {
 	/**
 	 * The input file names. Each file has to contain a CSTN graph in GraphML format.
 	 */
-	@Argument(required = true, usage = "Input files. Each input file has to be a CSTN graph in GraphML format.",
+	@Argument(required = true, usage = "Input files. Each input file has to be a CSTN graph in GraphML format or a corpus index (" + CorpusIndex.DEFAULT_FILE_NAME + ").",
 		metaVar = "CSTN_file_names", handler = StringArrayOptionHandler.class)
 	private String[] inputFiles;
 	/**
@@ -410,6 +410,25 @@ public class Checker {
 	 */
 	@Option(name = "--timeOut", usage = "Time in seconds.")
 	private int timeOut = 1200; // 20 min
+	/**
+	 * Parameter for using the persistent result cache.
+	 */
+	@Option(name = "--useCache", usage = "Reuse the results of previous checks of the same instances with the same parameters stored in the result cache.")
+	private boolean useCache;
+	/**
+	 * Directory of the result cache.
+	 */
+	@Option(name = "--cacheDir", depends = "--useCache", usage = "Directory of the result cache.", metaVar = "directory")
+	private File cacheDir = new File(ResultCache.DEFAULT_DIRECTORY);
+	/**
+	 * Maximum size of the result cache.
+	 */
+	@Option(name = "--cacheSize", depends = "--useCache", usage = "Maximum size of the result cache in MB.")
+	private int cacheSizeMB = ResultCache.DEFAULT_SIZE_MB;
+	/**
+	 * Result cache. Null if {@link #useCache} is false.
+	 */
+	private ResultCache resultCache;
 	/**
 	 * Software Version.
 	 */
@@ -425,7 +444,7 @@ public class Checker {
 	 * Parameter for asking which algorithm to use for checking STNU.
 	 */
 	@Option(name = "--stnuCheck",
-		usage = "Which algorithm to use for checking STNU network. (use one of such keywords: Morris2014 RUL2018 RUL2021 FastSTNUdispatch)")
+		usage = "Which algorithm to use for checking STNU network. (use one of such keywords: Morris2014 Morris2014Parallel RUL2018 RUL2021 FastSTNUdispatch)")
 	private STNU.CheckAlgorithm stnuCheckAlgorithm = CheckAlgorithm.RUL2021;
 	/**
 	 * Global header
@@ -553,6 +572,15 @@ public class Checker {
 		}
 		currentEdgeFactory = new EdgeSupplier<>(currentEdgeImplClass);
 
+		if (useCache) {
+			try {
+				resultCache = new ResultCache(cacheDir, cacheSizeMB);
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("Result cache " + cacheDir + " cannot be opened: " + e.getMessage() + ". Game over :-/");
+				return false;
+			}
+		}
+
 		// LOG.finest("File number: " + this.fileNameInput.length);
 		// LOG.finest("File names: " + Arrays.deepToString(this.fileNameInput));
 		instances = new ArrayList<>(inputFiles.length);
@@ -564,6 +592,20 @@ public class Checker {
 				System.err.println();
 				return false;
 			}
+			if (file.getName().endsWith(CorpusIndex.DEFAULT_FILE_NAME)) {
+				// a corpus index: its GraphML instances of the given type are added ordered by size without opening them.
+				try {
+					for (final File instance : CorpusIndex.select(file, networkType)) {
+						if (instance.getName().endsWith(suffix)) {
+							instances.add(instance);
+						}
+					}
+				} catch (IOException e) {
+					System.err.println("Index " + fileName + " cannot be read: " + e.getMessage() + ". Game over :-/");
+					return false;
+				}
+				continue;
+			}
 			if (!file.getName().endsWith(suffix)) {
 				System.err.println("File " + fileName
 				                   +
@@ -843,6 +885,34 @@ public class Checker {
 			                                              globalNegativeFromContingentStatistics);
 		}
 
+		final String rowPrefix = rowToWrite;
+		String cacheKey = null;
+		ResultCache.Result cacheResult = null;
+		if (resultCache != null) {
+			cacheKey = ResultCache.key(graphToCheck, networkType.name(), getCacheParameters());
+			// with --save, instances are always checked for saving the checked ones.
+			final ResultCache.Result cached = (save) ? null : resultCache.get(cacheKey);
+			if (cached != null) {
+				cached.replay("executionTimeInSec", globalExecutionTimeStatisticsInSec);
+				cached.replay("prototypalTimeInSec", globalPrototypalTimeStatisticsInSec);
+				cached.replay("ruleExecution", globalRuleExecutionStatistics);
+				cached.replay("addedEdge", globalAddedEdgeStatistics);
+				cached.replay("waitAndOrdEdge", globalWaitAndOrdEdgeStatistics);
+				cached.replay("negativeFromContingent", globalNegativeFromContingentStatistics);
+				output.println(rowPrefix + cached.row());
+				output.flush();
+				runState.printProgress();
+				return cached.isFinished();
+			}
+			cacheResult = new ResultCache.Result();
+			globalExecutionTimeStatisticsInSec = cacheResult.track("executionTimeInSec", globalExecutionTimeStatisticsInSec);
+			globalPrototypalTimeStatisticsInSec = cacheResult.track("prototypalTimeInSec", globalPrototypalTimeStatisticsInSec);
+			globalRuleExecutionStatistics = cacheResult.track("ruleExecution", globalRuleExecutionStatistics);
+			globalAddedEdgeStatistics = cacheResult.track("addedEdge", globalAddedEdgeStatistics);
+			globalWaitAndOrdEdgeStatistics = cacheResult.track("waitAndOrdEdge", globalWaitAndOrdEdgeStatistics);
+			globalNegativeFromContingentStatistics = cacheResult.track("negativeFromContingent", globalNegativeFromContingentStatistics);
+		}
+
 		final String msg =
 			getNow() + ": Determining DC check execution time of " + file.getName() + " repeating DC check for "
 			+ nDCRepetition + " times.";
@@ -875,6 +945,11 @@ public class Checker {
 			output.flush();
 			//			}
 			globalExecutionTimeStatisticsInSec.addValue(timeOut);
+			if (cacheResult != null && status.executionTimeNS != Constants.INT_NULL) {
+				// only timeouts are cached, generic errors are not.
+				cacheResult.setRow(rowToWrite.substring(rowPrefix.length()));
+				resultCache.put(cacheKey, cacheResult);
+			}
 			runState.printProgress();
 			return false;
 		}
@@ -969,12 +1044,28 @@ public class Checker {
 			                           );
 
 		}
+		if (cacheResult != null) {
+			cacheResult.setRow(rowToWrite.substring(rowPrefix.length()));
+			cacheResult.setFinished(true);
+			cacheResult.setConsistent(status.consistency);
+			resultCache.put(cacheKey, cacheResult);
+		}
 		output.println(rowToWrite);
 		output.flush();
 		runState.printProgress();
 		return true;
 	}
 
+	/**
+	 * @return the string representing all the parameters that can influence the result of a check. It is used for determining the key of a
+	 * 	result in the result cache.
+	 */
+	private String getCacheParameters() {
+		return "semantics=" + dcSemantics + ";reactionTime=" + reactionTime + ";stnuCheck=" + stnuCheckAlgorithm + ";potential=" + potential +
+		       ";woNodeLabels=" + woNodeLabels + ";cstn2cstn0=" + cstn2cstn0 + ";cstnu2cstn=" + cstnu2cstn + ";onlyLPQR0QR3=" + onlyLPQR0QR3OrToZ +
+		       ";nDCRepetition=" + nDCRepetition + ";timeOut=" + timeOut;
+	}
+
 	/**
 	 * @return true if the input graph represents a CSTN instance
 	 */
@@ -1502,6 +1593,10 @@ public class Checker {
 		LOG.info(msg);
 		System.out.println("\n" + getNow() + ": " + msg);
 
+		if (tester.resultCache != null) {
+			System.out.println(getNow() + ": " + tester.resultCache);
+		}
+
 		tester.output.printf(GLOBAL_HEADER);
 
 		for (final it.unimi.dsi.fastutil.objects.Object2ObjectMap.Entry<GlobalStatisticKey, SummaryStatistics> entry : groupExecutionTimeStatisticsInSec.object2ObjectEntrySet()) {
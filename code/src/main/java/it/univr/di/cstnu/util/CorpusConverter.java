@@ -0,0 +1,343 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.util;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.univr.di.cstnu.graph.TNGraphBinaryReader;
+import it.univr.di.cstnu.graph.TNGraphBinaryWriter;
+import org.kohsuke.args4j.Argument;
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.kohsuke.args4j.spi.StringArrayOptionHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Walks a directory tree converting, in parallel, the instance files by one of the available file converters and, then, writes a corpus index (see
+ * {@link CorpusIndex}) of all instances in the tree.
+ * <br>
+ * The parallelism is bounded by a fixed thread pool. The index is written in the root directory and the file paths inside it are relative to the
+ * root.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class CorpusConverter {
+
+	/**
+	 * Available conversions.
+	 */
+	public enum Conversion {
+		/**
+		 * No conversion, only the index is built.
+		 */
+		NONE(null),
+		/**
+		 * GraphML to binary format by {@link GraphML2Binary}.
+		 */
+		GRAPHML2BINARY(CorpusIndex.GRAPHML_INSTANCE),
+		/**
+		 * Binary format to GraphML by {@link GraphML2Binary}.
+		 */
+		BINARY2GRAPHML(Pattern.compile(".*" + Pattern.quote(TNGraphBinaryWriter.FILE_EXTENSION) + "$")),
+		/**
+		 * STNU in GraphML to Luke's format by {@link GraphML2Luke}.
+		 */
+		GRAPHML2LUKE(Pattern.compile(".*\\.stnu$")),
+		/**
+		 * Luke's format to GraphML by {@link Luke2GraphML}.
+		 */
+		LUKE2GRAPHML(Pattern.compile(".*\\.plain\\w*$"));
+
+		/**
+		 * Default pattern of the input file names.
+		 */
+		final Pattern defaultPattern;
+
+		/**
+		 * @param pattern default pattern of the input file names.
+		 */
+		Conversion(Pattern pattern) {
+			defaultPattern = pattern;
+		}
+
+		/**
+		 * Converts the given file.
+		 *
+		 * @param file    input file
+		 * @param options options for the converter
+		 *
+		 * @throws IOException if the file cannot be converted.
+		 */
+		void convert(File file, String[] options) throws IOException {
+			final String[] args = new String[options.length + 1];
+			System.arraycopy(options, 0, args, 0, options.length);
+			args[options.length] = file.getPath();
+			switch (this) {
+				case GRAPHML2BINARY -> {
+					if (!TNGraphBinaryReader.isBinaryNetwork(file)) {
+						GraphML2Binary.main(args);
+					}
+				}
+				case BINARY2GRAPHML -> {
+					if (TNGraphBinaryReader.isBinaryNetwork(file)) {
+						GraphML2Binary.main(args);
+					}
+				}
+				case GRAPHML2LUKE -> GraphML2Luke.main(args);
+				case LUKE2GRAPHML -> Luke2GraphML.main(args);
+				case NONE -> {
+				}
+			}
+		}
+	}
+
+	/**
+	 * class logger
+	 */
+	static final Logger LOG = Logger.getLogger(CorpusConverter.class.getName());
+
+	/**
+	 * Version
+	 */
+	static final String VERSIONandDATE = "1.0, October, 18 2026";
+
+	/**
+	 * Date formatter
+	 */
+	private final static SimpleDateFormat dateFormatter = new SimpleDateFormat("yyyy.MM.dd HH:mm:ss");
+
+	/**
+	 * @param args the root directory and the options.
+	 *
+	 * @throws IOException if the directory tree cannot be walked or the index cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		LOG.finest("Start...");
+		final CorpusConverter converter = new CorpusConverter();
+		if (!converter.manageParameters(args)) {
+			return;
+		}
+		LOG.finest("Parameters ok!");
+		if (converter.versionReq) {
+			System.out.print(
+				CorpusConverter.class.getName() + " " + VERSIONandDATE + ". Academic and non-commercial use only.\n" +
+				"Copyright © 2016-2026 Roberto Posenato");
+			return;
+		}
+		System.out.println(getNow() + ": #Threads: " + converter.nThreads);
+		final ExecutorService executor = Executors.newFixedThreadPool(converter.nThreads);
+		try {
+			if (converter.conversion != Conversion.NONE) {
+				final List<File> toConvert = converter.walk(converter.pattern);
+				System.out.println(getNow() + ": Files to convert with " + converter.conversion + ": " + toConvert.size());
+				final RunMeter runMeter = new RunMeter(System.currentTimeMillis(), toConvert.size(), 0);
+				final ObjectArrayList<Future<Boolean>> futures = new ObjectArrayList<>(toConvert.size());
+				for (final File file : toConvert) {
+					futures.add(executor.submit(() -> {
+						converter.conversion.convert(file, converter.toolOptions);
+						runMeter.printProgress();
+						return Boolean.TRUE;
+					}));
+				}
+				final int nOk = waitAll(futures, toConvert);
+				System.out.println("\n" + getNow() + ": Files converted successfully over total: " + nOk + "/" + toConvert.size() + ".");
+			}
+
+			final List<File> instances = converter.walk(null);
+			System.out.println(getNow() + ": Instances to index: " + instances.size());
+			final RunMeter runMeter = new RunMeter(System.currentTimeMillis(), instances.size(), 0);
+			final ObjectArrayList<Future<CorpusIndex.Entry>> futures = new ObjectArrayList<>(instances.size());
+			for (final File file : instances) {
+				futures.add(executor.submit(() -> {
+					final CorpusIndex.Entry entry = CorpusIndex.describe(converter.rootDir, file);
+					runMeter.printProgress();
+					return entry;
+				}));
+			}
+			final ObjectArrayList<CorpusIndex.Entry> entries = new ObjectArrayList<>(instances.size());
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					entries.add(futures.get(i).get());
+				} catch (final Exception ex) {
+					System.out.println("\nFile " + instances.get(i) + " cannot be indexed: " + ex.getMessage() + ". File ignored.");
+				}
+			}
+			CorpusIndex.write(converter.indexFile, entries);
+			System.out.println("\n" + getNow() + ": Index of " + entries.size() + " instances saved into file " + converter.indexFile);
+		} finally {
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+					executor.shutdownNow();
+				}
+			} catch (final InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * @return current time in {@link #dateFormatter} format
+	 */
+	private static String getNow() {
+		return dateFormatter.format(new Date());
+	}
+
+	/**
+	 * Waits the end of all tasks.
+	 *
+	 * @param futures the tasks
+	 * @param files   the files associated to the tasks
+	 *
+	 * @return the number of tasks finished successfully.
+	 */
+	private static int waitAll(List<Future<Boolean>> futures, List<File> files) {
+		int nOk = 0;
+		for (int i = 0; i < futures.size(); i++) {
+			final Future<Boolean> f = futures.get(i);
+			try {
+				if (f.get()) {
+					nOk++;
+				}
+			} catch (final Exception ex) {
+				System.out.println("\nA problem occurred converting file " + files.get(i) + ": " + ex.getMessage() + ". File ignored.");
+			} finally {
+				if (!f.isDone()) {
+					LOG.warning("It is necessary to cancel the task before continuing.");
+					f.cancel(true);
+				}
+			}
+		}
+		return nOk;
+	}
+
+	/**
+	 * Conversion to apply.
+	 */
+	@Option(name = "-c", aliases = "--conversion", usage = "Conversion to apply to each file of the tree before indexing.")
+	private Conversion conversion = Conversion.NONE;
+
+	/**
+	 * Index file.
+	 */
+	@Option(name = "-i", aliases = "--index", usage = "Index file. Default is '" + CorpusIndex.DEFAULT_FILE_NAME + "' in the root directory.",
+		metaVar = "indexFile")
+	@SuppressFBWarnings(value = "UWF_NULL_FIELD", justification = "This field is set by parser.parseArgument.")
+	private File indexFile;
+
+	/**
+	 * Number of threads.
+	 */
+	@Option(name = "--nThreads", usage = "Number of threads used to convert and to index files in parallel. Default is the number of available processors.")
+	private int nThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Pattern of the files to convert.
+	 */
+	private Pattern pattern;
+
+	/**
+	 * Regular expression of the files to convert.
+	 */
+	@Option(name = "-p", aliases = "--pattern", usage = "Regular expression that the names of the files to convert must match. Default depends on the conversion.",
+		metaVar = "regex")
+	private String patternRegex;
+
+	/**
+	 * Root directory.
+	 */
+	private File rootDir;
+
+	/**
+	 * The root directory name.
+	 */
+	@Argument(required = true, usage = "Root directory of the corpus.", metaVar = "directory")
+	private String rootDirName;
+
+	/**
+	 * Options for the conversion tool.
+	 */
+	@Option(name = "--toolOptions", usage = "Options passed to the conversion tool for each file.", handler = StringArrayOptionHandler.class,
+		metaVar = "options")
+	private String[] toolOptions = new String[0];
+
+	/**
+	 * Software Version.
+	 */
+	@Option(name = "-v", aliases = "--version", usage = "Version")
+	private boolean versionReq;
+
+	/**
+	 * Simple method to manage command line parameters using args4j library.
+	 *
+	 * @param args the input parameters
+	 *
+	 * @return false if a parameter is missing, or it is wrong. True if every parameter is given in a right format.
+	 */
+	private boolean manageParameters(String[] args) {
+		final CmdLineParser parser = new CmdLineParser(this);
+		try {
+			parser.parseArgument(args);
+		} catch (CmdLineException e) {
+			System.err.println(e.getMessage());
+			System.err.println("java -cp CSTNU-<version>.jar " + CorpusConverter.class.getCanonicalName() + " [options...] argument.");
+			parser.printUsage(System.err);
+			System.err.println();
+			return false;
+		}
+		rootDir = new File(rootDirName);
+		if (!rootDir.isDirectory()) {
+			System.err.println("Directory " + rootDir + " does not exit.");
+			parser.printUsage(System.err);
+			System.err.println();
+			return false;
+		}
+		if (nThreads < 1) {
+			System.err.println("The number of threads must be positive.");
+			return false;
+		}
+		pattern = (patternRegex != null) ? Pattern.compile(patternRegex) : conversion.defaultPattern;
+		if (indexFile == null) {
+			indexFile = new File(rootDir, CorpusIndex.DEFAULT_FILE_NAME);
+		}
+		if (LOG.isLoggable(Level.FINEST)) {
+			LOG.finest("Root: " + rootDir + ". Conversion: " + conversion + ". Pattern: " + pattern + ". Index: " + indexFile);
+		}
+		return true;
+	}
+
+	/**
+	 * @param filePattern pattern of the wanted file names. If null, all instance files (see {@link CorpusIndex#isInstance(File)}) are returned.
+	 *
+	 * @return the files in the tree rooted at {@link #rootDir} whose name matches filePattern, in path order.
+	 *
+	 * @throws IOException if the tree cannot be walked.
+	 */
+	private List<File> walk(Pattern filePattern) throws IOException {
+		final ObjectArrayList<File> files = new ObjectArrayList<>();
+		try (final Stream<Path> paths = Files.walk(rootDir.toPath())) {
+			paths.sorted().map(Path::toFile).filter(
+				f -> (filePattern == null) ? CorpusIndex.isInstance(f) : f.isFile() && filePattern.matcher(f.getName()).matches()).forEach(files::add);
+		}
+		return files;
+	}
+}
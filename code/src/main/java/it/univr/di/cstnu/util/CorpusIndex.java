@@ -0,0 +1,305 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.util;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.univr.di.cstnu.graph.*;
+import it.univr.di.cstnu.graph.TNGraph.NetworkType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Index of a corpus of network instances.
+ * <br>
+ * An index is a CSV file (separator {@value #CSVSep}) where each row describes an instance: file path (relative to the directory containing the index),
+ * network type, number of nodes, edges, contingent nodes, and observers, and DC status (when known from the file name or from the directory name).
+ * <br>
+ * It is written by {@link CorpusConverter} and it allows the selection/ordering of instances without opening every file (see
+ * {@link #select(File, NetworkType)}).
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public final class CorpusIndex {
+
+	/**
+	 * DC status of an instance.
+	 */
+	public enum DCStatus {
+		/**
+		 * Dynamic consistent/controllable.
+		 */
+		DC,
+		/**
+		 * Not dynamic consistent/controllable.
+		 */
+		NOT_DC,
+		/**
+		 * Not known.
+		 */
+		UNKNOWN;
+
+		/**
+		 * Determines the DC status from the name of the file or of its directory as they are built by random generators (e.g.,
+		 * {@link STNURandomGenerator}) and by the save methods of checking algorithms.
+		 *
+		 * @param file an instance file
+		 *
+		 * @return the DC status suggested by the file name.
+		 */
+		public static DCStatus of(@Nonnull File file) {
+			final String name = file.getName();
+			if (name.startsWith("notDC") || name.contains("_checked_NOTDC")) {
+				return NOT_DC;
+			}
+			if (name.startsWith("dc") || name.contains("_checked_DC")) {
+				return DC;
+			}
+			final File parent = file.getParentFile();
+			if (parent != null) {
+				final String dir = parent.getName();
+				if (dir.startsWith("NotControllable") || dir.startsWith("NotConsistent")) {
+					return NOT_DC;
+				}
+				if (dir.startsWith("Controllable") || dir.startsWith("Consistent")) {
+					return DC;
+				}
+			}
+			return UNKNOWN;
+		}
+	}
+
+	/**
+	 * A row of the index.
+	 *
+	 * @param file        the path of the instance relative to the directory of the index
+	 * @param type        network type
+	 * @param nodes       number of nodes
+	 * @param edges       number of edges
+	 * @param contingents number of contingent nodes
+	 * @param observers   number of observer nodes
+	 * @param dcStatus    DC status
+	 */
+	public record Entry(@Nonnull String file, @Nonnull NetworkType type, int nodes, int edges, int contingents, int observers,
+	                    @Nonnull DCStatus dcStatus) {
+		/**
+		 * Order used by {@link #select(File, NetworkType)}: nodes, edges, contingents, observers, and file name.
+		 */
+		public static final Comparator<Entry> SIZE_ORDER =
+			Comparator.comparingInt(Entry::nodes).thenComparingInt(Entry::edges).thenComparingInt(Entry::contingents).thenComparingInt(Entry::observers)
+				.thenComparing(Entry::file);
+
+		/**
+		 * @return the row representing this entry.
+		 */
+		String toCSV() {
+			return file + CSVSep + type + CSVSep + nodes + CSVSep + edges + CSVSep + contingents + CSVSep + observers + CSVSep + dcStatus;
+		}
+	}
+
+	/**
+	 * CSV separator
+	 */
+	static final String CSVSep = ";\t";
+
+	/**
+	 * Default name of an index file.
+	 */
+	public static final String DEFAULT_FILE_NAME = "corpus.index.csv";
+
+	/**
+	 * Header of the index file.
+	 */
+	static final String HEADER = "fileName" + CSVSep + "networkType" + CSVSep + "#nodes" + CSVSep + "#edges" + CSVSep + "#contingents" + CSVSep +
+	                             "#observers" + CSVSep + "DCStatus";
+
+	/**
+	 * Suffix of instance files in GraphML format.
+	 */
+	static final Pattern GRAPHML_INSTANCE = Pattern.compile(".*\\.(stn|stnu|pstn|ostnu|cstn|cstnu|cstnpsu|pcstnu|graphml)(\\.gz)?$");
+
+	/**
+	 * @param file a file
+	 *
+	 * @return true if file is an instance file that can be described by {@link #describe(File, File)}.
+	 */
+	public static boolean isInstance(@Nonnull File file) {
+		return file.isFile() && (GRAPHML_INSTANCE.matcher(file.getName()).matches() || file.getName().endsWith(TNGraphBinaryWriter.FILE_EXTENSION));
+	}
+
+	/**
+	 * Describes the given instance file.
+	 * <br>
+	 * For a GraphML file, the sizes are taken from the graph attributes written by {@link TNGraphMLWriter}. The file is loaded only when some of such
+	 * attributes are missing.
+	 *
+	 * @param baseDir directory with respect to the file path is made relative.
+	 * @param file    an instance file
+	 *
+	 * @return the entry describing file.
+	 *
+	 * @throws IOException if the file cannot be read or it is not a valid instance.
+	 */
+	public static Entry describe(@Nonnull File baseDir, @Nonnull File file) throws IOException {
+		final String path = baseDir.toPath().toAbsolutePath().normalize().relativize(file.toPath().toAbsolutePath().normalize()).toString();
+		final DCStatus dcStatus = DCStatus.of(file);
+		if (file.getName().endsWith(TNGraphBinaryWriter.FILE_EXTENSION)) {
+			final NetworkType type = TNGraphBinaryReader.getNetworkType(file);
+			return describe(path, type, new TNGraphBinaryReader<>().readGraph(file, GraphML2Binary.edgeClassOf(type)), dcStatus);
+		}
+		if (!file.getName().endsWith(TNGraphMLStreamWriter.GZIP_SUFFIX)) {
+			final Object2ObjectOpenHashMap<String, String> graphData = GraphML2Binary.readGraphMLGraphData(file);
+			final NetworkType type = GraphML2Binary.getGraphMLNetworkType(file);
+			final int nodes = toInt(graphData.get(TNGraphMLWriter.GRAPH_nVERTICES_KEY));
+			final int edges = toInt(graphData.get(TNGraphMLWriter.GRAPH_nEDGES_KEY));
+			final int contingents = (hasContingents(type)) ? toInt(graphData.get(TNGraphMLWriter.GRAPH_nCTG_KEY)) : 0;
+			final int observers = (hasObservers(type)) ? toInt(graphData.get(TNGraphMLWriter.GRAPH_nOBS_KEY)) : 0;
+			if (nodes > 0 && edges >= 0 && contingents >= 0 && observers >= 0) {
+				return new Entry(path, type, nodes, edges, contingents, observers, dcStatus);
+			}
+			return describe(path, type, new TNGraphMLStreamReader<>().readGraph(file, GraphML2Binary.edgeClassOf(type)), dcStatus);
+		}
+		// gzip-compressed GraphML file: type is not known without decompression
+		final TNGraph<Edge> g = new TNGraphMLStreamReader<>().readGraph(file, EdgeSupplier.DEFAULT_CSTNU_EDGE_CLASS);
+		return describe(path, g.getType(), g, dcStatus);
+	}
+
+	/**
+	 * Reads an index file.
+	 *
+	 * @param indexFile the index
+	 *
+	 * @return the list of entries of the index.
+	 *
+	 * @throws IOException if the index cannot be read or if it is not well-formed.
+	 */
+	public static List<Entry> read(@Nonnull File indexFile) throws IOException {
+		final ObjectArrayList<Entry> entries = new ObjectArrayList<>();
+		try (final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			if (!HEADER.equals(line)) {
+				throw new IOException("File " + indexFile + " is not a corpus index.");
+			}
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				final String[] field = line.split(CSVSep);
+				if (field.length != 7) {
+					throw new IOException("Row '" + line + "' of file " + indexFile + " is not well-formed.");
+				}
+				try {
+					entries.add(new Entry(field[0], NetworkType.valueOf(field[1]), Integer.parseInt(field[2]), Integer.parseInt(field[3]),
+					                      Integer.parseInt(field[4]), Integer.parseInt(field[5]), DCStatus.valueOf(field[6])));
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Row '" + line + "' of file " + indexFile + " is not well-formed.", e);
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Selects the instances of the given type from an index. Instances are ordered by {@link Entry#SIZE_ORDER}.
+	 *
+	 * @param indexFile the index
+	 * @param type      the network type of the wanted instances. If null, all instances are selected.
+	 *
+	 * @return the list of the selected instance files.
+	 *
+	 * @throws IOException if the index cannot be read or if it is not well-formed.
+	 */
+	public static List<File> select(@Nonnull File indexFile, @Nullable NetworkType type) throws IOException {
+		final File baseDir = indexFile.getAbsoluteFile().getParentFile();
+		final List<Entry> entries = read(indexFile);
+		entries.sort(Entry.SIZE_ORDER);
+		final ObjectArrayList<File> files = new ObjectArrayList<>(entries.size());
+		for (final Entry entry : entries) {
+			if (type == null || entry.type() == type) {
+				files.add(new File(baseDir, entry.file()));
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Writes an index file. Entries are written ordered by file path.
+	 *
+	 * @param indexFile the index
+	 * @param entries   the entries
+	 *
+	 * @throws IOException if the index cannot be written.
+	 */
+	public static void write(@Nonnull File indexFile, @Nonnull List<Entry> entries) throws IOException {
+		final ObjectArrayList<Entry> sorted = new ObjectArrayList<>(entries);
+		sorted.sort(Comparator.comparing(Entry::file));
+		try (final PrintWriter writer = new PrintWriter(indexFile, StandardCharsets.UTF_8)) {
+			writer.println(HEADER);
+			for (final Entry entry : sorted) {
+				writer.println(entry.toCSV());
+			}
+		}
+	}
+
+	/**
+	 * @param path     file path
+	 * @param type     network type
+	 * @param g        the graph
+	 * @param dcStatus DC status
+	 *
+	 * @return the entry describing g.
+	 */
+	private static Entry describe(String path, NetworkType type, TNGraph<?> g, DCStatus dcStatus) {
+		return new Entry(path, type, g.getVertexCount(), g.getEdgeCount(), g.getContingentNodeCount(), g.getObserverCount(), dcStatus);
+	}
+
+	/**
+	 * @param type network type
+	 *
+	 * @return true if the type admits contingent nodes.
+	 */
+	private static boolean hasContingents(NetworkType type) {
+		return type == NetworkType.STNU || type == NetworkType.PSTN || type == NetworkType.OSTNU || type == NetworkType.CSTNU ||
+		       type == NetworkType.CSTNPSU || type == NetworkType.PCSTNU;
+	}
+
+	/**
+	 * @param type network type
+	 *
+	 * @return true if the type admits observer nodes.
+	 */
+	private static boolean hasObservers(NetworkType type) {
+		return type == NetworkType.OSTNU || type == NetworkType.CSTN || type == NetworkType.CSTNU || type == NetworkType.CSTNPSU ||
+		       type == NetworkType.PCSTNU;
+	}
+
+	/**
+	 * @param s a string
+	 *
+	 * @return the int represented by s, -1 if s is null or not an int.
+	 */
+	private static int toInt(@Nullable String s) {
+		if (s == null) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(s.trim());
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Utility class.
+	 */
+	private CorpusIndex() {
+	}
+}
@@ -43,7 +43,7 @@ import java.util.logging.Logger;
  * <p>
  * The main idea is the following:
  * <ul>
- *  <li>a user can express which algorithm to test: Morris2014Dispatchable, FD_STNU, minDispatchableESTNU
+ *  <li>a user can express which algorithm to test: Morris2014Dispatchable (or its parallel version), FD_STNU, minDispatchableESTNU
  *  <li>if minDispatchableESTNU is required, then either Morris2014Dispatchable or FD_STNU must be selected because
  *   minDispatchableESTNU work on the network already checked and augmented with wait constraints.
  * </ul>
@@ -309,6 +309,9 @@ public class DispatchabilityBenchmarkRunner {
 		LOG.info(msg);
 		System.out.println("\n" + getNow() + ": " + msg);
 
+		if (tester.resultCache != null) {
+			System.out.println(getNow() + ": " + tester.resultCache);
+		}
 		tester.output.printf(GLOBAL_HEADER);
 		//Use one of the element in globalStatistics to extract all the possible globalStatisticsKeys
 		for (final Object2ObjectMap.Entry<GlobalStatisticsKey, SummaryStatistics> entryNetworkEdges : globalStatistics.networkEdges.object2ObjectEntrySet()) {
@@ -418,6 +421,13 @@ public class DispatchabilityBenchmarkRunner {
 	@Option(name = "--morris", usage = "Check a STNU instance using Morris2014Dispatchable.")
 	private boolean morris2014;
 
+	/**
+	 * Use the parallel version of Morris algorithm
+	 */
+	@Option(name = "--parallelMorris", depends = "--morris",
+		usage = "Check a STNU instance using Morris2014DispatchableParallel instead of Morris2014Dispatchable.")
+	private boolean parallelMorris;
+
 	/**
 	 * Check a STNU instance using Morris algorithm
 	 */
@@ -448,6 +458,29 @@ public class DispatchabilityBenchmarkRunner {
 	@Option(name = "--timeOut", usage = "Time in seconds.")
 	private int timeOut = 1800; // 20 min
 
+	/**
+	 * Parameter for using the persistent result cache.
+	 */
+	@Option(name = "--useCache", usage = "Reuse the results of previous executions on the same instances with the same parameters stored in the result cache.")
+	private boolean useCache;
+
+	/**
+	 * Directory of the result cache.
+	 */
+	@Option(name = "--cacheDir", depends = "--useCache", usage = "Directory of the result cache.", metaVar = "directory")
+	private File cacheDir = new File(ResultCache.DEFAULT_DIRECTORY);
+
+	/**
+	 * Maximum size of the result cache.
+	 */
+	@Option(name = "--cacheSize", depends = "--useCache", usage = "Maximum size of the result cache in MB.")
+	private int cacheSizeMB = ResultCache.DEFAULT_SIZE_MB;
+
+	/**
+	 * Result cache. Null if {@link #useCache} is false.
+	 */
+	private ResultCache resultCache;
+
 	/**
 	 * Software Version.
 	 */
@@ -623,6 +656,15 @@ public class DispatchabilityBenchmarkRunner {
 			output = System.out;
 		}
 
+		if (useCache) {
+			try {
+				resultCache = new ResultCache(cacheDir, cacheSizeMB);
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("Result cache " + cacheDir + " cannot be opened: " + e.getMessage() + ". Game over :-/");
+				return false;
+			}
+		}
+
 		final String suffix = "stnu";
 
 		instances = new ArrayList<>(inputFiles.length);
@@ -874,10 +916,46 @@ public class DispatchabilityBenchmarkRunner {
 			String.format(OUTPUT_ROW_GRAPH, file.getName(), Integer.valueOf(nNodes), Integer.valueOf(nContingents),
 			              Integer.valueOf(nEdges));
 
+		final String rowPrefix = rowToWrite;
+		String cacheKey = null;
+		ResultCache.Result cacheResult = null;
+		if (resultCache != null) {
+			cacheKey = ResultCache.key(graphToCheck, "DispatchabilityBenchmark", getCacheParameters());
+			// with --save, instances are always checked for saving the checked ones.
+			final ResultCache.Result cached = (save) ? null : resultCache.get(cacheKey);
+			if (cached != null) {
+				cached.replay("morris2014ExecTimeInSec", gMorris2014ExecTimeInSec);
+				cached.replay("morris2014NetworkEdges", gMorris2014NetworkEdges);
+				cached.replay("minDispOfMorris2014ExecTimeInSec", gMinDispOfMorris2014ExecTimeInSec);
+				cached.replay("minDispOfMorris2014NetworkEdges", gMinDispOfMorris2014NetworkEdges);
+				cached.replay("FD_STNUExecTimeInSec", gFD_STNUExecTimeInSec);
+				cached.replay("FD_STNUNetworkEdges", gFD_STNUNetworkEdges);
+				cached.replay("minDispOfFD_STNUExecTimeInSec", gMinDispOfFD_STNUExecTimeInSec);
+				cached.replay("minDispOfFD_STNUNetworkEdges", gMinDispOfFD_STNUNetworkEdges);
+				cached.replay("maxMinEdges", gMaxMinEdges);
+				output.println(rowPrefix + cached.row());
+				output.flush();
+				runState.printProgress();
+				return true;
+			}
+			cacheResult = new ResultCache.Result();
+			gMorris2014ExecTimeInSec = cacheResult.track("morris2014ExecTimeInSec", gMorris2014ExecTimeInSec);
+			gMorris2014NetworkEdges = cacheResult.track("morris2014NetworkEdges", gMorris2014NetworkEdges);
+			gMinDispOfMorris2014ExecTimeInSec = cacheResult.track("minDispOfMorris2014ExecTimeInSec", gMinDispOfMorris2014ExecTimeInSec);
+			gMinDispOfMorris2014NetworkEdges = cacheResult.track("minDispOfMorris2014NetworkEdges", gMinDispOfMorris2014NetworkEdges);
+			gFD_STNUExecTimeInSec = cacheResult.track("FD_STNUExecTimeInSec", gFD_STNUExecTimeInSec);
+			gFD_STNUNetworkEdges = cacheResult.track("FD_STNUNetworkEdges", gFD_STNUNetworkEdges);
+			gMinDispOfFD_STNUExecTimeInSec = cacheResult.track("minDispOfFD_STNUExecTimeInSec", gMinDispOfFD_STNUExecTimeInSec);
+			gMinDispOfFD_STNUNetworkEdges = cacheResult.track("minDispOfFD_STNUNetworkEdges", gMinDispOfFD_STNUNetworkEdges);
+			gMaxMinEdges = cacheResult.track("maxMinEdges", gMaxMinEdges);
+		}
+
 		if (this.morris2014) {
-			LOG.info(getNow() + ": Morris2014Dispatchable: start.");
+			final STNU.CheckAlgorithm morrisAlgorithm =
+				(this.parallelMorris) ? STNU.CheckAlgorithm.Morris2014DispatchableParallel : STNU.CheckAlgorithm.Morris2014Dispatchable;
+			LOG.info(getNow() + ": " + morrisAlgorithm + ": start.");
 			rowToWrite = dcCheckTester(stnu,
-			                           STNU.CheckAlgorithm.Morris2014Dispatchable,
+			                           morrisAlgorithm,
 			                           rowToWrite,
 			                           gMorris2014ExecTimeInSec,
 			                           gMorris2014NetworkEdges
@@ -956,9 +1034,23 @@ public class DispatchabilityBenchmarkRunner {
 				System.err.println("Different edges are: " + differentEdges.size() + ":\n" + differentEdges);
 			}
 		}
+		if (cacheResult != null) {
+			cacheResult.setRow(rowToWrite.substring(rowPrefix.length()));
+			cacheResult.setFinished(true);
+			resultCache.put(cacheKey, cacheResult);
+		}
 		output.println(rowToWrite);
 		output.flush();
 		runState.printProgress();
 		return true;
 	}
+
+	/**
+	 * @return the string representing all the parameters that can influence the result of the worker. It is used for determining the key of a
+	 * 	result in the result cache.
+	 */
+	private String getCacheParameters() {
+		return "morris=" + morris2014 + ";parallelMorris=" + parallelMorris + ";fd=" + fd_stnu + ";minMorris=" + minDispatchableMorris + ";minFD=" +
+		       minDispatchableFD + ";nDCRepetition=" + nDCRepetition + ";timeOut=" + timeOut;
+	}
 }
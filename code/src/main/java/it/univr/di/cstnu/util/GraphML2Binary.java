@@ -0,0 +1,248 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.util;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.univr.di.cstnu.graph.*;
+import it.univr.di.cstnu.graph.TNGraph.NetworkType;
+import org.kohsuke.args4j.Argument;
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Utility class for converting a network file in GraphML format to the binary format of {@link TNGraphBinaryWriter} and vice versa.
+ * <br>
+ * The direction of the conversion is determined by the input file: if it is in binary format (see {@link TNGraphBinaryReader#isBinaryNetwork(File)}), it
+ * is converted to GraphML; otherwise, it is converted to binary format. The kind of edges is determined by the network type stored in the input file.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class GraphML2Binary {
+	/**
+	 * class logger
+	 */
+	static final Logger LOG = Logger.getLogger(GraphML2Binary.class.getName());
+
+	/**
+	 * Default extension for GraphML files.
+	 */
+	static final String graphMLSuffix = ".graphml";
+
+	/**
+	 * Version
+	 */
+	static final String VERSIONandDATE = "1.0, October, 18 2026";
+
+	/**
+	 * @param args a network file in GraphML or binary format.
+	 *
+	 * @throws IOException if any file cannot be read or write
+	 */
+	public static void main(String[] args) throws IOException {
+
+		LOG.finest("Start...");
+		final GraphML2Binary converter = new GraphML2Binary();
+
+		if (!converter.manageParameters(args)) {
+			return;
+		}
+
+		LOG.finest("Parameters ok!");
+		if (converter.versionReq) {
+			System.out.print(
+				GraphML2Binary.class.getName() + " " + VERSIONandDATE + ". Academic and non-commercial use only.\n" +
+				"Copyright © 2016-2026 Roberto Posenato");
+			return;
+		}
+
+		if (converter.toBinary) {
+			final NetworkType type = getGraphMLNetworkType(converter.inputFile);
+			final TNGraph<Edge> g = new TNGraphMLStreamReader<>().readGraph(converter.inputFile, edgeClassOf(type));
+			g.setType(type);
+			new TNGraphBinaryWriter().save(g, converter.fOutput);
+		} else {
+			final NetworkType type = TNGraphBinaryReader.getNetworkType(converter.inputFile);
+			final TNGraph<Edge> g = new TNGraphBinaryReader<>().readGraph(converter.inputFile, edgeClassOf(type));
+			new TNGraphMLWriter(null).save(g, converter.fOutput);
+		}
+		System.out.println("Converted TNGraph saved into file " + converter.fOutput);
+	}
+
+	/**
+	 * @param type a network type
+	 *
+	 * @return the default edge class for the given network type.
+	 */
+	static Class<? extends Edge> edgeClassOf(@Nonnull NetworkType type) {
+		return switch (type) {
+			case STN -> EdgeSupplier.DEFAULT_STN_EDGE_CLASS;
+			case STNU, PSTN -> EdgeSupplier.DEFAULT_STNU_EDGE_CLASS;
+			case CSTN -> EdgeSupplier.DEFAULT_CSTN_EDGE_CLASS;
+			case CSTNU, PCSTNU -> EdgeSupplier.DEFAULT_CSTNU_EDGE_CLASS;
+			case OSTNU -> EdgeSupplier.DEFAULT_OSTNU_EDGE_CLASS;
+			case CSTNPSU -> EdgeSupplier.DEFAULT_CSTNPSU_EDGE_CLASS;
+		};
+	}
+
+	/**
+	 * Reads the network type declared in the given GraphML file stopping at the first node.
+	 *
+	 * @param graphMLFile a file in GraphML format
+	 *
+	 * @return the value of graph attribute {@link TNGraphMLWriter#NETWORK_TYPE_KEY}, or its default value if the attribute is not set.
+	 * 	{@link NetworkType#CSTNU} if the attribute is not declared (as {@link TNGraphMLWriter} assumes).
+	 *
+	 * @throws IOException if the file cannot be read or if it is not a valid GraphML file.
+	 */
+	static NetworkType getGraphMLNetworkType(@Nonnull File graphMLFile) throws IOException {
+		final String type = readGraphMLGraphData(graphMLFile).get(TNGraphMLWriter.NETWORK_TYPE_KEY);
+		try {
+			return (type == null || type.isEmpty()) ? NetworkType.CSTNU : NetworkType.valueOf(type);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("The network type '" + type + "' in file " + graphMLFile + " is not valid.", e);
+		}
+	}
+
+	/**
+	 * Reads the graph attributes declared in the given GraphML file stopping at the first node or edge. The file is not loaded.
+	 *
+	 * @param graphMLFile a file in GraphML format
+	 *
+	 * @return the map (key id, value) of the graph attributes. An attribute not set in the graph element has its default value, if declared.
+	 *
+	 * @throws IOException if the file cannot be read or if it is not a valid GraphML file.
+	 */
+	static Object2ObjectOpenHashMap<String, String> readGraphMLGraphData(@Nonnull File graphMLFile) throws IOException {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		final Object2ObjectOpenHashMap<String, String> graphData = new Object2ObjectOpenHashMap<>();
+		try (final Reader reader = new InputStreamReader(new FileInputStream(graphMLFile), StandardCharsets.UTF_8)) {
+			final XMLStreamReader xml = factory.createXMLStreamReader(reader);
+			try {
+				String keyId = null;
+				while (xml.hasNext()) {
+					final int event = xml.next();
+					if (event == XMLStreamConstants.END_ELEMENT && "key".equals(xml.getLocalName())) {
+						keyId = null;
+						continue;
+					}
+					if (event != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
+					final String element = xml.getLocalName();
+					if ("node".equals(element) || "edge".equals(element)) {
+						break;
+					}
+					if ("key".equals(element)) {
+						keyId = ("graph".equals(xml.getAttributeValue(null, "for"))) ? xml.getAttributeValue(null, "id") : null;
+					} else if ("default".equals(element) && keyId != null) {
+						graphData.putIfAbsent(keyId, xml.getElementText().trim());
+					} else if ("data".equals(element) && xml.getAttributeValue(null, "key") != null) {
+						graphData.put(xml.getAttributeValue(null, "key"), xml.getElementText().trim());
+					}
+				}
+			} finally {
+				xml.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("The file " + graphMLFile + " is not a valid GraphML file. Details: " + e.getMessage(), e);
+		}
+		return graphData;
+	}
+
+	/**
+	 * The input file name.
+	 */
+	@Argument(required = true, usage = "Input file. It has to be in GraphML or in binary format.", metaVar = "file_name")
+	private String fileNameInput;
+	/**
+	 * Output file.
+	 */
+	@Option(name = "-o", aliases = "--output", usage =
+		"Output to this file. If not specified, it is set to the input file name with suffix '" + TNGraphBinaryWriter.FILE_EXTENSION +
+		"' when the input is in GraphML format, or with suffix '" + graphMLSuffix + "' when the input is in binary format.", metaVar = "outputFile")
+	@SuppressFBWarnings(value = "UWF_NULL_FIELD", justification = "This field is set by parser.parseArgument.")
+	private File fOutput;
+	/**
+	 *
+	 */
+	private File inputFile;
+	/**
+	 * True if the input has to be converted in binary format.
+	 */
+	private boolean toBinary;
+	/**
+	 * Software Version.
+	 */
+	@Option(name = "-v", aliases = "--version", usage = "Version")
+	private boolean versionReq;
+
+	/**
+	 * Simple method to manage command line parameters using args4j library.
+	 *
+	 * @param args the input parameters
+	 *
+	 * @return false if a parameter is missing, or it is wrong. True if every parameter is given in a right format.
+	 */
+	private boolean manageParameters(String[] args) {
+		final CmdLineParser parser = new CmdLineParser(this);
+		try {
+			parser.parseArgument(args);
+		} catch (CmdLineException e) {
+			System.err.println(e.getMessage());
+			System.err.println(
+				"java -cp CSTNU-<version>.jar " + GraphML2Binary.class.getCanonicalName() + " [options...] argument.");
+			parser.printUsage(System.err);
+			System.err.println();
+			return false;
+		}
+		if (LOG.isLoggable(Level.FINEST)) {
+			LOG.finest("File name: " + fileNameInput);
+		}
+		inputFile = new File(fileNameInput);
+		if (!inputFile.exists()) {
+			System.err.println("File " + inputFile + " does not exit.");
+			parser.printUsage(System.err);
+			System.err.println();
+			return false;
+		}
+		toBinary = !TNGraphBinaryReader.isBinaryNetwork(inputFile);
+		final String suffix = (toBinary) ? TNGraphBinaryWriter.FILE_EXTENSION : graphMLSuffix;
+		if (fOutput == null) {
+			fOutput = new File(fileNameInput.replaceFirst("(\\.[^./]*)?$", suffix));
+		}
+		if (fOutput.isDirectory()) {
+			System.err.println("Output file is a directory.");
+			parser.printUsage(System.err);
+			System.err.println();
+			return false;
+		}
+		if (fOutput.getAbsoluteFile().equals(inputFile.getAbsoluteFile())) {
+			System.err.println("Output file cannot be the input one.");
+			return false;
+		}
+		if (fOutput.exists()) {
+			if (!fOutput.renameTo(new File(fOutput.getAbsoluteFile() + ".old"))) {
+				final String m = "File " + fOutput.getAbsolutePath() + " cannot be renamed in .old.";
+				LOG.severe(m);
+				throw new IllegalStateException(m);
+			}
+		}
+		return true;
+	}
+}
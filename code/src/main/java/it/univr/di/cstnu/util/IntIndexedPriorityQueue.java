@@ -0,0 +1,242 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.util;
+
+import it.univr.di.cstnu.util.ExtendedPriorityQueue.Status;
+import it.univr.di.labeledvalue.Constants;
+
+import java.util.Arrays;
+
+
+/**
+ * Minimum priority queue where elements are int ids in {@code [0, capacity)} and priorities are integers.
+ * <p>
+ * It has the same semantics of {@link ExtendedPriorityQueue} (an element extracted from the queue cannot be inserted again until the queue is cleared,
+ * see {@link #getStatus(int)}), but it is based on int arrays allocated once in the constructor. Each id is stamped with the epoch in which it was
+ * inserted, so that {@link #clear()} runs in O(1) time and the same queue can be reused for many searches without any allocation.
+ *
+ * @author posenato
+ * @version $Rev: 732 $
+ */
+public class IntIndexedPriorityQueue {
+
+	/**
+	 * Binary heap of ids.
+	 */
+	private final int[] heap;
+	/**
+	 * Priority of each id.
+	 */
+	private final int[] priority;
+	/**
+	 * Position of each id in the heap, -1 if the id was extracted.
+	 */
+	private final int[] position;
+	/**
+	 * Epoch in which each id was inserted. An id whose stamp is not equal to the current epoch was never inserted after the last clear.
+	 */
+	private final int[] stamp;
+	/**
+	 * Current epoch.
+	 */
+	private int epoch;
+	/**
+	 * Number of elements in the heap.
+	 */
+	private int size;
+
+	/**
+	 * @param capacity the number of possible ids.
+	 */
+	public IntIndexedPriorityQueue(int capacity) {
+		heap = new int[capacity];
+		priority = new int[capacity];
+		position = new int[capacity];
+		stamp = new int[capacity];
+		epoch = 1;
+		size = 0;
+	}
+
+	/**
+	 * @return the number of possible ids.
+	 */
+	public int capacity() {
+		return heap.length;
+	}
+
+	/**
+	 * Makes the queue empty, forgetting also the extracted ids.<br>
+	 * It runs in O(1) time.
+	 */
+	public void clear() {
+		size = 0;
+		if (++epoch == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			epoch = 1;
+		}
+	}
+
+	/**
+	 * Removes and returns the id with minimum priority.<br>
+	 * It runs in O(log n) time.
+	 *
+	 * @return the id with minimum priority. Its priority is still available by {@link #getPriority(int)}.
+	 *
+	 * @throws java.util.NoSuchElementException if the queue is empty.
+	 */
+	public int extractFirst() {
+		if (size == 0) {
+			throw new java.util.NoSuchElementException("The queue is empty.");
+		}
+		final int first = heap[0];
+		position[first] = -1;
+		if (--size > 0) {
+			final int last = heap[size];
+			heap[0] = last;
+			position[last] = 0;
+			siftDown(0);
+		}
+		return first;
+	}
+
+	/**
+	 * Returns the priority of id if it is or was present in the queue, {@link Constants#INT_POS_INFINITE} if the id was never inserted.<br>
+	 * It runs in O(1) time.
+	 *
+	 * @param id the id
+	 *
+	 * @return the priority of id.
+	 */
+	public int getPriority(int id) {
+		return (stamp[id] == epoch) ? priority[id] : Constants.INT_POS_INFINITE;
+	}
+
+	/**
+	 * It runs in O(1) time.
+	 *
+	 * @param id the id
+	 *
+	 * @return the status of the id with respect to this queue.
+	 */
+	public Status getStatus(int id) {
+		if (stamp[id] != epoch) {
+			return Status.neverPresent;
+		}
+		return (position[id] >= 0) ? Status.isPresent : Status.wasPresent;
+	}
+
+	/**
+	 * Inserts or updates the given id and its priority into this heap.<br>
+	 * The update is performed only when the new value is lower than the present one.<br>
+	 * If the id was present (i.e., already extracted), the method does nothing.<br>
+	 * It runs in O(log n) time.
+	 *
+	 * @param id          the id.
+	 * @param newPriority the value of priority
+	 *
+	 * @return true if id was inserted or updated or was present with a value smaller than the given one; false if the id was present and extracted with
+	 * 	a priority greater than the given one.
+	 */
+	public boolean insertOrUpdate(int id, int newPriority) {
+		switch (getStatus(id)) {
+			case isPresent:
+				if (newPriority < priority[id]) {
+					priority[id] = newPriority;
+					siftUp(position[id]);
+				}
+				return true;
+			case wasPresent:
+				return priority[id] <= newPriority;
+			case neverPresent:
+			default:
+				stamp[id] = epoch;
+				priority[id] = newPriority;
+				heap[size] = id;
+				position[id] = size;
+				siftUp(size++);
+				return true;
+		}
+	}
+
+	/**
+	 * It runs in O(1) time.
+	 *
+	 * @return true if the queue is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * It runs in O(1) time.
+	 *
+	 * @return the number of elements in the queue.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return a string representing the queue as a list of 'priority-&gt;id'. Be aware that the queue is based on a binary heap, so only the first
+	 * 	element is guaranteed to be the minimum w.r.t. the other.
+	 */
+	@Override
+	public String toString() {
+		if (isEmpty()) {
+			return "[]";
+		}
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < size; i++) {
+			sb.append(priority[heap[i]]).append("->").append(heap[i]).append(", ");
+		}
+		//last two chars are ' ,'
+		sb.replace(sb.length() - 2, sb.length(), "]");
+		return sb.toString();
+	}
+
+	/**
+	 * Moves down the id at position i until the heap property is restored.
+	 *
+	 * @param i the position
+	 */
+	private void siftDown(int i) {
+		final int id = heap[i];
+		final int p = priority[id];
+		int child;
+		while ((child = 2 * i + 1) < size) {
+			if (child + 1 < size && priority[heap[child + 1]] < priority[heap[child]]) {
+				child++;
+			}
+			if (priority[heap[child]] >= p) {
+				break;
+			}
+			heap[i] = heap[child];
+			position[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = id;
+		position[id] = i;
+	}
+
+	/**
+	 * Moves up the id at position i until the heap property is restored.
+	 *
+	 * @param i the position
+	 */
+	private void siftUp(int i) {
+		final int id = heap[i];
+		final int p = priority[id];
+		while (i > 0) {
+			final int parent = (i - 1) >>> 1;
+			if (priority[heap[parent]] <= p) {
+				break;
+			}
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = id;
+		position[id] = i;
+	}
+}
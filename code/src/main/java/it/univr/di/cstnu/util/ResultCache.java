@@ -0,0 +1,435 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+package it.univr.di.cstnu.util;
+
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.univr.di.cstnu.graph.*;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of the results of the checks executed by the benchmark runners ({@link Checker}, {@link DispatchabilityBenchmarkRunner},
+ * {@link SRNCFinderBenchmarkRunner}).
+ * <br>
+ * A result is identified by a key determined from the content of the checked network (see {@link TNGraphBinaryWriter#contentDigest(TNGraph)}), the
+ * algorithm, and its parameters. Therefore, re-running a sweep re-checks only the instances/parameters not already checked, independently of the
+ * file names of the instances.
+ * <br>
+ * The cache is a directory where each result is stored in a file {@code <key>.result} (in {@link Properties} format). The total size of the
+ * directory is bounded: when it is exceeded, the least recently used results are removed. The last use of a result is given by the modification
+ * time of its file.
+ * <br>
+ * A cache object can be used concurrently by many threads.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public class ResultCache {
+
+	/**
+	 * A cached result: the part of the output row determined by the check, the check outcome, and the values added to the global statistics during
+	 * the check.
+	 */
+	public static final class Result {
+		/**
+		 * Values added to each named statistics.
+		 */
+		private final Object2ObjectLinkedOpenHashMap<String, DoubleArrayList> statistics = new Object2ObjectLinkedOpenHashMap<>();
+		/**
+		 * True if the network is DC.
+		 */
+		private boolean consistent;
+		/**
+		 * True if the check finished.
+		 */
+		private boolean finished;
+		/**
+		 * Part of the output row.
+		 */
+		private String row = "";
+
+		/**
+		 * @return true if the network is DC.
+		 */
+		public boolean isConsistent() {
+			return consistent;
+		}
+
+		/**
+		 * @return true if the check finished.
+		 */
+		public boolean isFinished() {
+			return finished;
+		}
+
+		/**
+		 * Adds the values of the statistics named name to global.
+		 *
+		 * @param name   name of the statistics
+		 * @param global the statistics to update
+		 */
+		public void replay(@Nonnull String name, @Nullable SummaryStatistics global) {
+			final DoubleArrayList values = statistics.get(name);
+			if (values == null || global == null) {
+				return;
+			}
+			for (int i = 0; i < values.size(); i++) {
+				global.addValue(values.getDouble(i));
+			}
+		}
+
+		/**
+		 * @return the part of the output row.
+		 */
+		public String row() {
+			return row;
+		}
+
+		/**
+		 * @param consistent true if the network is DC.
+		 */
+		public void setConsistent(boolean consistent) {
+			this.consistent = consistent;
+		}
+
+		/**
+		 * @param finished true if the check finished.
+		 */
+		public void setFinished(boolean finished) {
+			this.finished = finished;
+		}
+
+		/**
+		 * @param row the part of the output row.
+		 */
+		public void setRow(@Nonnull String row) {
+			this.row = row;
+		}
+
+		/**
+		 * Returns a statistics that adds each value both to global and to this result under the given name.
+		 *
+		 * @param name   name of the statistics
+		 * @param global the statistics to update. If null, the returned statistics only records the values.
+		 *
+		 * @return the recording statistics.
+		 */
+		public SummaryStatistics track(@Nonnull String name, @Nullable SummaryStatistics global) {
+			final DoubleArrayList values = statistics.computeIfAbsent(name, k -> new DoubleArrayList());
+			return new SummaryStatistics() {
+				@Serial
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public void addValue(double value) {
+					super.addValue(value);
+					values.add(value);
+					if (global != null) {
+						global.addValue(value);
+					}
+				}
+			};
+		}
+
+		/**
+		 * @return the properties representing this result.
+		 */
+		Properties toProperties() {
+			final Properties p = new Properties();
+			p.setProperty("row", row);
+			p.setProperty("finished", Boolean.toString(finished));
+			p.setProperty("consistent", Boolean.toString(consistent));
+			for (final Object2ObjectMap.Entry<String, DoubleArrayList> entry : statistics.object2ObjectEntrySet()) {
+				final StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < entry.getValue().size(); i++) {
+					if (i > 0) {
+						sb.append(',');
+					}
+					sb.append(entry.getValue().getDouble(i));
+				}
+				p.setProperty(STAT_PREFIX + entry.getKey(), sb.toString());
+			}
+			return p;
+		}
+
+		/**
+		 * @param p properties written by {@link #toProperties()}
+		 *
+		 * @return the result represented by p.
+		 *
+		 * @throws IllegalArgumentException if p does not represent a result.
+		 */
+		static Result valueOf(Properties p) {
+			final Result r = new Result();
+			final String row = p.getProperty("row");
+			if (row == null) {
+				throw new IllegalArgumentException("Row is missing.");
+			}
+			r.row = row;
+			r.finished = Boolean.parseBoolean(p.getProperty("finished"));
+			r.consistent = Boolean.parseBoolean(p.getProperty("consistent"));
+			for (final String name : p.stringPropertyNames()) {
+				if (!name.startsWith(STAT_PREFIX)) {
+					continue;
+				}
+				final DoubleArrayList values = new DoubleArrayList();
+				for (final String v : p.getProperty(name).split(",")) {
+					if (!v.isEmpty()) {
+						values.add(Double.parseDouble(v));
+					}
+				}
+				r.statistics.put(name.substring(STAT_PREFIX.length()), values);
+			}
+			return r;
+		}
+	}
+
+	/**
+	 * Default directory of the cache.
+	 */
+	public static final String DEFAULT_DIRECTORY = System.getProperty("user.home") + File.separator + ".cstnu-result-cache";
+
+	/**
+	 * Default maximum size of the cache in MB.
+	 */
+	public static final int DEFAULT_SIZE_MB = 512;
+
+	/**
+	 * class logger
+	 */
+	static final Logger LOG = Logger.getLogger(ResultCache.class.getName());
+
+	/**
+	 * Extension of result files.
+	 */
+	static final String RESULT_EXTENSION = ".result";
+
+	/**
+	 * Prefix of statistics property names.
+	 */
+	static final String STAT_PREFIX = "stat.";
+
+	/**
+	 * After an eviction, the cache size is at most this fraction of the maximum size.
+	 */
+	static final double EVICTION_FACTOR = 0.9;
+
+	/**
+	 * Cache directory.
+	 */
+	private final Path directory;
+	/**
+	 * Number of hits.
+	 */
+	private final AtomicLong hits = new AtomicLong();
+	/**
+	 * Maximum size in bytes.
+	 */
+	private final long maxSize;
+	/**
+	 * Number of misses.
+	 */
+	private final AtomicLong misses = new AtomicLong();
+	/**
+	 * Current size in bytes (estimated between two evictions).
+	 */
+	private final AtomicLong size = new AtomicLong();
+
+	/**
+	 * Opens (creating it if necessary) the cache in the given directory.
+	 *
+	 * @param directory   directory of the cache
+	 * @param maxSizeInMB maximum size of the cache in MB.
+	 *
+	 * @throws IOException if the directory cannot be created or read.
+	 */
+	public ResultCache(@Nonnull File directory, int maxSizeInMB) throws IOException {
+		if (maxSizeInMB <= 0) {
+			throw new IllegalArgumentException("The maximum size of the cache must be positive.");
+		}
+		this.directory = directory.toPath();
+		maxSize = maxSizeInMB * 1024L * 1024L;
+		Files.createDirectories(this.directory);
+		size.set(directorySize());
+		if (LOG.isLoggable(Level.FINE)) {
+			LOG.fine("Result cache " + directory + " opened. Size: " + size.get() + " bytes.");
+		}
+	}
+
+	/**
+	 * Returns the key of the result of checking graph by algorithm with the given parameters.
+	 *
+	 * @param graph      the network to check. It must be determined before the check because the check can modify the network.
+	 * @param algorithm  the name of the algorithm (or of the set of algorithms) used for the check
+	 * @param parameters a string representing all the parameters that can influence the result
+	 *
+	 * @return the key as hexadecimal string.
+	 */
+	public static String key(@Nonnull TNGraph<? extends Edge> graph, @Nonnull String algorithm, @Nonnull String parameters) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available: " + e.getMessage(), e);
+		}
+		digest.update(TNGraphBinaryWriter.contentDigest(graph));
+		digest.update(algorithm.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(parameters.getBytes(StandardCharsets.UTF_8));
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Returns the cached result having the given key and marks it as recently used.
+	 *
+	 * @param key the key (see {@link #key(TNGraph, String, String)})
+	 *
+	 * @return the result, null if it is not present.
+	 */
+	@Nullable
+	public Result get(@Nonnull String key) {
+		final Path file = directory.resolve(key + RESULT_EXTENSION);
+		final Properties p = new Properties();
+		try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			p.load(reader);
+			final Result result = Result.valueOf(p);
+			touch(file);
+			hits.incrementAndGet();
+			return result;
+		} catch (NoSuchFileException e) {
+			misses.incrementAndGet();
+			return null;
+		} catch (IOException | IllegalArgumentException e) {
+			LOG.warning("Cached result " + file + " cannot be read and it is ignored: " + e.getMessage());
+			misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * @return the number of hits since the opening of the cache.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of misses since the opening of the cache.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Stores a result. If the maximum size of the cache is exceeded, the least recently used results are removed.
+	 *
+	 * @param key    the key (see {@link #key(TNGraph, String, String)})
+	 * @param result the result
+	 */
+	public void put(@Nonnull String key, @Nonnull Result result) {
+		try {
+			final Path tmp = Files.createTempFile(directory, key, ".tmp");
+			try (final Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				result.toProperties().store(writer, null);
+			}
+			size.addAndGet(Files.size(tmp));
+			Files.move(tmp, directory.resolve(key + RESULT_EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.warning("Result " + key + " cannot be cached: " + e.getMessage());
+			return;
+		}
+		if (size.get() > maxSize) {
+			evict();
+		}
+	}
+
+	/**
+	 * @return a string with the number of hits and misses.
+	 */
+	@Override
+	public String toString() {
+		return "Result cache " + directory + ": hits " + hits.get() + ", misses " + misses.get() + ".";
+	}
+
+	/**
+	 * @return the current size of the cache directory in bytes.
+	 *
+	 * @throws IOException if the directory cannot be read.
+	 */
+	private long directorySize() throws IOException {
+		long s = 0;
+		try (final Stream<Path> files = Files.list(directory)) {
+			for (final Path f : (Iterable<Path>) files::iterator) {
+				s += Files.size(f);
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * Removes the least recently used files until the size of the cache is at most {@link #EVICTION_FACTOR} of its maximum size.
+	 */
+	private synchronized void evict() {
+		if (size.get() <= maxSize) {
+			return;
+		}
+		final ObjectArrayList<Path> files = new ObjectArrayList<>();
+		try (final Stream<Path> list = Files.list(directory)) {
+			list.forEach(files::add);
+		} catch (IOException e) {
+			LOG.warning("Result cache " + directory + " cannot be read: " + e.getMessage());
+			return;
+		}
+		files.sort(Comparator.comparingLong(f -> f.toFile().lastModified()));
+		long current = 0;
+		for (final Path f : files) {
+			current += f.toFile().length();
+		}
+		final long target = (long) (maxSize * EVICTION_FACTOR);
+		for (int i = 0; i < files.size() && current > target; i++) {
+			final Path f = files.get(i);
+			final long length = f.toFile().length();
+			try {
+				if (Files.deleteIfExists(f)) {
+					current -= length;
+				}
+			} catch (IOException e) {
+				LOG.warning("File " + f + " cannot be removed from result cache: " + e.getMessage());
+			}
+		}
+		size.set(current);
+		if (LOG.isLoggable(Level.FINE)) {
+			LOG.fine("Result cache " + directory + " reduced to " + current + " bytes.");
+		}
+	}
+
+	/**
+	 * Sets the modification time of file to now, if it exists.
+	 *
+	 * @param file a file
+	 */
+	private static void touch(Path file) {
+		final File f = file.toFile();
+		if (f.exists() && !f.setLastModified(System.currentTimeMillis())) {
+			LOG.finest("Modification time of " + file + " cannot be updated.");
+		}
+	}
+}
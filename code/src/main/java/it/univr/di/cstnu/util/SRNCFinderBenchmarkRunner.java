@@ -286,6 +286,9 @@ public class SRNCFinderBenchmarkRunner {
 		LOG.info(msg);
 		System.out.println("\n" + getNow() + ": " + msg);
 
+		if (tester.resultCache != null) {
+			System.out.println(getNow() + ": " + tester.resultCache);
+		}
 		tester.output.printf(GLOBAL_HEADER);
 		//Use one of the element in globalStatistics to extract all the possible globalStatisticsKeys
 		for (final Object2ObjectMap.Entry<GlobalStatisticsKey, SummaryStatistics> entryNetworkEdges : globalStatistics.networkEdges.object2ObjectEntrySet()) {
@@ -375,6 +378,12 @@ public class SRNCFinderBenchmarkRunner {
 	@Option(name = "--srncFinder", usage = "Execute the SRNCycleFinder.")
 	private boolean srncFinder;
 
+	/**
+	 * Maximum number of distinct SRNCs that SRNCycleFinder has to collect for each NOT DC instance.
+	 */
+	@Option(name = "--srncMax", usage = "Maximum number of distinct SRNCs that SRNCycleFinder has to collect. Statistics are about the first one.")
+	private int srncMax = 1;
+
 	/**
 	 *
 	 */
@@ -387,6 +396,29 @@ public class SRNCFinderBenchmarkRunner {
 	@Option(name = "--timeOut", usage = "Time in seconds.")
 	private int timeOut = 1800; // 20 min
 
+	/**
+	 * Parameter for using the persistent result cache.
+	 */
+	@Option(name = "--useCache", usage = "Reuse the results of previous executions on the same instances with the same parameters stored in the result cache.")
+	private boolean useCache;
+
+	/**
+	 * Directory of the result cache.
+	 */
+	@Option(name = "--cacheDir", depends = "--useCache", usage = "Directory of the result cache.", metaVar = "directory")
+	private File cacheDir = new File(ResultCache.DEFAULT_DIRECTORY);
+
+	/**
+	 * Maximum size of the result cache.
+	 */
+	@Option(name = "--cacheSize", depends = "--useCache", usage = "Maximum size of the result cache in MB.")
+	private int cacheSizeMB = ResultCache.DEFAULT_SIZE_MB;
+
+	/**
+	 * Result cache. Null if {@link #useCache} is false.
+	 */
+	private ResultCache resultCache;
+
 	/**
 	 * Software Version.
 	 */
@@ -555,6 +587,15 @@ public class SRNCFinderBenchmarkRunner {
 			output = System.out;
 		}
 
+		if (useCache) {
+			try {
+				resultCache = new ResultCache(cacheDir, cacheSizeMB);
+			} catch (IOException | IllegalArgumentException e) {
+				System.err.println("Result cache " + cacheDir + " cannot be opened: " + e.getMessage() + ". Game over :-/");
+				return false;
+			}
+		}
+
 		final String suffix = "stnu";
 
 		instances = new ArrayList<>(inputFiles.length);
@@ -623,6 +664,7 @@ public class SRNCFinderBenchmarkRunner {
 		}
 		final TNGraph<STNUEdge> graphCopy = new TNGraph<>(graphToCheck, STNUEdgeInt.class);
 		final STNU stnuCopy = makeSTNUInstance(graphCopy);//for srncFinder
+		stnuCopy.setSRNCMaxCount(srncMax);
 		//Only now contingent node number is significative
 		final int nContingents = graphToCheck.getContingentNodeCount();
 
@@ -673,6 +715,34 @@ public class SRNCFinderBenchmarkRunner {
 
 		String rowToWrite = String.format(OUTPUT_ROW_GRAPH, file.getName(), Integer.valueOf(nNodes), Integer.valueOf(nContingents), Integer.valueOf(nEdges));
 
+		final String rowPrefix = rowToWrite;
+		String cacheKey = null;
+		ResultCache.Result cacheResult = null;
+		if (resultCache != null) {
+			cacheKey = ResultCache.key(graphToCheck, "SRNCFinderBenchmark", getCacheParameters());
+			// with --save, instances are always checked for saving the checked ones.
+			final ResultCache.Result cached = (save) ? null : resultCache.get(cacheKey);
+			if (cached != null) {
+				cached.replay("FD_STNUExecTimeInSec", gFD_STNUExecTimeInSec);
+				cached.replay("srncFinderExecTimeInSec", gsrncFinderExecTimeInSec);
+				cached.replay("srncSimple", gsrncSimple);
+				cached.replay("srncAverageLength", gsrncAverageLength);
+				cached.replay("srncExpandedAverageLength", gsrncExpandedAverageLength);
+				cached.replay("srncMaxEdgeRepetition", gsrncMaxEdgeRepetition);
+				output.println(rowPrefix + cached.row());
+				output.flush();
+				runState.printProgress();
+				return true;
+			}
+			cacheResult = new ResultCache.Result();
+			gFD_STNUExecTimeInSec = cacheResult.track("FD_STNUExecTimeInSec", gFD_STNUExecTimeInSec);
+			gsrncFinderExecTimeInSec = cacheResult.track("srncFinderExecTimeInSec", gsrncFinderExecTimeInSec);
+			gsrncSimple = cacheResult.track("srncSimple", gsrncSimple);
+			gsrncAverageLength = cacheResult.track("srncAverageLength", gsrncAverageLength);
+			gsrncExpandedAverageLength = cacheResult.track("srncExpandedAverageLength", gsrncExpandedAverageLength);
+			gsrncMaxEdgeRepetition = cacheResult.track("srncMaxEdgeRepetition", gsrncMaxEdgeRepetition);
+		}
+
 		//use the second stnu to check with FD
 		if (this.fd_stnu) {
 			LOG.info(getNow() + ": FD_STNU: start.");
@@ -693,6 +763,9 @@ public class SRNCFinderBenchmarkRunner {
 				//		+ "%d" + CSVSep // SRNC exp length
 				//		+ "%d"  // maxEdgeRep
 				assert SRNCInfo != null;
+				if (LOG.isLoggable(Level.INFO)) {
+					LOG.info(file.getName() + ": number of distinct SRNCs found: " + status.getNegativeSTNUCycleCount());
+				}
 				final int expandedSRNCLength = SRNCInfo.srnExpanded().size();
 				rowToWrite +=
 					String.format(OUTPUT_ROW_SRNC_INFO, SRNCInfo.edgeType(), SRNCInfo.value(), SRNCInfo.length(), SRNCInfo.simple(), expandedSRNCLength,
@@ -710,9 +783,22 @@ public class SRNCFinderBenchmarkRunner {
 			rowToWrite += String.format(OUTPUT_ROW_ALG_STATS, Double.NaN, Double.NaN, "N.A.");
 			rowToWrite += String.format(OUTPUT_ROW_SRNC_INFO, 0, 0, "N.A.", 0, 0);
 		}
+		if (cacheResult != null) {
+			cacheResult.setRow(rowToWrite.substring(rowPrefix.length()));
+			cacheResult.setFinished(true);
+			resultCache.put(cacheKey, cacheResult);
+		}
 		output.println(rowToWrite);
 		output.flush();
 		runState.printProgress();
 		return true;
 	}
+
+	/**
+	 * @return the string representing all the parameters that can influence the result of the worker. It is used for determining the key of a
+	 * 	result in the result cache.
+	 */
+	private String getCacheParameters() {
+		return "fd=" + fd_stnu + ";srncFinder=" + srncFinder + ";srncMax=" + srncMax + ";nDCRepetition=" + nDCRepetition + ";timeOut=" + timeOut;
+	}
 }
@@ -3,8 +3,7 @@
 // SPDX-License-Identifier: LGPL-3.0-or-later
 package it.univr.di.labeledvalue;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.HashCommon;
 import org.netbeans.validation.api.Problems;
 import org.netbeans.validation.api.Validator;
 
@@ -172,9 +171,20 @@ public final class Label implements Comparable<Label>, Serializable {
 	@Serial
 	private static final long serialVersionUID = 1L;
 	/**
-	 * Label object cache This declaration must stay here, before any other!
+	 * Label object cache This declaration must stay here, before any other!<br>
+	 * It is an open addressing table (linear probing, load factor at most 1/2) indexed by the hash of the two state ints. Labels are searched
+	 * without any lock, so that labels can be built concurrently (see {@link #valueOf(long)}): a table is never resized in place, and
+	 * a label is published by a single array store, safe because all the fields of a label are final.
 	 */
-	private static final Long2ObjectMap<Label> CREATED_LABEL = new Long2ObjectOpenHashMap<>();
+	private static volatile Label[] createdLabel = new Label[1 << 10];
+	/**
+	 * Lock for adding labels to {@link #createdLabel}.
+	 */
+	private static final Object CREATED_LABEL_LOCK = new Object();
+	/**
+	 * Number of labels in {@link #createdLabel}. Guarded by {@link #CREATED_LABEL_LOCK}.
+	 */
+	private static int createdLabelCount;
 	/**
 	 * A constant empty label to represent an empty label that cannot be modified.
 	 */
@@ -349,6 +359,19 @@ public final class Label implements Comparable<Label>, Serializable {
 		return valueOf(index);
 	}
 
+	/**
+	 * Returns the label represented by the given packed form.
+	 * <br>
+	 * It is the inverse of {@link #toPacked()} and it is used for storing labels in a compact binary form.
+	 *
+	 * @param packed the two state ints of a label packed in a long as returned by {@link #toPacked()}.
+	 *
+	 * @return the label represented by packed.
+	 */
+	static public Label valueOfPacked(final long packed) {
+		return valueOf(packed);
+	}
+
 	/**
 	 * @param b1 a positive integer
 	 * @param b0 a positive integer
@@ -458,14 +481,67 @@ public final class Label implements Comparable<Label>, Serializable {
 	 * @return the label represented by the two state ints.
 	 */
 	static private Label valueOf(long index) {
-		Label cached = CREATED_LABEL.get(index);
-		if (cached == null) {
+		Label cached = findCreatedLabel(createdLabel, index);
+		if (cached != null) {
+			return cached;
+		}
+		synchronized (CREATED_LABEL_LOCK) {
+			Label[] table = createdLabel;
+			cached = findCreatedLabel(table, index);
+			if (cached != null) {
+				return cached;
+			}
 			cached = new Label(getB1(index), getB0(index));
-			CREATED_LABEL.put(index, cached);
+			if (2 * (createdLabelCount + 1) > table.length) {
+				final Label[] newTable = new Label[table.length << 1];
+				for (final Label label : table) {
+					if (label != null) {
+						storeCreatedLabel(newTable, label);
+					}
+				}
+				table = newTable;
+			}
+			storeCreatedLabel(table, cached);
+			createdLabelCount++;
+			createdLabel = table;
 		}
 		return cached;
 	}
 
+	/**
+	 * @param table a label cache table
+	 * @param index the index of the label
+	 *
+	 * @return the label with the given index if it is in table, null otherwise.
+	 */
+	@Nullable
+	private static Label findCreatedLabel(final Label[] table, long index) {
+		final int mask = table.length - 1;
+		final int b1 = getB1(index), b0 = getB0(index);
+		Label label;
+		for (int i = (int) HashCommon.mix(index) & mask; (label = table[i]) != null; i = (i + 1) & mask) {
+			if (label.bit1 == b1 && label.bit0 == b0) {
+				return label;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Puts label in the first free position of its probe sequence in table.
+	 *
+	 * @param table a label cache table having at least a free position
+	 * @param label the label to store
+	 */
+	private static void storeCreatedLabel(final Label[] table, final Label label) {
+		final int mask = table.length - 1;
+		int i = (int) HashCommon.mix(cacheIndex(label.bit1, label.bit0)) & mask;
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+		table[i] = label;
+	}
+
 	/**
 	 * Using two ints, it is possible to represent 4 states for each position.
 	 * <br>
@@ -1172,6 +1248,14 @@ public final class Label implements Comparable<Label>, Serializable {
 		return s.substring(0, s.length() - ((negate) ? or.length() : and.length()));
 	}
 
+	/**
+	 * @return the two state ints of this label packed in a long (bit1 in the upper half, bit0 in the lower one). The label can be rebuilt by
+	 * 	{@link #valueOfPacked(long)}.
+	 */
+	public long toPacked() {
+		return (((long) bit1) << 32) | (bit0 & 0xFFFFFFFFL);
+	}
+
 	@Override
 	public String toString() {
 		if (isEmpty()) {
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.labeledvalue;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectRBTreeMap;
+
+import java.io.Serial;
+
+/**
+ * A {@link LabeledALabelIntTreeMap} whose internal map can be moved by a {@link LabeledValueSpillStore} into a memory-mapped region when the map is
+ * not used for a while.
+ * <br>
+ * When the map is spilled, only its a-labels remain in the heap. The map is reloaded by the first method that accesses it. The number of values
+ * ({@link #size()}) is always available without reloading the map.
+ * <br>
+ * Instances are created by {@link LabeledValueSpillStore#newLabeledALabelIntTreeMap(LabeledALabelIntTreeMap, Class)}.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+final class LabeledALabelIntSpillableTreeMap extends LabeledALabelIntTreeMap {
+
+	/**
+	 *
+	 */
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The block of the store containing this map when it is spilled.
+	 */
+	final transient LabeledValueSpillStore.Block block;
+
+	/**
+	 * The a-labels of this map, in the order in which their labeled values are written in {@link #block}, when the map is spilled. Null when the map
+	 * is in the heap.
+	 */
+	transient ALabel[] spilledALabels;
+
+	/**
+	 * The store managing this map.
+	 */
+	final transient LabeledValueSpillStore store;
+
+	/**
+	 * @param store1               the store managing this map
+	 * @param lvm                  the map to clone. If null, 'this' will be an empty map.
+	 * @param labeledValueMapImple the class used for storing labeled values. If null, it is
+	 *                             {@link LabeledIntMapSupplier#DEFAULT_LABELEDINTMAP_CLASS}.
+	 */
+	LabeledALabelIntSpillableTreeMap(LabeledValueSpillStore store1, LabeledALabelIntTreeMap lvm,
+	                                 Class<? extends LabeledIntMap> labeledValueMapImple) {
+		super(lvm, labeledValueMapImple);
+		store = store1;
+		block = store1.register(this);
+		store1.access(this);
+	}
+
+	/**
+	 * Reloads the internal map if it has been spilled and notifies the store of the access.
+	 */
+	@Override
+	Object2ObjectRBTreeMap<ALabel, LabeledIntMap> map() {
+		if (map == null) {
+			store.reload(this);
+		} else if (store.lastAccessed != block) {
+			store.access(this);
+		}
+		return map;
+	}
+
+	/**
+	 * Notifies the store of the new number of labeled values.
+	 */
+	@Override
+	void sizeChanged() {
+		store.access(this);
+	}
+
+	/**
+	 * A spilled map is serialized as a plain {@link LabeledALabelIntTreeMap}.
+	 *
+	 * @return a copy of this map.
+	 */
+	@Serial
+	private Object writeReplace() {
+		return new LabeledALabelIntTreeMap(this, labeledValueMapImpl);
+	}
+}
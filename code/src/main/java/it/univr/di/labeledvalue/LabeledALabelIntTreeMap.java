@@ -126,7 +126,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		 * @param inputMap the input map
 		 */
 		public LabeledALabelIntTreeMapView(LabeledALabelIntTreeMap inputMap) {
-			map = inputMap.map;
+			map = inputMap.map();
 		}
 
 
@@ -439,7 +439,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 	 * 	the map. If returns false, then the adding of the value to the map would modify the map.
 	 */
 	public boolean alreadyRepresents(final Label newLabel, final ALabel newAlabel, final int newValue) {
-		final LabeledIntMap map1 = map.get(newAlabel);
+		final LabeledIntMap map1 = map().get(newAlabel);
 		if (map1 != null && map1.alreadyRepresents(newLabel, newValue)) {
 			return true;
 		}
@@ -464,8 +464,9 @@ public class LabeledALabelIntTreeMap implements Serializable {
 	 *
 	 */
 	public void clear() {
-		map.clear();
+		map().clear();
 		count = 0;
+		sizeChanged();
 	}
 
 	@Override
@@ -476,7 +477,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		if (!(o instanceof final LabeledALabelIntTreeMap lvm)) {
 			return false;
 		}
-		return map.equals(lvm.map);// this equals checks the size... so NO empty pair (key, {}) cannot be stored!
+		return map().equals(lvm.map());// this equals checks the size... so NO empty pair (key, {}) cannot be stored!
 	}
 
 	/**
@@ -484,8 +485,8 @@ public class LabeledALabelIntTreeMap implements Serializable {
 	 *
 	 * @return the value to which the specified key is mapped, or null if this map contains no mapping for the key
 	 */
-	public final LabeledIntMap get(final ALabel alabel) {
-		return map.get(alabel);
+	public LabeledIntMap get(final ALabel alabel) {
+		return map().get(alabel);
 	}
 
 	/**
@@ -533,7 +534,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		{
 			return Constants.INT_NULL;
 		}
-		final LabeledIntMap map1 = map.get(p);
+		final LabeledIntMap map1 = map().get(p);
 		if (map1 == null) {
 			return Constants.INT_NULL;
 		}
@@ -551,7 +552,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		{
 			return Constants.INT_NULL;
 		}
-		final LabeledIntMap map1 = map.get(p);
+		final LabeledIntMap map1 = map().get(p);
 		if (map1 == null) {
 			return Constants.INT_NULL;
 		}
@@ -560,7 +561,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 
 	@Override
 	public int hashCode() {
-		return map.hashCode();
+		return map().hashCode();
 	}
 
 	/**
@@ -578,7 +579,7 @@ public class LabeledALabelIntTreeMap implements Serializable {
 	 * @return a set view of all a-labels present into this map.
 	 */
 	public ObjectSet<ALabel> keySet() {
-		return map.keySet();
+		return map().keySet();
 	}
 
 	/**
@@ -590,12 +591,22 @@ public class LabeledALabelIntTreeMap implements Serializable {
 	 */
 	public ObjectSet<Label> labelSet() {
 		final ObjectSet<Label> labelSet = new ObjectRBTreeSet<>();
-		for (final LabeledIntMap localMap : map.values()) {
+		for (final LabeledIntMap localMap : map().values()) {
 			labelSet.addAll(localMap.keySet());
 		}
 		return labelSet;
 	}
 
+	/**
+	 * All methods access the internal map by this method. In this way, a subclass can keep the internal map outside the heap (see
+	 * {@link LabeledValueSpillStore}) and reload it only when necessary.
+	 *
+	 * @return the internal map.
+	 */
+	Object2ObjectRBTreeMap<ALabel, LabeledIntMap> map() {
+		return map;
+	}
+
 	/**
 	 * Merges a label case value {@code (p,l,i)}.
 	 * <p>
@@ -617,10 +628,10 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		}
 		final int prioriNewAlabelMapSize;
 		final int newAlabelSize = newAlabel.size();
-		LabeledIntMap newAlabelMap = map.get(newAlabel);
+		LabeledIntMap newAlabelMap = map().get(newAlabel);
 		if (newAlabelMap == null) {
 			newAlabelMap = (new LabeledIntMapSupplier<>(this.labeledValueMapImpl)).get();
-			map.put(ALabel.clone(newAlabel), newAlabelMap);
+			map().put(ALabel.clone(newAlabel), newAlabelMap);
 			prioriNewAlabelMapSize = 0;
 		} else {
 			prioriNewAlabelMapSize = newAlabelMap.size();
@@ -637,6 +648,9 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		// update the count
 		final boolean newAlabelModifiedTheAlreadyPresentMap = prioriNewAlabelMapSize == newAlabelMap.size();
 		count += newAlabelMap.size() - prioriNewAlabelMapSize;
+		if (!newAlabelModifiedTheAlreadyPresentMap) {
+			sizeChanged();
+		}
 
 		if (force) {
 			return true;
@@ -742,12 +756,13 @@ public class LabeledALabelIntTreeMap implements Serializable {
 	 */
 	public LabeledIntMap put(ALabel alabel, LabeledIntMap labeledValueMap) {
 
-		final LabeledIntMap oldMap = map.get(alabel);
+		final LabeledIntMap oldMap = map().put(alabel, labeledValueMap);
 		if (oldMap != null) {
 			count -= oldMap.size();
 		}
 		count += labeledValueMap.size();
-		return map.put(alabel, labeledValueMap);
+		sizeChanged();
+		return oldMap;
 	}
 
 	/**
@@ -773,16 +788,17 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		if ((l == null) || (p == null)) {
 			return Constants.INT_NULL;
 		}
-		final LabeledIntMap map1 = map.get(p);
+		final LabeledIntMap map1 = map().get(p);
 		if (map1 == null) {
 			return Constants.INT_NULL;
 		}
 		final int old = map1.remove(l);
 		if (old != Constants.INT_NULL) {
 			count--;
+			sizeChanged();
 		}
 		if (map1.isEmpty()) {
-			map.remove(p);// it is necessary for making equals working.
+			map().remove(p);// it is necessary for making equals working.
 		}
 		return old;
 	}
@@ -800,7 +816,13 @@ public class LabeledALabelIntTreeMap implements Serializable {
 		if (aleph == null) {
 			return false;
 		}
-		return map.remove(aleph) != null;
+		return map().remove(aleph) != null;
+	}
+
+	/**
+	 * Called after each modification of the number of elements. A subclass can override it to keep track of the size of the map.
+	 */
+	void sizeChanged() {
 	}
 
 	/**
@@ -0,0 +1,953 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.labeledvalue;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.ints.IntArraySet;
+import it.unimi.dsi.fastutil.ints.IntBidirectionalIterator;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.AbstractObject2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntArrayMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap.Entry;
+import it.unimi.dsi.fastutil.objects.ObjectArraySet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.univr.di.Debug;
+
+import javax.annotation.Nonnull;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Experimental implementation of {@link it.univr.di.labeledvalue.LabeledIntMap} interface for networks with many propositions.
+ * <p>
+ * For each distinct value, the set of labels having such value is stored as a decision diagram. Each diagram node tests one proposition and has one child
+ * for each state of the proposition in a label (absent, straight, negated, unknown). Propositions are tested in increasing index order and a node whose
+ * present-state children are all empty is replaced by its absent child, so that a label never has to be stored literal by literal. Nodes are hash-consed
+ * in a per-map unique table; therefore, labels that differ only by a few literals share almost all their nodes.
+ * <p>
+ * The subsumption queries ({@link #getMinValueSubsumedBy(Label)}, {@link #alreadyRepresents(Label, int)}) visit the diagrams in increasing value order
+ * following only the children compatible with the given label, and the removal of the values made redundant by a new one is a single diagram traversal
+ * for each value. Labels are enumerated only when the map is iterated.
+ * <p>
+ * The minimization rules are the ones of {@link LabeledIntTreeMap} except for the base management. Therefore, the two implementations represent the same
+ * labeled values for each complete scenario, but their entry sets can differ. {@link #main(String[])} compares the two implementations on random maps.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ * @see LabeledIntMap
+ */
+public class LabeledIntDiagramMap extends AbstractLabeledIntMap {
+
+	/**
+	 * A read-only view of an object
+	 *
+	 * @author posenato
+	 */
+	public static class LabeledIntDiagramMapView extends LabeledIntDiagramMap implements LabeledIntMapView {
+		/**
+		 *
+		 */
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * @param inputMap input
+		 */
+		public LabeledIntDiagramMapView(LabeledIntDiagramMap inputMap) {
+			valueMap = inputMap.valueMap;
+			nodes = inputMap.nodes;
+			optimize = inputMap.optimize;
+		}
+
+		/**
+		 * Object Read-only. It does nothing.
+		 */
+		@Override
+		public void putForcibly(@Nonnull Label l, int i) {
+		}
+	}
+
+	/**
+	 * Node of a label diagram.
+	 * <p>
+	 * The two terminal nodes {@link #EMPTY} and {@link #EPSILON} represent the empty set and the set containing only the label without further literals,
+	 * respectively. Children of a node are canonical, so two nodes are equal when they test the same proposition and have identical children.
+	 *
+	 * @author posenato
+	 */
+	static final class Node implements Serializable {
+		/**
+		 *
+		 */
+		@Serial
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Children indexed by the state code of the tested proposition (see {@link #state(int, int, int)}). It is null for terminal nodes.
+		 */
+		final Node[] child;
+		/**
+		 * Number of labels represented by this node.
+		 */
+		final long labelCount;
+		/**
+		 * Index of the tested proposition. It is {@link #TERMINAL} for terminal nodes.
+		 */
+		final int var;
+		/**
+		 * Structural hash code, so that the unique table survives serialization.
+		 */
+		private final int hash;
+
+		/**
+		 * Terminal node.
+		 *
+		 * @param labelCount 0 for {@link #EMPTY}, 1 for {@link #EPSILON}.
+		 */
+		private Node(long labelCount) {
+			var = TERMINAL;
+			child = null;
+			this.labelCount = labelCount;
+			hash = (int) labelCount;
+		}
+
+		/**
+		 * @param var   index of the tested proposition
+		 * @param child the four children
+		 */
+		Node(int var, Node[] child) {
+			this.var = var;
+			this.child = child;
+			long n = 0;
+			int h = var;
+			for (final Node c : child) {
+				n += c.labelCount;
+				h = 31 * h + c.hash;
+			}
+			labelCount = n;
+			hash = h;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (o == this) {
+				return true;
+			}
+			if (!(o instanceof Node node) || node.var != var || node.hash != hash || child == null || node.child == null) {
+				return false;
+			}
+			for (int s = 0; s < 4; s++) {
+				if (child[s] != node.child[s]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/**
+		 * Terminal nodes must remain unique after deserialization.
+		 *
+		 * @return the canonical instance of this node.
+		 */
+		@Serial
+		private Object readResolve() {
+			if (child == null) {
+				return (labelCount == 0) ? EMPTY : EPSILON;
+			}
+			return this;
+		}
+	}
+
+	/**
+	 * Index used for terminal nodes and for signaling that a label has no more literals.
+	 */
+	static final int TERMINAL = Label.NUMBER_OF_POSSIBLE_PROPOSITIONS;
+	/**
+	 * Terminal node representing the empty set of labels.
+	 */
+	static final Node EMPTY = new Node(0);
+	/**
+	 * Terminal node representing the set containing only the label without (further) literals.
+	 */
+	static final Node EPSILON = new Node(1);
+	/**
+	 * The unique table is compacted when its size is greater than this number and twice the live nodes at the last compaction.
+	 */
+	static private final int MIN_NODES_BEFORE_COMPACTION = 256;
+	/**
+	 * logger
+	 */
+	static private final Logger LOG = Logger.getLogger("LabeledIntDiagramMap");
+	/**
+	 *
+	 */
+	@Serial
+	static private final long serialVersionUID = 1L;
+
+	/**
+	 * Compares the put and the min-value-subsumed-by query times of this class and of {@link LabeledIntTreeMap} on random labeled values and checks that
+	 * both maps give the same minimum for random complete scenarios. As in a propagation, labels with more literals have smaller values, so that the maps
+	 * grow instead of collapsing to few labels.
+	 *
+	 * @param args [number of propositions (default 20), number of labeled values (default 2000), maximum number of literals of a label (default 8), number
+	 *             of distinct values for each label length (default 10), seed (default 0)]
+	 */
+	@SuppressWarnings("ObjectAllocationInLoop")
+	static public void main(final String[] args) {
+		final int nProp = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+		final int nValue = (args.length > 1) ? Integer.parseInt(args[1]) : 2000;
+		final int nLiteral = (args.length > 2) ? Integer.parseInt(args[2]) : 8;
+		final int nDistinct = (args.length > 3) ? Integer.parseInt(args[3]) : 10;
+		final long seed = (args.length > 4) ? Long.parseLong(args[4]) : 0;
+		final int nQuery = 10000;
+		final int nTest = 5;
+
+		final Random random = new Random(seed);
+		final Label[] labels = new Label[nValue];
+		final int[] values = new int[nValue];
+		for (int i = 0; i < nValue; i++) {
+			Label l = Label.emptyLabel;
+			final int size = 1 + random.nextInt(nLiteral);
+			for (int j = 0; j < size; j++) {
+				final char p = Literal.charValue(random.nextInt(nProp));
+				if (!l.contains(p)) {
+					l = l.conjunction(p, random.nextBoolean() ? Literal.STRAIGHT : Literal.NEGATED);
+				}
+			}
+			labels[i] = l;
+			values[i] = -l.size() * nDistinct - random.nextInt(nDistinct);
+		}
+		final Label[] scenarios = new Label[nQuery];
+		for (int i = 0; i < nQuery; i++) {
+			Label l = Label.emptyLabel;
+			for (int j = 0; j < nProp; j++) {
+				l = l.conjunction(Literal.charValue(j), random.nextBoolean() ? Literal.STRAIGHT : Literal.NEGATED);
+			}
+			scenarios[i] = l;
+		}
+
+		final LabeledIntMap[] maps = {new LabeledIntTreeMap(), new LabeledIntDiagramMap()};
+		final int[][] min = new int[maps.length][nQuery];
+		for (int m = 0; m < maps.length; m++) {
+			final LabeledIntMap map = maps[m];
+			long startTime = System.nanoTime();
+			for (int t = 0; t < nTest; t++) {
+				map.clear();
+				for (int i = 0; i < nValue; i++) {
+					map.put(labels[i], values[i]);
+				}
+			}
+			final double putMs = (System.nanoTime() - startTime) / (1.0E6 * nTest);
+			startTime = System.nanoTime();
+			for (int t = 0; t < nTest; t++) {
+				for (int i = 0; i < nQuery; i++) {
+					min[m][i] = map.getMinValueSubsumedBy(scenarios[i]);
+				}
+			}
+			final double queryMs = (System.nanoTime() - startTime) / (1.0E6 * nTest);
+			System.out.printf("%s: %d labeled values. Mean time (ms) for %d puts: %.3f. Mean time (ms) for %d min-value-subsumed-by queries: %.3f%n",
+			                  map.getClass().getSimpleName(), map.size(), nValue, putMs, nQuery, queryMs);
+		}
+		int different = 0;
+		for (int i = 0; i < nQuery; i++) {
+			if (min[0][i] != min[1][i]) {
+				different++;
+			}
+		}
+		System.out.println("Scenarios with a different minimum: " + different);
+	}
+
+	/**
+	 * @param bits the union of the two state ints of a label
+	 * @param from the first proposition index to consider
+	 *
+	 * @return the index of the first literal of the label having index greater or equal to {@code from}, {@link #TERMINAL} if there is no such literal.
+	 */
+	private static int nextLiteral(final int bits, final int from) {
+		return (from >= TERMINAL) ? TERMINAL : Integer.numberOfTrailingZeros(bits & (-1 << from));
+	}
+
+	/**
+	 * @param b1 the upper state int of a label
+	 * @param b0 the lower state int of a label
+	 * @param i  proposition index
+	 *
+	 * @return the state code of the i-th literal: 0 absent, 1 straight, 2 negated, 3 unknown.
+	 */
+	private static int state(final int b1, final int b0, final int i) {
+		return (((b1 >>> i) & 1) << 1) | ((b0 >>> i) & 1);
+	}
+
+	/**
+	 * Map value &rarr; diagram of the labels having such value. It never contains the {@link #EMPTY} diagram.
+	 */
+	Int2ObjectRBTreeMap<Node> valueMap;
+	/**
+	 * Unique table of the internal nodes of the diagrams.
+	 */
+	ObjectOpenHashSet<Node> nodes;
+	/**
+	 * Size of the unique table that triggers the next compaction.
+	 */
+	private int compactionThreshold;
+
+	/**
+	 * Constructor to clone the structure.
+	 *
+	 * @param lvm      the map to clone. If lvm is null, this will be an empty map.
+	 * @param optimize true for having the label shortest as possible, false otherwise. For example, the set {(0, ¬C), (1, C)} is represented as {(0, ⊡), (1,
+	 *                 C)} if this parameter is true.
+	 */
+	LabeledIntDiagramMap(final LabeledIntMap lvm, final boolean optimize) {
+		this(optimize);
+		if (lvm == null) {
+			return;
+		}
+		for (final Entry<Label> entry : lvm.entrySet()) {
+			put(entry.getKey(), entry.getIntValue());
+		}
+	}
+
+	/**
+	 * Constructor to clone the structure.
+	 *
+	 * @param lvm the map to clone. If lvm is null, this will be an empty map.
+	 */
+	LabeledIntDiagramMap(final LabeledIntMap lvm) {
+		this(lvm, true);
+	}
+
+	/**
+	 * Necessary constructor for the factory. The internal structure is built and empty.
+	 *
+	 * @param optimize true for having the label shortest as possible, false otherwise. For example, the set {(0, ¬C), (1, C)} is represented as {(0, ⊡), (1,
+	 *                 C)} if this parameter is true.
+	 */
+	LabeledIntDiagramMap(final boolean optimize) {
+		valueMap = new Int2ObjectRBTreeMap<>();
+		nodes = new ObjectOpenHashSet<>();
+		compactionThreshold = MIN_NODES_BEFORE_COMPACTION;
+		this.optimize = optimize;
+	}
+
+	/**
+	 * Necessary constructor for the factory. The internal structure is built and empty.
+	 */
+	LabeledIntDiagramMap() {
+		this(true);
+	}
+
+	@Override
+	public boolean alreadyRepresents(final Label newLabel, final int newValue) {
+		if (newLabel == null) {
+			return false;
+		}
+		final long packed = newLabel.toPacked();
+		final int b1 = (int) (packed >>> 32), b0 = (int) packed;
+		for (final Int2ObjectMap.Entry<Node> entry : valueMap.int2ObjectEntrySet()) {
+			if (entry.getIntKey() > newValue) {
+				return false;
+			}
+			if (containsSubsumed(entry.getValue(), b1, b0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void clear() {
+		valueMap.clear();
+		nodes.clear();
+		compactionThreshold = MIN_NODES_BEFORE_COMPACTION;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * This method returns a copy of the view of the map. Any modification of the map IS NOT propagated to the return set.<br> All labels are enumerated
+	 * from the diagrams.
+	 */
+	@Override
+	public ObjectSet<Entry<Label>> entrySet() {
+		final ObjectSet<Entry<Label>> coll = new ObjectArraySet<>();
+		return entrySet(coll);
+	}
+
+	/**
+	 * @see #entrySet()
+	 */
+	@Override
+	public ObjectSet<Entry<Label>> entrySet(@Nonnull ObjectSet<Entry<Label>> setToReuse) {
+		setToReuse.clear();
+		for (final Int2ObjectMap.Entry<Node> entry : valueMap.int2ObjectEntrySet()) {
+			enumerate(entry.getValue(), 0, 0, entry.getIntKey(), setToReuse, null);
+		}
+		return setToReuse;
+	}
+
+	@Override
+	public int get(final Label l) {
+		if (l == null) {
+			return Constants.INT_NULL;
+		}
+		final long packed = l.toPacked();
+		final int b1 = (int) (packed >>> 32), b0 = (int) packed;
+		for (final Int2ObjectMap.Entry<Node> entry : valueMap.int2ObjectEntrySet()) {
+			if (contains(entry.getValue(), b1, b0)) {
+				return entry.getIntKey();
+			}
+		}
+		return Constants.INT_NULL;
+	}
+
+	@Override
+	public int getMaxValue() {
+		return (valueMap.isEmpty()) ? Constants.INT_NULL : valueMap.lastIntKey();
+	}
+
+	@Override
+	public int getMaxValueSubsumedBy(final Label l) {
+		if (l == null || valueMap.isEmpty()) {
+			return Constants.INT_NULL;
+		}
+		final long packed = l.toPacked();
+		final int b1 = (int) (packed >>> 32), b0 = (int) packed;
+		// the iterator starts after the last key, so it has to be visited backward
+		final IntBidirectionalIterator it = valueMap.keySet().iterator(valueMap.lastIntKey());
+		while (it.hasPrevious()) {
+			final int value = it.previousInt();
+			if (containsSubsumed(valueMap.get(value), b1, b0)) {
+				return value;
+			}
+		}
+		return Constants.INT_NULL;
+	}
+
+	@Override
+	public int getMinValue() {
+		return (valueMap.isEmpty()) ? Constants.INT_NULL : valueMap.firstIntKey();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <br>
+	 * Diagrams are visited in increasing value order, so the first one containing a label subsumed by {@code l} gives the result.
+	 */
+	@Override
+	public int getMinValueSubsumedBy(final Label l) {
+		if (l == null) {
+			return Constants.INT_NULL;
+		}
+		final long packed = l.toPacked();
+		final int b1 = (int) (packed >>> 32), b0 = (int) packed;
+		for (final Int2ObjectMap.Entry<Node> entry : valueMap.int2ObjectEntrySet()) {
+			if (containsSubsumed(entry.getValue(), b1, b0)) {
+				return entry.getIntKey();
+			}
+		}
+		return Constants.INT_NULL;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return valueMap.isEmpty();
+	}
+
+	@Override
+	public ObjectSet<Label> keySet() {
+		final ObjectSet<Label> coll = new ObjectArraySet<>();
+		return keySet(coll);
+	}
+
+	@Override
+	public ObjectSet<Label> keySet(ObjectSet<Label> setToReuse) {
+		setToReuse.clear();
+		for (final Node root : valueMap.values()) {
+			enumerate(root, 0, 0, Constants.INT_NULL, null, setToReuse);
+		}
+		return setToReuse;
+	}
+
+	@Override
+	public LabeledIntDiagramMap newInstance() {
+		return new LabeledIntDiagramMap(true);
+	}
+
+	@Override
+	public LabeledIntDiagramMap newInstance(boolean optimize) {
+		return new LabeledIntDiagramMap(optimize);
+	}
+
+	@Override
+	public LabeledIntDiagramMap newInstance(LabeledIntMap lim) {
+		return new LabeledIntDiagramMap(lim, true);
+	}
+
+	@Override
+	public LabeledIntDiagramMap newInstance(LabeledIntMap lim, boolean optimize) {
+		return new LabeledIntDiagramMap(lim, optimize);
+	}
+
+	/**
+	 * {@inheritDoc} Adds the pair &lang;l,i&rang;.<br> Moreover, removes all labeled values made redundant by the new one and, as
+	 * {@link LabeledIntTreeMap}, simplifies labels differing only for one opposite literal.
+	 */
+	@Override
+	public boolean put(final Label newLabel, final int newValue) {
+		if ((newLabel == null) || (newValue == Constants.INT_NULL) || alreadyRepresents(newLabel, newValue)) {
+			return false;
+		}
+		removeAllValuesGreaterThan(newLabel, newValue);
+		final boolean add = insertAndSimplify(newLabel, newValue);
+		compactIfNecessary();
+		return add;
+	}
+
+	/**
+	 * @param l a {@link it.univr.di.labeledvalue.Label} object.
+	 * @param i the new value. If it is Constants#INT_NULL, the method does nothing.
+	 */
+	@Override
+	public void putForcibly(@Nonnull final Label l, final int i) {
+		if (i == Constants.INT_NULL) {
+			return;
+		}
+		removeLabel(l);
+		addLabel(l, i);
+	}
+
+	@Override
+	public int remove(final Label l) {
+		if (l == null) {
+			return Constants.INT_NULL;
+		}
+		final int oldValue = removeLabel(l);
+		compactIfNecessary();
+		return oldValue;
+	}
+
+	@Override
+	public int size() {
+		long n = 0;
+		for (final Node root : valueMap.values()) {
+			n += root.labelCount;
+		}
+		return (int) n;
+	}
+
+	@SuppressWarnings("ClassReferencesSubclass")
+	@Override
+	public LabeledIntDiagramMapView unmodifiable() {
+		return new LabeledIntDiagramMapView(this);
+	}
+
+	@Override
+	public IntSet values() {
+		return new IntArraySet(valueMap.keySet());
+	}
+
+	/**
+	 * Adds label {@code l} to the diagram of value {@code v} without any check.
+	 *
+	 * @param l the label
+	 * @param v the value
+	 */
+	private void addLabel(final Label l, final int v) {
+		final long packed = l.toPacked();
+		final Node root = valueMap.get(v);
+		setRoot(v, insert((root == null) ? EMPTY : root, (int) (packed >>> 32), (int) packed, 0));
+	}
+
+	/**
+	 * Compacts the unique table keeping only the nodes reachable from the current diagrams when it has grown enough since the last compaction.
+	 */
+	private void compactIfNecessary() {
+		if (nodes.size() <= compactionThreshold) {
+			return;
+		}
+		final ObjectOpenHashSet<Node> live = new ObjectOpenHashSet<>();
+		for (final Node root : valueMap.values()) {
+			mark(root, live);
+		}
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINEST)) {
+				LOG.finest("Unique table compacted from " + nodes.size() + " to " + live.size() + " nodes.");
+			}
+		}
+		nodes = live;
+		compactionThreshold = Math.max(MIN_NODES_BEFORE_COMPACTION, 2 * live.size());
+	}
+
+	/**
+	 * @param n  root of a diagram
+	 * @param b1 the upper state int of a label
+	 * @param b0 the lower state int of a label
+	 *
+	 * @return true if the diagram contains the label.
+	 */
+	private boolean contains(Node n, final int b1, final int b0) {
+		final int bits = b1 | b0;
+		int from = 0;
+		while (n != EMPTY) {
+			final int j = nextLiteral(bits, from);
+			if (j < n.var) {
+				// all labels in n do not contain the j-th proposition
+				return false;
+			}
+			if (n == EPSILON) {
+				return true;
+			}
+			if (j == n.var) {
+				n = n.child[state(b1, b0, j)];
+				from = j + 1;
+			} else {
+				from = n.var + 1;
+				n = n.child[0];
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param root root of a diagram
+	 * @param b1   the upper state int of a label
+	 * @param b0   the lower state int of a label
+	 *
+	 * @return true if the diagram contains a label subsumed by the given one.
+	 */
+	private boolean containsSubsumed(final Node root, final int b1, final int b0) {
+		if (root.var == TERMINAL) {
+			return root == EPSILON;
+		}
+		return containsSubsumed(root, b1, b0, new ReferenceOpenHashSet<>());
+	}
+
+	/**
+	 * @param n         root of a diagram
+	 * @param b1        the upper state int of a label
+	 * @param b0        the lower state int of a label
+	 * @param falseNode the nodes already found not containing a label subsumed by the given one.
+	 *
+	 * @return true if the diagram contains a label subsumed by the given one.
+	 */
+	private boolean containsSubsumed(final Node n, final int b1, final int b0, final ReferenceOpenHashSet<Node> falseNode) {
+		if (n.var == TERMINAL) {
+			return n == EPSILON;
+		}
+		if (falseNode.contains(n)) {
+			return false;
+		}
+		final Node[] child = n.child;
+		if (containsSubsumed(child[0], b1, b0, falseNode)) {
+			return true;
+		}
+		final int s = state(b1, b0, n.var);
+		if (s != 0) {
+			if (containsSubsumed(child[s], b1, b0, falseNode)) {
+				return true;
+			}
+			// ¿p subsumes p, ¬p, and ¿p
+			if (s == 3 && (containsSubsumed(child[1], b1, b0, falseNode) || containsSubsumed(child[2], b1, b0, falseNode))) {
+				return true;
+			}
+		}
+		falseNode.add(n);
+		return false;
+	}
+
+	/**
+	 * Adds all labels of a diagram to {@code entrySet} as entries with value {@code value} or to {@code keySet}.
+	 *
+	 * @param n        root of a diagram
+	 * @param b1       the upper state int of the label prefix
+	 * @param b0       the lower state int of the label prefix
+	 * @param value    the value of the diagram
+	 * @param entrySet the set of entries to fill. It can be null.
+	 * @param keySet   the set of labels to fill. It can be null.
+	 */
+	private void enumerate(final Node n, final int b1, final int b0, final int value, final ObjectSet<Entry<Label>> entrySet, final ObjectSet<Label> keySet) {
+		if (n == EMPTY) {
+			return;
+		}
+		if (n == EPSILON) {
+			final Label l = Label.valueOfPacked((((long) b1) << 32) | (b0 & 0xFFFFFFFFL));
+			if (entrySet != null) {
+				entrySet.add(new AbstractObject2IntMap.BasicEntry<>(l, value));
+			}
+			if (keySet != null) {
+				keySet.add(l);
+			}
+			return;
+		}
+		final int mask = 1 << n.var;
+		enumerate(n.child[0], b1, b0, value, entrySet, keySet);
+		enumerate(n.child[1], b1, b0 | mask, value, entrySet, keySet);
+		enumerate(n.child[2], b1 | mask, b0, value, entrySet, keySet);
+		enumerate(n.child[3], b1 | mask, b0 | mask, value, entrySet, keySet);
+	}
+
+	/**
+	 * Inserts into the map the labeled value simplifying it with the ones having a label that differs only for one opposite literal. The simplification
+	 * rules are the ones of {@link LabeledIntTreeMap}.
+	 *
+	 * @param newLabel the label to insert
+	 * @param newValue the value to insert
+	 *
+	 * @return true if any labeled value has been inserted into the map.
+	 */
+	private boolean insertAndSimplify(final Label newLabel, final int newValue) {
+		boolean add = false;
+		Object2IntMap<Label> inputMap = new Object2IntArrayMap<>();
+		inputMap.put(newLabel, newValue);
+		final ObjectArraySet<Label> toRemove = new ObjectArraySet<>();
+		boolean first = true;
+
+		while (!inputMap.isEmpty()) {
+			final Object2IntMap<Label> toAdd = new Object2IntArrayMap<>();
+			toRemove.clear();
+			for (final Entry<Label> inputEntry : inputMap.object2IntEntrySet()) {
+				final Label inputLabel = inputEntry.getKey();
+				final int inputValue = inputEntry.getIntValue();
+				if (!first && alreadyRepresents(inputLabel, inputValue)) {
+					// a simplified label can be already represented.
+					toRemove.add(inputLabel);
+					continue;
+				}
+				for (final Literal lit : inputLabel.getLiterals()) {
+					if (lit.isUnknown()) {
+						continue;
+					}
+					final char p = lit.getName();
+					final Label twin = inputLabel.remove(p).conjunction(p, lit.getComplement().getState());
+					final int v1 = get(twin);
+					if (v1 == Constants.INT_NULL) {
+						continue;
+					}
+					final Label labelWOLiteral = inputLabel.remove(p);
+					if (optimize) {
+						final int max = Math.max(inputValue, v1);
+						if (max == inputValue) {
+							toRemove.add(inputLabel);
+						}
+						if (max == v1) {
+							removeLabel(twin);
+						}
+						toAdd.put(labelWOLiteral, max);
+					} else if (inputValue == v1) {
+						toRemove.add(inputLabel);
+						removeLabel(twin);
+						toAdd.put(labelWOLiteral, v1);
+					}
+				}
+			}
+			for (final Label l : toRemove) {
+				inputMap.removeInt(l);
+			}
+			for (final Entry<Label> entry : inputMap.object2IntEntrySet()) {
+				if (!first) {
+					removeAllValuesGreaterThan(entry.getKey(), entry.getIntValue());
+				}
+				addLabel(entry.getKey(), entry.getIntValue());
+				add = true;
+			}
+			inputMap = toAdd;
+			first = false;
+		}
+		return add;
+	}
+
+	/**
+	 * @param n    root of a diagram
+	 * @param b1   the upper state int of a label
+	 * @param b0   the lower state int of a label
+	 * @param from the first proposition index of the label still to consider
+	 *
+	 * @return the diagram containing the labels of {@code n} and the given one.
+	 */
+	private Node insert(final Node n, final int b1, final int b0, final int from) {
+		final int j = nextLiteral(b1 | b0, from);
+		if (j < n.var) {
+			final Node[] child = {n, EMPTY, EMPTY, EMPTY};
+			child[state(b1, b0, j)] = insert(EMPTY, b1, b0, j + 1);
+			return makeNode(j, child);
+		}
+		if (n.var == TERMINAL) {
+			return EPSILON;
+		}
+		final Node[] child = n.child.clone();
+		if (j == n.var) {
+			final int s = state(b1, b0, j);
+			child[s] = insert(child[s], b1, b0, j + 1);
+		} else {
+			child[0] = insert(child[0], b1, b0, n.var + 1);
+		}
+		return makeNode(n.var, child);
+	}
+
+	/**
+	 * @param var   index of the tested proposition
+	 * @param child the four children
+	 *
+	 * @return the canonical node testing {@code var} with the given children. If the node would have only the absent child, this one is returned.
+	 */
+	private Node makeNode(final int var, final Node[] child) {
+		if (child[1] == EMPTY && child[2] == EMPTY && child[3] == EMPTY) {
+			return child[0];
+		}
+		return nodes.addOrGet(new Node(var, child));
+	}
+
+	/**
+	 * Adds to {@code live} all internal nodes reachable from {@code n}.
+	 *
+	 * @param n    root of a diagram
+	 * @param live set of nodes already found
+	 */
+	private void mark(final Node n, final ObjectOpenHashSet<Node> live) {
+		if (n.var == TERMINAL || !live.add(n)) {
+			return;
+		}
+		for (final Node c : n.child) {
+			mark(c, live);
+		}
+	}
+
+	/**
+	 * Remove all labeled values that subsume {@code l} and have values greater or equal to {@code i}.
+	 *
+	 * @param givenLabel the input label
+	 * @param givenValue the new value
+	 */
+	private void removeAllValuesGreaterThan(final Label givenLabel, final int givenValue) {
+		final long packed = givenLabel.toPacked();
+		final int b1 = (int) (packed >>> 32), b0 = (int) packed;
+		// setRoot changes valueMap, so the values are stored before.
+		for (final int value : valueMap.tailMap(givenValue).keySet().toIntArray()) {
+			final Node root = valueMap.get(value);
+			final Node newRoot = removeSubsuming(root, b1, b0, 0, new Reference2ReferenceOpenHashMap<>());
+			if (newRoot != root) {
+				if (Debug.ON) {
+					if (LOG.isLoggable(Level.FINEST)) {
+						LOG.log(Level.FINEST, "New label " + givenLabel + " induces the remove of " + (root.labelCount - newRoot.labelCount) +
+						                      " labels with value " + value);
+					}
+				}
+				setRoot(value, newRoot);
+			}
+		}
+	}
+
+	/**
+	 * @param n    root of a diagram
+	 * @param b1   the upper state int of a label
+	 * @param b0   the lower state int of a label
+	 * @param from the first proposition index of the label still to consider
+	 *
+	 * @return the diagram {@code n} without the given label.
+	 */
+	private Node removeExact(final Node n, final int b1, final int b0, final int from) {
+		if (n == EMPTY) {
+			return EMPTY;
+		}
+		final int j = nextLiteral(b1 | b0, from);
+		if (n == EPSILON) {
+			return (j == TERMINAL) ? EMPTY : EPSILON;
+		}
+		if (j < n.var) {
+			return n;
+		}
+		final Node[] child = n.child.clone();
+		if (j == n.var) {
+			final int s = state(b1, b0, j);
+			child[s] = removeExact(child[s], b1, b0, j + 1);
+		} else {
+			child[0] = removeExact(child[0], b1, b0, n.var + 1);
+		}
+		return makeNode(n.var, child);
+	}
+
+	/**
+	 * @param l the label to remove
+	 *
+	 * @return the old value of the label if it was present, {@link Constants#INT_NULL} otherwise.
+	 */
+	private int removeLabel(final Label l) {
+		final int oldValue = get(l);
+		if (oldValue != Constants.INT_NULL) {
+			final long packed = l.toPacked();
+			setRoot(oldValue, removeExact(valueMap.get(oldValue), (int) (packed >>> 32), (int) packed, 0));
+		}
+		return oldValue;
+	}
+
+	/**
+	 * @param n    root of a diagram
+	 * @param b1   the upper state int of a label
+	 * @param b0   the lower state int of a label
+	 * @param from the first proposition index of the label still to consider
+	 * @param memo the already computed results. For an internal node {@code n} with {@code n.var} not greater than the next literal index, the result
+	 *             depends only on {@code n}.
+	 *
+	 * @return the diagram {@code n} without the labels subsuming the given one.
+	 */
+	private Node removeSubsuming(final Node n, final int b1, final int b0, final int from, final Reference2ReferenceOpenHashMap<Node, Node> memo) {
+		final int j = nextLiteral(b1 | b0, from);
+		if (j == TERMINAL) {
+			// all remaining labels subsume the given one
+			return EMPTY;
+		}
+		if (n.var > j) {
+			// labels in n do not contain the j-th proposition
+			return n;
+		}
+		final Node cached = memo.get(n);
+		if (cached != null) {
+			return cached;
+		}
+		final Node[] child = n.child.clone();
+		if (n.var < j) {
+			for (int s = 0; s < 4; s++) {
+				child[s] = removeSubsuming(child[s], b1, b0, n.var + 1, memo);
+			}
+		} else {
+			final int s = state(b1, b0, j);
+			child[s] = removeSubsuming(child[s], b1, b0, j + 1, memo);
+			if (s != 3) {
+				// ¿p subsumes p and ¬p
+				child[3] = removeSubsuming(child[3], b1, b0, j + 1, memo);
+			}
+		}
+		final Node result = makeNode(n.var, child);
+		memo.put(n, result);
+		return result;
+	}
+
+	/**
+	 * Sets the diagram of value {@code v} removing the value if the diagram is empty.
+	 *
+	 * @param v    the value
+	 * @param root the new diagram
+	 */
+	private void setRoot(final int v, final Node root) {
+		if (root == EMPTY) {
+			valueMap.remove(v);
+		} else {
+			valueMap.put(v, root);
+		}
+	}
+}
@@ -27,6 +27,10 @@ public final class LabeledIntMapSupplier<C extends LabeledIntMap> implements Sup
 	 */
 	static final public Class<? extends LabeledIntMap> SIMPLE_LABELEDINTMAP_CLASS = LabeledIntSimpleMap.class;
 	//LabeledIntTreeSimpleMap.class;
+	/**
+	 * Experimental implementation storing labels as decision diagrams. It is suited to networks with many propositions.
+	 */
+	static final public Class<? extends LabeledIntMap> DIAGRAM_LABELEDINTMAP_CLASS = LabeledIntDiagramMap.class;
 
 	/**
 	 * class logger
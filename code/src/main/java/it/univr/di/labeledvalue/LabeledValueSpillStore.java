@@ -0,0 +1,479 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.labeledvalue;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap.Entry;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntLinkedOpenHashMap;
+import it.univr.di.Debug;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the upper/lower-case value maps ({@link LabeledALabelIntTreeMap}) of a huge network within a heap budget, moving the least recently used
+ * maps into a memory-mapped temporary file.
+ * <br>
+ * The store is disabled by default. When a budget is set by {@link #setHeapBudget(long)}, the maps created by
+ * {@link #newLabeledALabelIntTreeMap(LabeledALabelIntTreeMap, Class)} are spillable: when the number of labeled values kept in the heap by all
+ * spillable maps exceeds the budget, the least recently used maps are written into the file and only their a-labels are kept in the heap. A spilled
+ * map is reloaded transparently by the first method that accesses it. Therefore, a check that would exhaust the heap runs slower, but it can
+ * complete.
+ * <br>
+ * The number of labeled values of a map is updated at each modification of the map. The store refers to the maps weakly: a map that is not used
+ * anymore is garbage collected as any other object.
+ * <br>
+ * The file is organized in segments of {@value #SEGMENT_SIZE} bytes. A spilled map occupies a block whose size is the smallest power of 2 not less
+ * than the map size in bytes. Free blocks are reused. The block of a map is freed when the map is reloaded or garbage collected.
+ * <br>
+ * The store is thread-safe, but it is designed for sequential checks: a map must not be accessed concurrently by two threads, as any
+ * {@link LabeledALabelIntTreeMap}.
+ *
+ * @author posenato
+ * @version $Rev: 908 $
+ */
+public final class LabeledValueSpillStore {
+
+	/**
+	 * Block of the file containing a spilled map. It also represents the map in the LRU order of the store.
+	 * <br>
+	 * It is also the cleaning action that releases the map when it is garbage collected. Therefore, it must refer to the map only weakly.
+	 */
+	static final class Block implements Runnable {
+		/**
+		 * The map. It is null when the map has been garbage collected.
+		 */
+		final WeakReference<LabeledALabelIntSpillableTreeMap> map;
+		/**
+		 * Position of the block in the file. It is -1 if the block is not allocated.
+		 */
+		long offset = -1;
+		/**
+		 * The size of the block is 2^sizeClass bytes.
+		 */
+		int sizeClass;
+		/**
+		 * The store containing the block.
+		 */
+		final LabeledValueSpillStore store;
+
+		/**
+		 * @param store1 the store containing the block.
+		 * @param map1   the map using the block.
+		 */
+		Block(LabeledValueSpillStore store1, LabeledALabelIntSpillableTreeMap map1) {
+			store = store1;
+			map = new WeakReference<>(map1);
+		}
+
+		@Override
+		public void run() {
+			store.release(this);
+		}
+	}
+
+	/**
+	 * Minimum size class of a block. Blocks have at least 2^MIN_SIZE_CLASS bytes.
+	 */
+	static final int MIN_SIZE_CLASS = 6;
+
+	/**
+	 * Size of a segment is 2^SEGMENT_SHIFT bytes.
+	 */
+	static final int SEGMENT_SHIFT = 26;
+
+	/**
+	 * Size of a memory-mapped segment of the file.
+	 */
+	static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+	/**
+	 * class logger
+	 */
+	static final Logger LOG = Logger.getLogger(LabeledValueSpillStore.class.getName());
+
+	/**
+	 * Cleaner freeing the blocks of the spilled maps that are garbage collected.
+	 */
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	/**
+	 * The store used for the new maps. Null if spilling is disabled.
+	 */
+	private static volatile LabeledValueSpillStore current;
+
+	/**
+	 * @return the current heap budget, i.e., the maximum number of labeled values kept in the heap by spillable maps. 0 if spilling is disabled.
+	 */
+	public static long getHeapBudget() {
+		final LabeledValueSpillStore store = current;
+		return (store == null) ? 0 : store.budget;
+	}
+
+	/**
+	 * @return a string with the number of labeled values in the heap, of spilled maps, of spills and of reloads of the current store. The empty string
+	 * 	if spilling is disabled.
+	 */
+	public static String getStatistics() {
+		final LabeledValueSpillStore store = current;
+		return (store == null) ? "" : store.toString();
+	}
+
+	/**
+	 * @return true if the new maps can be spilled.
+	 */
+	public static boolean isEnabled() {
+		return current != null;
+	}
+
+	/**
+	 * @param map a map
+	 *
+	 * @return true if map can be spilled.
+	 */
+	public static boolean isSpillable(LabeledALabelIntTreeMap map) {
+		return map instanceof LabeledALabelIntSpillableTreeMap;
+	}
+
+	/**
+	 * @param labeledValueMapImpl the class used for storing labeled values. If null, it is {@link LabeledIntMapSupplier#DEFAULT_LABELEDINTMAP_CLASS}.
+	 *
+	 * @return a new empty map, spillable if spilling is enabled.
+	 */
+	public static LabeledALabelIntTreeMap newLabeledALabelIntTreeMap(@Nullable Class<? extends LabeledIntMap> labeledValueMapImpl) {
+		return newLabeledALabelIntTreeMap(null, labeledValueMapImpl);
+	}
+
+	/**
+	 * @param lvm                 the map to clone. If null, the new map is empty.
+	 * @param labeledValueMapImpl the class used for storing labeled values. If null, it is {@link LabeledIntMapSupplier#DEFAULT_LABELEDINTMAP_CLASS}.
+	 *
+	 * @return a copy of lvm, spillable if spilling is enabled.
+	 */
+	public static LabeledALabelIntTreeMap newLabeledALabelIntTreeMap(@Nullable LabeledALabelIntTreeMap lvm,
+	                                                                 @Nullable Class<? extends LabeledIntMap> labeledValueMapImpl) {
+		final LabeledValueSpillStore store = current;
+		return (store == null) ? new LabeledALabelIntTreeMap(lvm, labeledValueMapImpl)
+		                       : new LabeledALabelIntSpillableTreeMap(store, lvm, labeledValueMapImpl);
+	}
+
+	/**
+	 * Sets the maximum number of labeled values that the spillable maps can keep in the heap.
+	 * <br>
+	 * If maxResidentValues is not positive, spilling is disabled: the new maps are not spillable, while the maps already spilled are reloaded when they
+	 * are accessed.
+	 *
+	 * @param maxResidentValues the budget
+	 */
+	public static synchronized void setHeapBudget(long maxResidentValues) {
+		if (maxResidentValues <= 0) {
+			if (current != null) {
+				current.setBudget(Long.MAX_VALUE);
+				current = null;
+			}
+			return;
+		}
+		if (current == null) {
+			current = new LabeledValueSpillStore();
+		}
+		current.setBudget(maxResidentValues);
+	}
+
+	/**
+	 * @param nBytes a positive number of bytes
+	 *
+	 * @return the size class of the smallest block containing nBytes.
+	 */
+	private static int sizeClass(long nBytes) {
+		return Math.max(MIN_SIZE_CLASS, 64 - Long.numberOfLeadingZeros(nBytes - 1));
+	}
+
+	/**
+	 * Block of the last accessed map. Its access does not need to update the LRU order.
+	 */
+	volatile Block lastAccessed;
+
+	/**
+	 * Maximum number of labeled values in the heap.
+	 */
+	private volatile long budget = Long.MAX_VALUE;
+
+	/**
+	 * File channel. Null until the first spill.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * True if the file cannot be used. In such a case, maps are not spilled anymore.
+	 */
+	private boolean failed;
+
+	/**
+	 * Free blocks for each size class.
+	 */
+	private final LongArrayList[] freeBlocks = new LongArrayList[SEGMENT_SHIFT + 1];
+
+	/**
+	 * Blocks of the maps in the heap, from the least recently used, with the number of labeled values of their maps.
+	 */
+	private final Reference2IntLinkedOpenHashMap<Block> lru = new Reference2IntLinkedOpenHashMap<>();
+
+	/**
+	 * Number of reloads.
+	 */
+	private long nReloads;
+
+	/**
+	 * Number of spilled maps.
+	 */
+	private long nSpilled;
+
+	/**
+	 * Number of spills.
+	 */
+	private long nSpills;
+
+	/**
+	 * Number of labeled values of the maps in {@link #lru}.
+	 */
+	private long resident;
+
+	/**
+	 * Memory-mapped segments of the file.
+	 */
+	private final ObjectArrayList<MappedByteBuffer> segments = new ObjectArrayList<>();
+
+	/**
+	 * First free byte of the last segment.
+	 */
+	private int top = SEGMENT_SIZE;
+
+	/**
+	 * Use {@link #setHeapBudget(long)}.
+	 */
+	private LabeledValueSpillStore() {
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Labeled values in heap: " + resident + ", spilled maps: " + nSpilled + ", spills: " + nSpills + ", reloads: " + nReloads +
+		       ", file size: " + ((long) segments.size() << SEGMENT_SHIFT) + " bytes.";
+	}
+
+	/**
+	 * Moves map to the most recently used position, updates its number of labeled values, and spills the least recently used maps if the budget is
+	 * exceeded.
+	 * <br>
+	 * It must be called also after each modification of the number of labeled values of map.
+	 *
+	 * @param map the accessed map
+	 */
+	synchronized void access(@Nonnull LabeledALabelIntSpillableTreeMap map) {
+		final int size = map.size();
+		resident += size - lru.putAndMoveToLast(map.block, size);
+		lastAccessed = map.block;
+		if (resident > budget) {
+			spillLeastRecentlyUsed();
+		}
+	}
+
+	/**
+	 * Frees the block of a spilled map.
+	 *
+	 * @param block the block to free
+	 */
+	synchronized void free(@Nonnull Block block) {
+		if (block.offset < 0) {
+			return;
+		}
+		if (freeBlocks[block.sizeClass] == null) {
+			freeBlocks[block.sizeClass] = new LongArrayList();
+		}
+		freeBlocks[block.sizeClass].add(block.offset);
+		block.offset = -1;
+		nSpilled--;
+	}
+
+	/**
+	 * Creates the block of a new map. The map is added to the store by the first {@link #access(LabeledALabelIntSpillableTreeMap)}.
+	 *
+	 * @param map the new map
+	 *
+	 * @return the block that will contain map when it is spilled.
+	 */
+	Block register(@Nonnull LabeledALabelIntSpillableTreeMap map) {
+		final Block block = new Block(this, map);
+		CLEANER.register(map, block);
+		return block;
+	}
+
+	/**
+	 * Removes the block of a garbage collected map from the store and frees it.
+	 *
+	 * @param block the block of the map
+	 */
+	synchronized void release(@Nonnull Block block) {
+		resident -= lru.removeInt(block);
+		if (lastAccessed == block) {
+			lastAccessed = null;
+		}
+		free(block);
+	}
+
+	/**
+	 * Reads the spilled map from its block and makes it the most recently used one.
+	 *
+	 * @param map a spilled map
+	 */
+	synchronized void reload(@Nonnull LabeledALabelIntSpillableTreeMap map) {
+		if (map.map != null) {
+			// reloaded by another thread
+			access(map);
+			return;
+		}
+		final Block block = map.block;
+		final MappedByteBuffer segment = segments.get((int) (block.offset >>> SEGMENT_SHIFT));
+		int position = (int) (block.offset & (SEGMENT_SIZE - 1));
+		final LabeledIntMapSupplier<? extends LabeledIntMap> supplier = new LabeledIntMapSupplier<>(map.labeledValueMapImpl);
+		final Object2ObjectRBTreeMap<ALabel, LabeledIntMap> tree = new Object2ObjectRBTreeMap<>();
+		for (final ALabel aLabel : map.spilledALabels) {
+			final int n = segment.getInt(position);
+			position += Integer.BYTES;
+			final LabeledIntMap labeledValues = supplier.get();
+			for (int i = 0; i < n; i++) {
+				labeledValues.put(Label.valueOfPacked(segment.getLong(position)), segment.getInt(position + Long.BYTES));
+				position += Long.BYTES + Integer.BYTES;
+			}
+			tree.put(aLabel, labeledValues);
+		}
+		map.map = tree;
+		map.spilledALabels = null;
+		free(block);
+		nReloads++;
+		access(map);
+	}
+
+	/**
+	 * Allocates a block.
+	 *
+	 * @param sizeClass the size class of the block
+	 *
+	 * @return the offset of the block.
+	 *
+	 * @throws IOException if the file cannot be extended.
+	 */
+	private long allocate(int sizeClass) throws IOException {
+		final LongArrayList free = freeBlocks[sizeClass];
+		if (free != null && !free.isEmpty()) {
+			return free.popLong();
+		}
+		final int blockSize = 1 << sizeClass;
+		if (top + blockSize > SEGMENT_SIZE) {
+			if (channel == null) {
+				final Path file = Files.createTempFile("labeledValues", ".spill");
+				file.toFile().deleteOnExit();
+				channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+				if (LOG.isLoggable(Level.INFO)) {
+					LOG.info("Labeled values are spilled into file " + file);
+				}
+			}
+			segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() << SEGMENT_SHIFT, SEGMENT_SIZE));
+			top = 0;
+		}
+		final long offset = ((long) (segments.size() - 1) << SEGMENT_SHIFT) + top;
+		top += blockSize;
+		return offset;
+	}
+
+	/**
+	 * Sets the budget and spills the maps exceeding it.
+	 *
+	 * @param maxResidentValues the budget
+	 */
+	private synchronized void setBudget(long maxResidentValues) {
+		budget = maxResidentValues;
+		if (resident > budget) {
+			spillLeastRecentlyUsed();
+		}
+	}
+
+	/**
+	 * Writes map into a block of the file and removes the internal map from the heap. Map is not spilled if it is empty, or it is too big, or the file
+	 * cannot be used.
+	 *
+	 * @param map a map in the heap
+	 */
+	private void spill(@Nonnull LabeledALabelIntSpillableTreeMap map) {
+		if (failed || map.isEmpty()) {
+			return;
+		}
+		final Object2ObjectRBTreeMap<ALabel, LabeledIntMap> tree = map.map;
+		final long nBytes = (long) tree.size() * Integer.BYTES + (long) map.size() * (Long.BYTES + Integer.BYTES);
+		if (nBytes > SEGMENT_SIZE) {
+			return;
+		}
+		final Block block = map.block;
+		block.sizeClass = sizeClass(nBytes);
+		try {
+			block.offset = allocate(block.sizeClass);
+		} catch (IOException e) {
+			failed = true;
+			LOG.severe("Labeled values cannot be spilled anymore: " + e.getMessage());
+			return;
+		}
+		final MappedByteBuffer segment = segments.get((int) (block.offset >>> SEGMENT_SHIFT));
+		int position = (int) (block.offset & (SEGMENT_SIZE - 1));
+		final ALabel[] aLabels = new ALabel[tree.size()];
+		int i = 0;
+		for (final Object2ObjectMap.Entry<ALabel, LabeledIntMap> entry : tree.object2ObjectEntrySet()) {
+			aLabels[i++] = entry.getKey();
+			final LabeledIntMap labeledValues = entry.getValue();
+			segment.putInt(position, labeledValues.size());
+			position += Integer.BYTES;
+			for (final Entry<Label> labeledValue : labeledValues.entrySet()) {
+				segment.putLong(position, labeledValue.getKey().toPacked());
+				segment.putInt(position + Long.BYTES, labeledValue.getIntValue());
+				position += Long.BYTES + Integer.BYTES;
+			}
+		}
+		map.spilledALabels = aLabels;
+		// the old internal map is not cleared because a caller could be still iterating on it.
+		map.map = null;
+		nSpilled++;
+		nSpills++;
+	}
+
+	/**
+	 * Spills the least recently used maps until the number of labeled values in the heap is within the budget. The most recently used map is never
+	 * spilled.
+	 */
+	private void spillLeastRecentlyUsed() {
+		while (resident > budget && lru.size() > 1) {
+			final LabeledALabelIntSpillableTreeMap map = lru.firstKey().map.get();
+			resident -= lru.removeFirstInt();
+			if (map != null) {
+				spill(map);
+			}
+		}
+		if (Debug.ON) {
+			if (LOG.isLoggable(Level.FINEST)) {
+				LOG.finest(toString());
+			}
+		}
+	}
+}
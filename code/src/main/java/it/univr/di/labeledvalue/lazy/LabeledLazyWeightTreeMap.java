@@ -773,7 +773,11 @@ public class LabeledLazyWeightTreeMap {
 									LOG.log(Level.FINEST, "Then, (" + l1 + ", " + v1 + ") is considering for adding at the end.");
 								}
 							}
-							toAdd.put(l1, entry.getValue());
+							// If only one of the two values is a LazyNumber, the other one is kept because it can depend on ∂.
+							// LazyCSTN assumes that a LazyNumber never depends on ∂.
+							// The two values are equal for the current ∂. So, when the network is re-checked from scratch after each ∂ adjustment
+							// (LazyCSTN -restartOnDelta), the choice does not change the values of the map, only their representation.
+							toAdd.put(l1, (entry.getValue().getType() == LazyWeight.SubType.Number) ? inputEntry.getValue() : entry.getValue());
 						}
 						/**
 						 * Management 2)
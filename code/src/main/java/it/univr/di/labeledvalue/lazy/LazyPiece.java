@@ -8,6 +8,7 @@
 package it.univr.di.labeledvalue.lazy;
 
 import it.univr.di.labeledvalue.Constants;
+import org.apache.commons.math3.fraction.BigFraction;
 import org.apache.commons.math3.fraction.Fraction;
 
 /**
@@ -22,10 +23,46 @@ import org.apache.commons.math3.fraction.Fraction;
  */
 @SuppressWarnings("ALL")
 public final class LazyPiece extends LazyWeight {
+	/**
+	 * Maximum absolute value of a long that is exactly representable as a double.
+	 */
+	private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+	/**
+	 * Determines m*x+c as double using the numerator and the denominator of x without allocating any object.<br>
+	 * Since numerator and denominator of a {@link Fraction} are int, m*num+c*den cannot overflow a long. If it is exactly representable as a double,
+	 * the division returns the correctly rounded value of the rational, i.e., the same double of {@code x.multiply(m).add(c).doubleValue()} when
+	 * such Fraction operations do not overflow (they do not check the overflow of int). Otherwise, the value is determined using
+	 * {@link BigFraction}.
+	 *
+	 * @param num the numerator of x
+	 * @param den the denominator of x
+	 * @param m   the multiplier factor
+	 * @param c   the constant factor
+	 * @return m*x+c as double
+	 */
+	static double value(long num, long den, int m, int c) {
+		final long n = m * num + c * den;
+		if (n <= MAX_EXACT_DOUBLE && n >= -MAX_EXACT_DOUBLE) {
+			return (double) n / den;
+		}
+		return new BigFraction(n, den).doubleValue();
+	}
+
 	/**
 	 * Possible value for delta.
 	 */
 	private Fraction x;
+
+	/**
+	 * Numerator of {@link #x}.
+	 */
+	private long xNum;
+
+	/**
+	 * Denominator of {@link #x}.
+	 */
+	private long xDen;
 	/**
 	 * Value of constant factor of this linear piece.
 	 */
@@ -58,6 +95,8 @@ public final class LazyPiece extends LazyWeight {
 	public LazyPiece(Fraction x1, int m1, int c1, boolean onlyIfNeg1) {
 		super(SubType.Piece);
 		this.x = x1;
+		this.xNum = x1.getNumerator();
+		this.xDen = x1.getDenominator();
 		this.c = c1;
 		this.m = m1;
 		this.cachedValue = Constants.INT_NULL;
@@ -115,6 +154,8 @@ public final class LazyPiece extends LazyWeight {
 		if (this.x.equals(newX))
 			return;
 		this.x = newX;
+		this.xNum = newX.getNumerator();
+		this.xDen = newX.getDenominator();
 		this.cachedValue = Constants.INT_NULL;
 	}
 
@@ -122,13 +163,13 @@ public final class LazyPiece extends LazyWeight {
 	@Override
 	public double getValue() {
 		if (this.cachedValue == Constants.INT_NULL) {
-			if (this.x.intValue() == Constants.INT_NULL) {
+			if (this.xDen == 1 && this.xNum == Constants.INT_NULL) {
 				this.cachedValue = Constants.INT_NULL;
 			} else {
 				if (this.c == Constants.INT_NEG_INFINITE || this.c == Constants.INT_POS_INFINITE) {
 					this.cachedValue = this.c;
 				} else {
-					this.cachedValue = this.x.multiply(this.m).add(this.c).doubleValue();
+					this.cachedValue = value(this.xNum, this.xDen, this.m, this.c);
 				}
 			}
 		}
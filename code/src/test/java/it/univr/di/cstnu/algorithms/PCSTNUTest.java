@@ -0,0 +1,75 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.cstnu.algorithms;
+
+import it.univr.di.cstnu.graph.CSTNUEdge;
+import it.univr.di.cstnu.graph.CSTNUEdgePluggable;
+import it.univr.di.cstnu.graph.Edge;
+import it.univr.di.cstnu.graph.LabeledNode;
+import it.univr.di.cstnu.graph.TNGraph;
+import it.univr.di.labeledvalue.Label;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author posenato
+ */
+public class PCSTNUTest {
+
+	/**
+	 * Adds a requirement edge with the given value and the empty label.
+	 */
+	private static void addEdge(TNGraph<CSTNUEdge> g, LabeledNode s, LabeledNode d, int v) {
+		final CSTNUEdge e = g.getEdgeFactory().get(s.getName() + "_" + d.getName());
+		e.setConstraintType(Edge.ConstraintType.requirement);
+		e.mergeLabeledValue(Label.emptyLabel, v);
+		g.addEdge(e, s, d);
+	}
+
+	/**
+	 * B--->D--->A where D and A are parameter nodes and there is no edge B--->A.
+	 * The edge derived by the lower-bound propagation must be added between B and A. It was added between A and Z, where there is already an edge.
+	 *
+	 * @throws WellDefinitionException none
+	 */
+	@Test
+	public final void derivedEdgeBetweenParameters() throws WellDefinitionException {
+		final TNGraph<CSTNUEdge> g = new TNGraph<>("derivedEdgeBetweenParameters", CSTNUEdgePluggable.class);
+		final LabeledNode Z = new LabeledNode("Z");
+		g.addVertex(Z);
+		g.setZ(Z);
+		final LabeledNode B = new LabeledNode("B");
+		g.addVertex(B);
+		final LabeledNode D = new LabeledNode("D");
+		D.setParameter(true);
+		g.addVertex(D);
+		final LabeledNode A = new LabeledNode("A");
+		A.setParameter(true);
+		g.addVertex(A);
+		addEdge(g, Z, B, 20);
+		addEdge(g, B, Z, -1);
+		addEdge(g, Z, D, 30);
+		addEdge(g, D, Z, -2);
+		addEdge(g, Z, A, 40);
+		addEdge(g, A, Z, -3);
+		addEdge(g, B, D, 10);
+		addEdge(g, D, A, 5);
+
+		final PCSTNU pcstnu = new PCSTNU(g, 10);
+		final PCSTNU.PCSTNUCheckStatus status = pcstnu.dynamicControllabilityCheck();
+		assertTrue(status.finished);
+		assertTrue(status.consistency);
+
+		final TNGraph<CSTNUEdge> checked = pcstnu.getGChecked();
+		final CSTNUEdge BA = checked.findEdge("B", "A");
+		assertNotNull(BA);
+		assertEquals(Edge.ConstraintType.derived, BA.getConstraintType());
+		assertTrue(BA.getValue(Label.emptyLabel) <= 15);
+		assertEquals("A_Z", checked.findEdge("A", "Z").getName());
+	}
+}
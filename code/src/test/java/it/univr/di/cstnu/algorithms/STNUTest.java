@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: 2020 Roberto Posenato <roberto.posenato@univr.it>
+//
+// SPDX-License-Identifier: LGPL-3.0-or-later
+
+package it.univr.di.cstnu.algorithms;
+
+import it.univr.di.cstnu.graph.Edge;
+import it.univr.di.cstnu.graph.LabeledNode;
+import it.univr.di.cstnu.graph.LabeledNodeSupplier;
+import it.univr.di.cstnu.graph.STNUEdge;
+import it.univr.di.cstnu.graph.STNUEdgeInt;
+import it.univr.di.cstnu.graph.TNGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author posenato
+ */
+public class STNUTest {
+
+	/**
+	 * Adds an edge with the given value and constraint type.
+	 */
+	private static void addEdge(TNGraph<STNUEdge> g, LabeledNode s, LabeledNode d, int v, Edge.ConstraintType type) {
+		final STNUEdge e = g.getEdgeFactory().get(s.getName() + "_" + d.getName());
+		e.setConstraintType(type);
+		e.setValue(v);
+		g.addEdge(e, s, d);
+	}
+
+	/**
+	 * A network with two contingent links, (A0, 2, 15, C0) and (A1, 18, 20, C1), containing two distinct SRNCs.
+	 * The edges derived by the search that finds the first SRNC form a negative cycle, so the search of the second SRNC must start again from the input
+	 * network.
+	 *
+	 * @throws WellDefinitionException none
+	 */
+	@Test
+	public final void srncycleFinderCollectsMoreSRNCs() throws WellDefinitionException {
+		final TNGraph<STNUEdge> g = new TNGraph<>("srncycleFinderCollectsMoreSRNCs", STNUEdgeInt.class);
+		final LabeledNode N0 = LabeledNodeSupplier.get("N0");
+		g.addVertex(N0);
+		final LabeledNode N2 = LabeledNodeSupplier.get("N2");
+		g.addVertex(N2);
+		final LabeledNode Z = LabeledNodeSupplier.get("Z");
+		g.addVertex(Z);
+		g.setZ(Z);
+		final LabeledNode A0 = LabeledNodeSupplier.get("A0");
+		g.addVertex(A0);
+		final LabeledNode C0 = LabeledNodeSupplier.get("C0");
+		C0.setContingent(true);
+		g.addVertex(C0);
+		final LabeledNode A1 = LabeledNodeSupplier.get("A1");
+		g.addVertex(A1);
+		final LabeledNode C1 = LabeledNodeSupplier.get("C1");
+		C1.setContingent(true);
+		g.addVertex(C1);
+		addEdge(g, A0, C0, 15, Edge.ConstraintType.contingent);
+		addEdge(g, C0, A0, -2, Edge.ConstraintType.contingent);
+		addEdge(g, A1, C1, 20, Edge.ConstraintType.contingent);
+		addEdge(g, C1, A1, -18, Edge.ConstraintType.contingent);
+		addEdge(g, A0, N2, -1, Edge.ConstraintType.requirement);
+		addEdge(g, N2, N0, 10, Edge.ConstraintType.requirement);
+		addEdge(g, N0, C1, -5, Edge.ConstraintType.requirement);
+		addEdge(g, C0, N0, 14, Edge.ConstraintType.requirement);
+		addEdge(g, A1, C0, 18, Edge.ConstraintType.requirement);
+
+		final STNU stnu = new STNU(g);
+		stnu.setSRNCMaxCount(5);
+		final STNU.STNUCheckStatus status = stnu.dynamicControllabilityCheck(STNU.CheckAlgorithm.SRNCycleFinder);
+		assertTrue(status.finished);
+		assertFalse(status.isControllable());
+		assertEquals(2, status.getNegativeSTNUCycleCount());
+		final STNU.STNUCheckStatus.SRNCInfo first = status.getNegativeSTNUCycleInfo(0);
+		final STNU.STNUCheckStatus.SRNCInfo second = status.getNegativeSTNUCycleInfo(1);
+		assertTrue(first.value() < 0);
+		assertTrue(second.value() < 0);
+		assertNotEquals(first.srnc().toString(), second.srnc().toString());
+		assertEquals(first.srnc(), status.getNegativeSTNUCycleInfo(true, stnu.getG()).srnc());
+	}
+}